@@ -2,6 +2,9 @@ package com.ironsource.adapters.aps
 
 import android.content.Context
 import android.content.res.Configuration
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
 import com.amazon.aps.ads.Aps
 import com.amazon.aps.ads.model.ApsAdNetwork
 import com.amazon.device.ads.AdError
@@ -11,6 +14,8 @@ import com.amazon.device.ads.DTBAdRequest
 import com.amazon.device.ads.DTBAdResponse
 import com.amazon.device.ads.DTBAdSize
 import com.amazon.device.ads.SDKUtilities
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.SetAPSInterface
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -20,6 +25,8 @@ import com.ironsource.mediationsdk.metadata.MetaDataUtils
 import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
 import org.json.JSONObject
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
 
 class APSAdapter : LevelPlayBaseAdapter(), SetAPSInterface {
 
@@ -29,6 +36,19 @@ class APSAdapter : LevelPlayBaseAdapter(), SetAPSInterface {
 
         private var usPrivacyValue: String = APSConstants.US_PRIVACY_NOT_APPLICABLE
 
+        // Budget in milliseconds for a single bid request, after which the token collection fails.
+        // Only set from the network configuration, bid requests have no deadline by default.
+        @Volatile
+        private var biddingDataTimeout: Long = 0L
+
+        private val timeoutHandler = Handler(Looper.getMainLooper())
+
+        private val cancelledTokenRequests = AtomicLong()
+
+        // Number of bid requests cancelled by the deadline, their late response is dropped without being kept
+        internal val cancelledTokenCount: Long
+            get() = cancelledTokenRequests.get()
+
         @JvmStatic
         fun networkAdapterVersion(): String = APSConstants.ADAPTER_VERSION
     }
@@ -46,8 +66,17 @@ class APSAdapter : LevelPlayBaseAdapter(), SetAPSInterface {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(APSConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         IronLog.ADAPTER_API.verbose()
 
+        adData.getString(APSConstants.BIDDING_DATA_TIMEOUT_KEY)?.toLongOrNull()?.let { timeout ->
+            if (timeout > 0) {
+                biddingDataTimeout = timeout
+            }
+        }
+
         // The APS SDK is initialized by the publisher directly, so once init is called
         // we can assume the SDK is ready and report success immediately.
         networkInitializationListener?.onInitSuccess()
@@ -68,7 +97,7 @@ class APSAdapter : LevelPlayBaseAdapter(), SetAPSInterface {
 
         // This is a list of 1 value
         val value = values[0]
-        IronLog.ADAPTER_API.verbose(APSConstants.Logs.META_DATA_SET.format(key ?: "", value ?: ""))
+        IronLog.ADAPTER_API.verbose { APSConstants.Logs.META_DATA_SET.format(key ?: "", value ?: "") }
 
         if (MetaDataUtils.isValidCCPAMetaData(key, value)) {
             setCCPAValue(MetaDataUtils.getMetaDataBooleanValue(value))
@@ -76,12 +105,12 @@ class APSAdapter : LevelPlayBaseAdapter(), SetAPSInterface {
     }
 
     private fun setCCPAValue(doNotSell: Boolean) {
-        IronLog.ADAPTER_API.verbose(APSConstants.Logs.CCPA_OPT_OUT.format(doNotSell))
+        IronLog.ADAPTER_API.verbose { APSConstants.Logs.CCPA_OPT_OUT.format(doNotSell) }
         usPrivacyValue = if (doNotSell) APSConstants.US_PRIVACY_OPT_OUT else APSConstants.US_PRIVACY_OPT_IN
     }
 
     private fun getUSPrivacyStrings(): Map<String, String> {
-        IronLog.ADAPTER_API.verbose(APSConstants.Logs.US_PRIVACY.format(usPrivacyValue))
+        IronLog.ADAPTER_API.verbose { APSConstants.Logs.US_PRIVACY.format(usPrivacyValue) }
         return mapOf(APSConstants.US_PRIVACY_KEY to usPrivacyValue)
     }
 
@@ -104,14 +133,40 @@ class APSAdapter : LevelPlayBaseAdapter(), SetAPSInterface {
             }
         }
 
+        // The bid request is a network round trip, once a budget is configured report a failure if it
+        // doesn't complete in time so a slow response doesn't hold the auction. Results arriving
+        // after the deadline are dropped.
+        val requestStartTime = SystemClock.elapsedRealtime()
+        val isCompleted = AtomicBoolean(false)
+        val timeoutRunnable = Runnable {
+            if (isCompleted.compareAndSet(false, true)) {
+                cancelledTokenRequests.incrementAndGet()
+                val errorMessage = APSConstants.Logs.TOKEN_TIMEOUT.format(SystemClock.elapsedRealtime() - requestStartTime)
+                IronLog.ADAPTER_CALLBACK.error(errorMessage)
+                biddingDataCallback.onFailure(errorMessage)
+            }
+        }
+        val timeout = biddingDataTimeout
+        if (timeout > 0) {
+            timeoutHandler.postDelayed(timeoutRunnable, timeout)
+        }
+
         request.loadAd(object : DTBAdCallback {
             override fun onFailure(error: AdError) {
+                if (!completeRequest()) {
+                    return
+                }
+
                 val errorMessage = APSConstants.Logs.TOKEN_FAILURE.format(error.message)
                 IronLog.ADAPTER_CALLBACK.error(errorMessage)
                 biddingDataCallback.onFailure(errorMessage)
             }
 
             override fun onSuccess(adResponse: DTBAdResponse) {
+                if (!completeRequest()) {
+                    return
+                }
+
                 IronLog.ADAPTER_CALLBACK.verbose()
                 onSuccess.invoke(adResponse)
 
@@ -123,6 +178,15 @@ class APSAdapter : LevelPlayBaseAdapter(), SetAPSInterface {
                 )
                 biddingDataCallback.onSuccess(biddingData)
             }
+
+            private fun completeRequest(): Boolean {
+                timeoutHandler.removeCallbacks(timeoutRunnable)
+                if (!isCompleted.compareAndSet(false, true)) {
+                    IronLog.ADAPTER_CALLBACK.verbose { APSConstants.Logs.TOKEN_LATE_RESPONSE.format(SystemClock.elapsedRealtime() - requestStartTime) }
+                    return false
+                }
+                return true
+            }
         })
     }
 
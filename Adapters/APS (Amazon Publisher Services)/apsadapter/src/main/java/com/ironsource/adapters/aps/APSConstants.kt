@@ -4,6 +4,7 @@ object APSConstants {
 
     // Adapter version
     const val ADAPTER_VERSION: String = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "APS"
 
     // Network configuration keys
     const val UUID: String = "uuid"
@@ -12,6 +13,7 @@ object APSConstants {
     const val DIMENSIONS_KEY: String = "dimensions"
     const val DIMENSION_WIDTH_KEY: String = "w"
     const val DIMENSION_HEIGHT_KEY: String = "h"
+    const val BIDDING_DATA_TIMEOUT_KEY: String = "biddingDataTimeout"
 
     // Bidding data keys
     const val PRICE_POINT_ENCODED: String = "pricePointEncoded"
@@ -61,6 +63,8 @@ object APSConstants {
         const val REWARDED_LOAD_FAILED: String = "APS rewarded video load failed"
         const val LOAD_EXCEPTION: String = "APSAdapter loadBanner exception %s"
         const val TOKEN_FAILURE: String = "APS failed to receive token - %s"
+        const val TOKEN_TIMEOUT: String = "APS failed to receive token - timed out after %d ms"
+        const val TOKEN_LATE_RESPONSE: String = "APS token response ignored, received after %d ms"
         const val US_PRIVACY: String = "us_privacy = %s"
         const val CCPA_OPT_OUT: String = "CCPA opt-out = %s"
         const val META_DATA_SET: String = "key = %s, value = %s"
@@ -2,8 +2,6 @@ package com.ironsource.adapters.aps.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
 import android.widget.FrameLayout
 import com.amazon.aps.ads.ApsAdController
@@ -14,7 +12,13 @@ import com.amazon.device.ads.DTBAdSize
 import com.amazon.device.ads.SDKUtilities
 import com.ironsource.adapters.aps.APSAdapter
 import com.ironsource.adapters.aps.APSConstants
-import com.ironsource.mediationsdk.AdapterUtils
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -29,8 +33,9 @@ import java.lang.ref.WeakReference
 class APSBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<APSAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var bannerAdView: ApsAdView? = null
+    private val latencyTracker = LatencyTracker(APSConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(APSConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<ApsAdView>(APSConstants.NETWORK_NAME) { destroyBannerView(it) }
     private var adResponse: DTBAdResponse? = null
 
     // region Adapter Methods
@@ -41,13 +46,14 @@ class APSBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val uuid = adData.getString(APSConstants.UUID)
-        IronLog.ADAPTER_API.verbose(APSConstants.Logs.UUID_LOG.format(uuid ?: ""))
+        IronLog.ADAPTER_API.verbose { APSConstants.Logs.UUID_LOG.format(uuid ?: "") }
 
         val adResponse = this.adResponse
         if (adResponse == null) {
             IronLog.INTERNAL.error(APSConstants.Logs.AD_RESPONSE_MISSING)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 APSConstants.Logs.AD_RESPONSE_MISSING
@@ -59,7 +65,7 @@ class APSBannerAdapter(networkSettings: NetworkSettings) :
         val layoutParams = getBannerLayoutParams(appContext, bannerSize)
         if (layoutParams == null) {
             IronLog.INTERNAL.error(APSConstants.Logs.UNSUPPORTED_BANNER_SIZE)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 APSConstants.Logs.UNSUPPORTED_BANNER_SIZE
@@ -67,18 +73,24 @@ class APSBannerAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        val apsBannerListener = APSBannerListener(listener, WeakReference(this), layoutParams)
+        val generation = adSlot.begin()
+        val apsBannerListener = APSBannerListener(trackedListener, WeakReference(this), layoutParams, generation)
         val bidInfo = SDKUtilities.getBidInfo(adResponse)
 
-        mainHandler.post {
+        MainThreadScheduler.post {
+            // The banner was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                return@post
+            }
+
             val bannerAdController = ApsAdController(activity, apsBannerListener)
+            apsBannerListener.bannerAdController = bannerAdController
             try {
                 bannerAdController.fetchBannerAd(bidInfo, bannerSize.width, bannerSize.height)
-                bannerAdView = bannerAdController.apsAdView
             } catch (e: Exception) {
                 val errorMessage = APSConstants.Logs.LOAD_EXCEPTION.format(e.message)
                 IronLog.INTERNAL.error(errorMessage)
-                listener.onAdLoadFailed(
+                trackedListener.onAdLoadFailed(
                     AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                     AdapterErrors.ADAPTER_ERROR_INTERNAL,
                     errorMessage
@@ -89,9 +101,12 @@ class APSBannerAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            bannerAdView?.destroy()
-            bannerAdView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
         adResponse = null
     }
@@ -101,24 +116,25 @@ class APSBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         if (!AdRegistration.isInitialized()) {
             IronLog.ADAPTER_API.error(APSConstants.Logs.APS_NOT_INITIALIZED)
-            biddingDataCallback.onFailure(APSConstants.Logs.APS_NOT_INITIALIZED)
+            trackedCallback.onFailure(APSConstants.Logs.APS_NOT_INITIALIZED)
             return
         }
 
         if (adData == null) {
             IronLog.INTERNAL.error(APSConstants.Logs.MISSING_AD_DATA)
-            biddingDataCallback.onFailure(APSConstants.Logs.MISSING_AD_DATA)
+            trackedCallback.onFailure(APSConstants.Logs.MISSING_AD_DATA)
             return
         }
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(APSConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(APSConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(APSConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
@@ -126,7 +142,7 @@ class APSBannerAdapter(networkSettings: NetworkSettings) :
         if (uuid.isNullOrEmpty()) {
             val errorMessage = APSConstants.Logs.MISSING_APS_CONFIGURATION.format(APSConstants.UUID)
             IronLog.ADAPTER_API.error(errorMessage)
-            biddingDataCallback.onFailure(errorMessage)
+            trackedCallback.onFailure(errorMessage)
             return
         }
 
@@ -137,46 +153,47 @@ class APSBannerAdapter(networkSettings: NetworkSettings) :
         if (width <= 0 || height <= 0) {
             val errorMessage = APSConstants.Logs.INVALID_AD_SIZE.format(width, height)
             IronLog.ADAPTER_API.error(errorMessage)
-            biddingDataCallback.onFailure(errorMessage)
+            trackedCallback.onFailure(errorMessage)
             return
         }
 
         val adSize = DTBAdSize(width, height, uuid)
-        networkAdapter.collectBiddingData(adSize, biddingDataCallback) { this.adResponse = it }
+        networkAdapter.collectBiddingData(adSize, trackedCallback) { this.adResponse = it }
     }
 
     // endregion
 
     // region Helper Methods
 
-    internal fun getBannerView(): ApsAdView? = bannerAdView
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerView(generation: Long, bannerView: ApsAdView): Boolean {
+        if (!adSlot.set(generation, bannerView)) {
+            destroyBannerView(bannerView)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    internal fun destroyBannerView(bannerView: ApsAdView) {
+        MainThreadScheduler.post { bannerView.destroy() }
+    }
 
     private fun getBannerLayoutParams(context: Context, size: ISBannerSize): FrameLayout.LayoutParams? {
         val layoutParams = when (size.description) {
-            APSConstants.BANNER_SIZE_BANNER -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, APSConstants.BANNER_WIDTH),
-                AdapterUtils.dpToPixels(context, APSConstants.BANNER_HEIGHT)
-            )
-            APSConstants.BANNER_SIZE_RECTANGLE -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, APSConstants.RECTANGLE_WIDTH),
-                AdapterUtils.dpToPixels(context, APSConstants.RECTANGLE_HEIGHT)
-            )
+            APSConstants.BANNER_SIZE_BANNER -> BannerLayouts.layoutParams(context, APSConstants.BANNER_WIDTH, APSConstants.BANNER_HEIGHT, Gravity.CENTER)
+            APSConstants.BANNER_SIZE_RECTANGLE -> BannerLayouts.layoutParams(context, APSConstants.RECTANGLE_WIDTH, APSConstants.RECTANGLE_HEIGHT, Gravity.CENTER)
             APSConstants.BANNER_SIZE_SMART ->
-                if (AdapterUtils.isLargeScreen(context)) {
-                    FrameLayout.LayoutParams(
-                        AdapterUtils.dpToPixels(context, APSConstants.LEADERBOARD_WIDTH),
-                        AdapterUtils.dpToPixels(context, APSConstants.LEADERBOARD_HEIGHT)
-                    )
+                if (BannerLayouts.isLargeScreen(context)) {
+                    BannerLayouts.layoutParams(context, APSConstants.LEADERBOARD_WIDTH, APSConstants.LEADERBOARD_HEIGHT, Gravity.CENTER)
                 } else {
-                    FrameLayout.LayoutParams(
-                        AdapterUtils.dpToPixels(context, APSConstants.BANNER_WIDTH),
-                        AdapterUtils.dpToPixels(context, APSConstants.BANNER_HEIGHT)
-                    )
+                    BannerLayouts.layoutParams(context, APSConstants.BANNER_WIDTH, APSConstants.BANNER_HEIGHT, Gravity.CENTER)
                 }
             else -> return null
         }
-
-        layoutParams.gravity = Gravity.CENTER
         return layoutParams
     }
 
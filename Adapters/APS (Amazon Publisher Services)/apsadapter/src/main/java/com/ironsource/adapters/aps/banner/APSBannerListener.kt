@@ -2,6 +2,7 @@ package com.ironsource.adapters.aps.banner
 
 import android.widget.FrameLayout
 import com.amazon.aps.ads.ApsAd
+import com.amazon.aps.ads.ApsAdController
 import com.amazon.aps.ads.listeners.ApsAdListener
 import com.ironsource.adapters.aps.APSConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
@@ -13,14 +14,22 @@ import java.lang.ref.WeakReference
 class APSBannerListener(
     private val listener: BannerAdListener,
     private val adapter: WeakReference<APSBannerAdapter>,
-    private val layoutParams: FrameLayout.LayoutParams
+    private val layoutParams: FrameLayout.LayoutParams,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : ApsAdListener {
 
+    // Set once the controller is created, as the controller takes its listener on creation
+    internal var bannerAdController: ApsAdController? = null
+
     /** Called when the banner ad was loaded successfully */
     override fun onAdLoaded(apsAd: ApsAd?) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        val bannerView = adapter.get()?.getBannerView()
+        val bannerView = bannerAdController?.apsAdView
         if (bannerView != null) {
+            if (adapter.get()?.setBannerView(generation, bannerView) == false) {
+                return
+            }
             listener.onAdLoadSuccess(bannerView, layoutParams)
         } else {
             IronLog.INTERNAL.error(APSConstants.Logs.BANNER_VIEW_MISSING)
@@ -35,6 +44,7 @@ class APSBannerListener(
     /** Called when the banner ad failed to load */
     override fun onAdFailedToLoad(apsAd: ApsAd?) {
         IronLog.ADAPTER_CALLBACK.verbose()
+        bannerAdController?.apsAdView?.let { adapter.get()?.destroyBannerView(it) }
         listener.onAdLoadFailed(
             AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
             AdapterErrors.ADAPTER_ERROR_INTERNAL,
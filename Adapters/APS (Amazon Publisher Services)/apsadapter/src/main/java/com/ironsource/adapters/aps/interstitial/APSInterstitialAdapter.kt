@@ -2,8 +2,6 @@ package com.ironsource.adapters.aps.interstitial
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import com.amazon.aps.ads.ApsAdController
 import com.amazon.device.ads.AdRegistration
 import com.amazon.device.ads.DTBAdResponse
@@ -11,6 +9,11 @@ import com.amazon.device.ads.DTBAdSize
 import com.amazon.device.ads.SDKUtilities
 import com.ironsource.adapters.aps.APSAdapter
 import com.ironsource.adapters.aps.APSConstants
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -24,7 +27,8 @@ import java.lang.ref.WeakReference
 class APSInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<APSAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
+    private val latencyTracker = LatencyTracker(APSConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(APSConstants.NETWORK_NAME)
     private var interstitialAd: ApsAdController? = null
     private var isAdAvailableFlag = false
     private var adResponse: DTBAdResponse? = null
@@ -32,13 +36,14 @@ class APSInterstitialAdapter(networkSettings: NetworkSettings) :
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val uuid = adData.getString(APSConstants.UUID)
-        IronLog.ADAPTER_API.verbose(APSConstants.Logs.UUID_LOG.format(uuid ?: ""))
+        IronLog.ADAPTER_API.verbose { APSConstants.Logs.UUID_LOG.format(uuid ?: "") }
 
         val adResponse = this.adResponse
         if (adResponse == null) {
             IronLog.INTERNAL.error(APSConstants.Logs.AD_RESPONSE_MISSING)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 APSConstants.Logs.AD_RESPONSE_MISSING
@@ -48,10 +53,10 @@ class APSInterstitialAdapter(networkSettings: NetworkSettings) :
 
         isAdAvailableFlag = false
 
-        val apsInterstitialListener = APSInterstitialListener(listener, WeakReference(this))
+        val apsInterstitialListener = APSInterstitialListener(trackedListener, WeakReference(this))
         val bidInfo = SDKUtilities.getBidInfo(adResponse)
 
-        mainHandler.post {
+        MainThreadScheduler.post {
             val interstitialAdController = ApsAdController(context, apsInterstitialListener)
             interstitialAd = interstitialAdController
             interstitialAdController.fetchInterstitialAd(bidInfo)
@@ -59,10 +64,11 @@ class APSInterstitialAdapter(networkSettings: NetworkSettings) :
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 APSConstants.Logs.AD_NOT_AVAILABLE
             )
@@ -76,6 +82,7 @@ class APSInterstitialAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, interstitialAd)
         interstitialAd = null
         adResponse = null
     }
@@ -85,24 +92,25 @@ class APSInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         if (!AdRegistration.isInitialized()) {
             IronLog.ADAPTER_API.error(APSConstants.Logs.APS_NOT_INITIALIZED)
-            biddingDataCallback.onFailure(APSConstants.Logs.APS_NOT_INITIALIZED)
+            trackedCallback.onFailure(APSConstants.Logs.APS_NOT_INITIALIZED)
             return
         }
 
         if (adData == null) {
             IronLog.INTERNAL.error(APSConstants.Logs.MISSING_AD_DATA)
-            biddingDataCallback.onFailure(APSConstants.Logs.MISSING_AD_DATA)
+            trackedCallback.onFailure(APSConstants.Logs.MISSING_AD_DATA)
             return
         }
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(APSConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(APSConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(APSConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
@@ -110,7 +118,7 @@ class APSInterstitialAdapter(networkSettings: NetworkSettings) :
         if (uuid.isNullOrEmpty()) {
             val errorMessage = APSConstants.Logs.MISSING_APS_CONFIGURATION.format(APSConstants.UUID)
             IronLog.ADAPTER_API.error(errorMessage)
-            biddingDataCallback.onFailure(errorMessage)
+            trackedCallback.onFailure(errorMessage)
             return
         }
 
@@ -120,7 +128,7 @@ class APSInterstitialAdapter(networkSettings: NetworkSettings) :
         } else {
             DTBAdSize.DTBInterstitialAdSize(uuid)
         }
-        networkAdapter.collectBiddingData(adSize, biddingDataCallback) { this.adResponse = it }
+        networkAdapter.collectBiddingData(adSize, trackedCallback) { this.adResponse = it }
     }
 
     // endregion
@@ -2,14 +2,17 @@ package com.ironsource.adapters.aps.rewarded
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import com.amazon.aps.ads.ApsAdController
 import com.amazon.device.ads.AdRegistration
 import com.amazon.device.ads.DTBAdResponse
 import com.amazon.device.ads.SDKUtilities
 import com.ironsource.adapters.aps.APSAdapter
 import com.ironsource.adapters.aps.APSConstants
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -23,7 +26,8 @@ import java.lang.ref.WeakReference
 class APSRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<APSAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
+    private val latencyTracker = LatencyTracker(APSConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(APSConstants.NETWORK_NAME)
     private var rewardedAd: ApsAdController? = null
     private var isAdAvailableFlag = false
     private var adResponse: DTBAdResponse? = null
@@ -31,13 +35,14 @@ class APSRewardedAdapter(networkSettings: NetworkSettings) :
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val uuid = adData.getString(APSConstants.UUID)
-        IronLog.ADAPTER_API.verbose(APSConstants.Logs.UUID_LOG.format(uuid ?: ""))
+        IronLog.ADAPTER_API.verbose { APSConstants.Logs.UUID_LOG.format(uuid ?: "") }
 
         val adResponse = this.adResponse
         if (adResponse == null) {
             IronLog.INTERNAL.error(APSConstants.Logs.AD_RESPONSE_MISSING)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 APSConstants.Logs.AD_RESPONSE_MISSING
@@ -47,10 +52,10 @@ class APSRewardedAdapter(networkSettings: NetworkSettings) :
 
         isAdAvailableFlag = false
 
-        val apsRewardedListener = APSRewardedListener(listener, WeakReference(this))
+        val apsRewardedListener = APSRewardedListener(trackedListener, WeakReference(this))
         val bidInfo = SDKUtilities.getBidInfo(adResponse)
 
-        mainHandler.post {
+        MainThreadScheduler.post {
             val rewardedVideoAdController = ApsAdController(context, apsRewardedListener)
             rewardedAd = rewardedVideoAdController
             rewardedVideoAdController.fetchRewardedAd(bidInfo)
@@ -58,10 +63,11 @@ class APSRewardedAdapter(networkSettings: NetworkSettings) :
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 APSConstants.Logs.AD_NOT_AVAILABLE
             )
@@ -75,6 +81,7 @@ class APSRewardedAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, rewardedAd)
         rewardedAd = null
         adResponse = null
     }
@@ -84,24 +91,25 @@ class APSRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         if (!AdRegistration.isInitialized()) {
             IronLog.ADAPTER_API.error(APSConstants.Logs.APS_NOT_INITIALIZED)
-            biddingDataCallback.onFailure(APSConstants.Logs.APS_NOT_INITIALIZED)
+            trackedCallback.onFailure(APSConstants.Logs.APS_NOT_INITIALIZED)
             return
         }
 
         if (adData == null) {
             IronLog.INTERNAL.error(APSConstants.Logs.MISSING_AD_DATA)
-            biddingDataCallback.onFailure(APSConstants.Logs.MISSING_AD_DATA)
+            trackedCallback.onFailure(APSConstants.Logs.MISSING_AD_DATA)
             return
         }
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(APSConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(APSConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(APSConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
@@ -109,12 +117,12 @@ class APSRewardedAdapter(networkSettings: NetworkSettings) :
         if (uuid.isNullOrEmpty()) {
             val errorMessage = APSConstants.Logs.MISSING_APS_CONFIGURATION.format(APSConstants.UUID)
             IronLog.ADAPTER_API.error(errorMessage)
-            biddingDataCallback.onFailure(errorMessage)
+            trackedCallback.onFailure(errorMessage)
             return
         }
 
         val adSize = networkAdapter.getVideoSize(context, uuid)
-        networkAdapter.collectBiddingData(adSize, biddingDataCallback) { this.adResponse = it }
+        networkAdapter.collectBiddingData(adSize, trackedCallback) { this.adResponse = it }
     }
 
     // endregion
@@ -1,13 +1,17 @@
 package com.ironsource.adapters.applovin
 
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import com.applovin.sdk.AppLovinErrorCodes
 import com.applovin.sdk.AppLovinMediationProvider
 import com.applovin.sdk.AppLovinPrivacySettings
 import com.applovin.sdk.AppLovinSdk
 import com.applovin.sdk.AppLovinSdkInitializationConfiguration
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.InitHistory
+import com.ironsource.adapters.common.InitScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -16,27 +20,26 @@ import com.ironsource.mediationsdk.logger.IronLog
 import com.ironsource.mediationsdk.metadata.MetaDataUtils
 import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class AppLovinAdapter : LevelPlayBaseAdapter() {
 
     companion object {
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         private const val GitHash: String = BuildConfig.GitHash
 
+        // Outcome of the previous launches, which the init is scheduled by
+        private val initHistory = InitHistory.forNetwork(AppLovinConstants.NETWORK_NAME)
+
+        // The SDK init has to be called on the main thread
+        private val initScheduler = InitScheduler(initHistory, InitScheduler.MAIN_THREAD)
+
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(AppLovinConstants.NETWORK_NAME) { success, durationMs ->
+            // A late success still means the network is healthy on the next launch
+            initHistory.record(success, durationMs)
+        }
+        private val initState: InitState
+            get() = initCoordinator.initState
 
         // AppLovin sdk instance
         internal var appLovinSdk: AppLovinSdk? = null
@@ -81,8 +84,6 @@ class AppLovinAdapter : LevelPlayBaseAdapter() {
         fun networkAdapterVersion(): String = AppLovinConstants.ADAPTER_VERSION
     }
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-
     // region Adapter Methods
 
     override fun getAdapterVersion(): String = AppLovinConstants.ADAPTER_VERSION
@@ -96,6 +97,9 @@ class AppLovinAdapter : LevelPlayBaseAdapter() {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(AppLovinConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         // Validate sdkKey and zoneId first before any other checks
         val sdkKey = adData.getString(AppLovinConstants.SDK_KEY)
         if (sdkKey.isNullOrEmpty()) {
@@ -119,8 +123,8 @@ class AppLovinAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        // Init previously failed - report failure immediately
-        if (initState == InitState.INIT_STATE_FAILED) {
+        // Init previously failed and can't be retried yet - report failure immediately
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(AppLovinConstants.Logs.SDK_INIT_FAILED)
             networkInitializationListener?.onInitFailed(
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
@@ -129,23 +133,24 @@ class AppLovinAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        // Add to the init listeners only if init is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initListeners.add(it) }
-        }
+        // Start reading the outcome of the previous launches, the init is scheduled once it's read
+        initHistory.load(context, getNetworkSDKVersion(), getAdapterVersion(), sdkKey)
 
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-            IronLog.ADAPTER_API.verbose(AppLovinConstants.Logs.SDK_KEY.format(sdkKey))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { AppLovinConstants.Logs.SDK_KEY.format(sdkKey) }
 
-            mainHandler.post {
+            // AppLovinSdk.getInstance and initialize must be called on the main thread, lower
+            // priority networks are deferred after the first frame
+            initScheduler.schedule(adData.getString(InitScheduler.INIT_PRIORITY_KEY)?.toIntOrNull() ?: 0) {
                 val initConfig = try {
                     AppLovinSdkInitializationConfiguration.builder(sdkKey)
                         .setMediationProvider(AppLovinMediationProvider.IRONSOURCE)
                         .build()
                 } catch (t: Throwable) {
-                    initializationFailure(t.message.orEmpty())
-                    return@post
+                    initializationFailure(attempt, t.message.orEmpty())
+                    return@schedule
                 }
 
                 appLovinSdk = AppLovinSdk.getInstance(context.applicationContext).apply {
@@ -155,35 +160,23 @@ class AppLovinAdapter : LevelPlayBaseAdapter() {
                 // AppLovin's initialization callback currently doesn't give any indication to
                 // initialization failure. Once this callback is called we treat the initialization
                 // as successful
-                appLovinSdk?.initialize(initConfig) { initializationSuccess() }
+                appLovinSdk?.initialize(initConfig) { initializationSuccess(attempt) }
             }
         }
     }
 
-    private fun initializationSuccess() {
+    private fun initializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        initState = InitState.INIT_STATE_SUCCESS
-
         // Iterate over all the adapter instances and report init success
-        for (listener: NetworkInitializationListener in initListeners) {
-            listener.onInitSuccess()
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    private fun initializationFailure(message: String) {
+    private fun initializationFailure(attempt: Int, message: String) {
         IronLog.ADAPTER_CALLBACK.error(AppLovinConstants.Logs.INIT_FAILED.format(message))
 
-        initState = InitState.INIT_STATE_FAILED
-
         // Iterate over all the adapter instances and report init failed
-        for (listener: NetworkInitializationListener in initListeners) {
-            listener.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, AppLovinConstants.Logs.SDK_INIT_FAILED)
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, AppLovinConstants.Logs.SDK_INIT_FAILED)
     }
 
     // endregion
@@ -191,7 +184,7 @@ class AppLovinAdapter : LevelPlayBaseAdapter() {
     // region Legal Methods
 
     override fun setConsent(consent: Boolean) {
-        IronLog.ADAPTER_API.verbose(AppLovinConstants.Logs.CONSENT.format(consent))
+        IronLog.ADAPTER_API.verbose { AppLovinConstants.Logs.CONSENT.format(consent) }
         AppLovinPrivacySettings.setHasUserConsent(consent)
     }
 
@@ -202,7 +195,7 @@ class AppLovinAdapter : LevelPlayBaseAdapter() {
 
         // This is a list of 1 value
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(AppLovinConstants.Logs.KEY_VALUE.format(key ?: "", value))
+        IronLog.ADAPTER_API.verbose { AppLovinConstants.Logs.KEY_VALUE.format(key ?: "", value) }
 
         if (MetaDataUtils.isValidCCPAMetaData(key, value)) {
             setCCPAValue(MetaDataUtils.getMetaDataBooleanValue(value))
@@ -210,7 +203,7 @@ class AppLovinAdapter : LevelPlayBaseAdapter() {
     }
 
     private fun setCCPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(AppLovinConstants.Logs.CCPA.format(value))
+        IronLog.ADAPTER_API.verbose { AppLovinConstants.Logs.CCPA.format(value) }
         AppLovinPrivacySettings.setDoNotSell(value)
     }
 
@@ -4,6 +4,7 @@ object AppLovinConstants {
 
     // Adapter version
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "AppLovin"
 
     // Network configuration keys
     const val ZONE_ID_KEY = "zoneId"
@@ -2,15 +2,19 @@ package com.ironsource.adapters.applovin.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
 import android.widget.FrameLayout
 import com.applovin.adview.AppLovinAdView
 import com.applovin.sdk.AppLovinAdSize
 import com.ironsource.adapters.applovin.AppLovinAdapter
 import com.ironsource.adapters.applovin.AppLovinConstants
-import com.ironsource.mediationsdk.AdapterUtils
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -19,12 +23,14 @@ import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
 import com.ironsource.mediationsdk.logger.IronLog
 import com.ironsource.mediationsdk.model.NetworkSettings
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseBanner
+import java.lang.ref.WeakReference
 
 class AppLovinBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<AppLovinAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var bannerAdView: AppLovinAdView? = null
+    private val latencyTracker = LatencyTracker(AppLovinConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(AppLovinConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<AppLovinAdView>(AppLovinConstants.NETWORK_NAME) { destroyAdView(it) }
 
     // region Adapter Methods
 
@@ -34,13 +40,14 @@ class AppLovinBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val zoneId = adData.getString(AppLovinConstants.ZONE_ID_KEY)
-        IronLog.ADAPTER_API.verbose(AppLovinConstants.Logs.ZONE_ID.format(zoneId ?: ""))
+        IronLog.ADAPTER_API.verbose { AppLovinConstants.Logs.ZONE_ID.format(zoneId ?: "") }
 
         if (zoneId.isNullOrEmpty()) {
             val errorMessage = AppLovinConstants.Logs.MISSING_PARAM.format(AppLovinConstants.ZONE_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -51,7 +58,7 @@ class AppLovinBannerAdapter(networkSettings: NetworkSettings) :
         val appLovinSdk = AppLovinAdapter.appLovinSdk
         if (appLovinSdk == null) {
             IronLog.INTERNAL.error(AppLovinConstants.Logs.SDK_NOT_INITIALIZED)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 AppLovinConstants.Logs.SDK_NOT_INITIALIZED
@@ -63,7 +70,7 @@ class AppLovinBannerAdapter(networkSettings: NetworkSettings) :
         val appLovinBannerSize = getBannerSize(appContext, bannerSize)
         if (appLovinBannerSize == null) {
             IronLog.INTERNAL.error(AppLovinConstants.Logs.UNSUPPORTED_BANNER_SIZE)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 AppLovinConstants.Logs.UNSUPPORTED_BANNER_SIZE
@@ -72,23 +79,31 @@ class AppLovinBannerAdapter(networkSettings: NetworkSettings) :
         }
         val layoutParams = getBannerLayoutParams(appContext, bannerSize)
 
-        mainHandler.post {
+        val generation = adSlot.begin()
+        MainThreadScheduler.post {
             val adView = AppLovinAdView(appLovinBannerSize)
-            val bannerListener = AppLovinBannerListener(listener, adView, layoutParams)
+            val bannerListener = AppLovinBannerListener(trackedListener, adView, layoutParams, WeakReference(this@AppLovinBannerAdapter), generation)
             adView.setAdDisplayListener(bannerListener)
             adView.setAdClickListener(bannerListener)
             adView.setAdViewEventListener(bannerListener)
 
-            bannerAdView = adView
+            // The banner was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                adView.destroy()
+                return@post
+            }
             appLovinSdk.adService.loadNextAdForZoneId(zoneId, bannerListener)
         }
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            bannerAdView?.destroy()
-            bannerAdView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -96,6 +111,23 @@ class AppLovinBannerAdapter(networkSettings: NetworkSettings) :
 
     // region Helper Methods
 
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setAdView(generation: Long, adView: AppLovinAdView): Boolean {
+        if (!adSlot.set(generation, adView)) {
+            destroyAdView(adView)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    internal fun destroyAdView(adView: AppLovinAdView) {
+        MainThreadScheduler.post { adView.destroy() }
+    }
+
     private fun getBannerSize(context: Context, bannerSize: ISBannerSize): AppLovinAdSize? {
         return when (bannerSize.description) {
             AppLovinConstants.BANNER_SIZE_BANNER,
@@ -104,7 +136,7 @@ class AppLovinBannerAdapter(networkSettings: NetworkSettings) :
             AppLovinConstants.BANNER_SIZE_RECTANGLE -> AppLovinAdSize.MREC
 
             AppLovinConstants.BANNER_SIZE_SMART ->
-                if (AdapterUtils.isLargeScreen(context)) AppLovinAdSize.LEADER else AppLovinAdSize.BANNER
+                if (BannerLayouts.isLargeScreen(context)) AppLovinAdSize.LEADER else AppLovinAdSize.BANNER
 
             AppLovinConstants.BANNER_SIZE_CUSTOM ->
                 if (bannerSize.height in AppLovinConstants.CUSTOM_BANNER_MIN_HEIGHT..AppLovinConstants.CUSTOM_BANNER_MAX_HEIGHT) {
@@ -120,43 +152,26 @@ class AppLovinBannerAdapter(networkSettings: NetworkSettings) :
     private fun getBannerLayoutParams(context: Context, bannerSize: ISBannerSize): FrameLayout.LayoutParams {
         val layoutParams = when (bannerSize.description) {
             AppLovinConstants.BANNER_SIZE_BANNER,
-            AppLovinConstants.BANNER_SIZE_LARGE -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, AppLovinConstants.BANNER_WIDTH),
-                AdapterUtils.dpToPixels(context, AppLovinConstants.BANNER_HEIGHT)
-            )
+            AppLovinConstants.BANNER_SIZE_LARGE -> BannerLayouts.layoutParams(context, AppLovinConstants.BANNER_WIDTH, AppLovinConstants.BANNER_HEIGHT, Gravity.CENTER)
 
-            AppLovinConstants.BANNER_SIZE_RECTANGLE -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, AppLovinConstants.RECTANGLE_WIDTH),
-                AdapterUtils.dpToPixels(context, AppLovinConstants.RECTANGLE_HEIGHT)
-            )
+            AppLovinConstants.BANNER_SIZE_RECTANGLE -> BannerLayouts.layoutParams(context, AppLovinConstants.RECTANGLE_WIDTH, AppLovinConstants.RECTANGLE_HEIGHT, Gravity.CENTER)
 
             AppLovinConstants.BANNER_SIZE_SMART ->
-                if (AdapterUtils.isLargeScreen(context)) {
-                    FrameLayout.LayoutParams(
-                        AdapterUtils.dpToPixels(context, AppLovinConstants.LARGE_WIDTH),
-                        AdapterUtils.dpToPixels(context, AppLovinConstants.LARGE_HEIGHT)
-                    )
+                if (BannerLayouts.isLargeScreen(context)) {
+                    BannerLayouts.layoutParams(context, AppLovinConstants.LARGE_WIDTH, AppLovinConstants.LARGE_HEIGHT, Gravity.CENTER)
                 } else {
-                    FrameLayout.LayoutParams(
-                        AdapterUtils.dpToPixels(context, AppLovinConstants.BANNER_WIDTH),
-                        AdapterUtils.dpToPixels(context, AppLovinConstants.BANNER_HEIGHT)
-                    )
+                    BannerLayouts.layoutParams(context, AppLovinConstants.BANNER_WIDTH, AppLovinConstants.BANNER_HEIGHT, Gravity.CENTER)
                 }
 
             AppLovinConstants.BANNER_SIZE_CUSTOM ->
                 if (bannerSize.height in AppLovinConstants.CUSTOM_BANNER_MIN_HEIGHT..AppLovinConstants.CUSTOM_BANNER_MAX_HEIGHT) {
-                    FrameLayout.LayoutParams(
-                        AdapterUtils.dpToPixels(context, AppLovinConstants.BANNER_WIDTH),
-                        AdapterUtils.dpToPixels(context, AppLovinConstants.BANNER_HEIGHT)
-                    )
+                    BannerLayouts.layoutParams(context, AppLovinConstants.BANNER_WIDTH, AppLovinConstants.BANNER_HEIGHT, Gravity.CENTER)
                 } else {
-                    FrameLayout.LayoutParams(0, 0)
+                    BannerLayouts.layoutParams(context, 0, 0, Gravity.CENTER)
                 }
 
-            else -> FrameLayout.LayoutParams(0, 0)
+            else -> BannerLayouts.layoutParams(context, 0, 0, Gravity.CENTER)
         }
-
-        layoutParams.gravity = Gravity.CENTER
         return layoutParams
     }
 
@@ -1,7 +1,5 @@
 package com.ironsource.adapters.applovin.banner
 
-import android.os.Handler
-import android.os.Looper
 import android.widget.FrameLayout
 import com.applovin.adview.AppLovinAdView
 import com.applovin.adview.AppLovinAdViewDisplayErrorCode
@@ -12,27 +10,33 @@ import com.applovin.sdk.AppLovinAdDisplayListener
 import com.applovin.sdk.AppLovinAdLoadListener
 import com.ironsource.adapters.applovin.AppLovinAdapter
 import com.ironsource.adapters.applovin.AppLovinConstants
+import com.ironsource.adapters.common.MainThreadScheduler
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.logger.IronLog
+import java.lang.ref.WeakReference
 
 class AppLovinBannerListener(
     private val listener: BannerAdListener,
     private val adView: AppLovinAdView,
-    private val layoutParams: FrameLayout.LayoutParams
+    private val layoutParams: FrameLayout.LayoutParams,
+    private val adapter: WeakReference<AppLovinBannerAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : AppLovinAdLoadListener,
     AppLovinAdDisplayListener,
     AppLovinAdClickListener,
     AppLovinAdViewEventListener {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-
     /**
      * Called by AppLovin when a new banner ad has been received.
      * @param appLovinAd the newly received ad, guaranteed not to be null.
      */
     override fun adReceived(appLovinAd: AppLovinAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        mainHandler.post {
+        MainThreadScheduler.post {
+            if (adapter.get()?.setAdView(generation, adView) == false) {
+                return@post
+            }
             adView.renderAd(appLovinAd)
             listener.onAdLoadSuccess(adView, layoutParams)
         }
@@ -45,6 +49,7 @@ class AppLovinBannerListener(
     override fun failedToReceiveAd(errorCode: Int) {
         val errorMessage = AppLovinAdapter.getErrorString(errorCode)
         IronLog.ADAPTER_CALLBACK.error(AppLovinConstants.Logs.LOAD_FAILED.format(errorCode, errorMessage))
+        adapter.get()?.destroyAdView(adView)
         listener.onAdLoadFailed(AppLovinAdapter.getLoadErrorType(errorCode), errorCode, errorMessage)
     }
 
@@ -6,6 +6,10 @@ import com.applovin.adview.AppLovinInterstitialAd
 import com.applovin.sdk.AppLovinAd
 import com.ironsource.adapters.applovin.AppLovinAdapter
 import com.ironsource.adapters.applovin.AppLovinConstants
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -24,6 +28,8 @@ class AppLovinInterstitialAdapter(networkSettings: NetworkSettings) :
         private val interstitialZoneIds: MutableSet<String> = Collections.newSetFromMap(ConcurrentHashMap())
     }
 
+    private val latencyTracker = LatencyTracker(AppLovinConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(AppLovinConstants.NETWORK_NAME)
     private var interstitialAdListener: AppLovinInterstitialListener? = null
     private var interstitialAd: AppLovinAd? = null
     private var isAdAvailableFlag = false
@@ -32,13 +38,14 @@ class AppLovinInterstitialAdapter(networkSettings: NetworkSettings) :
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val zoneId = adData.getString(AppLovinConstants.ZONE_ID_KEY)
-        IronLog.ADAPTER_API.verbose(AppLovinConstants.Logs.ZONE_ID.format(zoneId ?: ""))
+        IronLog.ADAPTER_API.verbose { AppLovinConstants.Logs.ZONE_ID.format(zoneId ?: "") }
 
         if (zoneId.isNullOrEmpty()) {
             val errorMessage = AppLovinConstants.Logs.MISSING_PARAM.format(AppLovinConstants.ZONE_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -48,7 +55,7 @@ class AppLovinInterstitialAdapter(networkSettings: NetworkSettings) :
 
         if (zoneId in interstitialZoneIds) {
             IronLog.INTERNAL.error(AppLovinConstants.Logs.DUPLICATE_INTERSTITIAL)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 AppLovinConstants.Logs.DUPLICATE_INTERSTITIAL
@@ -59,7 +66,7 @@ class AppLovinInterstitialAdapter(networkSettings: NetworkSettings) :
         val appLovinSdk = AppLovinAdapter.appLovinSdk
         if (appLovinSdk == null) {
             IronLog.INTERNAL.error(AppLovinConstants.Logs.SDK_NOT_INITIALIZED)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 AppLovinConstants.Logs.SDK_NOT_INITIALIZED
@@ -72,12 +79,13 @@ class AppLovinInterstitialAdapter(networkSettings: NetworkSettings) :
 
         setInterstitialAdAvailability(false)
 
-        interstitialAdListener = AppLovinInterstitialListener(listener, WeakReference(this))
+        interstitialAdListener = AppLovinInterstitialListener(trackedListener, WeakReference(this))
 
         appLovinSdk.adService.loadNextAdForZoneId(zoneId, interstitialAdListener)
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         reservedZoneId?.let { interstitialZoneIds.remove(it) }
@@ -86,7 +94,7 @@ class AppLovinInterstitialAdapter(networkSettings: NetworkSettings) :
         val ad = interstitialAd
         if (!isAdAvailable(adData) || ad == null) {
             IronLog.INTERNAL.error(AppLovinConstants.Logs.AD_NOT_AVAILABLE)
-            listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, AppLovinConstants.Logs.AD_NOT_AVAILABLE)
+            trackedListener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, AppLovinConstants.Logs.AD_NOT_AVAILABLE)
             return
         }
 
@@ -104,7 +112,9 @@ class AppLovinInterstitialAdapter(networkSettings: NetworkSettings) :
         IronLog.ADAPTER_API.verbose()
         reservedZoneId?.let { interstitialZoneIds.remove(it) }
         reservedZoneId = null
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, interstitialAd)
         interstitialAd = null
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.LISTENER, interstitialAdListener)
         interstitialAdListener = null
     }
 
@@ -6,6 +6,10 @@ import com.applovin.adview.AppLovinIncentivizedInterstitial
 import com.applovin.sdk.AppLovinAd
 import com.ironsource.adapters.applovin.AppLovinAdapter
 import com.ironsource.adapters.applovin.AppLovinConstants
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -24,6 +28,8 @@ class AppLovinRewardedAdapter(networkSettings: NetworkSettings) :
         private val rewardedZoneIds: MutableSet<String> = Collections.newSetFromMap(ConcurrentHashMap())
     }
 
+    private val latencyTracker = LatencyTracker(AppLovinConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(AppLovinConstants.NETWORK_NAME)
     private var rewardedAd: AppLovinIncentivizedInterstitial? = null
     private var rewardedAdListener: AppLovinRewardedListener? = null
     private var loadedAppLovinAd: AppLovinAd? = null
@@ -33,13 +39,14 @@ class AppLovinRewardedAdapter(networkSettings: NetworkSettings) :
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val zoneId = adData.getString(AppLovinConstants.ZONE_ID_KEY)
-        IronLog.ADAPTER_API.verbose(AppLovinConstants.Logs.ZONE_ID.format(zoneId ?: ""))
+        IronLog.ADAPTER_API.verbose { AppLovinConstants.Logs.ZONE_ID.format(zoneId ?: "") }
 
         if (zoneId.isNullOrEmpty()) {
             val errorMessage = AppLovinConstants.Logs.MISSING_PARAM.format(AppLovinConstants.ZONE_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -49,7 +56,7 @@ class AppLovinRewardedAdapter(networkSettings: NetworkSettings) :
 
         if (zoneId in rewardedZoneIds) {
             IronLog.INTERNAL.error(AppLovinConstants.Logs.DUPLICATE_REWARDED)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 AppLovinConstants.Logs.DUPLICATE_REWARDED
@@ -60,7 +67,7 @@ class AppLovinRewardedAdapter(networkSettings: NetworkSettings) :
         val appLovinSdk = AppLovinAdapter.appLovinSdk
         if (appLovinSdk == null) {
             IronLog.INTERNAL.error(AppLovinConstants.Logs.SDK_NOT_INITIALIZED)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 AppLovinConstants.Logs.SDK_NOT_INITIALIZED
@@ -73,13 +80,14 @@ class AppLovinRewardedAdapter(networkSettings: NetworkSettings) :
 
         setRewardedAdAvailability(false)
 
-        rewardedAdListener = AppLovinRewardedListener(listener, WeakReference(this))
+        rewardedAdListener = AppLovinRewardedListener(trackedListener, WeakReference(this))
         rewardedAd = AppLovinIncentivizedInterstitial(zoneId)
 
         appLovinSdk.adService.loadNextAdForZoneId(zoneId, rewardedAdListener)
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         reservedZoneId?.let { rewardedZoneIds.remove(it) }
@@ -87,13 +95,13 @@ class AppLovinRewardedAdapter(networkSettings: NetworkSettings) :
 
         if (!isAdAvailable(adData)) {
             IronLog.INTERNAL.error(AppLovinConstants.Logs.AD_NOT_AVAILABLE)
-            listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, AppLovinConstants.Logs.AD_NOT_AVAILABLE)
+            trackedListener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, AppLovinConstants.Logs.AD_NOT_AVAILABLE)
             return
         }
 
         getDynamicUserId()?.let { userId ->
             if (userId.isNotEmpty()) {
-                IronLog.ADAPTER_API.verbose(AppLovinConstants.Logs.SET_USER_ID.format(userId))
+                IronLog.ADAPTER_API.verbose { AppLovinConstants.Logs.SET_USER_ID.format(userId) }
                 AppLovinAdapter.appLovinSdk?.settings?.setUserIdentifier(userId)
             }
         }
@@ -114,8 +122,11 @@ class AppLovinRewardedAdapter(networkSettings: NetworkSettings) :
         IronLog.ADAPTER_API.verbose()
         reservedZoneId?.let { rewardedZoneIds.remove(it) }
         reservedZoneId = null
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, rewardedAd)
         rewardedAd = null
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.LISTENER, rewardedAdListener)
         rewardedAdListener = null
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, loadedAppLovinAd)
         loadedAppLovinAd = null
     }
 
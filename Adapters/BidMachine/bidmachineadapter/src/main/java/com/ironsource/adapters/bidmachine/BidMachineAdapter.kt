@@ -1,6 +1,12 @@
 package com.ironsource.adapters.bidmachine
 
 import android.content.Context
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.TokenRequests
+import com.ironsource.adapters.common.verbose
+import com.ironsource.mediationsdk.LoadWhileShowSupportState
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -13,25 +19,19 @@ import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
 import io.bidmachine.AdPlacementConfig
 import io.bidmachine.BidMachine
 import io.bidmachine.utils.BMError
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class BidMachineAdapter : LevelPlayBaseAdapter() {
 
     companion object {
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS
-        }
-
         private const val GitHash: String = BuildConfig.GitHash
 
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(BidMachineConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
+
+        // Share a token call between the adapter instances asking for the same placement at once
+        private val tokenRequests = TokenRequests.forNetwork(BidMachineConstants.NETWORK_NAME)
 
         @JvmStatic
         fun getLoadErrorType(error: BMError): AdapterErrorType {
@@ -50,11 +50,18 @@ class BidMachineAdapter : LevelPlayBaseAdapter() {
 
     override fun isUsingActivityBeforeImpression(adFormat: LevelPlay.AdFormat): Boolean = false
 
+    // The network's capability to load a full-screen ad while the ad of the same instance is showing
+    override fun getLoadWhileShowSupportState(): LoadWhileShowSupportState =
+        LoadWhileShowSupportState.LOAD_WHILE_SHOW_BY_INSTANCE
+
     override fun init(
         adData: AdData,
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(BidMachineConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         // Validate sourceId first before any other checks
         val sourceId = adData.getString(BidMachineConstants.SOURCE_ID_KEY)
         if (sourceId.isNullOrEmpty()) {
@@ -70,16 +77,10 @@ class BidMachineAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        // Add listener to list if initialization is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initListeners.add(it) }
-        }
-
-        // Start initialization only once using atomic boolean
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-
-            IronLog.ADAPTER_API.verbose(BidMachineConstants.Logs.SOURCE_ID.format(sourceId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { BidMachineConstants.Logs.SOURCE_ID.format(sourceId) }
 
             // Set log level
             BidMachine.setLoggingEnabled(isAdaptersDebugEnabled())
@@ -88,7 +89,7 @@ class BidMachineAdapter : LevelPlayBaseAdapter() {
             BidMachine.initialize(context.applicationContext, sourceId) {
                 // BidMachine's initialization callback currently doesn't give any indication to initialization failure.
                 // Once this callback is called we will treat the initialization as successful
-                initializationSuccess()
+                initializationSuccess(attempt)
             }
         }
     }
@@ -97,17 +98,11 @@ class BidMachineAdapter : LevelPlayBaseAdapter() {
 
     // region BidMachine SDK Init Callbacks
 
-    private fun initializationSuccess() {
+    private fun initializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        initState = InitState.INIT_STATE_SUCCESS
-
         // Iterate over all the adapter instances and report init success
-        for (listener in initListeners) {
-            listener.onInitSuccess()
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
     // endregion
@@ -121,7 +116,7 @@ class BidMachineAdapter : LevelPlayBaseAdapter() {
 
         // This is a list of 1 value
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(BidMachineConstants.Logs.META_DATA.format(key ?: "", value))
+        IronLog.ADAPTER_API.verbose { BidMachineConstants.Logs.META_DATA.format(key ?: "", value) }
 
         val formattedValue: String = MetaDataUtils.formatValueForType(value, MetaData.MetaDataValueTypes.META_DATA_VALUE_BOOLEAN)
 
@@ -136,7 +131,7 @@ class BidMachineAdapter : LevelPlayBaseAdapter() {
     }
 
     override fun setConsent(consent: Boolean) {
-        IronLog.ADAPTER_API.verbose(BidMachineConstants.Logs.CONSENT.format(consent))
+        IronLog.ADAPTER_API.verbose { BidMachineConstants.Logs.CONSENT.format(consent) }
         BidMachine.setSubjectToGDPR(true)
         BidMachine.setConsentConfig(consent, null)
     }
@@ -147,12 +142,12 @@ class BidMachineAdapter : LevelPlayBaseAdapter() {
         } else {
             BidMachineConstants.CCPA_CONSENT_VALUE
         }
-        IronLog.ADAPTER_API.verbose(BidMachineConstants.Logs.CCPA.format(ccpaConsentString))
+        IronLog.ADAPTER_API.verbose { BidMachineConstants.Logs.CCPA.format(ccpaConsentString) }
         BidMachine.setUSPrivacyString(ccpaConsentString)
     }
 
     private fun setCOPPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(BidMachineConstants.Logs.COPPA.format(value))
+        IronLog.ADAPTER_API.verbose { BidMachineConstants.Logs.COPPA.format(value) }
         BidMachine.setCoppa(value)
     }
 
@@ -163,7 +158,8 @@ class BidMachineAdapter : LevelPlayBaseAdapter() {
     internal fun collectBiddingData(
         context: Context,
         biddingDataCallback: BiddingDataCallback,
-        adPlacementConfig: AdPlacementConfig
+        adPlacementConfig: AdPlacementConfig,
+        tokenKey: String
     ) {
         if (initState != InitState.INIT_STATE_SUCCESS) {
             IronLog.INTERNAL.error(BidMachineConstants.Logs.TOKEN_ERROR)
@@ -171,17 +167,19 @@ class BidMachineAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        BidMachine.getBidToken(context.applicationContext, adPlacementConfig) { token ->
-            if (token.isNullOrEmpty()) {
-                IronLog.INTERNAL.error(BidMachineConstants.TOKEN_EMPTY)
-                biddingDataCallback.onFailure(BidMachineConstants.Logs.TOKEN_FAILED.format(BidMachineConstants.TOKEN_EMPTY))
-                return@getBidToken
+        tokenRequests.request(tokenKey, biddingDataCallback) { sharedCallback ->
+            BidMachine.getBidToken(context.applicationContext, adPlacementConfig) { token ->
+                if (token.isNullOrEmpty()) {
+                    IronLog.INTERNAL.error(BidMachineConstants.TOKEN_EMPTY)
+                    sharedCallback.onFailure(BidMachineConstants.Logs.TOKEN_FAILED.format(BidMachineConstants.TOKEN_EMPTY))
+                    return@getBidToken
+                }
+
+                IronLog.ADAPTER_API.verbose { BidMachineConstants.Logs.TOKEN.format(token) }
+                val result: MutableMap<String, Any> = HashMap()
+                result[BidMachineConstants.TOKEN_KEY] = token
+                sharedCallback.onSuccess(result)
             }
-
-            IronLog.ADAPTER_API.verbose(BidMachineConstants.Logs.TOKEN.format(token))
-            val result: MutableMap<String, Any> = HashMap()
-            result[BidMachineConstants.TOKEN_KEY] = token
-            biddingDataCallback.onSuccess(result)
         }
     }
 
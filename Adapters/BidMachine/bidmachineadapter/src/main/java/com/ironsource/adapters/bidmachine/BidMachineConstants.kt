@@ -4,6 +4,7 @@ object BidMachineConstants {
 
     // Adapter version
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "BidMachine"
 
     // Configuration keys
     const val SOURCE_ID_KEY = "sourceId"
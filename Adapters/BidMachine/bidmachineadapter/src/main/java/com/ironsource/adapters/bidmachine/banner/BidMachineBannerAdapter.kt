@@ -2,13 +2,16 @@ package com.ironsource.adapters.bidmachine.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
-import android.widget.FrameLayout
 import com.ironsource.adapters.bidmachine.BidMachineAdapter
 import com.ironsource.adapters.bidmachine.BidMachineConstants
-import com.ironsource.mediationsdk.AdapterUtils
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -22,12 +25,14 @@ import io.bidmachine.AdPlacementConfig
 import io.bidmachine.BannerAdSize
 import io.bidmachine.banner.BannerRequest
 import io.bidmachine.banner.BannerView
+import java.lang.ref.WeakReference
 
 class BidMachineBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<BidMachineAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var bannerAdView: BannerView? = null
+    private val latencyTracker = LatencyTracker(BidMachineConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(BidMachineConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<BannerView>(BidMachineConstants.NETWORK_NAME) { destroyBannerView(it) }
 
     // region LevelPlay Banner API
 
@@ -37,14 +42,15 @@ class BidMachineBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val placementId = adData.getString(BidMachineConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(BidMachineConstants.Logs.PLACEMENT_ID.format(placementId ?: ""))
+        IronLog.ADAPTER_API.verbose { BidMachineConstants.Logs.PLACEMENT_ID.format(placementId ?: "") }
 
         val appContext = activity.applicationContext
         val bidMachineBannerSize = getBannerSize(bannerSize, appContext)
         if (bidMachineBannerSize == null) {
             IronLog.INTERNAL.error(BidMachineConstants.UNSUPPORTED_BANNER_SIZE)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 BidMachineConstants.UNSUPPORTED_BANNER_SIZE
@@ -52,14 +58,11 @@ class BidMachineBannerAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        val layoutParams = FrameLayout.LayoutParams(
-            AdapterUtils.dpToPixels(appContext, bidMachineBannerSize.width),
-            AdapterUtils.dpToPixels(appContext, bidMachineBannerSize.height),
-            Gravity.CENTER
-        )
+        val layoutParams = BannerLayouts.layoutParams(appContext, bidMachineBannerSize.width, bidMachineBannerSize.height, Gravity.CENTER)
 
-        bannerAdView = BannerView(appContext).apply {
-            setListener(BidMachineBannerListener(listener, layoutParams))
+        val generation = adSlot.begin()
+        val bannerAdView = BannerView(appContext).apply {
+            setListener(BidMachineBannerListener(trackedListener, layoutParams, WeakReference(this@BidMachineBannerAdapter), generation))
         }
 
         val adPlacementConfig = createBannerPlacementConfig(placementId, bidMachineBannerSize)
@@ -67,17 +70,25 @@ class BidMachineBannerAdapter(networkSettings: NetworkSettings) :
             .setBidPayload(adData.serverData)
             .build()
 
-        mainHandler.post {
-            bannerAdView?.load(bannerRequest)
+        MainThreadScheduler.post {
+            // The banner was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                bannerAdView.destroy()
+                return@post
+            }
+            bannerAdView.load(bannerRequest)
         }
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            bannerAdView?.setListener(null)
-            bannerAdView?.destroy()
-            bannerAdView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.setListener(null)
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -86,44 +97,66 @@ class BidMachineBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val placementId = adData?.getString(BidMachineConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(BidMachineConstants.Logs.PLACEMENT_ID.format(placementId ?: ""))
+        IronLog.ADAPTER_API.verbose { BidMachineConstants.Logs.PLACEMENT_ID.format(placementId ?: "") }
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(BidMachineConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(BidMachineConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(BidMachineConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
         val bannerSize = adData?.adUnitData?.get(BidMachineConstants.BANNER_SIZE_KEY)
         if (bannerSize !is ISBannerSize) {
             IronLog.INTERNAL.error(BidMachineConstants.BANNER_SIZE_INVALID)
-            biddingDataCallback.onFailure(BidMachineConstants.Logs.TOKEN_FAILED.format(BidMachineConstants.BANNER_SIZE_INVALID))
+            trackedCallback.onFailure(BidMachineConstants.Logs.TOKEN_FAILED.format(BidMachineConstants.BANNER_SIZE_INVALID))
             return
         }
 
         val bidMachineBannerSize = getBannerSize(bannerSize, context.applicationContext)
         if (bidMachineBannerSize == null) {
             IronLog.INTERNAL.error(BidMachineConstants.UNSUPPORTED_BANNER_SIZE)
-            biddingDataCallback.onFailure(BidMachineConstants.Logs.TOKEN_FAILED.format(BidMachineConstants.UNSUPPORTED_BANNER_SIZE))
+            trackedCallback.onFailure(BidMachineConstants.Logs.TOKEN_FAILED.format(BidMachineConstants.UNSUPPORTED_BANNER_SIZE))
             return
         }
 
         val adPlacementConfig = createBannerPlacementConfig(placementId, bidMachineBannerSize)
-        networkAdapter.collectBiddingData(context, biddingDataCallback, adPlacementConfig)
+        val tokenKey = "banner_${bidMachineBannerSize}_${placementId.orEmpty()}"
+        networkAdapter.collectBiddingData(context, trackedCallback, adPlacementConfig, tokenKey)
     }
 
     // endregion
 
     // region Helper Methods
 
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerView(generation: Long, bannerAdView: BannerView): Boolean {
+        if (!adSlot.set(generation, bannerAdView)) {
+            destroyBannerView(bannerAdView)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    internal fun destroyBannerView(bannerAdView: BannerView) {
+        MainThreadScheduler.post {
+            bannerAdView.setListener(null)
+            bannerAdView.destroy()
+        }
+    }
+
     private fun getBannerSize(bannerSize: ISBannerSize, context: Context): BannerAdSize? {
         return when (bannerSize.description) {
             BidMachineConstants.BANNER -> BannerAdSize.Banner
             BidMachineConstants.LEADERBOARD -> BannerAdSize.Leaderboard
             BidMachineConstants.RECTANGLE -> BannerAdSize.MediumRectangle
-            BidMachineConstants.SMART -> if (AdapterUtils.isLargeScreen(context)) BannerAdSize.Leaderboard else BannerAdSize.Banner
+            BidMachineConstants.SMART -> if (BannerLayouts.isLargeScreen(context)) BannerAdSize.Leaderboard else BannerAdSize.Banner
             else -> null
         }
     }
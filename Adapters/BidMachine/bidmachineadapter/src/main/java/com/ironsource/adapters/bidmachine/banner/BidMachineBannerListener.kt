@@ -3,15 +3,20 @@ package com.ironsource.adapters.bidmachine.banner
 import android.widget.FrameLayout
 import com.ironsource.adapters.bidmachine.BidMachineAdapter
 import com.ironsource.adapters.bidmachine.BidMachineConstants
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.logger.IronLog
 import io.bidmachine.banner.BannerListener
 import io.bidmachine.banner.BannerView
 import io.bidmachine.utils.BMError
+import java.lang.ref.WeakReference
 
 class BidMachineBannerListener(
     private val listener: BannerAdListener,
-    private val layoutParams: FrameLayout.LayoutParams
+    private val layoutParams: FrameLayout.LayoutParams,
+    private val adapter: WeakReference<BidMachineBannerAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : BannerListener {
 
     /**
@@ -20,8 +25,11 @@ class BidMachineBannerListener(
      */
     override fun onAdLoaded(ad: BannerView) {
         val creativeId = ad.auctionResult?.creativeId
-        IronLog.ADAPTER_CALLBACK.verbose(BidMachineConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { BidMachineConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
+        if (adapter.get()?.setBannerView(generation, ad) == false) {
+            return
+        }
         if (creativeId.isNullOrEmpty()) {
             listener.onAdLoadSuccess(ad, layoutParams)
         } else {
@@ -37,6 +45,7 @@ class BidMachineBannerListener(
      */
     override fun onAdLoadFailed(ad: BannerView, error: BMError) {
         IronLog.ADAPTER_CALLBACK.error(BidMachineConstants.Logs.FAILED_TO_LOAD.format(error.code, error.message))
+        adapter.get()?.destroyBannerView(ad)
         val errorType = BidMachineAdapter.getLoadErrorType(error)
         listener.onAdLoadFailed(errorType, error.code, error.message)
     }
@@ -4,6 +4,11 @@ import android.app.Activity
 import android.content.Context
 import com.ironsource.adapters.bidmachine.BidMachineAdapter
 import com.ironsource.adapters.bidmachine.BidMachineConstants
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -14,11 +19,15 @@ import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseInterstitial
 import io.bidmachine.AdPlacementConfig
 import io.bidmachine.interstitial.InterstitialAd
 import io.bidmachine.interstitial.InterstitialRequest
+import java.lang.ref.WeakReference
 
 class BidMachineInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<BidMachineAdapter>(networkSettings) {
 
-    private var interstitialAd: InterstitialAd? = null
+    private val latencyTracker = LatencyTracker(BidMachineConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(BidMachineConstants.NETWORK_NAME)
+    // Every load creates its own ad, the shown one is held apart until its show finishes
+    private val adSlot = AdSlot<InterstitialAd>(BidMachineConstants.NETWORK_NAME) { it.release() }
 
     // region LevelPlay Interstitial API
 
@@ -27,19 +36,24 @@ class BidMachineInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         listener: InterstitialAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val placementId = adData.getString(BidMachineConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(BidMachineConstants.Logs.PLACEMENT_ID.format(placementId ?: ""))
+        IronLog.ADAPTER_API.verbose { BidMachineConstants.Logs.PLACEMENT_ID.format(placementId ?: "") }
 
-        interstitialAd = InterstitialAd(context.applicationContext).apply {
-            setListener(BidMachineInterstitialListener(listener))
+        // The ad of the previous load is replaced if it wasn't shown
+        adSlot.clear(adSlot.generation)?.release()
+        val generation = adSlot.begin()
+        val interstitialAd = InterstitialAd(context.applicationContext).apply {
+            setListener(BidMachineInterstitialListener(trackedListener, WeakReference(this@BidMachineInterstitialAdapter)))
         }
+        adSlot.set(generation, interstitialAd)
 
         val adPlacementConfig = createInterstitialPlacementConfig(placementId)
         val interstitialRequest = InterstitialRequest.Builder(adPlacementConfig)
             .setBidPayload(adData.serverData)
             .build()
 
-        interstitialAd?.load(interstitialRequest)
+        interstitialAd.load(interstitialRequest)
     }
 
     override fun showAd(
@@ -47,31 +61,40 @@ class BidMachineInterstitialAdapter(networkSettings: NetworkSettings) :
         activity: Activity,
         listener: InterstitialAdListener
     ) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
-        if (!isAdAvailable(adData)) {
+        val ad = if (isAdAvailable(adData)) adSlot.startShow() else null
+        if (ad == null) {
             IronLog.ADAPTER_API.error(BidMachineConstants.AD_NOT_READY)
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 BidMachineConstants.AD_NOT_READY
             )
             return
         }
 
-        interstitialAd?.show()
+        ad.show()
     }
 
     override fun isAdAvailable(adData: AdData): Boolean {
-        return interstitialAd?.let { ad ->
+        return adSlot.ad?.let { ad ->
             ad.canShow() && !ad.isExpired
         } ?: false
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        interstitialAd?.setListener(null)
-        interstitialAd?.destroy()
-        interstitialAd = null
+        // Captured on entry, a load which starts after the destroy keeps its ad
+        val generation = adSlot.generation
+        adSlot.clear(generation)?.let {
+            it.release()
+            leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, it)
+        }
+        adSlot.finishShow()?.let {
+            it.release()
+            leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, it)
+        }
     }
 
     override fun collectBiddingData(
@@ -79,24 +102,36 @@ class BidMachineInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val placementId = adData?.getString(BidMachineConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(BidMachineConstants.Logs.PLACEMENT_ID.format(placementId ?: ""))
+        IronLog.ADAPTER_API.verbose { BidMachineConstants.Logs.PLACEMENT_ID.format(placementId ?: "") }
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(BidMachineConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(BidMachineConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(BidMachineConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
         val adPlacementConfig = createInterstitialPlacementConfig(placementId)
-        networkAdapter.collectBiddingData(context, biddingDataCallback, adPlacementConfig)
+        val tokenKey = "interstitial_${placementId.orEmpty()}"
+        networkAdapter.collectBiddingData(context, trackedCallback, adPlacementConfig, tokenKey)
     }
 
     // endregion
 
     // region Helper Methods
 
+    // Destroys the shown ad once it's closed or failed to show, an ad loaded meanwhile is kept
+    internal fun onShowFinished() {
+        adSlot.finishShow()?.release()
+    }
+
+    private fun InterstitialAd.release() {
+        setListener(null)
+        destroy()
+    }
+
     private fun createInterstitialPlacementConfig(placementId: String?): AdPlacementConfig {
         val adPlacementConfigBuilder = AdPlacementConfig.interstitialBuilder()
         if (!placementId.isNullOrEmpty()) {
@@ -2,14 +2,17 @@ package com.ironsource.adapters.bidmachine.interstitial
 
 import com.ironsource.adapters.bidmachine.BidMachineAdapter
 import com.ironsource.adapters.bidmachine.BidMachineConstants
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
 import com.ironsource.mediationsdk.logger.IronLog
 import io.bidmachine.interstitial.InterstitialAd
 import io.bidmachine.interstitial.InterstitialListener
 import io.bidmachine.utils.BMError
+import java.lang.ref.WeakReference
 
 class BidMachineInterstitialListener(
-    private val listener: InterstitialAdListener
+    private val listener: InterstitialAdListener,
+    private val adapter: WeakReference<BidMachineInterstitialAdapter>
 ) : InterstitialListener {
 
     /**
@@ -18,7 +21,7 @@ class BidMachineInterstitialListener(
      */
     override fun onAdLoaded(interstitialAd: InterstitialAd) {
         val creativeId = interstitialAd.auctionResult?.creativeId
-        IronLog.ADAPTER_CALLBACK.verbose(BidMachineConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { BidMachineConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
         if (creativeId.isNullOrEmpty()) {
             listener.onAdLoadSuccess()
@@ -55,6 +58,7 @@ class BidMachineInterstitialListener(
      */
     override fun onAdShowFailed(interstitialAd: InterstitialAd, error: BMError) {
         IronLog.ADAPTER_CALLBACK.error(BidMachineConstants.Logs.FAILED_TO_SHOW.format(error.code, error.message))
+        adapter.get()?.onShowFinished()
         listener.onAdShowFailed(error.code, error.message)
     }
 
@@ -75,6 +79,7 @@ class BidMachineInterstitialListener(
     override fun onAdClosed(interstitialAd: InterstitialAd, finished: Boolean) {
         IronLog.ADAPTER_CALLBACK.verbose()
         listener.onAdClosed()
+        adapter.get()?.onShowFinished()
     }
 
     /**
@@ -4,6 +4,11 @@ import android.app.Activity
 import android.content.Context
 import com.ironsource.adapters.bidmachine.BidMachineAdapter
 import com.ironsource.adapters.bidmachine.BidMachineConstants
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -14,11 +19,15 @@ import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseRewardedVideo
 import io.bidmachine.AdPlacementConfig
 import io.bidmachine.rewarded.RewardedAd
 import io.bidmachine.rewarded.RewardedRequest
+import java.lang.ref.WeakReference
 
 class BidMachineRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<BidMachineAdapter>(networkSettings) {
 
-    private var rewardedAd: RewardedAd? = null
+    private val latencyTracker = LatencyTracker(BidMachineConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(BidMachineConstants.NETWORK_NAME)
+    // Every load creates its own ad, the shown one is held apart until its show finishes
+    private val adSlot = AdSlot<RewardedAd>(BidMachineConstants.NETWORK_NAME) { it.release() }
 
     // region LevelPlay Rewarded Video API
 
@@ -27,19 +36,24 @@ class BidMachineRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         listener: RewardedVideoAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val placementId = adData.getString(BidMachineConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(BidMachineConstants.Logs.PLACEMENT_ID.format(placementId ?: ""))
+        IronLog.ADAPTER_API.verbose { BidMachineConstants.Logs.PLACEMENT_ID.format(placementId ?: "") }
 
-        rewardedAd = RewardedAd(context.applicationContext).apply {
-            setListener(BidMachineRewardedListener(listener))
+        // The ad of the previous load is replaced if it wasn't shown
+        adSlot.clear(adSlot.generation)?.release()
+        val generation = adSlot.begin()
+        val rewardedAd = RewardedAd(context.applicationContext).apply {
+            setListener(BidMachineRewardedListener(trackedListener, WeakReference(this@BidMachineRewardedAdapter)))
         }
+        adSlot.set(generation, rewardedAd)
 
         val adPlacementConfig = createRewardedPlacementConfig(placementId)
         val rewardedRequest = RewardedRequest.Builder(adPlacementConfig)
             .setBidPayload(adData.serverData)
             .build()
 
-        rewardedAd?.load(rewardedRequest)
+        rewardedAd.load(rewardedRequest)
     }
 
     override fun showAd(
@@ -47,31 +61,40 @@ class BidMachineRewardedAdapter(networkSettings: NetworkSettings) :
         activity: Activity,
         listener: RewardedVideoAdListener
     ) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
-        if (!isAdAvailable(adData)) {
+        val ad = if (isAdAvailable(adData)) adSlot.startShow() else null
+        if (ad == null) {
             IronLog.ADAPTER_API.error(BidMachineConstants.AD_NOT_READY)
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 BidMachineConstants.AD_NOT_READY
             )
             return
         }
 
-        rewardedAd?.show()
+        ad.show()
     }
 
     override fun isAdAvailable(adData: AdData): Boolean {
-        return rewardedAd?.let { ad ->
+        return adSlot.ad?.let { ad ->
             ad.canShow() && !ad.isExpired
         } ?: false
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        rewardedAd?.setListener(null)
-        rewardedAd?.destroy()
-        rewardedAd = null
+        // Captured on entry, a load which starts after the destroy keeps its ad
+        val generation = adSlot.generation
+        adSlot.clear(generation)?.let {
+            it.release()
+            leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, it)
+        }
+        adSlot.finishShow()?.let {
+            it.release()
+            leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, it)
+        }
     }
 
     override fun collectBiddingData(
@@ -79,24 +102,36 @@ class BidMachineRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val placementId = adData?.getString(BidMachineConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(BidMachineConstants.Logs.PLACEMENT_ID.format(placementId ?: ""))
+        IronLog.ADAPTER_API.verbose { BidMachineConstants.Logs.PLACEMENT_ID.format(placementId ?: "") }
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(BidMachineConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(BidMachineConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(BidMachineConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
         val adPlacementConfig = createRewardedPlacementConfig(placementId)
-        networkAdapter.collectBiddingData(context, biddingDataCallback, adPlacementConfig)
+        val tokenKey = "rewarded_${placementId.orEmpty()}"
+        networkAdapter.collectBiddingData(context, trackedCallback, adPlacementConfig, tokenKey)
     }
 
     // endregion
 
     // region Helper Methods
 
+    // Destroys the shown ad once it's closed or failed to show, an ad loaded meanwhile is kept
+    internal fun onShowFinished() {
+        adSlot.finishShow()?.release()
+    }
+
+    private fun RewardedAd.release() {
+        setListener(null)
+        destroy()
+    }
+
     private fun createRewardedPlacementConfig(placementId: String?): AdPlacementConfig {
         val adPlacementConfigBuilder = AdPlacementConfig.rewardedBuilder()
         if (!placementId.isNullOrEmpty()) {
@@ -2,6 +2,7 @@ package com.ironsource.adapters.bidmachine.rewarded
 
 import com.ironsource.adapters.bidmachine.BidMachineAdapter
 import com.ironsource.adapters.bidmachine.BidMachineConstants
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -9,9 +10,11 @@ import com.ironsource.mediationsdk.logger.IronLog
 import io.bidmachine.rewarded.RewardedAd
 import io.bidmachine.rewarded.RewardedListener
 import io.bidmachine.utils.BMError
+import java.lang.ref.WeakReference
 
 class BidMachineRewardedListener(
-    private val listener: RewardedVideoAdListener
+    private val listener: RewardedVideoAdListener,
+    private val adapter: WeakReference<BidMachineRewardedAdapter>
 ) : RewardedListener {
 
     /**
@@ -20,7 +23,7 @@ class BidMachineRewardedListener(
      */
     override fun onAdLoaded(ad: RewardedAd) {
         val creativeId = ad.auctionResult?.creativeId
-        IronLog.ADAPTER_CALLBACK.verbose(BidMachineConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { BidMachineConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
         if (creativeId.isNullOrEmpty()) {
             listener.onAdLoadSuccess()
@@ -57,6 +60,7 @@ class BidMachineRewardedListener(
      */
     override fun onAdShowFailed(ad: RewardedAd, error: BMError) {
         IronLog.ADAPTER_CALLBACK.error(BidMachineConstants.Logs.FAILED_TO_SHOW.format(error.code, error.message))
+        adapter.get()?.onShowFinished()
         listener.onAdShowFailed(error.code, error.message)
     }
 
@@ -87,6 +91,7 @@ class BidMachineRewardedListener(
     override fun onAdClosed(ad: RewardedAd, finished: Boolean) {
         IronLog.ADAPTER_CALLBACK.verbose()
         listener.onAdClosed()
+        adapter.get()?.onShowFinished()
     }
 
     /**
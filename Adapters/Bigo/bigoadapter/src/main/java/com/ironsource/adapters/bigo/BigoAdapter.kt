@@ -1,6 +1,11 @@
 package com.ironsource.adapters.bigo
 
 import android.content.Context
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.BiddingTokenCache
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.verbose
 import com.ironsource.environment.ContextProvider
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -15,8 +20,6 @@ import org.json.JSONObject
 import sg.bigo.ads.BigoAdSdk
 import sg.bigo.ads.ConsentOptions
 import sg.bigo.ads.api.AdConfig
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class BigoAdapter : LevelPlayBaseAdapter() {
 
@@ -24,17 +27,13 @@ class BigoAdapter : LevelPlayBaseAdapter() {
 
         private const val GitHash: String = BuildConfig.GitHash
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS
-        }
-
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initCallbackListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(BigoConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
+
+        // Bidding token shared by all adapter instances
+        private val biddingTokenCache = BiddingTokenCache.forNetwork(BigoConstants.NETWORK_NAME)
 
         fun getMediationInfo(): String = JSONObject().apply {
             put(BigoConstants.MEDIATION_INFO_MEDIATION_NAME, BigoConstants.MEDIATION_NAME)
@@ -59,6 +58,9 @@ class BigoAdapter : LevelPlayBaseAdapter() {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(BigoConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         // Extract and validate appId first
         val appId = adData.getString(BigoConstants.APP_ID_KEY)
         if (appId.isNullOrEmpty()) {
@@ -68,22 +70,20 @@ class BigoAdapter : LevelPlayBaseAdapter() {
             return
         }
 
+        adData.getString(BigoConstants.BIDDING_TOKEN_TTL_KEY)?.toLongOrNull()?.let { ttlSeconds ->
+            biddingTokenCache.ttlMillis = ttlSeconds * 1000
+        }
+
         // Check if already initialized successfully
         if (initState == InitState.INIT_STATE_SUCCESS) {
             networkInitializationListener?.onInitSuccess()
             return
         }
 
-        // Add listener to list if initialization is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initCallbackListeners.add(it) }
-        }
-
-        // Start initialization if not called yet
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-
-            IronLog.ADAPTER_API.verbose(BigoConstants.Logs.APP_ID.format(appId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { BigoConstants.Logs.APP_ID.format(appId) }
 
             val config = AdConfig.Builder()
                 .setDebug(isAdaptersDebugEnabled())
@@ -91,21 +91,18 @@ class BigoAdapter : LevelPlayBaseAdapter() {
                 .build()
 
             BigoAdSdk.initialize(context.applicationContext, config) {
-                onInitializationSuccess()
+                onInitializationSuccess(attempt)
             }
         }
     }
 
-    private fun onInitializationSuccess() {
+    private fun onInitializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose(BigoConstants.Logs.SDK_INITIALIZED)
 
-        initState = InitState.INIT_STATE_SUCCESS
-
-        for (listener: NetworkInitializationListener in initCallbackListeners) {
-            listener.onInitSuccess()
+        initCoordinator.onInitSuccess(attempt) {
+            // Prefetch the bidding token for the first auction
+            biddingTokenCache.refresh(BigoConstants.TOKEN_KEY, bidderTokenFetcher)
         }
-
-        initCallbackListeners.clear()
     }
 
     // endregion
@@ -119,7 +116,7 @@ class BigoAdapter : LevelPlayBaseAdapter() {
 
         // This is a list of 1 value
         val value = values[0]
-        IronLog.ADAPTER_API.verbose(BigoConstants.Logs.META_DATA_SET.format(key ?: "", value ?: ""))
+        IronLog.ADAPTER_API.verbose { BigoConstants.Logs.META_DATA_SET.format(key ?: "", value ?: "") }
         val formattedValue: String = MetaDataUtils.formatValueForType(value, MetaData.MetaDataValueTypes.META_DATA_VALUE_BOOLEAN)
 
         when {
@@ -133,24 +130,30 @@ class BigoAdapter : LevelPlayBaseAdapter() {
     }
 
     override fun setConsent(consent: Boolean) {
-        IronLog.ADAPTER_API.verbose(BigoConstants.Logs.CONSENT.format(consent))
+        IronLog.ADAPTER_API.verbose { BigoConstants.Logs.CONSENT.format(consent) }
         BigoAdSdk.setUserConsent(
             ContextProvider.getInstance().applicationContext, ConsentOptions.GDPR, consent
         )
+        // Only tokens fetched after the new value is applied are cached
+        biddingTokenCache.invalidate()
     }
 
     private fun setCCPAValue(doNotSell: Boolean) {
-        IronLog.ADAPTER_API.verbose(BigoConstants.Logs.CCPA.format(doNotSell))
+        IronLog.ADAPTER_API.verbose { BigoConstants.Logs.CCPA.format(doNotSell) }
         BigoAdSdk.setUserConsent(
             ContextProvider.getInstance().applicationContext, ConsentOptions.CCPA, !doNotSell
         )
+        // Only tokens fetched after the new value is applied are cached
+        biddingTokenCache.invalidate()
     }
 
     private fun setCOPPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(BigoConstants.Logs.COPPA.format(value))
+        IronLog.ADAPTER_API.verbose { BigoConstants.Logs.COPPA.format(value) }
         BigoAdSdk.setUserConsent(
             ContextProvider.getInstance().applicationContext, ConsentOptions.COPPA, !value
         )
+        // Only tokens fetched after the new value is applied are cached
+        biddingTokenCache.invalidate()
     }
 
     // endregion
@@ -164,12 +167,17 @@ class BigoAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        val token = BigoAdSdk.getBidderToken()
-        IronLog.ADAPTER_API.verbose(BigoConstants.Logs.TOKEN.format(token))
+        biddingTokenCache.getOrFetch(BigoConstants.TOKEN_KEY, bidderTokenFetcher) { token ->
+            IronLog.ADAPTER_API.verbose { BigoConstants.Logs.TOKEN.format(token) }
+
+            val ret: MutableMap<String?, Any?> = HashMap()
+            ret[BigoConstants.TOKEN_KEY] = token
+            biddingDataCallback.onSuccess(ret)
+        }
+    }
 
-        val ret: MutableMap<String?, Any?> = HashMap()
-        ret[BigoConstants.TOKEN_KEY] = token
-        biddingDataCallback.onSuccess(ret)
+    private val bidderTokenFetcher = BiddingTokenCache.TokenFetcher { listener ->
+        listener.onTokenReceived(BigoAdSdk.getBidderToken())
     }
 
     // endregion
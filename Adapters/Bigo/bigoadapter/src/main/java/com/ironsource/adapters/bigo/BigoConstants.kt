@@ -4,6 +4,7 @@ object BigoConstants {
 
     // Adapter version
     const val ADAPTER_VERSION: String = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "Bigo"
 
     // Network name
     const val MEDIATION_NAME: String = "LevelPlay"
@@ -17,6 +18,7 @@ object BigoConstants {
 
     // Bidding and config keys
     const val TOKEN_KEY: String = "token"
+    const val BIDDING_TOKEN_TTL_KEY: String = "biddingTokenTTL"
 
     // Mediation info JSON keys
     const val MEDIATION_INFO_MEDIATION_NAME: String = "mediationName"
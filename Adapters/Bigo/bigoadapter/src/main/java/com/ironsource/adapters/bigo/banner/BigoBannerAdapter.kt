@@ -2,13 +2,16 @@ package com.ironsource.adapters.bigo.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
-import android.widget.FrameLayout
 import com.ironsource.adapters.bigo.BigoAdapter
 import com.ironsource.adapters.bigo.BigoConstants
-import com.ironsource.mediationsdk.AdapterUtils
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -18,18 +21,19 @@ import com.ironsource.mediationsdk.bidding.BiddingDataCallback
 import com.ironsource.mediationsdk.logger.IronLog
 import com.ironsource.mediationsdk.model.NetworkSettings
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseBanner
+import java.lang.ref.WeakReference
 import sg.bigo.ads.api.AdSize
 import sg.bigo.ads.api.BannerAd
 import sg.bigo.ads.api.BannerAdLoader
 import sg.bigo.ads.api.BannerAdRequest
-import java.lang.ref.WeakReference
 
 class BigoBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<BigoAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
+    private val latencyTracker = LatencyTracker(BigoConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(BigoConstants.NETWORK_NAME)
     private var bannerListener: BigoBannerListener? = null
-    private var bannerAd: BannerAd? = null
+    private val adSlot = AdSlot<BannerAd>(BigoConstants.NETWORK_NAME) { destroyBannerAd(it) }
 
     // region Adapter Methods
 
@@ -39,14 +43,15 @@ class BigoBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val slotId = adData.getString(BigoConstants.SLOT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(BigoConstants.Logs.SLOT_ID.format(slotId ?: ""))
+        IronLog.ADAPTER_API.verbose { BigoConstants.Logs.SLOT_ID.format(slotId ?: "") }
 
         val serverData = adData.serverData
         if (serverData.isNullOrEmpty()) {
             val errorMessage = BigoConstants.Logs.SERVER_DATA_EMPTY
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -59,7 +64,7 @@ class BigoBannerAdapter(networkSettings: NetworkSettings) :
         if (bigoBannerSize == null) {
             val errorMessage = BigoConstants.Logs.UNSUPPORTED_BANNER_SIZE
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 errorMessage
@@ -67,13 +72,10 @@ class BigoBannerAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        val layoutParams = FrameLayout.LayoutParams(
-            AdapterUtils.dpToPixels(appContext, bigoBannerSize.width),
-            AdapterUtils.dpToPixels(appContext, bigoBannerSize.height),
-            Gravity.CENTER
-        )
+        val layoutParams = BannerLayouts.layoutParams(appContext, bigoBannerSize.width, bigoBannerSize.height, Gravity.CENTER)
 
-        bannerListener = BigoBannerListener(listener, WeakReference(this), layoutParams)
+        val generation = adSlot.begin()
+        bannerListener = BigoBannerListener(trackedListener, WeakReference(this), layoutParams, generation)
 
         val bannerAdLoader = BannerAdLoader.Builder()
             .withAdLoadListener(bannerListener)
@@ -91,11 +93,14 @@ class BigoBannerAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            bannerAd?.setAdInteractionListener(null)
-            bannerAd?.destroy()
-            bannerAd = null
-            bannerListener = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.setAdInteractionListener(null)
+                it.destroy()
+                bannerListener = null
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -104,33 +109,50 @@ class BigoBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             val errorMessage = BigoConstants.Logs.ADAPTER_UNAVAILABLE
             IronLog.INTERNAL.error(errorMessage)
-            biddingDataCallback.onFailure(errorMessage)
+            trackedCallback.onFailure(errorMessage)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
     }
 
     // endregion
 
     // region Helper Methods
 
-    internal fun setBannerAd(ad: BannerAd) {
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerAd(generation: Long, ad: BannerAd): Boolean {
+        if (!adSlot.set(generation, ad)) {
+            destroyBannerAd(ad)
+            return false
+        }
         ad.setAdInteractionListener(bannerListener)
-        bannerAd = ad
+        return true
+    }
+
+    // Destroys a banner which was replaced by the banner of a newer load
+    private fun destroyBannerAd(ad: BannerAd) {
+        MainThreadScheduler.post {
+            ad.setAdInteractionListener(null)
+            ad.destroy()
+        }
     }
 
     private fun getBannerSize(bannerSize: ISBannerSize, context: Context): AdSize? {
         return when (bannerSize.description) {
             ISBannerSize.BANNER.description -> AdSize.BANNER
             ISBannerSize.RECTANGLE.description -> AdSize.MEDIUM_RECTANGLE
-            ISBannerSize.SMART.description -> if (AdapterUtils.isLargeScreen(context)) {
+            ISBannerSize.SMART.description -> if (BannerLayouts.isLargeScreen(context)) {
                 AdSize.LARGE_BANNER
             } else {
                 AdSize.BANNER
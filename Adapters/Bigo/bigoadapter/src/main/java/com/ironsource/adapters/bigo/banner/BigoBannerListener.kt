@@ -14,7 +14,9 @@ import java.lang.ref.WeakReference
 class BigoBannerListener(
     private val listener: BannerAdListener,
     private val adapter: WeakReference<BigoBannerAdapter>,
-    private val layoutParams: FrameLayout.LayoutParams
+    private val layoutParams: FrameLayout.LayoutParams,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : AdInteractionListener, AdLoadListener<BannerAd> {
 
     /**
@@ -24,7 +26,9 @@ class BigoBannerListener(
     override fun onAdLoaded(ad: BannerAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        adapter.get()?.setBannerAd(ad)
+        if (adapter.get()?.setBannerAd(generation, ad) == false) {
+            return
+        }
         listener.onAdLoadSuccess(ad.adView(), layoutParams)
     }
 
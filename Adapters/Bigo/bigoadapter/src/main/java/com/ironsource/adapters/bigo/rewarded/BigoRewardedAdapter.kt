@@ -4,6 +4,10 @@ import android.app.Activity
 import android.content.Context
 import com.ironsource.adapters.bigo.BigoAdapter
 import com.ironsource.adapters.bigo.BigoConstants
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -12,28 +16,31 @@ import com.ironsource.mediationsdk.bidding.BiddingDataCallback
 import com.ironsource.mediationsdk.logger.IronLog
 import com.ironsource.mediationsdk.model.NetworkSettings
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseRewardedVideo
+import java.lang.ref.WeakReference
 import sg.bigo.ads.api.RewardVideoAd
 import sg.bigo.ads.api.RewardVideoAdLoader
 import sg.bigo.ads.api.RewardVideoAdRequest
-import java.lang.ref.WeakReference
 
 class BigoRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<BigoAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(BigoConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(BigoConstants.NETWORK_NAME)
     private var rewardedListener: BigoRewardedListener? = null
     private var rewardedAd: RewardVideoAd? = null
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val slotId = adData.getString(BigoConstants.SLOT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(BigoConstants.Logs.SLOT_ID.format(slotId ?: ""))
+        IronLog.ADAPTER_API.verbose { BigoConstants.Logs.SLOT_ID.format(slotId ?: "") }
 
         val serverData = adData.serverData
         if (serverData.isNullOrEmpty()) {
             val errorMessage = BigoConstants.Logs.SERVER_DATA_EMPTY
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -41,7 +48,7 @@ class BigoRewardedAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        rewardedListener = BigoRewardedListener(listener, WeakReference(this))
+        rewardedListener = BigoRewardedListener(trackedListener, WeakReference(this))
 
         val rewardedAdLoader = RewardVideoAdLoader.Builder()
             .withAdLoadListener(rewardedListener)
@@ -57,10 +64,11 @@ class BigoRewardedAdapter(networkSettings: NetworkSettings) :
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 BigoConstants.Logs.AD_NOT_AVAILABLE
             )
@@ -79,7 +87,9 @@ class BigoRewardedAdapter(networkSettings: NetworkSettings) :
         IronLog.ADAPTER_API.verbose()
         rewardedAd?.setAdInteractionListener(null)
         rewardedAd?.destroy()
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, rewardedAd)
         rewardedAd = null
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.LISTENER, rewardedListener)
         rewardedListener = null
     }
 
@@ -88,17 +98,18 @@ class BigoRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             val errorMessage = BigoConstants.Logs.ADAPTER_UNAVAILABLE
             IronLog.INTERNAL.error(errorMessage)
-            biddingDataCallback.onFailure(errorMessage)
+            trackedCallback.onFailure(errorMessage)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
     }
 
     // endregion
@@ -8,6 +8,10 @@ import com.chartboost.sdk.privacy.model.CCPA
 import com.chartboost.sdk.privacy.model.COPPA
 import com.chartboost.sdk.privacy.model.DataUseConsent
 import com.chartboost.sdk.privacy.model.GDPR
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.verbose
 import com.ironsource.environment.ContextProvider
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -18,26 +22,16 @@ import com.ironsource.mediationsdk.metadata.MetaData
 import com.ironsource.mediationsdk.metadata.MetaDataUtils
 import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class ChartboostAdapter : LevelPlayBaseAdapter() {
 
     companion object {
         private const val GitHash: String = BuildConfig.GitHash
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(ChartboostConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
 
         // Mediation info
         internal val mediation = Mediation(
@@ -68,6 +62,9 @@ class ChartboostAdapter : LevelPlayBaseAdapter() {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(ChartboostConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         val appId = adData.getString(ChartboostConstants.APP_ID_KEY)
         if (appId.isNullOrEmpty()) {
             val errorMessage = ChartboostConstants.Logs.MISSING_PARAM.format(ChartboostConstants.APP_ID_KEY)
@@ -89,7 +86,7 @@ class ChartboostAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        if (initState == InitState.INIT_STATE_FAILED) {
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(ChartboostConstants.Logs.INIT_FAILED)
             networkInitializationListener?.onInitFailed(
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
@@ -98,14 +95,10 @@ class ChartboostAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-
-            IronLog.ADAPTER_API.verbose(ChartboostConstants.Logs.APP_ID_AND_SIGNATURE.format(appId, appSignature))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { ChartboostConstants.Logs.APP_ID_AND_SIGNATURE.format(appId, appSignature) }
 
             consentCollectingUserData?.let { setConsent(it) }
             doNotSellCollectingUserData?.let { setCCPAValue(it) }
@@ -114,36 +107,24 @@ class ChartboostAdapter : LevelPlayBaseAdapter() {
             Chartboost.setLoggingLevel(if (isAdaptersDebugEnabled()) LoggingLevel.ALL else LoggingLevel.NONE)
             Chartboost.startWithAppId(context.applicationContext, appId, appSignature) { startError ->
                 if (startError == null) {
-                    onInitializationSuccess()
+                    onInitializationSuccess(attempt)
                 } else {
-                    onInitializationFailure()
+                    onInitializationFailure(attempt)
                 }
             }
         }
     }
 
-    private fun onInitializationSuccess() {
+    private fun onInitializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        initState = InitState.INIT_STATE_SUCCESS
-
-        for (listener in initListeners) {
-            listener.onInitSuccess()
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    private fun onInitializationFailure() {
+    private fun onInitializationFailure(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.error(ChartboostConstants.Logs.INIT_FAILED)
 
-        initState = InitState.INIT_STATE_FAILED
-
-        for (listener in initListeners) {
-            listener.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, ChartboostConstants.Logs.INIT_FAILED)
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, ChartboostConstants.Logs.INIT_FAILED)
     }
 
     // endregion
@@ -151,12 +132,12 @@ class ChartboostAdapter : LevelPlayBaseAdapter() {
     // region Legal Methods
 
     override fun setConsent(consent: Boolean) {
-        if (wasInitCalled.get()) {
-            IronLog.ADAPTER_API.verbose(
+        if (initState != InitState.INIT_STATE_NONE) {
+            IronLog.ADAPTER_API.verbose {
                 ChartboostConstants.Logs.CONSENT.format(
                     if (consent) ChartboostConstants.CONSENT_BEHAVIORAL else ChartboostConstants.CONSENT_NON_BEHAVIORAL
                 )
-            )
+            }
             val chartboostConsent =
                 if (consent) GDPR.GDPR_CONSENT.BEHAVIORAL else GDPR.GDPR_CONSENT.NON_BEHAVIORAL
             Chartboost.addDataUseConsent(
@@ -175,7 +156,7 @@ class ChartboostAdapter : LevelPlayBaseAdapter() {
 
         // This is a list of 1 value
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(ChartboostConstants.Logs.KEY_VALUE.format(key ?: "", value))
+        IronLog.ADAPTER_API.verbose { ChartboostConstants.Logs.KEY_VALUE.format(key ?: "", value) }
 
         if (MetaDataUtils.isValidCCPAMetaData(key, value)) {
             doNotSellCollectingUserData = MetaDataUtils.getMetaDataBooleanValue(value)
@@ -190,18 +171,18 @@ class ChartboostAdapter : LevelPlayBaseAdapter() {
     }
 
     private fun setCCPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(
+        IronLog.ADAPTER_API.verbose {
             ChartboostConstants.Logs.CCPA.format(
                 if (value) ChartboostConstants.CCPA_OPT_OUT_SALE else ChartboostConstants.CCPA_OPT_IN_SALE
             )
-        )
+        }
         val dataUseConsent: DataUseConsent =
             CCPA(if (value) CCPA.CCPA_CONSENT.OPT_OUT_SALE else CCPA.CCPA_CONSENT.OPT_IN_SALE)
         Chartboost.addDataUseConsent(ContextProvider.getInstance().applicationContext, dataUseConsent)
     }
 
     private fun setCOPPAValue(isUserCoppa: Boolean) {
-        IronLog.ADAPTER_API.verbose(ChartboostConstants.Logs.COPPA.format(isUserCoppa))
+        IronLog.ADAPTER_API.verbose { ChartboostConstants.Logs.COPPA.format(isUserCoppa) }
         val dataUseConsent: DataUseConsent = COPPA(isUserCoppa)
         Chartboost.addDataUseConsent(ContextProvider.getInstance().applicationContext, dataUseConsent)
     }
@@ -218,7 +199,7 @@ class ChartboostAdapter : LevelPlayBaseAdapter() {
         }
 
         val returnedToken = Chartboost.getBidderToken().orEmpty()
-        IronLog.ADAPTER_API.verbose(ChartboostConstants.Logs.TOKEN.format(returnedToken))
+        IronLog.ADAPTER_API.verbose { ChartboostConstants.Logs.TOKEN.format(returnedToken) }
         val biddingDataMap: MutableMap<String?, Any?> = HashMap()
         biddingDataMap[ChartboostConstants.TOKEN_KEY] = returnedToken
         biddingDataCallback.onSuccess(biddingDataMap)
@@ -4,6 +4,7 @@ object ChartboostConstants {
 
     // Adapter version
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "Chartboost"
 
     // Chartboost configuration keys
     const val APP_ID_KEY = "appID"
@@ -2,14 +2,18 @@ package com.ironsource.adapters.chartboost.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
 import android.widget.FrameLayout
 import com.chartboost.sdk.ads.Banner
 import com.ironsource.adapters.chartboost.ChartboostAdapter
 import com.ironsource.adapters.chartboost.ChartboostConstants
-import com.ironsource.mediationsdk.AdapterUtils
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -24,8 +28,9 @@ import java.lang.ref.WeakReference
 class ChartboostBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<ChartboostAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    internal var bannerAdView: Banner? = null
+    private val latencyTracker = LatencyTracker(ChartboostConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(ChartboostConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<Banner>(ChartboostConstants.NETWORK_NAME) { destroyBannerView(it) }
 
     // region Adapter Methods
 
@@ -35,13 +40,14 @@ class ChartboostBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val locationId = adData.getString(ChartboostConstants.AD_LOCATION_KEY)
-        IronLog.ADAPTER_API.verbose(ChartboostConstants.Logs.AD_LOCATION.format(locationId ?: ""))
+        IronLog.ADAPTER_API.verbose { ChartboostConstants.Logs.AD_LOCATION.format(locationId ?: "") }
 
         if (locationId.isNullOrEmpty()) {
             val errorMessage = ChartboostConstants.Logs.MISSING_PARAM.format(ChartboostConstants.AD_LOCATION_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -54,7 +60,7 @@ class ChartboostBannerAdapter(networkSettings: NetworkSettings) :
         if (chartboostBannerSize == null) {
             val errorMessage = ChartboostConstants.Logs.UNSUPPORTED_BANNER_SIZE.format(bannerSize.description)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 errorMessage
@@ -65,8 +71,9 @@ class ChartboostBannerAdapter(networkSettings: NetworkSettings) :
         val layoutParams = getBannerLayoutParams(context, bannerSize)
         val serverData = adData.serverData
 
-        mainHandler.post {
-            val bannerListener = ChartboostBannerListener(listener, layoutParams, WeakReference(this))
+        val generation = adSlot.begin()
+        MainThreadScheduler.post {
+            val bannerListener = ChartboostBannerListener(trackedListener, layoutParams, WeakReference(this), generation)
             val bannerView = Banner(
                 context,
                 locationId,
@@ -74,7 +81,12 @@ class ChartboostBannerAdapter(networkSettings: NetworkSettings) :
                 bannerListener,
                 ChartboostAdapter.mediation
             ).apply { setLayoutParams(layoutParams) }
-            bannerAdView = bannerView
+            bannerListener.bannerView = bannerView
+            // The banner was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                bannerView.detach()
+                return@post
+            }
 
             if (serverData.isNullOrEmpty()) {
                 bannerView.cache()
@@ -87,9 +99,12 @@ class ChartboostBannerAdapter(networkSettings: NetworkSettings) :
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
 
-        mainHandler.post {
-            bannerAdView?.detach()
-            bannerAdView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.detach()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -98,26 +113,44 @@ class ChartboostBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(ChartboostConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(ChartboostConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(ChartboostConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
     }
 
     // endregion
 
     // region Helper Methods
 
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerView(generation: Long, bannerView: Banner): Boolean {
+        if (!adSlot.set(generation, bannerView)) {
+            destroyBannerView(bannerView)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    internal fun destroyBannerView(bannerView: Banner) {
+        MainThreadScheduler.post { bannerView.detach() }
+    }
+
     private fun getBannerSize(context: Context, size: ISBannerSize): Banner.BannerSize? =
         when (size.description) {
             ChartboostConstants.BANNER_SIZE_BANNER,
             ChartboostConstants.BANNER_SIZE_LARGE -> Banner.BannerSize.STANDARD
             ChartboostConstants.BANNER_SIZE_RECTANGLE -> Banner.BannerSize.MEDIUM
-            ChartboostConstants.BANNER_SIZE_SMART -> if (AdapterUtils.isLargeScreen(context)) {
+            ChartboostConstants.BANNER_SIZE_SMART -> if (BannerLayouts.isLargeScreen(context)) {
                 Banner.BannerSize.LEADERBOARD
             } else {
                 Banner.BannerSize.STANDARD
@@ -133,37 +166,20 @@ class ChartboostBannerAdapter(networkSettings: NetworkSettings) :
     private fun getBannerLayoutParams(context: Context, size: ISBannerSize): FrameLayout.LayoutParams {
         val layoutParams = when (size.description) {
             ChartboostConstants.BANNER_SIZE_BANNER,
-            ChartboostConstants.BANNER_SIZE_LARGE -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, ChartboostConstants.BANNER_WIDTH),
-                AdapterUtils.dpToPixels(context, ChartboostConstants.BANNER_HEIGHT)
-            )
-            ChartboostConstants.BANNER_SIZE_RECTANGLE -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, ChartboostConstants.RECTANGLE_WIDTH),
-                AdapterUtils.dpToPixels(context, ChartboostConstants.RECTANGLE_HEIGHT)
-            )
-            ChartboostConstants.BANNER_SIZE_SMART -> if (AdapterUtils.isLargeScreen(context)) {
-                FrameLayout.LayoutParams(
-                    AdapterUtils.dpToPixels(context, ChartboostConstants.LEADERBOARD_WIDTH),
-                    AdapterUtils.dpToPixels(context, ChartboostConstants.LEADERBOARD_HEIGHT)
-                )
+            ChartboostConstants.BANNER_SIZE_LARGE -> BannerLayouts.layoutParams(context, ChartboostConstants.BANNER_WIDTH, ChartboostConstants.BANNER_HEIGHT, Gravity.CENTER)
+            ChartboostConstants.BANNER_SIZE_RECTANGLE -> BannerLayouts.layoutParams(context, ChartboostConstants.RECTANGLE_WIDTH, ChartboostConstants.RECTANGLE_HEIGHT, Gravity.CENTER)
+            ChartboostConstants.BANNER_SIZE_SMART -> if (BannerLayouts.isLargeScreen(context)) {
+                BannerLayouts.layoutParams(context, ChartboostConstants.LEADERBOARD_WIDTH, ChartboostConstants.LEADERBOARD_HEIGHT, Gravity.CENTER)
             } else {
-                FrameLayout.LayoutParams(
-                    AdapterUtils.dpToPixels(context, ChartboostConstants.BANNER_WIDTH),
-                    AdapterUtils.dpToPixels(context, ChartboostConstants.BANNER_HEIGHT)
-                )
+                BannerLayouts.layoutParams(context, ChartboostConstants.BANNER_WIDTH, ChartboostConstants.BANNER_HEIGHT, Gravity.CENTER)
             }
             ChartboostConstants.BANNER_SIZE_CUSTOM -> if (isSupportedCustomHeight(size.height)) {
-                FrameLayout.LayoutParams(
-                    AdapterUtils.dpToPixels(context, ChartboostConstants.BANNER_WIDTH),
-                    AdapterUtils.dpToPixels(context, ChartboostConstants.BANNER_HEIGHT)
-                )
+                BannerLayouts.layoutParams(context, ChartboostConstants.BANNER_WIDTH, ChartboostConstants.BANNER_HEIGHT, Gravity.CENTER)
             } else {
-                FrameLayout.LayoutParams(0, 0)
+                BannerLayouts.layoutParams(context, 0, 0, Gravity.CENTER)
             }
-            else -> FrameLayout.LayoutParams(0, 0)
+            else -> BannerLayouts.layoutParams(context, 0, 0, Gravity.CENTER)
         }
-
-        layoutParams.gravity = Gravity.CENTER
         return layoutParams
     }
 
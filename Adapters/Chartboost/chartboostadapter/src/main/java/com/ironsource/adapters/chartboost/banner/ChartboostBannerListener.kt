@@ -1,6 +1,7 @@
 package com.ironsource.adapters.chartboost.banner
 
 import android.widget.FrameLayout
+import com.chartboost.sdk.ads.Banner
 import com.chartboost.sdk.callbacks.BannerCallback
 import com.chartboost.sdk.events.CacheError
 import com.chartboost.sdk.events.CacheEvent
@@ -11,6 +12,7 @@ import com.chartboost.sdk.events.ImpressionEvent
 import com.chartboost.sdk.events.ShowError
 import com.chartboost.sdk.events.ShowEvent
 import com.ironsource.adapters.chartboost.ChartboostConstants
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -20,17 +22,22 @@ import java.lang.ref.WeakReference
 class ChartboostBannerListener(
     private val listener: BannerAdListener,
     private val layoutParams: FrameLayout.LayoutParams,
-    private val adapter: WeakReference<ChartboostBannerAdapter>
+    private val adapter: WeakReference<ChartboostBannerAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : BannerCallback {
 
+    // Set once the banner is created, as the banner takes its listener on creation
+    internal var bannerView: Banner? = null
+
     /**
      * Called when the banner finished caching or failed to cache.
      */
     override fun onAdLoaded(event: CacheEvent, error: CacheError?) {
         val creativeId = event.adID
-        IronLog.ADAPTER_CALLBACK.verbose(ChartboostConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { ChartboostConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
-        val bannerView = adapter.get()?.bannerAdView
+        val bannerView = this.bannerView
         if (bannerView == null) {
             IronLog.ADAPTER_CALLBACK.error(ChartboostConstants.Logs.BANNER_VIEW_NULL)
             listener.onAdLoadFailed(
@@ -43,6 +50,7 @@ class ChartboostBannerListener(
 
         if (error != null) {
             IronLog.ADAPTER_CALLBACK.error(ChartboostConstants.Logs.CACHE_ERROR.format(error.toString()))
+            adapter.get()?.destroyBannerView(bannerView)
             val errorType = if (error.code == CacheError.Code.NO_AD_FOUND) {
                 AdapterErrorType.ADAPTER_ERROR_TYPE_NO_FILL
             } else {
@@ -51,6 +59,9 @@ class ChartboostBannerListener(
             listener.onAdLoadFailed(errorType, error.code.errorCode, error.toString())
             return
         }
+        if (adapter.get()?.setBannerView(generation, bannerView) == false) {
+            return
+        }
 
         if (creativeId.isNullOrEmpty()) {
             listener.onAdLoadSuccess(bannerView, layoutParams)
@@ -90,7 +101,7 @@ class ChartboostBannerListener(
         IronLog.ADAPTER_CALLBACK.verbose()
 
         if (error != null) {
-            IronLog.ADAPTER_CALLBACK.verbose(ChartboostConstants.Logs.CLICK_ERROR.format(error.toString()))
+            IronLog.ADAPTER_CALLBACK.verbose { ChartboostConstants.Logs.CLICK_ERROR.format(error.toString()) }
         }
 
         listener.onAdClicked()
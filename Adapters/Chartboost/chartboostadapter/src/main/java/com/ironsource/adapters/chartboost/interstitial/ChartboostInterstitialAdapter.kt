@@ -5,6 +5,10 @@ import android.content.Context
 import com.chartboost.sdk.ads.Interstitial
 import com.ironsource.adapters.chartboost.ChartboostAdapter
 import com.ironsource.adapters.chartboost.ChartboostConstants
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -17,6 +21,8 @@ import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseInterstitial
 class ChartboostInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<ChartboostAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(ChartboostConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(ChartboostConstants.NETWORK_NAME)
     private var interstitialAd: Interstitial? = null
 
     // region Adapter Methods
@@ -26,13 +32,14 @@ class ChartboostInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         listener: InterstitialAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val locationId = adData.getString(ChartboostConstants.AD_LOCATION_KEY)
-        IronLog.ADAPTER_API.verbose(ChartboostConstants.Logs.AD_LOCATION.format(locationId ?: ""))
+        IronLog.ADAPTER_API.verbose { ChartboostConstants.Logs.AD_LOCATION.format(locationId ?: "") }
 
         if (locationId.isNullOrEmpty()) {
             val errorMessage = ChartboostConstants.Logs.MISSING_PARAM.format(ChartboostConstants.AD_LOCATION_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -43,7 +50,7 @@ class ChartboostInterstitialAdapter(networkSettings: NetworkSettings) :
         val serverData = adData.serverData
         interstitialAd = Interstitial(
             locationId,
-            ChartboostInterstitialListener(listener),
+            ChartboostInterstitialListener(trackedListener),
             ChartboostAdapter.mediation
         )
 
@@ -59,11 +66,12 @@ class ChartboostInterstitialAdapter(networkSettings: NetworkSettings) :
         activity: Activity,
         listener: InterstitialAdListener
     ) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
             IronLog.INTERNAL.error(ChartboostConstants.Logs.AD_NOT_AVAILABLE)
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 ChartboostConstants.Logs.AD_NOT_AVAILABLE
             )
@@ -79,6 +87,7 @@ class ChartboostInterstitialAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, interstitialAd)
         interstitialAd = null
     }
 
@@ -87,14 +96,15 @@ class ChartboostInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(ChartboostConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(ChartboostConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(ChartboostConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
     }
 
     // endregion
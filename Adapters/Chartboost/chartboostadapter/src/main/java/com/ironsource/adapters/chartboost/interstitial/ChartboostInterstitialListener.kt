@@ -11,6 +11,7 @@ import com.chartboost.sdk.events.ImpressionEvent
 import com.chartboost.sdk.events.ShowError
 import com.chartboost.sdk.events.ShowEvent
 import com.ironsource.adapters.chartboost.ChartboostConstants
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -25,7 +26,7 @@ class ChartboostInterstitialListener(
      */
     override fun onAdLoaded(event: CacheEvent, error: CacheError?) {
         val creativeId = event.adID
-        IronLog.ADAPTER_CALLBACK.verbose(ChartboostConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { ChartboostConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
         if (error != null) {
             IronLog.ADAPTER_CALLBACK.error(ChartboostConstants.Logs.CACHE_ERROR.format(error.toString()))
@@ -80,7 +81,7 @@ class ChartboostInterstitialListener(
         IronLog.ADAPTER_CALLBACK.verbose()
 
         if (error != null) {
-            IronLog.ADAPTER_CALLBACK.verbose(ChartboostConstants.Logs.CLICK_ERROR.format(error.toString()))
+            IronLog.ADAPTER_CALLBACK.verbose { ChartboostConstants.Logs.CLICK_ERROR.format(error.toString()) }
         }
 
         listener.onAdClicked()
@@ -12,6 +12,7 @@ import com.chartboost.sdk.events.RewardEvent
 import com.chartboost.sdk.events.ShowError
 import com.chartboost.sdk.events.ShowEvent
 import com.ironsource.adapters.chartboost.ChartboostConstants
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -26,7 +27,7 @@ class ChartboostRewardedListener(
      */
     override fun onAdLoaded(event: CacheEvent, error: CacheError?) {
         val creativeId = event.adID
-        IronLog.ADAPTER_CALLBACK.verbose(ChartboostConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { ChartboostConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
         if (error != null) {
             IronLog.ADAPTER_CALLBACK.error(ChartboostConstants.Logs.CACHE_ERROR.format(error.toString()))
@@ -81,7 +82,7 @@ class ChartboostRewardedListener(
         IronLog.ADAPTER_CALLBACK.verbose()
 
         if (error != null) {
-            IronLog.ADAPTER_CALLBACK.verbose(ChartboostConstants.Logs.CLICK_ERROR.format(error.toString()))
+            IronLog.ADAPTER_CALLBACK.verbose { ChartboostConstants.Logs.CLICK_ERROR.format(error.toString()) }
         }
 
         listener.onAdClicked()
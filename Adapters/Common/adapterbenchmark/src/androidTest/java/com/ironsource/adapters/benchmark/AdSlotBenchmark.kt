@@ -0,0 +1,41 @@
+package com.ironsource.adapters.benchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.ironsource.adapters.common.AdSlot
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Measures the ad slot bookkeeping of a full-screen ad, from its load to the end of its show.
+ */
+@RunWith(AndroidJUnit4::class)
+class AdSlotBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val ad = Any()
+    private val slot = AdSlot<Any>("benchmark")
+
+    @Test
+    fun loadAndShow() {
+        benchmarkRule.measureRepeated {
+            val generation = slot.begin()
+            slot.set(generation, ad)
+            slot.startShow()
+            slot.finishShow()
+        }
+    }
+
+    @Test
+    fun destroyWhileLoading() {
+        benchmarkRule.measureRepeated {
+            val generation = slot.begin()
+            slot.clear(slot.generation)
+            slot.set(generation, ad)
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.ironsource.adapters.benchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.verbose
+import com.ironsource.mediationsdk.logger.IronLog
+import org.junit.After
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Measures the verbose log of a callback with the adapter logs off, which should report no
+ * allocation at all.
+ */
+@RunWith(AndroidJUnit4::class)
+class AdapterLogsBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val adUnitId = "benchmark-ad-unit"
+    private val errorCode = 1001
+
+    @After
+    fun tearDown() {
+        AdapterLogs.reset()
+    }
+
+    @Test
+    fun callbackLogWhenDisabled() {
+        AdapterLogs.setAdaptersDebugEnabled("benchmark", false)
+
+        benchmarkRule.measureRepeated {
+            IronLog.ADAPTER_CALLBACK.verbose { "adUnitId = $adUnitId, errorCode = $errorCode" }
+        }
+    }
+
+    @Test
+    fun callbackLogWhenEnabled() {
+        AdapterLogs.setAdaptersDebugEnabled("benchmark", true)
+
+        benchmarkRule.measureRepeated {
+            IronLog.ADAPTER_CALLBACK.verbose { "adUnitId = $adUnitId, errorCode = $errorCode" }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.ironsource.adapters.benchmark
+
+import android.view.Gravity
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.platform.app.InstrumentationRegistry
+import com.ironsource.adapters.common.BannerLayouts
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Measures the banner size to layout params mapping every banner load goes through.
+ */
+@RunWith(AndroidJUnit4::class)
+class BannerLayoutsBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val context = InstrumentationRegistry.getInstrumentation().targetContext
+
+    @Test
+    fun standardSizeLayoutParams() {
+        benchmarkRule.measureRepeated {
+            val isLargeScreen = BannerLayouts.isLargeScreen(context)
+            val size = BannerLayouts.StandardSize.forDescription("SMART", isLargeScreen)!!
+            BannerLayouts.layoutParams(context, size, Gravity.CENTER)
+        }
+    }
+
+    @Test
+    fun customSizeLayoutParams() {
+        benchmarkRule.measureRepeated {
+            BannerLayouts.layoutParams(context, 468, 60, Gravity.CENTER)
+        }
+    }
+}
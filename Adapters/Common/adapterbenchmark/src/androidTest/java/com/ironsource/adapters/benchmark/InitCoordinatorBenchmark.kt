@@ -0,0 +1,63 @@
+package com.ironsource.adapters.benchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.ironsource.adapters.common.InitCoordinator
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Measures the init listener fan-out, from the registration of the format adapters waiting for
+ * the network init to the notification of all of them.
+ */
+@RunWith(AndroidJUnit4::class)
+class InitCoordinatorBenchmark {
+
+    companion object {
+        // Format adapters of a network typically waiting for its init
+        private const val LISTENER_COUNT = 8
+    }
+
+    private class Listener
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val listeners = Array(LISTENER_COUNT) { Listener() }
+    private var notifiedCount = 0
+
+    private val notifier = object : InitCoordinator.Notifier<Listener> {
+        override fun notifySuccess(listener: Listener) {
+            notifiedCount++
+        }
+
+        override fun notifyFailure(listener: Listener, errorCode: Int, errorMessage: String) {
+            notifiedCount++
+        }
+    }
+
+    @Test
+    fun initFanOut() {
+        benchmarkRule.measureRepeated {
+            val coordinator = runWithTimingDisabled { InitCoordinator("Benchmark", notifier) }
+            // A zero timeout doesn't start the watchdog, which would post to the main thread
+            val attempt = coordinator.register(listeners[0], 0L)
+            for (index in 1 until LISTENER_COUNT) {
+                coordinator.register(listeners[index], 0L)
+            }
+            coordinator.onInitSuccess(attempt)
+        }
+    }
+
+    @Test
+    fun registrationAfterInit() {
+        val coordinator = InitCoordinator("Benchmark", notifier)
+        coordinator.onInitSuccess(coordinator.register(listeners[0], 0L))
+
+        benchmarkRule.measureRepeated {
+            coordinator.register(listeners[1], 0L)
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ironsource.adapters.benchmark
+
+import androidx.benchmark.junit4.BenchmarkRule
+import androidx.benchmark.junit4.measureRepeated
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+
+/**
+ * Measures the latency recording added to every load callback dispatched to the mediation layer.
+ */
+@RunWith(AndroidJUnit4::class)
+class LatencyTrackerBenchmark {
+
+    @get:Rule
+    val benchmarkRule = BenchmarkRule()
+
+    private val tracker = LatencyTracker("Benchmark", LatencyMetrics.AdFormat.INTERSTITIAL)
+
+    @Test
+    fun loadCallback() {
+        benchmarkRule.measureRepeated {
+            tracker.onLoadStarted()
+            tracker.onLoadCompleted(true)
+        }
+    }
+}
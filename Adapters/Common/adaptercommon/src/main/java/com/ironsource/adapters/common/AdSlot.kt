@@ -0,0 +1,201 @@
+package com.ironsource.adapters.common
+
+import com.ironsource.mediationsdk.logger.IronLog
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Holds the network ad of a format adapter, stamped with the generation of the load which
+ * created it.
+ *
+ * Every load starts a new generation. An ad is only stored by the load of the current generation,
+ * and a destroy only removes the ad of its own or an earlier generation, so a destroy posted before
+ * a reload which runs after it can't drop the freshly loaded ad. The ad is published safely to all
+ * the threads which read it.
+ *
+ * A full-screen ad moves out of the slot once it's shown and is held apart until its show
+ * finishes, so the next load can run and store its ad while the shown one is still on screen.
+ *
+ * The dropped callbacks and cancelled loads are counted per network, see [snapshot].
+ *
+ * @param network the network of the adapter, which the slot counts its dropped callbacks for
+ * @param onReplaced destroys a stored ad which is replaced by the ad of a newer load, for the
+ * networks which require their ads to be destroyed
+ */
+class AdSlot<T : Any> @JvmOverloads constructor(
+    val network: String,
+    private val onReplaced: ((T) -> Unit)? = null
+) {
+
+    companion object {
+        private val networks = ConcurrentHashMap<String, Counters>()
+
+        private fun countersFor(network: String): Counters =
+            networks[network] ?: networks.putIfAbsent(network, Counters()) ?: networks.getValue(network)
+
+        /**
+         * @return the counts of all the slots of the given network
+         */
+        @JvmStatic
+        fun snapshot(network: String): Stats = countersFor(network).toStats(network)
+
+        /**
+         * @return the counts of every network which created a slot
+         */
+        @JvmStatic
+        fun snapshotAll(): List<Stats> = networks.map { (network, counters) -> counters.toStats(network) }
+    }
+
+    data class Stats(
+        val network: String,
+        // Stores, destroys and callbacks which were dropped as they belonged to an older load
+        val staleCallbacks: Long,
+        // Loads which were destroyed before they stored their ad, their late result is dropped
+        val cancelledLoads: Long
+    )
+
+    private class Counters {
+        val staleCallbacks = AtomicLong()
+        val cancelledLoads = AtomicLong()
+
+        fun toStats(network: String) = Stats(network, staleCallbacks.get(), cancelledLoads.get())
+    }
+
+    private class State<T>(
+        // Generation of the latest load
+        val generation: Long,
+        val ad: T?,
+        // Generation of the load which created the ad
+        val adGeneration: Long,
+        // Whether the latest load didn't store its ad yet
+        val isLoading: Boolean
+    )
+
+    private val counters = countersFor(network)
+
+    private val state = AtomicReference(State<T>(0L, null, 0L, false))
+    private val shown = AtomicReference<T?>(null)
+
+    val ad: T?
+        get() = state.get().ad
+
+    // Ad on screen, moved out of the slot by startShow
+    val showingAd: T?
+        get() = shown.get()
+
+    // Generation of the latest load, captured by a destroy before it's posted
+    val generation: Long
+        get() = state.get().generation
+
+    /**
+     * Checked by a late callback of the load of the given generation, which should be dropped if
+     * a newer load started or the load was destroyed meanwhile.
+     */
+    fun isCurrent(generation: Long): Boolean {
+        val currentGeneration = state.get().generation
+        if (currentGeneration == generation) {
+            return true
+        }
+        onStale("callback", generation, currentGeneration)
+        return false
+    }
+
+    /**
+     * Starts a new load, the ad of the previous one is kept until the new ad is stored.
+     *
+     * @return the generation of the new load
+     */
+    fun begin(): Long {
+        while (true) {
+            val current = state.get()
+            val next = State(current.generation + 1, current.ad, current.adGeneration, true)
+            if (state.compareAndSet(current, next)) {
+                return next.generation
+            }
+        }
+    }
+
+    /**
+     * Stores the ad created by the load of the given generation.
+     *
+     * @return false if a newer load started or the load was destroyed meanwhile, in which case the
+     * ad isn't stored and should be destroyed by the caller
+     */
+    fun set(generation: Long, ad: T): Boolean {
+        while (true) {
+            val current = state.get()
+            if (current.generation != generation) {
+                onStale("store", generation, current.generation)
+                return false
+            }
+            if (state.compareAndSet(current, State(generation, ad, generation, false))) {
+                val replaced = current.ad
+                if (replaced != null && replaced !== ad) {
+                    onReplaced?.invoke(replaced)
+                }
+                return true
+            }
+        }
+    }
+
+    /**
+     * Moves the stored ad out of the slot to be shown, it's held as the showing ad until
+     * [finishShow]. A running load isn't affected and stores its ad for the next show.
+     *
+     * @return the ad to show, or null if there is none
+     */
+    fun startShow(): T? {
+        while (true) {
+            val current = state.get()
+            val ad = current.ad ?: return null
+            if (state.compareAndSet(current, State(current.generation, null, 0L, current.isLoading))) {
+                shown.set(ad)
+                return ad
+            }
+        }
+    }
+
+    /**
+     * Called once the shown ad is closed, failed to show or is destroyed with the adapter.
+     *
+     * @return the ad which was shown, to be destroyed by the caller if the network requires it
+     */
+    fun finishShow(): T? = shown.getAndSet(null)
+
+    /**
+     * Removes the ad of the given generation or an earlier one. A load of the given generation
+     * which is still running is cancelled and won't be able to store its ad.
+     *
+     * @return the removed ad to destroy, or null if there is none or it was created by a newer load
+     */
+    fun clear(generation: Long): T? {
+        while (true) {
+            val current = state.get()
+            val isOwnAd = current.ad != null && current.adGeneration <= generation
+            if (!isOwnAd && current.generation > generation) {
+                onStale("destroy", generation, current.generation)
+                return null
+            }
+            val isCancelled = current.isLoading && current.generation == generation
+            val next = State(
+                if (current.generation == generation) generation + 1 else current.generation,
+                if (isOwnAd) null else current.ad,
+                if (isOwnAd) 0L else current.adGeneration,
+                current.isLoading && !isCancelled
+            )
+            if (state.compareAndSet(current, next)) {
+                if (isCancelled) {
+                    val count = counters.cancelledLoads.incrementAndGet()
+                    IronLog.INTERNAL.verbose { "$network cancelled running load - generation = $generation, cancelled = $count" }
+                }
+                return if (isOwnAd) current.ad else null
+            }
+        }
+    }
+
+    private fun onStale(action: String, generation: Long, currentGeneration: Long) {
+        val count = counters.staleCallbacks.incrementAndGet()
+        IronLog.INTERNAL.verbose { "$network dropped stale $action - generation = $generation, current = $currentGeneration, dropped = $count" }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ironsource.adapters.common
+
+import com.ironsource.mediationsdk.logger.IronLog
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Gate of the verbose adapter logs, so the load and callback paths build their log messages only
+ * when they may be printed.
+ *
+ * The gate only skips what the existing log levels would drop anyway. The [IronLog.ADAPTER_API]
+ * and [IronLog.ADAPTER_CALLBACK] logs are printed by the mediation layer only while the adapters
+ * debug flag is set, so they are skipped once every initialized network reported the flag off.
+ * Until the first network reported it they are built as before. The other tags follow the SDK log
+ * level, which the adapters can't read, so they are never skipped.
+ */
+object AdapterLogs {
+
+    // Adapters debug flag reported by each network on init, by network
+    private val debugFlags = ConcurrentHashMap<String, Boolean>()
+
+    /**
+     * @return false only when messages of the given tag can't be printed
+     */
+    @JvmStatic
+    fun isVerboseEnabled(log: IronLog): Boolean =
+        (log != IronLog.ADAPTER_API && log != IronLog.ADAPTER_CALLBACK) || debugFlags.isEmpty() || isAdaptersDebugEnabled()
+
+    /**
+     * @return true once any network reported the adapters debug flag on
+     */
+    @JvmStatic
+    fun isAdaptersDebugEnabled(): Boolean = debugFlags.containsValue(true)
+
+    // Updated by every network adapter on init from its adapters debug flag
+    @JvmStatic
+    fun setAdaptersDebugEnabled(network: String, enabled: Boolean) {
+        debugFlags[network] = enabled
+    }
+
+    // Forgets the reported flags, the gate is open again until the next report
+    @JvmStatic
+    fun reset() {
+        debugFlags.clear()
+    }
+}
+
+/**
+ * Logs a verbose message which is built only when it may be printed. The function is inlined to
+ * keep both the lambda allocation away and the calling method name which [IronLog] takes from the
+ * stack trace.
+ */
+inline fun IronLog.verbose(message: () -> String) {
+    if (AdapterLogs.isVerboseEnabled(this)) {
+        verbose(message())
+    }
+}
@@ -0,0 +1,136 @@
+package com.ironsource.adapters.common
+
+import android.content.Context
+import android.content.res.Configuration
+import android.widget.FrameLayout
+import com.ironsource.mediationsdk.AdapterUtils
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * Resolves the pixel layout of the banner sizes of all the network adapters, so banner loads don't
+ * convert dp values or query the screen size again on every load.
+ *
+ * The resolved pixel sizes depend only on the display density and size, so they are kept in a
+ * table which is replaced once one of them changes. The check compares a few ints instead of the
+ * whole configuration. Each call returns its own layout params, which the caller may modify.
+ */
+object BannerLayouts {
+
+    // Gravity set by the layout params constructors which don't take a gravity
+    const val UNSPECIFIED_GRAVITY = -1
+
+    // The table keeps 2^CACHE_BITS pixel sizes, direct mapped by their dp size
+    private const val CACHE_BITS = 5
+
+    // Multiplier spreading the packed keys over the cache slots
+    private const val KEY_HASH_MULTIPLIER = -7046029254386353131L
+
+    /**
+     * The LevelPlay banner sizes in dp.
+     */
+    enum class StandardSize(val widthDp: Int, val heightDp: Int) {
+        BANNER(320, 50),
+        LARGE(320, 90),
+        RECTANGLE(300, 250),
+        LEADERBOARD(728, 90);
+
+        companion object {
+            /**
+             * @return the size of the given LevelPlay size description, where a smart banner is a
+             * leaderboard on large screens, or null for custom and unknown sizes
+             */
+            @JvmStatic
+            fun forDescription(description: String?, isLargeScreen: Boolean): StandardSize? =
+                when (description) {
+                    "BANNER" -> BANNER
+                    "LARGE" -> LARGE
+                    "RECTANGLE" -> RECTANGLE
+                    "SMART" -> if (isLargeScreen) LEADERBOARD else BANNER
+                    else -> null
+                }
+        }
+    }
+
+    private class Entry(val key: Long, val widthPx: Int, val heightPx: Int)
+
+    private class Table(
+        val densityDpi: Int,
+        val screenWidthDp: Int,
+        val screenHeightDp: Int,
+        val isLargeScreen: Boolean
+    ) {
+        val entries = AtomicReferenceArray<Entry>(1 shl CACHE_BITS)
+
+        fun matches(configuration: Configuration): Boolean =
+            configuration.densityDpi == densityDpi &&
+                configuration.screenWidthDp == screenWidthDp &&
+                configuration.screenHeightDp == screenHeightDp
+    }
+
+    @Volatile
+    private var table: Table? = null
+
+    @JvmStatic
+    fun isLargeScreen(context: Context): Boolean = getTable(context).isLargeScreen
+
+    // Width in dp of an adaptive banner, which spans the width of the screen
+    @JvmStatic
+    fun adaptiveWidthDp(context: Context): Int = getTable(context).screenWidthDp
+
+    @JvmStatic
+    fun dpToPixels(context: Context, dp: Int): Int = AdapterUtils.dpToPixels(context, dp)
+
+    /**
+     * @return new layout params of the given dp size, [FrameLayout.LayoutParams.MATCH_PARENT] and
+     * [FrameLayout.LayoutParams.WRAP_CONTENT] are kept as they are
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun layoutParams(context: Context, widthDp: Int, heightDp: Int, gravity: Int = UNSPECIFIED_GRAVITY): FrameLayout.LayoutParams {
+        val entries = getTable(context).entries
+        if (!widthDp.fitsInKey() || !heightDp.fitsInKey()) {
+            return FrameLayout.LayoutParams(toPixels(context, widthDp), toPixels(context, heightDp), gravity)
+        }
+
+        val key = ((widthDp.toLong() and 0xFFFFL) shl 16) or (heightDp.toLong() and 0xFFFFL)
+        val index = ((key * KEY_HASH_MULTIPLIER) ushr (Long.SIZE_BITS - CACHE_BITS)).toInt()
+        var entry = entries.get(index)
+        if (entry == null || entry.key != key) {
+            entry = Entry(key, toPixels(context, widthDp), toPixels(context, heightDp))
+            entries.set(index, entry)
+        }
+        return FrameLayout.LayoutParams(entry.widthPx, entry.heightPx, gravity)
+    }
+
+    @JvmStatic
+    @JvmOverloads
+    fun layoutParams(context: Context, size: StandardSize, gravity: Int = UNSPECIFIED_GRAVITY): FrameLayout.LayoutParams =
+        layoutParams(context, size.widthDp, size.heightDp, gravity)
+
+    /**
+     * @return the layout params of an adaptive banner of the given height, which spans the width
+     * of its container
+     */
+    @JvmStatic
+    @JvmOverloads
+    fun adaptiveLayoutParams(context: Context, heightDp: Int, gravity: Int = UNSPECIFIED_GRAVITY): FrameLayout.LayoutParams =
+        layoutParams(context, FrameLayout.LayoutParams.MATCH_PARENT, heightDp, gravity)
+
+    private fun getTable(context: Context): Table {
+        val configuration = context.resources.configuration
+        val current = table
+        if (current != null && current.matches(configuration)) {
+            return current
+        }
+        return Table(
+            configuration.densityDpi,
+            configuration.screenWidthDp,
+            configuration.screenHeightDp,
+            AdapterUtils.isLargeScreen(context)
+        ).also { table = it }
+    }
+
+    private fun toPixels(context: Context, dp: Int): Int = if (dp < 0) dp else AdapterUtils.dpToPixels(context, dp)
+
+    private fun Int.fitsInKey(): Boolean = this >= Short.MIN_VALUE && this <= Short.MAX_VALUE
+}
@@ -0,0 +1,176 @@
+package com.ironsource.adapters.common
+
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
+import com.ironsource.mediationsdk.bidding.BiddingDataCallback
+import com.ironsource.mediationsdk.logger.IronLog
+import java.util.concurrent.Executor
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+/**
+ * Collects the bidding tokens of several networks at once under a single deadline, so the slowest
+ * SDK can't hold the auction longer than the budget.
+ *
+ * All token calls are started together on a bounded executor. The result is reported once every
+ * network answered or the budget passed, whichever comes first, with the tokens and errors
+ * received so far. The networks which missed the budget are reported with how long they had been
+ * running, and their late answer is only logged with its actual duration.
+ *
+ * @param executor runs the token calls, shared by all collectors by default
+ */
+class BiddingDataCollector @JvmOverloads constructor(
+    private val executor: Executor = defaultExecutor
+) {
+
+    companion object {
+        // Token calls running at the same time, the others wait for a free thread
+        private const val MAX_PARALLEL_CALLS = 4
+
+        private val defaultExecutor = ThreadPoolExecutor(
+            MAX_PARALLEL_CALLS, MAX_PARALLEL_CALLS, 30, TimeUnit.SECONDS, LinkedBlockingQueue()
+        ).apply {
+            allowCoreThreadTimeOut(true)
+        }
+    }
+
+    // Starts the token call of a network and reports its result to the callback
+    fun interface TokenSource {
+        fun collectBiddingData(callback: BiddingDataCallback)
+    }
+
+    fun interface CollectionListener {
+        fun onCollected(result: CollectionResult)
+    }
+
+    class CollectionResult(
+        // Bidding data of the networks which answered in time, by network
+        val biddingData: Map<String, Map<String, Any>>,
+        // Error of the networks which failed in time, by network
+        val failures: Map<String, String>,
+        // Time the networks which missed the budget had been running when it passed, by network
+        val timedOut: Map<String, Long>,
+        val durationMs: Long
+    )
+
+    private val deadlineHandler = Handler(Looper.getMainLooper())
+
+    /**
+     * Starts the token calls of all the given networks.
+     *
+     * @param sources the token call of each network, by network
+     * @param budgetMs the time after which the result is reported without the missing networks,
+     * no deadline if not positive
+     * @param listener notified once, on the thread of the last answer or on the main thread once
+     * the budget passed
+     */
+    fun collect(sources: Map<String, TokenSource>, budgetMs: Long, listener: CollectionListener) {
+        val collection = Collection(sources.keys, listener, deadlineHandler)
+        if (sources.isEmpty()) {
+            collection.report()
+            return
+        }
+
+        if (budgetMs > 0) {
+            deadlineHandler.postDelayed(collection, budgetMs)
+        }
+
+        for ((network, source) in sources) {
+            val callback = object : BiddingDataCallback {
+                override fun onSuccess(biddingData: Map<String, Any>) {
+                    collection.onSuccess(network, biddingData)
+                }
+
+                override fun onFailure(errorMessage: String) {
+                    collection.onFailure(network, errorMessage)
+                }
+            }
+            try {
+                executor.execute {
+                    try {
+                        source.collectBiddingData(callback)
+                    } catch (e: Exception) {
+                        callback.onFailure("token call failed - ${e.message}")
+                    }
+                }
+            } catch (e: Exception) {
+                callback.onFailure("token call not started - ${e.message}")
+            }
+        }
+    }
+
+    // Runs as the deadline of the collection
+    private class Collection(
+        private val networks: Set<String>,
+        private val listener: CollectionListener,
+        private val deadlineHandler: Handler
+    ) : Runnable {
+        private val startTime = SystemClock.elapsedRealtime()
+        private val biddingData = HashMap<String, Map<String, Any>>()
+        private val failures = HashMap<String, String>()
+        private var isReported = false
+
+        fun onSuccess(network: String, data: Map<String, Any>) {
+            val isLast = synchronized(this) {
+                if (!isAnswerAccepted(network)) {
+                    return
+                }
+                biddingData[network] = HashMap(data)
+                isComplete()
+            }
+            if (isLast) {
+                report()
+            }
+        }
+
+        fun onFailure(network: String, errorMessage: String) {
+            val isLast = synchronized(this) {
+                if (!isAnswerAccepted(network)) {
+                    return
+                }
+                failures[network] = errorMessage
+                isComplete()
+            }
+            if (isLast) {
+                report()
+            }
+        }
+
+        override fun run() {
+            report()
+        }
+
+        fun report() {
+            deadlineHandler.removeCallbacks(this)
+            val result = synchronized(this) {
+                if (isReported) {
+                    return
+                }
+                isReported = true
+                val duration = SystemClock.elapsedRealtime() - startTime
+                val timedOut = networks
+                    .filter { it !in biddingData && it !in failures }
+                    .associateWith { duration }
+                CollectionResult(HashMap(biddingData), HashMap(failures), timedOut, duration)
+            }
+            if (result.timedOut.isNotEmpty()) {
+                IronLog.INTERNAL.verbose { "bidding data collected after ${result.durationMs} ms, timed out = ${result.timedOut.keys}" }
+            }
+            listener.onCollected(result)
+        }
+
+        // Must be called while holding the lock
+        private fun isAnswerAccepted(network: String): Boolean {
+            if (isReported) {
+                IronLog.INTERNAL.verbose { "$network bidding data ignored, received after ${SystemClock.elapsedRealtime() - startTime} ms" }
+                return false
+            }
+            return network !in biddingData && network !in failures
+        }
+
+        // Must be called while holding the lock
+        private fun isComplete(): Boolean = biddingData.size + failures.size == networks.size
+    }
+}
@@ -0,0 +1,156 @@
+package com.ironsource.adapters.common
+
+import android.os.SystemClock
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Caches the bidding tokens of a network per key, usually the ad format and placement, so
+ * auctions don't wait for the SDK to compute a token. Entries expire after [ttlMillis] and are
+ * refreshed in the background once half of their lifetime has passed.
+ *
+ * All entries are dropped by [invalidate], which has to be called once a new privacy value was
+ * applied to the SDK. A token fetched before that is never stored, and a token stored while it
+ * runs is never returned, so no token built under the previous privacy state is served.
+ */
+class BiddingTokenCache private constructor(val network: String) {
+
+    companion object {
+        const val DEFAULT_TTL_MILLIS = 5 * 60 * 1000L
+
+        // Time after which a background refresh whose callback didn't arrive no longer blocks new ones
+        private const val REFRESH_TIMEOUT_MILLIS = 30 * 1000L
+
+        private val networks = ConcurrentHashMap<String, BiddingTokenCache>()
+
+        // Shared by all networks, its thread stops once no refresh ran for a while
+        private val refreshExecutor = ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS, LinkedBlockingQueue())
+
+        /**
+         * @return the cache of the given network, created on first use
+         */
+        @JvmStatic
+        fun forNetwork(network: String): BiddingTokenCache =
+            networks[network] ?: networks.putIfAbsent(network, BiddingTokenCache(network)) ?: networks.getValue(network)
+    }
+
+    // Fetches a token from the SDK and reports the result to the given listener
+    fun interface TokenFetcher {
+        fun fetch(listener: TokenListener)
+    }
+
+    interface TokenListener {
+        fun onTokenReceived(token: String?)
+
+        fun onTokenFailed(error: String)
+    }
+
+    private class Entry(val token: String, val creationTime: Long, val generation: Int)
+
+    private val entries = ConcurrentHashMap<String, Entry>()
+
+    // Start time of the running background refreshes, by key
+    private val refreshingKeys = ConcurrentHashMap<String, Long>()
+
+    // Incremented on every invalidation so tokens fetched before it are neither stored nor returned
+    private val generation = AtomicInteger(0)
+
+    @Volatile
+    var ttlMillis: Long = DEFAULT_TTL_MILLIS
+
+    /**
+     * Returns the cached token for the given key, or fetches a new one using the fetcher.
+     * A cached token close to expiration is returned immediately and refreshed in the background.
+     */
+    fun getOrFetch(key: String, fetcher: TokenFetcher, listener: TokenListener) {
+        val entry = entries[key]
+        if (entry != null) {
+            val age = SystemClock.elapsedRealtime() - entry.creationTime
+            if (entry.generation == generation.get() && age < ttlMillis) {
+                if (age >= ttlMillis / 2) {
+                    refresh(key, fetcher)
+                }
+                listener.onTokenReceived(entry.token)
+                return
+            }
+            entries.remove(key, entry)
+        }
+
+        val fetchGeneration = generation.get()
+        fetcher.fetch(object : TokenListener {
+            override fun onTokenReceived(token: String?) {
+                store(key, token, fetchGeneration)
+                listener.onTokenReceived(token)
+            }
+
+            override fun onTokenFailed(error: String) {
+                listener.onTokenFailed(error)
+            }
+        })
+    }
+
+    /**
+     * Same as the listener version, a failed fetch is reported as a null token.
+     */
+    @JvmSynthetic
+    fun getOrFetch(key: String, fetcher: TokenFetcher, onToken: (String?) -> Unit) {
+        getOrFetch(key, fetcher, object : TokenListener {
+            override fun onTokenReceived(token: String?) = onToken(token)
+
+            override fun onTokenFailed(error: String) = onToken(null)
+        })
+    }
+
+    /**
+     * Fetches a token for the given key in the background, unless a fetch is already running.
+     * A fetch whose callback didn't arrive within [REFRESH_TIMEOUT_MILLIS] no longer blocks new ones.
+     */
+    fun refresh(key: String, fetcher: TokenFetcher) {
+        val startTime = SystemClock.elapsedRealtime()
+        val runningStartTime = refreshingKeys.putIfAbsent(key, startTime)
+        if (runningStartTime != null &&
+            (startTime - runningStartTime < REFRESH_TIMEOUT_MILLIS || !refreshingKeys.replace(key, runningStartTime, startTime))
+        ) {
+            return
+        }
+
+        val fetchGeneration = generation.get()
+        try {
+            refreshExecutor.execute {
+                try {
+                    fetcher.fetch(object : TokenListener {
+                        override fun onTokenReceived(token: String?) {
+                            store(key, token, fetchGeneration)
+                            refreshingKeys.remove(key, startTime)
+                        }
+
+                        override fun onTokenFailed(error: String) {
+                            refreshingKeys.remove(key, startTime)
+                        }
+                    })
+                } catch (e: Exception) {
+                    refreshingKeys.remove(key, startTime)
+                }
+            }
+        } catch (e: Exception) {
+            refreshingKeys.remove(key, startTime)
+        }
+    }
+
+    fun invalidate() {
+        generation.incrementAndGet()
+        entries.clear()
+    }
+
+    // The entry keeps the generation it was fetched in, so an entry put while an invalidation
+    // clears the map is ignored by the readers instead of being served
+    private fun store(key: String, token: String?, fetchGeneration: Int) {
+        if (token.isNullOrEmpty() || fetchGeneration != generation.get()) {
+            return
+        }
+        entries[key] = Entry(token, SystemClock.elapsedRealtime(), fetchGeneration)
+    }
+}
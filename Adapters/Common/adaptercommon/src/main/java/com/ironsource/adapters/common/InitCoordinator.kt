@@ -0,0 +1,325 @@
+package com.ironsource.adapters.common
+
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
+import com.ironsource.mediationsdk.INetworkInitCallbackListener
+import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
+import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
+import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
+import com.ironsource.mediationsdk.logger.IronLog
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Coordinates the SDK initialization of a network between all its adapter instances.
+ *
+ * The init state and the pending listeners are kept in a single immutable snapshot which is
+ * replaced atomically, so a listener registered while the init completes is either notified by
+ * the completing thread or sees the final state - it can never be left without a callback.
+ *
+ * Every init attempt is failed by a watchdog if the SDK doesn't complete it in time, and a failed
+ * init is attempted again on the next registration once its exponential backoff has passed.
+ * The SDK callbacks report the attempt they belong to, so a failure of an attempt which was
+ * already replaced by a retry is ignored instead of failing the retry. A success of an earlier
+ * attempt still completes the running one, as the SDK is initialized and most SDKs don't report
+ * it again for the retry.
+ *
+ * @param network the network name the init latency is recorded for
+ * @param notifier reports the init result to a pending listener
+ * @param completionListener notified once per completed attempt, and again for a success which
+ * arrives after its attempt was failed by the watchdog
+ */
+class InitCoordinator<L : Any> @JvmOverloads constructor(
+    private val network: String,
+    private val notifier: Notifier<L>,
+    private val completionListener: CompletionListener? = null
+) {
+
+    companion object {
+        // Returned by register when the caller shouldn't start the SDK init
+        const val NO_ATTEMPT = 0
+
+        const val DEFAULT_INIT_TIMEOUT_MS = 30_000L
+
+        // Init timeout in seconds set in the network settings
+        private const val INIT_TIMEOUT_KEY = "initTimeout"
+
+        // Backoff before retrying a failed init, doubled after every consecutive failure
+        private const val BASE_RETRY_DELAY_MS = 5_000L
+        private const val MAX_RETRY_DELAY_MS = 300_000L
+
+        private const val INIT_TIMEOUT_MESSAGE = "SDK init timed out"
+
+        @JvmStatic
+        fun getInitTimeout(adData: AdData): Long =
+            adData.getString(INIT_TIMEOUT_KEY)?.toLongOrNull()?.let { it * 1000 } ?: DEFAULT_INIT_TIMEOUT_MS
+
+        /**
+         * @return a coordinator for the adapters of the LevelPlay adapter API
+         */
+        @JvmStatic
+        @JvmOverloads
+        fun forNetworkInitializationListeners(
+            network: String,
+            completionListener: CompletionListener? = null
+        ): InitCoordinator<NetworkInitializationListener> =
+            InitCoordinator(network, object : Notifier<NetworkInitializationListener> {
+                override fun notifySuccess(listener: NetworkInitializationListener) {
+                    listener.onInitSuccess()
+                }
+
+                override fun notifyFailure(listener: NetworkInitializationListener, errorCode: Int, errorMessage: String) {
+                    listener.onInitFailed(errorCode, errorMessage)
+                }
+            }, completionListener)
+
+        /**
+         * @return a coordinator for the adapters of the legacy adapter API
+         */
+        @JvmStatic
+        @JvmOverloads
+        fun forInitCallbackListeners(
+            network: String,
+            completionListener: CompletionListener? = null
+        ): InitCoordinator<INetworkInitCallbackListener> =
+            InitCoordinator(network, object : Notifier<INetworkInitCallbackListener> {
+                override fun notifySuccess(listener: INetworkInitCallbackListener) {
+                    listener.onNetworkInitCallbackSuccess()
+                }
+
+                override fun notifyFailure(listener: INetworkInitCallbackListener, errorCode: Int, errorMessage: String) {
+                    listener.onNetworkInitCallbackFailed(errorMessage)
+                }
+            }, completionListener)
+    }
+
+    // Init state possible values
+    enum class InitState {
+        INIT_STATE_NONE,
+        INIT_STATE_IN_PROGRESS,
+        INIT_STATE_SUCCESS,
+        INIT_STATE_FAILED
+    }
+
+    interface Notifier<L> {
+        fun notifySuccess(listener: L)
+        fun notifyFailure(listener: L, errorCode: Int, errorMessage: String)
+    }
+
+    fun interface CompletionListener {
+        fun onInitCompleted(success: Boolean, durationMs: Long)
+    }
+
+    private class ListenerNode<L>(
+        val listener: L,
+        val next: ListenerNode<L>?
+    ) {
+        fun contains(target: L): Boolean {
+            var node: ListenerNode<L>? = this
+            while (node != null) {
+                if (node.listener === target) {
+                    return true
+                }
+                node = node.next
+            }
+            return false
+        }
+    }
+
+    private class Snapshot<L>(
+        val state: InitState,
+        val listeners: ListenerNode<L>? = null,
+        val errorCode: Int = 0,
+        val errorMessage: String = "",
+        val initStartTime: Long = 0L,
+        val stateChangeTime: Long = SystemClock.elapsedRealtime(),
+        // Number of the current or last init attempt
+        val attempt: Int = NO_ATTEMPT,
+        // Number of consecutive failed attempts
+        val failureCount: Int = 0
+    )
+
+    private val snapshot = AtomicReference(Snapshot<L>(InitState.INIT_STATE_NONE))
+    private val watchdogHandler = Handler(Looper.getMainLooper())
+    private val staleCallbacks = AtomicLong()
+
+    val initState: InitState
+        get() = snapshot.get().state
+
+    // Elapsed realtime of the last state change
+    val stateChangeTime: Long
+        get() = snapshot.get().stateChangeTime
+
+    // Duration of the completed initialization in milliseconds, -1 if not completed yet
+    val initDuration: Long
+        get() {
+            val current = snapshot.get()
+            return if (current.state.isCompleted()) current.stateChangeTime - current.initStartTime else -1L
+        }
+
+    // Number of SDK failures ignored because their attempt was already replaced by a retry
+    val staleCallbackCount: Long
+        get() = staleCallbacks.get()
+
+    /**
+     * @return true if the init failed and its retry backoff has passed, so the next registration
+     * starts a new attempt
+     */
+    fun canRetry(): Boolean = snapshot.get().canRetry(SystemClock.elapsedRealtime())
+
+    /**
+     * Registers a listener for the init result, a listener which is already pending is not added
+     * again. If the init has already completed the listener is notified immediately, unless it
+     * failed and can be retried, in which case a new attempt is started.
+     *
+     * @param initTimeoutMs the time after which the attempt is failed if the SDK didn't complete it
+     * @return the attempt the caller should start the SDK init for and report its result with,
+     * or [NO_ATTEMPT] if the init is already running or completed
+     */
+    @JvmOverloads
+    fun register(listener: L?, initTimeoutMs: Long = DEFAULT_INIT_TIMEOUT_MS): Int {
+        while (true) {
+            val current = snapshot.get()
+            val now = SystemClock.elapsedRealtime()
+            when (current.state) {
+                InitState.INIT_STATE_SUCCESS -> {
+                    listener?.let { notifier.notifySuccess(it) }
+                    return NO_ATTEMPT
+                }
+                InitState.INIT_STATE_FAILED, InitState.INIT_STATE_NONE -> {
+                    if (current.state == InitState.INIT_STATE_FAILED && !current.canRetry(now)) {
+                        listener?.let { notifier.notifyFailure(it, current.errorCode, current.errorMessage) }
+                        return NO_ATTEMPT
+                    }
+                    val next = Snapshot(
+                        state = InitState.INIT_STATE_IN_PROGRESS,
+                        listeners = listener?.let { ListenerNode(it, null) },
+                        initStartTime = now,
+                        stateChangeTime = now,
+                        attempt = current.attempt + 1,
+                        failureCount = current.failureCount
+                    )
+                    if (snapshot.compareAndSet(current, next)) {
+                        startWatchdog(next.attempt, initTimeoutMs)
+                        return next.attempt
+                    }
+                }
+                InitState.INIT_STATE_IN_PROGRESS -> {
+                    if (listener == null || current.listeners?.contains(listener) == true) {
+                        return NO_ATTEMPT
+                    }
+                    val next = Snapshot(
+                        state = current.state,
+                        listeners = ListenerNode(listener, current.listeners),
+                        initStartTime = current.initStartTime,
+                        stateChangeTime = current.stateChangeTime,
+                        attempt = current.attempt,
+                        failureCount = current.failureCount
+                    )
+                    if (snapshot.compareAndSet(current, next)) {
+                        return NO_ATTEMPT
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Completes the given attempt successfully and notifies all pending listeners.
+     * A success reported after the attempt was failed by the watchdog, or after it was replaced by
+     * a retry, still completes the init.
+     *
+     * @param onCompleted invoked once the state is already successful and before the listeners
+     * are notified, used to apply values which require an initialized SDK
+     */
+    @JvmOverloads
+    fun onInitSuccess(attempt: Int, onCompleted: Runnable? = null) {
+        val pending = complete(attempt, InitState.INIT_STATE_SUCCESS, 0, "") ?: return
+        onCompleted?.run()
+        for (listener in pending) {
+            notifier.notifySuccess(listener)
+        }
+    }
+
+    fun onInitFailed(attempt: Int, errorCode: Int, errorMessage: String) {
+        val pending = complete(attempt, InitState.INIT_STATE_FAILED, errorCode, errorMessage) ?: return
+        for (listener in pending) {
+            notifier.notifyFailure(listener, errorCode, errorMessage)
+        }
+    }
+
+    private fun startWatchdog(attempt: Int, initTimeoutMs: Long) {
+        if (initTimeoutMs <= 0) {
+            return
+        }
+        watchdogHandler.postDelayed({
+            val current = snapshot.get()
+            if (current.state == InitState.INIT_STATE_IN_PROGRESS && current.attempt == attempt) {
+                onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, INIT_TIMEOUT_MESSAGE)
+            }
+        }, initTimeoutMs)
+    }
+
+    // Moves to a final state and returns the pending listeners in registration order, or null
+    // if the init was already completed by another callback or the failure belongs to a replaced
+    // attempt
+    private fun complete(attempt: Int, state: InitState, errorCode: Int, errorMessage: String): List<L>? {
+        while (true) {
+            val current = snapshot.get()
+            if (attempt == NO_ATTEMPT) {
+                return null
+            }
+            // The SDK is initialized whichever attempt reported it, so the success completes the
+            // running retry instead of leaving it waiting for a callback which may never come
+            val isEarlierSuccess = state == InitState.INIT_STATE_SUCCESS && attempt < current.attempt
+            if (current.attempt != attempt && !isEarlierSuccess) {
+                val count = staleCallbacks.incrementAndGet()
+                IronLog.INTERNAL.verbose { "$network ignored init callback of attempt $attempt, current attempt = ${current.attempt}, stale callbacks = $count" }
+                return null
+            }
+            val isLateSuccess = current.state == InitState.INIT_STATE_FAILED && state == InitState.INIT_STATE_SUCCESS
+            if (current.state.isCompleted() && !isLateSuccess) {
+                return null
+            }
+            val now = SystemClock.elapsedRealtime()
+            val next = Snapshot<L>(
+                state = state,
+                errorCode = errorCode,
+                errorMessage = errorMessage,
+                initStartTime = current.initStartTime,
+                stateChangeTime = now,
+                attempt = current.attempt,
+                failureCount = if (state == InitState.INIT_STATE_FAILED) current.failureCount + 1 else 0
+            )
+            if (snapshot.compareAndSet(current, next)) {
+                val isSuccess = state == InitState.INIT_STATE_SUCCESS
+                val duration = now - next.initStartTime
+                // The attempt was already recorded as failed
+                if (!isLateSuccess) {
+                    LatencyMetrics.forNetwork(network).record(LatencyMetrics.Phase.INIT, LatencyMetrics.AdFormat.NETWORK, duration, isSuccess)
+                }
+                completionListener?.onInitCompleted(isSuccess, duration)
+                val pending = ArrayList<L>()
+                var node = current.listeners
+                while (node != null) {
+                    pending.add(node.listener)
+                    node = node.next
+                }
+                pending.reverse()
+                return pending
+            }
+        }
+    }
+
+    private fun Snapshot<L>.canRetry(now: Long): Boolean {
+        if (state != InitState.INIT_STATE_FAILED) {
+            return false
+        }
+        val retryDelay = (BASE_RETRY_DELAY_MS shl (failureCount - 1).coerceIn(0, 16)).coerceAtMost(MAX_RETRY_DELAY_MS)
+        return now - stateChangeTime >= retryDelay
+    }
+
+    private fun InitState.isCompleted(): Boolean =
+        this == InitState.INIT_STATE_SUCCESS || this == InitState.INIT_STATE_FAILED
+}
@@ -0,0 +1,188 @@
+package com.ironsource.adapters.common
+
+import android.content.Context
+import android.util.AtomicFile
+import com.ironsource.mediationsdk.logger.IronLog
+import org.json.JSONObject
+import java.io.File
+import java.util.Locale
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+/**
+ * Remembers the outcome of the last SDK initialization of a network across app launches, so the
+ * [InitScheduler] can start a network which initialized quickly last time earlier and defer one
+ * which keeps failing behind all the others.
+ *
+ * The history is a small record in the app's cache directory, read and written atomically off the
+ * calling thread. Losing it only means the next launch is scheduled by the configured priority. It
+ * is discarded once the SDK version, the adapter version or the validated init config changes, as
+ * the previous outcome says nothing about the new combination.
+ */
+class InitHistory internal constructor(val network: String) {
+
+    companion object {
+        // Init duration up to which a successful network is moved one priority level up
+        const val FAST_INIT_MS = 1_000L
+
+        // Consecutive failed init attempts after which the network is initialized last
+        const val MAX_CONSECUTIVE_FAILURES = 3
+
+        private const val SDK_VERSION = "sdkVersion"
+        private const val ADAPTER_VERSION = "adapterVersion"
+        private const val CONFIG = "config"
+        private const val IS_SUCCESS = "isSuccess"
+        private const val INIT_DURATION = "initDurationMs"
+        private const val CONSECUTIVE_FAILURES = "consecutiveFailures"
+
+        private val networks = ConcurrentHashMap<String, InitHistory>()
+
+        // Reads and writes of all networks are done off the calling thread in order, and the thread
+        // ends once there is nothing left to do
+        private val ioExecutor = ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS, LinkedBlockingQueue())
+
+        /**
+         * @return the history of the given network, created on first use
+         */
+        @JvmStatic
+        fun forNetwork(network: String): InitHistory =
+            networks[network] ?: networks.putIfAbsent(network, InitHistory(network)) ?: networks.getValue(network)
+    }
+
+    private data class Entry(
+        val sdkVersion: String,
+        val adapterVersion: String,
+        val config: String,
+        val isSuccess: Boolean = false,
+        val initDurationMs: Long = -1L,
+        val consecutiveFailures: Int = 0
+    )
+
+    private val fileName = "ironsource_${network.lowercase(Locale.US)}_init_history.json"
+
+    private val lock = Any()
+    private var isLoadRequested = false
+    private var file: AtomicFile? = null
+    // History of the current SDK, adapter and config, without an outcome if none was recorded yet
+    private var entry: Entry? = null
+
+    /**
+     * Reads the history of the last launch once per process, off the calling thread.
+     *
+     * @param config the validated values the SDK is initialized with
+     */
+    fun load(context: Context, sdkVersion: String, adapterVersion: String, config: String) {
+        synchronized(lock) {
+            if (isLoadRequested) {
+                return
+            }
+            isLoadRequested = true
+        }
+        val appContext = context.applicationContext
+        val current = Entry(sdkVersion, adapterVersion, config.hashCode().toString())
+        ioExecutor.execute { read(appContext, current) }
+    }
+
+    /**
+     * Runs the given block off the calling thread, once the history requested by [load] was read.
+     */
+    fun whenLoaded(block: Runnable) {
+        ioExecutor.execute(block)
+    }
+
+    /**
+     * @return the priority to initialize with, adjusted by the outcome of the last launches
+     */
+    fun adjustPriority(priority: Int): Int {
+        val current = synchronized(lock) { entry } ?: return priority
+        return when {
+            current.isSuccess && current.initDurationMs in 0..FAST_INIT_MS -> (priority - 1).coerceAtLeast(0)
+            else -> priority
+        }
+    }
+
+    /**
+     * @return true if the network failed to initialize on each of the last launches, and should be
+     * initialized after all the other networks
+     */
+    fun isFailing(): Boolean {
+        val current = synchronized(lock) { entry } ?: return false
+        return current.consecutiveFailures >= MAX_CONSECUTIVE_FAILURES
+    }
+
+    fun record(isSuccess: Boolean, initDurationMs: Long) {
+        val next = synchronized(lock) {
+            val current = entry ?: return
+            current.copy(
+                isSuccess = isSuccess,
+                initDurationMs = initDurationMs,
+                consecutiveFailures = if (isSuccess) 0 else current.consecutiveFailures + 1
+            ).also { entry = it }
+        }
+        ioExecutor.execute { write(next) }
+    }
+
+    private fun read(context: Context, current: Entry) {
+        val historyFile = AtomicFile(File(context.cacheDir, fileName))
+        val stored = try {
+            JSONObject(String(historyFile.readFully(), Charsets.UTF_8)).toEntry()
+        } catch (e: Exception) {
+            // No history yet, or it can't be read and is replaced by the next outcome
+            null
+        }
+        val loaded = if (stored != null && stored.sdkVersion == current.sdkVersion &&
+            stored.adapterVersion == current.adapterVersion && stored.config == current.config) {
+            stored
+        } else {
+            current
+        }
+        synchronized(lock) {
+            file = historyFile
+            entry = loaded
+        }
+        IronLog.INTERNAL.verbose { "$network init history - isSuccess = ${loaded.isSuccess}, duration = ${loaded.initDurationMs}, failures = ${loaded.consecutiveFailures}" }
+    }
+
+    private fun write(entry: Entry) {
+        val historyFile = synchronized(lock) {
+            // A newer outcome was recorded meanwhile and is written by its own task
+            if (entry != this.entry) {
+                return
+            }
+            file ?: return
+        }
+        val json = JSONObject()
+            .put(SDK_VERSION, entry.sdkVersion)
+            .put(ADAPTER_VERSION, entry.adapterVersion)
+            .put(CONFIG, entry.config)
+            .put(IS_SUCCESS, entry.isSuccess)
+            .put(INIT_DURATION, entry.initDurationMs)
+            .put(CONSECUTIVE_FAILURES, entry.consecutiveFailures)
+
+        val stream = try {
+            historyFile.startWrite()
+        } catch (e: Exception) {
+            IronLog.INTERNAL.error("$network init history write failed - ${e.message}")
+            return
+        }
+        try {
+            stream.write(json.toString().toByteArray(Charsets.UTF_8))
+            historyFile.finishWrite(stream)
+        } catch (e: Exception) {
+            historyFile.failWrite(stream)
+            IronLog.INTERNAL.error("$network init history write failed - ${e.message}")
+        }
+    }
+
+    private fun JSONObject.toEntry(): Entry =
+        Entry(
+            sdkVersion = getString(SDK_VERSION),
+            adapterVersion = getString(ADAPTER_VERSION),
+            config = getString(CONFIG),
+            isSuccess = getBoolean(IS_SUCCESS),
+            initDurationMs = getLong(INIT_DURATION),
+            consecutiveFailures = getInt(CONSECUTIVE_FAILURES)
+        )
+}
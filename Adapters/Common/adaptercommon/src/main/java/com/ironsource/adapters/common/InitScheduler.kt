@@ -0,0 +1,100 @@
+package com.ironsource.adapters.common
+
+import android.os.Handler
+import android.os.Looper
+import android.view.Choreographer
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Schedules the SDK initialization of a network on the thread the SDK requires.
+ *
+ * Networks with a high revenue priority start right away. Lower priority networks wait for the
+ * next frame to be drawn and are then spaced out by their priority, so they don't compete with
+ * the app launch and the higher priority networks. The priority is adjusted by the [InitHistory]
+ * of the previous launches, and a network which keeps failing is initialized after all the
+ * staggered ones.
+ *
+ * The SDK init of AppLovin, DT Exchange and InMobi runs on the [MAIN_THREAD], since those SDKs
+ * require their init to be called on the main thread. AdMob runs on its own init thread. All
+ * other networks initialize on the calling mediation thread without a scheduler.
+ *
+ * @param initHistory the history of the network, which is read before the init is scheduled
+ * @param initExecutor runs the init of the network
+ */
+class InitScheduler(
+    private val initHistory: InitHistory,
+    private val initExecutor: Executor
+) {
+
+    companion object {
+        // Network revenue priority set in the network settings, 0 being the highest
+        const val INIT_PRIORITY_KEY = "initPriority"
+
+        // Highest priority value which is still initialized right away
+        const val HIGH_PRIORITY_THRESHOLD = 1
+
+        // Delay added per priority level past the threshold, and its upper bound
+        const val STAGGER_INTERVAL_MS = 250L
+        const val MAX_STAGGER_DELAY_MS = 2000L
+
+        // Delay of a network which keeps failing, past the one of every staggered network
+        const val FAILING_DELAY_MS = MAX_STAGGER_DELAY_MS + STAGGER_INTERVAL_MS
+
+        // Longest wait for the first frame before the deferred networks are initialized anyway
+        const val FIRST_FRAME_TIMEOUT_MS = 1000L
+
+        // Runs the init of the SDKs which have to be initialized on the main thread
+        @JvmField
+        val MAIN_THREAD = Executor { MainThreadScheduler.post(it) }
+
+        private val mainHandler = Handler(Looper.getMainLooper())
+
+        // Shared by all networks, the first frame is drawn once per process
+        @Volatile
+        private var isFrameDrawn = false
+    }
+
+    /**
+     * @param configuredPriority the value of [INIT_PRIORITY_KEY] in the network settings, 0 if
+     * not set
+     */
+    fun schedule(configuredPriority: Int, block: Runnable) {
+        // The priority depends on the init history, which is read off the calling thread
+        initHistory.whenLoaded {
+            schedule(initHistory.adjustPriority(configuredPriority), initHistory.isFailing(), block)
+        }
+    }
+
+    private fun schedule(priority: Int, isFailing: Boolean, block: Runnable) {
+        if (!isFailing && priority <= HIGH_PRIORITY_THRESHOLD) {
+            initExecutor.execute(block)
+            return
+        }
+
+        val delay = if (isFailing) {
+            FAILING_DELAY_MS
+        } else {
+            ((priority - HIGH_PRIORITY_THRESHOLD) * STAGGER_INTERVAL_MS).coerceAtMost(MAX_STAGGER_DELAY_MS)
+        }
+        if (isFrameDrawn) {
+            mainHandler.postDelayed({ initExecutor.execute(block) }, delay)
+            return
+        }
+
+        // No frame is drawn while the app is in the background, so the wait for it is bounded
+        val isStarted = AtomicBoolean(false)
+        val start = Runnable {
+            if (isStarted.compareAndSet(false, true)) {
+                mainHandler.postDelayed({ initExecutor.execute(block) }, delay)
+            }
+        }
+        mainHandler.post {
+            Choreographer.getInstance().postFrameCallback {
+                isFrameDrawn = true
+                start.run()
+            }
+        }
+        mainHandler.postDelayed(start, FIRST_FRAME_TIMEOUT_MS)
+    }
+}
@@ -0,0 +1,159 @@
+package com.ironsource.adapters.common
+
+import com.ironsource.mediationsdk.logger.IronLog
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * Latency metrics of a network adapter.
+ *
+ * Every completed init, bidding token, load and show flow is added to a fixed-bucket histogram
+ * per phase and ad format. The histograms of a network can be pulled with [snapshot], the ones of
+ * all networks with [snapshotAll], and every single measurement is pushed to the [sink] if one is
+ * set.
+ */
+class LatencyMetrics private constructor(val network: String) {
+
+    companion object {
+        // Upper bounds in milliseconds of the histogram buckets, the last bucket holds everything above
+        private val BUCKET_BOUNDS = longArrayOf(50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000)
+
+        private val AD_FORMAT_COUNT = AdFormat.values().size
+
+        private val networks = ConcurrentHashMap<String, LatencyMetrics>()
+
+        @Volatile
+        @JvmStatic
+        var sink: LatencySink? = null
+
+        /**
+         * @return the metrics of the given network, created on first use
+         */
+        @JvmStatic
+        fun forNetwork(network: String): LatencyMetrics =
+            networks[network] ?: networks.putIfAbsent(network, LatencyMetrics(network)) ?: networks.getValue(network)
+
+        /**
+         * @return the histograms of all networks which have at least one measurement
+         */
+        @JvmStatic
+        fun snapshotAll(): List<HistogramSnapshot> = networks.values.flatMap { it.snapshot() }
+    }
+
+    enum class Phase {
+        INIT,
+        TOKEN,
+        LOAD,
+        SHOW
+    }
+
+    enum class AdFormat {
+        NETWORK,
+        INTERSTITIAL,
+        REWARDED,
+        BANNER,
+        NATIVE
+    }
+
+    interface LatencySink {
+        fun onLatencyRecorded(network: String, phase: Phase, adFormat: AdFormat, durationMs: Long, success: Boolean)
+    }
+
+    class HistogramSnapshot(
+        val network: String,
+        val phase: Phase,
+        val adFormat: AdFormat,
+        // Upper bounds of all buckets but the last one, which is unbounded
+        val bucketBounds: LongArray,
+        val bucketCounts: LongArray,
+        val successCount: Long,
+        val failureCount: Long,
+        val totalDurationMs: Long
+    ) {
+        val count: Long
+            get() = successCount + failureCount
+    }
+
+    private class Histogram {
+        val bucketCounts = AtomicLongArray(BUCKET_BOUNDS.size + 1)
+        val successCount = AtomicLong()
+        val failureCount = AtomicLong()
+        val totalDuration = AtomicLong()
+
+        fun add(durationMs: Long, success: Boolean) {
+            var index = 0
+            while (index < BUCKET_BOUNDS.size && durationMs > BUCKET_BOUNDS[index]) {
+                index++
+            }
+            bucketCounts.incrementAndGet(index)
+            totalDuration.addAndGet(durationMs)
+            if (success) successCount.incrementAndGet() else failureCount.incrementAndGet()
+        }
+
+        fun reset() {
+            for (index in 0 until bucketCounts.length()) {
+                bucketCounts.set(index, 0)
+            }
+            successCount.set(0)
+            failureCount.set(0)
+            totalDuration.set(0)
+        }
+    }
+
+    // Histograms are allocated upfront, indexed by phase and ad format
+    private val histograms = Array(Phase.values().size * AD_FORMAT_COUNT) { Histogram() }
+
+    /**
+     * @return the histograms of the network which have at least one measurement
+     */
+    fun snapshot(): List<HistogramSnapshot> {
+        val snapshots = ArrayList<HistogramSnapshot>()
+        for (phase in Phase.values()) {
+            for (adFormat in AdFormat.values()) {
+                val histogram = histograms[indexOf(phase, adFormat)]
+                val successCount = histogram.successCount.get()
+                val failureCount = histogram.failureCount.get()
+                if (successCount + failureCount == 0L) {
+                    continue
+                }
+                val bucketCounts = LongArray(histogram.bucketCounts.length()) { histogram.bucketCounts.get(it) }
+                snapshots.add(
+                    HistogramSnapshot(
+                        network,
+                        phase,
+                        adFormat,
+                        BUCKET_BOUNDS.copyOf(),
+                        bucketCounts,
+                        successCount,
+                        failureCount,
+                        histogram.totalDuration.get()
+                    )
+                )
+            }
+        }
+        return snapshots
+    }
+
+    fun reset() {
+        for (histogram in histograms) {
+            histogram.reset()
+        }
+    }
+
+    fun record(phase: Phase, adFormat: AdFormat, durationMs: Long, success: Boolean) {
+        if (durationMs < 0) {
+            return
+        }
+        histograms[indexOf(phase, adFormat)].add(durationMs, success)
+        val currentSink = sink ?: return
+        try {
+            currentSink.onLatencyRecorded(network, phase, adFormat, durationMs, success)
+        } catch (e: Exception) {
+            IronLog.INTERNAL.error("latency sink failed - ${e.message}")
+        }
+    }
+
+    private fun indexOf(phase: Phase, adFormat: AdFormat): Int =
+        phase.ordinal * AD_FORMAT_COUNT + adFormat.ordinal
+}
@@ -0,0 +1,184 @@
+package com.ironsource.adapters.common
+
+import android.os.SystemClock
+import android.view.View
+import android.widget.FrameLayout
+import com.ironsource.adapters.common.LatencyMetrics.AdFormat
+import com.ironsource.adapters.common.LatencyMetrics.Phase
+import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
+import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
+import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
+import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
+import com.ironsource.mediationsdk.bidding.BiddingDataCallback
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Measures the token, load and show latencies of a single ad format adapter.
+ *
+ * The listeners passed to the adapter are wrapped so the first load and show result after each
+ * call is recorded in the [LatencyMetrics] of the network. Show results are matched to the last
+ * show call whichever listener reports them, since some SDKs bind the show callbacks when loading.
+ * Adapters whose listeners can't be wrapped report the start and the result of each call directly.
+ */
+class LatencyTracker(network: String, private val adFormat: AdFormat) {
+
+    private val metrics = LatencyMetrics.forNetwork(network)
+
+    private val loadStartTime = AtomicLong(0L)
+    private val showStartTime = AtomicLong(0L)
+
+    fun trackLoad(listener: InterstitialAdListener): InterstitialAdListener {
+        onLoadStarted()
+        return TrackedInterstitialAdListener(listener)
+    }
+
+    fun trackLoad(listener: RewardedVideoAdListener): RewardedVideoAdListener {
+        onLoadStarted()
+        return TrackedRewardedVideoAdListener(listener)
+    }
+
+    fun trackLoad(listener: BannerAdListener): BannerAdListener {
+        onLoadStarted()
+        return TrackedBannerAdListener(listener)
+    }
+
+    fun trackShow(listener: InterstitialAdListener): InterstitialAdListener {
+        onShowStarted()
+        return TrackedInterstitialAdListener(listener)
+    }
+
+    fun trackShow(listener: RewardedVideoAdListener): RewardedVideoAdListener {
+        onShowStarted()
+        return TrackedRewardedVideoAdListener(listener)
+    }
+
+    fun trackToken(biddingDataCallback: BiddingDataCallback): BiddingDataCallback =
+        TrackedBiddingDataCallback(biddingDataCallback, SystemClock.elapsedRealtime())
+
+    fun onLoadStarted() {
+        loadStartTime.set(SystemClock.elapsedRealtime())
+    }
+
+    fun onLoadCompleted(success: Boolean) =
+        record(Phase.LOAD, loadStartTime.getAndSet(0L), success)
+
+    fun onShowStarted() {
+        showStartTime.set(SystemClock.elapsedRealtime())
+    }
+
+    fun onShowCompleted(success: Boolean) =
+        record(Phase.SHOW, showStartTime.getAndSet(0L), success)
+
+    private fun record(phase: Phase, startTime: Long, success: Boolean) {
+        // A zero start time means the result was already recorded for the last call
+        if (startTime == 0L) {
+            return
+        }
+        metrics.record(phase, adFormat, SystemClock.elapsedRealtime() - startTime, success)
+    }
+
+    private inner class TrackedInterstitialAdListener(
+        private val listener: InterstitialAdListener
+    ) : InterstitialAdListener by listener {
+
+        override fun onAdLoadSuccess() {
+            onLoadCompleted(true)
+            listener.onAdLoadSuccess()
+        }
+
+        override fun onAdLoadSuccess(extraData: Map<String, Any>) {
+            onLoadCompleted(true)
+            listener.onAdLoadSuccess(extraData)
+        }
+
+        override fun onAdLoadFailed(adapterErrorType: AdapterErrorType, errorCode: Int, errorMessage: String) {
+            onLoadCompleted(false)
+            listener.onAdLoadFailed(adapterErrorType, errorCode, errorMessage)
+        }
+
+        override fun onAdOpened() {
+            onShowCompleted(true)
+            listener.onAdOpened()
+        }
+
+        override fun onAdShowFailed(errorCode: Int, errorMessage: String) {
+            onShowCompleted(false)
+            listener.onAdShowFailed(errorCode, errorMessage)
+        }
+    }
+
+    private inner class TrackedRewardedVideoAdListener(
+        private val listener: RewardedVideoAdListener
+    ) : RewardedVideoAdListener by listener {
+
+        override fun onAdLoadSuccess() {
+            onLoadCompleted(true)
+            listener.onAdLoadSuccess()
+        }
+
+        override fun onAdLoadSuccess(extraData: Map<String, Any>) {
+            onLoadCompleted(true)
+            listener.onAdLoadSuccess(extraData)
+        }
+
+        override fun onAdLoadFailed(adapterErrorType: AdapterErrorType, errorCode: Int, errorMessage: String) {
+            onLoadCompleted(false)
+            listener.onAdLoadFailed(adapterErrorType, errorCode, errorMessage)
+        }
+
+        override fun onAdOpened() {
+            onShowCompleted(true)
+            listener.onAdOpened()
+        }
+
+        override fun onAdShowFailed(errorCode: Int, errorMessage: String) {
+            onShowCompleted(false)
+            listener.onAdShowFailed(errorCode, errorMessage)
+        }
+    }
+
+    private inner class TrackedBannerAdListener(
+        private val listener: BannerAdListener
+    ) : BannerAdListener by listener {
+
+        override fun onAdLoadSuccess(adView: View, layoutParams: FrameLayout.LayoutParams) {
+            onLoadCompleted(true)
+            listener.onAdLoadSuccess(adView, layoutParams)
+        }
+
+        override fun onAdLoadSuccess(adView: View, layoutParams: FrameLayout.LayoutParams, extraData: Map<String, Any>) {
+            onLoadCompleted(true)
+            listener.onAdLoadSuccess(adView, layoutParams, extraData)
+        }
+
+        override fun onAdLoadFailed(adapterErrorType: AdapterErrorType, errorCode: Int, errorMessage: String) {
+            onLoadCompleted(false)
+            listener.onAdLoadFailed(adapterErrorType, errorCode, errorMessage)
+        }
+    }
+
+    private inner class TrackedBiddingDataCallback(
+        private val biddingDataCallback: BiddingDataCallback,
+        private val startTime: Long
+    ) : BiddingDataCallback {
+
+        private val isCompleted = AtomicBoolean(false)
+
+        override fun onSuccess(biddingData: Map<String, Any>) {
+            onTokenCompleted(true)
+            biddingDataCallback.onSuccess(biddingData)
+        }
+
+        override fun onFailure(errorMessage: String) {
+            onTokenCompleted(false)
+            biddingDataCallback.onFailure(errorMessage)
+        }
+
+        private fun onTokenCompleted(success: Boolean) {
+            if (isCompleted.compareAndSet(false, true)) {
+                record(Phase.TOKEN, startTime, success)
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.ironsource.adapters.common
+
+import com.ironsource.adapters.common.LatencyMetrics.AdFormat
+import com.ironsource.mediationsdk.logger.IronLog
+import java.lang.ref.WeakReference
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ScheduledThreadPoolExecutor
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * Watches the network ads, views and listeners released by the adapters of a network and reports
+ * the ones which are still reachable after they were destroyed.
+ *
+ * A released object is only weakly referenced, checked after a short grace period and counted as
+ * leaked if it's still reachable after a second, longer one. The checks run on a single background
+ * thread, which stops once nothing is watched. All released objects are watched while the adapter
+ * logs are enabled, otherwise only a small sample of them. The leaks of a network can be pulled
+ * with [snapshot], the ones of all networks with [snapshotAll].
+ */
+class LeakTracker private constructor(val network: String) {
+
+    companion object {
+        // Delay before the first reachability check, and the additional delay before counting a leak
+        private const val FIRST_CHECK_DELAY_MS = 5_000L
+        private const val LEAK_CHECK_DELAY_MS = 25_000L
+
+        // Share of the released objects which are watched when the adapter logs are disabled
+        private const val PRODUCTION_SAMPLE_RATE = 0.01
+
+        private const val THREAD_KEEP_ALIVE_SECONDS = 30L
+
+        private val OBJECT_TYPE_COUNT = ObjectType.values().size
+
+        private val networks = ConcurrentHashMap<String, LeakTracker>()
+
+        private val executor = ScheduledThreadPoolExecutor(1) { runnable ->
+            Thread(runnable, "adapter-leak-tracker").apply {
+                isDaemon = true
+                priority = Thread.MIN_PRIORITY
+            }
+        }.apply {
+            setKeepAliveTime(THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS)
+            allowCoreThreadTimeOut(true)
+        }
+
+        /**
+         * @return the tracker of the given network, created on first use
+         */
+        @JvmStatic
+        fun forNetwork(network: String): LeakTracker =
+            networks[network] ?: networks.putIfAbsent(network, LeakTracker(network)) ?: networks.getValue(network)
+
+        /**
+         * @return the leaked object counts of all networks, for the types which leaked
+         */
+        @JvmStatic
+        fun snapshotAll(): List<LeakSnapshot> = networks.values.flatMap { it.snapshot() }
+    }
+
+    // Rough size retained by a leaked object of each type, used for reporting only
+    enum class ObjectType(internal val estimatedBytes: Long) {
+        AD(64 * 1024),
+        VIEW(256 * 1024),
+        LISTENER(1024)
+    }
+
+    class LeakSnapshot(
+        val network: String,
+        val adFormat: AdFormat,
+        val objectType: ObjectType,
+        val leakedCount: Long,
+        val estimatedRetainedBytes: Long
+    )
+
+    // Leaked object counts, indexed by ad format and object type
+    private val leakCounts = AtomicLongArray(AdFormat.values().size * OBJECT_TYPE_COUNT)
+    private val watchedCount = AtomicLong()
+
+    /**
+     * Starts watching an object which was released by an adapter and should be collected soon.
+     */
+    fun watch(adFormat: AdFormat, objectType: ObjectType, obj: Any?) {
+        val isDebug = AdapterLogs.isAdaptersDebugEnabled()
+        if (obj == null || (!isDebug && ThreadLocalRandom.current().nextDouble() >= PRODUCTION_SAMPLE_RATE)) {
+            return
+        }
+
+        watchedCount.incrementAndGet()
+        val reference = WeakReference(obj)
+        val className = obj.javaClass.simpleName
+
+        executor.schedule({
+            if (reference.get() == null) {
+                return@schedule
+            }
+
+            // Still reachable, give the collector one more chance before counting it
+            if (isDebug) {
+                Runtime.getRuntime().gc()
+            }
+            executor.schedule({
+                if (reference.get() != null) {
+                    onLeakDetected(adFormat, objectType, className)
+                }
+            }, LEAK_CHECK_DELAY_MS, TimeUnit.MILLISECONDS)
+        }, FIRST_CHECK_DELAY_MS, TimeUnit.MILLISECONDS)
+    }
+
+    /**
+     * @return the leaked object counts by ad format and object type, for the types which leaked
+     */
+    fun snapshot(): List<LeakSnapshot> {
+        val snapshots = ArrayList<LeakSnapshot>()
+        for (adFormat in AdFormat.values()) {
+            for (objectType in ObjectType.values()) {
+                val leakedCount = leakCounts.get(indexOf(adFormat, objectType))
+                if (leakedCount > 0) {
+                    snapshots.add(LeakSnapshot(network, adFormat, objectType, leakedCount, leakedCount * objectType.estimatedBytes))
+                }
+            }
+        }
+        return snapshots
+    }
+
+    // Number of released objects which were watched
+    fun getWatchedCount(): Long = watchedCount.get()
+
+    fun getEstimatedRetainedBytes(): Long = snapshot().sumOf { it.estimatedRetainedBytes }
+
+    private fun onLeakDetected(adFormat: AdFormat, objectType: ObjectType, className: String) {
+        val leakedCount = leakCounts.incrementAndGet(indexOf(adFormat, objectType))
+        IronLog.INTERNAL.error(
+            "$network retained after destroy - format = $adFormat, type = $objectType, class = $className, " +
+                "leaked = $leakedCount, estimated retained bytes = ${getEstimatedRetainedBytes()}"
+        )
+    }
+
+    private fun indexOf(adFormat: AdFormat, objectType: ObjectType): Int =
+        adFormat.ordinal * OBJECT_TYPE_COUNT + objectType.ordinal
+}
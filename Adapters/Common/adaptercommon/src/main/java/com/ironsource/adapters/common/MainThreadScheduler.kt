@@ -0,0 +1,88 @@
+package com.ironsource.adapters.common
+
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Runs the UI work of all the network adapters on the main thread.
+ *
+ * Work is always queued, even when posted from the main thread, so it never runs inside its caller
+ * just like with [Handler.post]. Work queued until the main looper gets to it runs in a single
+ * message instead of one message per call, up to [MAX_TASKS_PER_DRAIN] blocks so a burst doesn't
+ * hold the main thread, the rest runs in the next message. All work runs in the order it was
+ * posted. The time each block waited in the queue is tracked for diagnostics.
+ */
+object MainThreadScheduler {
+
+    // Blocks run by a single main looper message, the others wait for the next one
+    const val MAX_TASKS_PER_DRAIN = 16
+
+    private class Task(val runnable: Runnable, val enqueueTime: Long)
+
+    private val mainHandler = Handler(Looper.getMainLooper())
+    private val pendingTasks = ConcurrentLinkedQueue<Task>()
+    private val isDrainScheduled = AtomicBoolean(false)
+    private val drainRunnable = Runnable { drain() }
+
+    private val postedMessageCount = AtomicLong()
+    private val queuedTaskCount = AtomicLong()
+    private val totalQueueDelayMs = AtomicLong()
+    private val maxQueueDelayMs = AtomicLong()
+
+    // Number of main looper messages posted, each one runs the work queued before it
+    @JvmStatic
+    val postedMessages: Long
+        get() = postedMessageCount.get()
+
+    @JvmStatic
+    val averageQueueDelayMs: Long
+        get() = queuedTaskCount.get().let { count -> if (count == 0L) 0L else totalQueueDelayMs.get() / count }
+
+    @JvmStatic
+    val maxQueueDelay: Long
+        get() = maxQueueDelayMs.get()
+
+    @JvmStatic
+    fun post(runnable: Runnable) {
+        pendingTasks.offer(Task(runnable, SystemClock.elapsedRealtime()))
+        scheduleDrain()
+    }
+
+    private fun scheduleDrain() {
+        if (isDrainScheduled.compareAndSet(false, true)) {
+            postedMessageCount.incrementAndGet()
+            mainHandler.post(drainRunnable)
+        }
+    }
+
+    private fun drain() {
+        // Cleared before polling, so work queued from now on schedules the next message
+        isDrainScheduled.set(false)
+        try {
+            repeat(MAX_TASKS_PER_DRAIN) {
+                val task = pendingTasks.poll() ?: return
+                recordQueueDelay(SystemClock.elapsedRealtime() - task.enqueueTime)
+                task.runnable.run()
+            }
+        } finally {
+            // A failing block is thrown as it would be from its own message, the work queued
+            // after it or over the cap still runs in the next one
+            if (!pendingTasks.isEmpty()) {
+                scheduleDrain()
+            }
+        }
+    }
+
+    private fun recordQueueDelay(delayMs: Long) {
+        queuedTaskCount.incrementAndGet()
+        totalQueueDelayMs.addAndGet(delayMs)
+        var currentMax = maxQueueDelayMs.get()
+        while (delayMs > currentMax && !maxQueueDelayMs.compareAndSet(currentMax, delayMs)) {
+            currentMax = maxQueueDelayMs.get()
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ironsource.adapters.common
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Privacy values set for a network SDK, null until set.
+ * A snapshot is never modified, every actual change creates a new one with the next version.
+ */
+data class PrivacySnapshot(
+    val consent: Boolean? = null,
+    val doNotSell: Boolean? = null,
+    val childDirected: Boolean? = null,
+    val version: Int = 0
+) {
+    fun hasSameValues(other: PrivacySnapshot): Boolean =
+        consent == other.consent && doNotSell == other.doNotSell && childDirected == other.childDirected
+}
+
+/**
+ * Holds the current privacy snapshot shared by all adapter instances of a network.
+ *
+ * The setters return true only when the value actually changed, so the adapter writes to the
+ * network SDK once per change, and hot paths can cache values derived from a snapshot version.
+ */
+class PrivacyState private constructor(val network: String) {
+
+    companion object {
+        private val networks = ConcurrentHashMap<String, PrivacyState>()
+
+        /**
+         * @return the privacy state of the given network, created on first use
+         */
+        @JvmStatic
+        fun forNetwork(network: String): PrivacyState =
+            networks[network] ?: networks.putIfAbsent(network, PrivacyState(network)) ?: networks.getValue(network)
+    }
+
+    fun interface ChangeListener {
+        fun onPrivacyChanged(previous: PrivacySnapshot, current: PrivacySnapshot)
+    }
+
+    private val snapshot = AtomicReference(PrivacySnapshot())
+    private val listeners = CopyOnWriteArrayList<ChangeListener>()
+
+    val current: PrivacySnapshot
+        get() = snapshot.get()
+
+    fun addListener(listener: ChangeListener) {
+        listeners.add(listener)
+    }
+
+    fun setConsent(consent: Boolean): Boolean = update { it.copy(consent = consent) }
+
+    fun setDoNotSell(doNotSell: Boolean): Boolean = update { it.copy(doNotSell = doNotSell) }
+
+    fun setChildDirected(childDirected: Boolean): Boolean = update { it.copy(childDirected = childDirected) }
+
+    private fun update(transform: (PrivacySnapshot) -> PrivacySnapshot): Boolean {
+        while (true) {
+            val previous = snapshot.get()
+            val next = transform(previous)
+            if (next.hasSameValues(previous)) {
+                return false
+            }
+            val versioned = next.copy(version = previous.version + 1)
+            if (snapshot.compareAndSet(previous, versioned)) {
+                for (listener in listeners) {
+                    listener.onPrivacyChanged(previous, versioned)
+                }
+                return true
+            }
+        }
+    }
+}
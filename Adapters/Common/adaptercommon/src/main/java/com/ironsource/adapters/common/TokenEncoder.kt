@@ -0,0 +1,145 @@
+package com.ironsource.adapters.common
+
+import android.util.Base64
+import com.ironsource.mediationsdk.logger.IronLog
+import java.io.ByteArrayOutputStream
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+import java.util.zip.GZIPOutputStream
+
+/**
+ * Builds the bidding data handed to the mediation layer for a network bidding token, and keeps a
+ * table of the token sizes and the time it took to get them.
+ *
+ * Tokens are sent as they are unless gzip is enabled by the [ENCODING_KEY] network setting. Tokens
+ * of at least [MIN_COMPRESSED_LENGTH] bytes are then compressed and Base64 encoded, and the
+ * encoding is added to the bidding data so the auction can decode them. A token which doesn't get
+ * smaller is still sent as it is. The table of a network can be pulled with [snapshot], the ones
+ * of all networks with [snapshotAll].
+ */
+class TokenEncoder private constructor(val network: String) {
+
+    companion object {
+        // Token encoding set in the network settings, tokens are sent as they are by default
+        const val ENCODING_KEY = "tokenEncoding"
+        private const val GZIP_ENCODING = "gzip"
+
+        // Key of the encoding in the bidding data, only added when the token is encoded
+        private const val TOKEN_ENCODING_KEY = "tokenEncoding"
+
+        // Shorter tokens don't gain enough from compression to pay for its CPU time
+        const val MIN_COMPRESSED_LENGTH = 512
+
+        private val networks = ConcurrentHashMap<String, TokenEncoder>()
+
+        /**
+         * @return the encoder of the given network, created on first use
+         */
+        @JvmStatic
+        fun forNetwork(network: String): TokenEncoder =
+            networks[network] ?: networks.putIfAbsent(network, TokenEncoder(network)) ?: networks.getValue(network)
+
+        /**
+         * @return the size tables of all networks which sent at least one token
+         */
+        @JvmStatic
+        fun snapshotAll(): List<SizeStats> = networks.values.map { it.snapshot() }.filter { it.tokenCount > 0 }
+    }
+
+    class SizeStats(
+        val network: String,
+        val tokenCount: Long,
+        val rawBytes: Long,
+        val sentBytes: Long,
+        val encodedCount: Long,
+        val averageGenerationMs: Long,
+        val averageCompressMicros: Long
+    )
+
+    private val tokenCount = AtomicLong()
+    private val rawBytes = AtomicLong()
+    private val sentBytes = AtomicLong()
+    private val compressedCount = AtomicLong()
+    private val encodedCount = AtomicLong()
+    private val generationTimeMs = AtomicLong()
+    private val compressTimeNanos = AtomicLong()
+
+    @Volatile
+    private var isGzipEnabled = false
+
+    /**
+     * @param encoding value of the [ENCODING_KEY] network setting, null if it isn't set
+     */
+    fun configure(encoding: String?) {
+        isGzipEnabled = encoding.equals(GZIP_ENCODING, ignoreCase = true)
+    }
+
+    /**
+     * @param generationMs time it took to get the token from the SDK or the token cache
+     * @return new bidding data holding the token, encoded if that makes it smaller
+     */
+    fun biddingData(tokenKey: String, token: String, generationMs: Long): MutableMap<String?, Any?> {
+        val tokenBytes = token.toByteArray(Charsets.UTF_8)
+        var sentToken = token
+        var encoding: String? = null
+
+        if (isGzipEnabled && tokenBytes.size >= MIN_COMPRESSED_LENGTH) {
+            val startTime = System.nanoTime()
+            val encoded = gzipBase64(tokenBytes)
+            compressTimeNanos.addAndGet(System.nanoTime() - startTime)
+            compressedCount.incrementAndGet()
+            if (encoded != null && encoded.length < tokenBytes.size) {
+                sentToken = encoded
+                encoding = GZIP_ENCODING
+                encodedCount.incrementAndGet()
+            }
+        }
+
+        // Base64 is plain ASCII, so its length is its size in bytes
+        val sentSize = if (encoding != null) sentToken.length else tokenBytes.size
+        tokenCount.incrementAndGet()
+        rawBytes.addAndGet(tokenBytes.size.toLong())
+        sentBytes.addAndGet(sentSize.toLong())
+        generationTimeMs.addAndGet(generationMs)
+        IronLog.INTERNAL.verbose { "$network token size - raw = ${tokenBytes.size}, sent = $sentSize, encoding = $encoding, generation = $generationMs ms" }
+
+        val biddingData: MutableMap<String?, Any?> = HashMap()
+        biddingData[tokenKey] = sentToken
+        encoding?.let { biddingData[TOKEN_ENCODING_KEY] = it }
+        return biddingData
+    }
+
+    fun snapshot(): SizeStats {
+        val count = tokenCount.get()
+        val compressed = compressedCount.get()
+        return SizeStats(
+            network = network,
+            tokenCount = count,
+            rawBytes = rawBytes.get(),
+            sentBytes = sentBytes.get(),
+            encodedCount = encodedCount.get(),
+            averageGenerationMs = if (count == 0L) 0L else generationTimeMs.get() / count,
+            averageCompressMicros = if (compressed == 0L) 0L else compressTimeNanos.get() / compressed / 1000
+        )
+    }
+
+    fun reset() {
+        tokenCount.set(0)
+        rawBytes.set(0)
+        sentBytes.set(0)
+        compressedCount.set(0)
+        encodedCount.set(0)
+        generationTimeMs.set(0)
+        compressTimeNanos.set(0)
+    }
+
+    private fun gzipBase64(bytes: ByteArray): String? =
+        try {
+            val output = ByteArrayOutputStream(bytes.size / 2)
+            GZIPOutputStream(output).use { it.write(bytes) }
+            Base64.encodeToString(output.toByteArray(), Base64.NO_WRAP)
+        } catch (e: Exception) {
+            IronLog.INTERNAL.error("token compression failed - ${e.message}")
+            null
+        }
+}
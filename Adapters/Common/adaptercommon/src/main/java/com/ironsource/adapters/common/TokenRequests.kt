@@ -0,0 +1,120 @@
+package com.ironsource.adapters.common
+
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
+import com.ironsource.mediationsdk.bidding.BiddingDataCallback
+import com.ironsource.mediationsdk.logger.IronLog
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Shares a single SDK bidding token call between all the adapter instances of a network which ask
+ * for a token of the same key at the same time, as several instances of the network take part in
+ * one auction and the SDK returns the same token to all of them.
+ *
+ * The first caller of a key starts the SDK call, and callers arriving while it runs wait for its
+ * result, each receiving its own copy of the bidding data. A call which didn't return within
+ * [MAX_FLIGHT_MS] fails every caller waiting on it and is no longer joined, so a lost SDK callback
+ * never leaves an auction waiting. Its late result is dropped.
+ */
+class TokenRequests private constructor(val network: String) {
+
+    companion object {
+        // Time after which a running SDK call is considered lost and its callers are failed
+        const val MAX_FLIGHT_MS = 10_000L
+
+        private val networks = ConcurrentHashMap<String, TokenRequests>()
+
+        private val deadlineHandler = Handler(Looper.getMainLooper())
+
+        /**
+         * @return the token requests of the given network, created on first use
+         */
+        @JvmStatic
+        fun forNetwork(network: String): TokenRequests =
+            networks[network] ?: networks.putIfAbsent(network, TokenRequests(network)) ?: networks.getValue(network)
+    }
+
+    data class Stats(
+        val sdkCalls: Long,
+        val savedCalls: Long,
+        val timedOutCalls: Long
+    )
+
+    private class Flight(val startTime: Long) {
+        val callbacks = mutableListOf<BiddingDataCallback>()
+    }
+
+    // Guarded by itself
+    private val flights = HashMap<String, Flight>()
+
+    private val sdkCalls = AtomicLong()
+    private val savedCalls = AtomicLong()
+    private val timedOutCalls = AtomicLong()
+
+    /**
+     * Reports the token of the given key to the callback, calling the SDK only if no call for the
+     * same key is already running.
+     *
+     * @param call requests the token from the SDK and reports it to the given callback
+     */
+    fun request(key: String, biddingDataCallback: BiddingDataCallback, call: (BiddingDataCallback) -> Unit) {
+        val flight = synchronized(flights) {
+            val running = flights[key]
+            if (running != null) {
+                running.callbacks.add(biddingDataCallback)
+                val saved = savedCalls.incrementAndGet()
+                IronLog.INTERNAL.verbose { "$network joined running token call - key = $key, saved = $saved" }
+                return
+            }
+            Flight(SystemClock.elapsedRealtime()).also {
+                it.callbacks.add(biddingDataCallback)
+                flights[key] = it
+            }
+        }
+
+        val deadline = Runnable {
+            val duration = SystemClock.elapsedRealtime() - flight.startTime
+            if (complete(key, flight) { it.onFailure("token call timed out after $duration ms") }) {
+                timedOutCalls.incrementAndGet()
+                IronLog.INTERNAL.error("$network token call timed out - key = $key, duration = $duration")
+            }
+        }
+        deadlineHandler.postDelayed(deadline, MAX_FLIGHT_MS)
+
+        sdkCalls.incrementAndGet()
+        try {
+            call(object : BiddingDataCallback {
+                override fun onSuccess(biddingData: Map<String, Any>) {
+                    deadlineHandler.removeCallbacks(deadline)
+                    complete(key, flight) { it.onSuccess(HashMap(biddingData)) }
+                }
+
+                override fun onFailure(errorMessage: String) {
+                    deadlineHandler.removeCallbacks(deadline)
+                    complete(key, flight) { it.onFailure(errorMessage) }
+                }
+            })
+        } catch (e: Exception) {
+            IronLog.INTERNAL.error("$network token call failed - ${e.message}")
+            deadlineHandler.removeCallbacks(deadline)
+            complete(key, flight) { it.onFailure("token call failed - ${e.message}") }
+        }
+    }
+
+    fun snapshot(): Stats = Stats(sdkCalls = sdkCalls.get(), savedCalls = savedCalls.get(), timedOutCalls = timedOutCalls.get())
+
+    // Delivers the result to the callers waiting on the flight, once. Returns false if they were
+    // already answered, by the SDK or by the deadline.
+    private fun complete(key: String, flight: Flight, deliver: (BiddingDataCallback) -> Unit): Boolean {
+        val callbacks = synchronized(flights) {
+            if (flights[key] === flight) {
+                flights.remove(key)
+            }
+            flight.callbacks.toList().also { flight.callbacks.clear() }
+        }
+        callbacks.forEach(deliver)
+        return callbacks.isNotEmpty()
+    }
+}
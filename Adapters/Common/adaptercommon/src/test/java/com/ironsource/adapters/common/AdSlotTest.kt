@@ -0,0 +1,241 @@
+package com.ironsource.adapters.common
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.Collections
+import java.util.IdentityHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class AdSlotTest {
+
+    private class Ad(val generation: Long)
+
+    private val slot = AdSlot<Ad>("AdSlotTest")
+
+    @Test
+    fun storesTheAdOfTheCurrentLoad() {
+        val generation = slot.begin()
+        val ad = Ad(generation)
+
+        assertTrue(slot.set(generation, ad))
+        assertSame(ad, slot.ad)
+    }
+
+    @Test
+    fun dropsTheAdOfAReplacedLoad() {
+        val first = slot.begin()
+        val second = slot.begin()
+
+        assertFalse(slot.set(first, Ad(first)))
+        assertFalse(slot.isCurrent(first))
+        assertTrue(slot.set(second, Ad(second)))
+    }
+
+    @Test
+    fun destroyCapturedBeforeAReloadKeepsTheNewAd() {
+        val first = slot.begin()
+        slot.set(first, Ad(first))
+        val captured = slot.generation
+
+        val second = slot.begin()
+        val newAd = Ad(second)
+        slot.set(second, newAd)
+
+        assertNull(slot.clear(captured))
+        assertSame(newAd, slot.ad)
+    }
+
+    @Test
+    fun destroyCancelsTheRunningLoad() {
+        val generation = slot.begin()
+
+        assertNull(slot.clear(slot.generation))
+        assertFalse(slot.set(generation, Ad(generation)))
+        assertNull(slot.ad)
+    }
+
+    @Test
+    fun countsTheDroppedCallbacksPerNetwork() {
+        val firstSlot = AdSlot<Ad>("counted-first")
+        val secondSlot = AdSlot<Ad>("counted-second")
+        val before = AdSlot.snapshot("counted-first")
+
+        val generation = firstSlot.begin()
+        firstSlot.begin()
+        firstSlot.set(generation, Ad(generation))
+        firstSlot.clear(firstSlot.generation)
+        secondSlot.begin()
+
+        val after = AdSlot.snapshot("counted-first")
+        assertEquals(before.staleCallbacks + 1, after.staleCallbacks)
+        assertEquals(before.cancelledLoads + 1, after.cancelledLoads)
+        assertEquals(0L, AdSlot.snapshot("counted-second").staleCallbacks)
+        assertTrue(AdSlot.snapshotAll().any { it.network == "counted-second" })
+    }
+
+    @Test
+    fun releasesTheAdReplacedByANewerLoad() {
+        val replaced = ArrayList<Ad>()
+        val releasingSlot = AdSlot<Ad>("AdSlotTest") { replaced.add(it) }
+        val first = releasingSlot.begin()
+        val firstAd = Ad(first)
+        releasingSlot.set(first, firstAd)
+
+        val second = releasingSlot.begin()
+        releasingSlot.set(second, Ad(second))
+
+        assertEquals(listOf(firstAd), replaced)
+    }
+
+    @Test
+    fun startShowLeavesTheRunningLoadToStoreTheNextAd() {
+        val first = slot.begin()
+        val shownAd = Ad(first)
+        slot.set(first, shownAd)
+        val second = slot.begin()
+
+        assertSame(shownAd, slot.startShow())
+        assertSame(shownAd, slot.showingAd)
+        assertNull(slot.ad)
+        assertTrue(slot.set(second, Ad(second)))
+    }
+
+    @Test
+    fun loadWhileShowingNeverTouchesTheShownAd() {
+        val first = slot.begin()
+        val shownAd = Ad(first)
+        slot.set(first, shownAd)
+        slot.startShow()
+
+        val second = slot.begin()
+        val nextAd = Ad(second)
+        assertTrue(slot.set(second, nextAd))
+
+        assertSame(shownAd, slot.showingAd)
+        assertSame(nextAd, slot.ad)
+        assertSame(shownAd, slot.finishShow())
+        assertNull(slot.showingAd)
+        assertSame(nextAd, slot.ad)
+    }
+
+    @Test
+    fun failedLoadWhileShowingKeepsTheShownAd() {
+        val first = slot.begin()
+        val shownAd = Ad(first)
+        slot.set(first, shownAd)
+        slot.startShow()
+
+        val second = slot.begin()
+        assertNull(slot.clear(second))
+
+        assertSame(shownAd, slot.showingAd)
+    }
+
+    @Test
+    fun destroyWhileShowingReleasesTheShownAdAndTheLoadedOne() {
+        val first = slot.begin()
+        val shownAd = Ad(first)
+        slot.set(first, shownAd)
+        slot.startShow()
+        val second = slot.begin()
+        val nextAd = Ad(second)
+        slot.set(second, nextAd)
+
+        assertSame(nextAd, slot.clear(slot.generation))
+        assertSame(shownAd, slot.finishShow())
+        assertNull(slot.ad)
+        assertNull(slot.showingAd)
+    }
+
+    @Test
+    fun concurrentLoadsAndDestroysNeverReleaseAnAdTwiceOrANewerAd() {
+        val threadCount = 8
+        val iterations = 20_000
+        val released = Collections.newSetFromMap(IdentityHashMap<Ad, Boolean>())
+        val doubleReleases = AtomicInteger()
+        val newerAdReleases = AtomicInteger()
+        val start = CountDownLatch(1)
+        val executor = Executors.newFixedThreadPool(threadCount)
+
+        fun release(ad: Ad) {
+            val isFirstRelease = synchronized(released) { released.add(ad) }
+            if (!isFirstRelease) {
+                doubleReleases.incrementAndGet()
+            }
+        }
+
+        repeat(threadCount) {
+            executor.execute {
+                start.await()
+                val random = ThreadLocalRandom.current()
+                repeat(iterations) {
+                    when (random.nextInt(3)) {
+                        0 -> {
+                            val generation = slot.begin()
+                            val ad = Ad(generation)
+                            if (!slot.set(generation, ad)) {
+                                release(ad)
+                            }
+                        }
+                        1 -> {
+                            // Captured on entry as the adapters do before posting the destroy
+                            val generation = slot.generation
+                            Thread.yield()
+                            slot.clear(generation)?.let {
+                                if (it.generation > generation) {
+                                    newerAdReleases.incrementAndGet()
+                                }
+                                release(it)
+                            }
+                        }
+                        else -> if (slot.startShow() != null) {
+                            slot.finishShow()?.let { release(it) }
+                        }
+                    }
+                }
+            }
+        }
+        start.countDown()
+        executor.shutdown()
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS))
+
+        assertEquals(0, doubleReleases.get())
+        assertEquals(0, newerAdReleases.get())
+        slot.ad?.let { assertFalse(released.contains(it)) }
+    }
+
+    @Test
+    fun concurrentDestroysCancelTheirLoad() {
+        val iterations = 20_000
+        val storedAfterDestroy = AtomicInteger()
+        val executor = Executors.newFixedThreadPool(2)
+
+        repeat(iterations) {
+            val generation = slot.begin()
+            val destroyed = CountDownLatch(1)
+            executor.execute {
+                slot.clear(generation)
+                destroyed.countDown()
+            }
+            executor.execute {
+                destroyed.await()
+                if (slot.set(generation, Ad(generation))) {
+                    storedAfterDestroy.incrementAndGet()
+                }
+            }
+        }
+        executor.shutdown()
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS))
+
+        assertEquals(0, storedAfterDestroy.get())
+        assertNull(slot.ad)
+    }
+}
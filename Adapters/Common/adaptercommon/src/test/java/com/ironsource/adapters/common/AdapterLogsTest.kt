@@ -0,0 +1,56 @@
+package com.ironsource.adapters.common
+
+import com.ironsource.mediationsdk.logger.IronLog
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class AdapterLogsTest {
+
+    private var builtCount = 0
+
+    @After
+    fun tearDown() {
+        AdapterLogs.reset()
+    }
+
+    @Test
+    fun messagesAreBuiltBeforeTheDebugFlagIsRead() {
+        IronLog.ADAPTER_API.verbose { buildMessage() }
+
+        assertEquals(1, builtCount)
+    }
+
+    @Test
+    fun adapterMessagesAreBuiltOnlyWhileTheAdapterLogsAreEnabled() {
+        AdapterLogs.setAdaptersDebugEnabled("first", true)
+        IronLog.ADAPTER_API.verbose { buildMessage() }
+
+        AdapterLogs.setAdaptersDebugEnabled("first", false)
+        IronLog.ADAPTER_CALLBACK.verbose { buildMessage() }
+
+        assertEquals(1, builtCount)
+    }
+
+    @Test
+    fun adapterMessagesAreBuiltWhileAnyNetworkEnabledTheAdapterLogs() {
+        AdapterLogs.setAdaptersDebugEnabled("first", true)
+        AdapterLogs.setAdaptersDebugEnabled("second", false)
+        IronLog.ADAPTER_API.verbose { buildMessage() }
+
+        assertEquals(1, builtCount)
+    }
+
+    @Test
+    fun internalMessagesAreAlwaysBuilt() {
+        AdapterLogs.setAdaptersDebugEnabled("first", false)
+        IronLog.INTERNAL.verbose { buildMessage() }
+
+        assertEquals(1, builtCount)
+    }
+
+    private fun buildMessage(): String {
+        builtCount++
+        return "message $builtCount"
+    }
+}
@@ -0,0 +1,75 @@
+package com.ironsource.adapters.common
+
+import android.view.Gravity
+import android.widget.FrameLayout
+import com.ironsource.adapters.common.BannerLayouts.StandardSize
+import com.ironsource.adapters.common.BannerLayouts.UNSPECIFIED_GRAVITY
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertNull
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(qualifiers = "w360dp-h640dp-mdpi")
+class BannerLayoutsTest {
+
+    private val context get() = RuntimeEnvironment.getApplication()
+
+    @Test
+    fun returnsNewLayoutParamsOnEveryCall() {
+        val layoutParams = BannerLayouts.layoutParams(context, 320, 50, Gravity.CENTER)
+        layoutParams.width = 1
+
+        val next = BannerLayouts.layoutParams(context, StandardSize.BANNER, Gravity.CENTER)
+
+        assertNotSame(layoutParams, next)
+        assertEquals(320, next.width)
+        assertEquals(50, next.height)
+        assertEquals(Gravity.CENTER, next.gravity)
+        assertEquals(UNSPECIFIED_GRAVITY, BannerLayouts.layoutParams(context, 320, 50).gravity)
+    }
+
+    @Test
+    fun resolvesThePixelSizeAgainOnceTheDensityChanges() {
+        val layoutParams = BannerLayouts.layoutParams(context, StandardSize.RECTANGLE, Gravity.CENTER)
+        assertEquals(300, layoutParams.width)
+
+        RuntimeEnvironment.setQualifiers("xhdpi")
+        val resolved = BannerLayouts.layoutParams(context, StandardSize.RECTANGLE, Gravity.CENTER)
+
+        assertEquals(600, resolved.width)
+        assertEquals(500, resolved.height)
+    }
+
+    @Test
+    fun adaptiveWidthFollowsTheOrientation() {
+        assertEquals(360, BannerLayouts.adaptiveWidthDp(context))
+
+        RuntimeEnvironment.setQualifiers("land")
+
+        assertEquals(640, BannerLayouts.adaptiveWidthDp(context))
+    }
+
+    @Test
+    fun keepsMatchParentAndWrapContent() {
+        val adaptive = BannerLayouts.adaptiveLayoutParams(context, 90, Gravity.CENTER)
+        val wrapped = BannerLayouts.layoutParams(context, FrameLayout.LayoutParams.WRAP_CONTENT, FrameLayout.LayoutParams.WRAP_CONTENT)
+
+        assertEquals(FrameLayout.LayoutParams.MATCH_PARENT, adaptive.width)
+        assertEquals(90, adaptive.height)
+        assertEquals(FrameLayout.LayoutParams.WRAP_CONTENT, wrapped.width)
+        assertEquals(FrameLayout.LayoutParams.WRAP_CONTENT, wrapped.height)
+    }
+
+    @Test
+    fun resolvesTheStandardSizeOfADescription() {
+        assertEquals(StandardSize.LARGE, StandardSize.forDescription("LARGE", false))
+        assertEquals(StandardSize.BANNER, StandardSize.forDescription("SMART", false))
+        assertEquals(StandardSize.LEADERBOARD, StandardSize.forDescription("SMART", true))
+        assertNull(StandardSize.forDescription("CUSTOM", true))
+    }
+}
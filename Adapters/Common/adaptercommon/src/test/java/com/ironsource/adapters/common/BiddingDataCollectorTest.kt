@@ -0,0 +1,80 @@
+package com.ironsource.adapters.common
+
+import android.os.Looper
+import com.ironsource.adapters.common.BiddingDataCollector.CollectionResult
+import com.ironsource.adapters.common.BiddingDataCollector.TokenSource
+import com.ironsource.mediationsdk.bidding.BiddingDataCallback
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import java.time.Duration
+import java.util.concurrent.Executor
+
+@RunWith(RobolectricTestRunner::class)
+class BiddingDataCollectorTest {
+
+    // Starts the token calls on the calling thread, so the answers are known once collect returns
+    private val collector = BiddingDataCollector(Executor { it.run() })
+
+    private val results = ArrayList<CollectionResult>()
+
+    private val answering = TokenSource { it.onSuccess(mapOf("token" to "fast")) }
+    private val failing = TokenSource { it.onFailure("no fill") }
+    private val throwing = TokenSource { throw IllegalStateException("not initialized") }
+
+    @Test
+    fun reportsAsSoonAsAllNetworksAnswered() {
+        collector.collect(mapOf("answering" to answering, "failing" to failing), 1_000L) { results.add(it) }
+
+        assertEquals(1, results.size)
+        assertEquals(mapOf("token" to "fast"), results[0].biddingData["answering"])
+        assertEquals("no fill", results[0].failures["failing"])
+        assertEquals(emptyMap<String, Long>(), results[0].timedOut)
+
+        // The deadline doesn't report again
+        idleFor(1_000L)
+        assertEquals(1, results.size)
+    }
+
+    @Test
+    fun reportsThePartialResultOnceTheBudgetPassed() {
+        var slowCallback: BiddingDataCallback? = null
+        val slow = TokenSource { slowCallback = it }
+
+        collector.collect(mapOf("answering" to answering, "slow" to slow), 1_000L) { results.add(it) }
+        assertEquals(0, results.size)
+
+        idleFor(1_000L)
+
+        assertEquals(1, results.size)
+        assertEquals(setOf("answering"), results[0].biddingData.keys)
+        assertEquals(1_000L, results[0].timedOut["slow"])
+
+        // A late answer is dropped
+        slowCallback?.onSuccess(mapOf("token" to "late"))
+        assertEquals(1, results.size)
+        assertNull(results[0].biddingData["slow"])
+    }
+
+    @Test
+    fun reportsAThrowingTokenCallAsAFailure() {
+        collector.collect(mapOf("throwing" to throwing), 1_000L) { results.add(it) }
+
+        assertEquals("token call failed - not initialized", results[0].failures["throwing"])
+    }
+
+    @Test
+    fun reportsRightAwayWithoutNetworks() {
+        collector.collect(emptyMap(), 1_000L) { results.add(it) }
+
+        assertEquals(1, results.size)
+        assertEquals(0L, results[0].durationMs)
+    }
+
+    private fun idleFor(millis: Long) {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(millis))
+    }
+}
@@ -0,0 +1,128 @@
+package com.ironsource.adapters.common
+
+import android.os.Looper
+import com.ironsource.adapters.common.BiddingTokenCache.TokenFetcher
+import com.ironsource.adapters.common.BiddingTokenCache.TokenListener
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+@RunWith(RobolectricTestRunner::class)
+class BiddingTokenCacheTest {
+
+    private val cache = BiddingTokenCache.forNetwork("BiddingTokenCacheTest")
+
+    private val fetchCount = AtomicInteger()
+
+    // Answers every fetch right away with a new token
+    private val fetcher = TokenFetcher { listener -> listener.onTokenReceived("token-${fetchCount.incrementAndGet()}") }
+
+    @After
+    fun tearDown() {
+        cache.invalidate()
+        cache.ttlMillis = BiddingTokenCache.DEFAULT_TTL_MILLIS
+    }
+
+    @Test
+    fun returnsOneInstancePerNetwork() {
+        assertSame(cache, BiddingTokenCache.forNetwork("BiddingTokenCacheTest"))
+    }
+
+    @Test
+    fun returnsTheCachedTokenUntilItExpires() {
+        cache.ttlMillis = 10_000L
+
+        assertEquals("token-1", getToken("expiry"))
+        assertEquals("token-1", getToken("expiry"))
+        assertEquals(1, fetchCount.get())
+
+        advanceBy(10_000L)
+
+        assertEquals("token-2", getToken("expiry"))
+    }
+
+    @Test
+    fun refreshesATokenInTheBackgroundOnceHalfOfItsLifetimePassed() {
+        cache.ttlMillis = 10_000L
+        getToken("refresh")
+        advanceBy(5_000L)
+
+        val refreshed = CountDownLatch(1)
+        val token = getToken("refresh", TokenFetcher { listener ->
+            fetcher.fetch(listener)
+            refreshed.countDown()
+        })
+
+        assertEquals("token-1", token)
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS))
+        assertEquals("token-2", getToken("refresh"))
+    }
+
+    @Test
+    fun dropsTheTokensFetchedBeforeAnInvalidation() {
+        var pending: TokenListener? = null
+        var received: String? = null
+        cache.getOrFetch("invalidate", TokenFetcher { pending = it }) { received = it }
+
+        cache.invalidate()
+        pending?.onTokenReceived("stale")
+
+        // The caller still gets the token it waited for, but it isn't served again
+        assertEquals("stale", received)
+        assertEquals("token-1", getToken("invalidate"))
+    }
+
+    @Test
+    fun reportsAFailedFetchAsANullToken() {
+        var received: String? = "none"
+        cache.getOrFetch("failure", TokenFetcher { it.onTokenFailed("no fill") }) { received = it }
+
+        assertNull(received)
+    }
+
+    @Test
+    fun aRefreshWhoseCallbackNeverArrivesStopsBlockingNewOnes() {
+        val fetches = CountDownLatch(2)
+        val lostFetcher = TokenFetcher { fetches.countDown() }
+
+        cache.refresh("lost", lostFetcher)
+        cache.refresh("lost", lostFetcher)
+        waitForRefreshes()
+        assertEquals(1L, fetches.count)
+
+        advanceBy(30_000L)
+        cache.refresh("lost", lostFetcher)
+
+        assertTrue(fetches.await(5, TimeUnit.SECONDS))
+    }
+
+    private fun getToken(key: String, tokenFetcher: TokenFetcher = fetcher): String? {
+        var received: String? = null
+        cache.getOrFetch(key, tokenFetcher) { received = it }
+        return received
+    }
+
+    private fun advanceBy(millis: Long) {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(millis))
+    }
+
+    // Waits for the refreshes queued so far, they run one after the other on the shared thread
+    private fun waitForRefreshes() {
+        val done = CountDownLatch(1)
+        cache.refresh("barrier", TokenFetcher { listener ->
+            listener.onTokenFailed("done")
+            done.countDown()
+        })
+        assertTrue(done.await(5, TimeUnit.SECONDS))
+    }
+}
@@ -0,0 +1,122 @@
+package com.ironsource.adapters.common
+
+import android.os.Looper
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import java.time.Duration
+
+@RunWith(RobolectricTestRunner::class)
+class InitCoordinatorTest {
+
+    private class Listener(val name: String)
+
+    private val events = ArrayList<String>()
+    private val completions = ArrayList<Boolean>()
+
+    private val coordinator = InitCoordinator("InitCoordinatorTest", object : InitCoordinator.Notifier<Listener> {
+        override fun notifySuccess(listener: Listener) {
+            events.add("${listener.name} success")
+        }
+
+        override fun notifyFailure(listener: Listener, errorCode: Int, errorMessage: String) {
+            events.add("${listener.name} failed - $errorMessage")
+        }
+    }) { success, _ -> completions.add(success) }
+
+    @Test
+    fun onlyTheFirstRegistrationStartsTheInit() {
+        val first = Listener("first")
+        val second = Listener("second")
+
+        val attempt = coordinator.register(first)
+        assertEquals(InitCoordinator.NO_ATTEMPT, coordinator.register(second))
+        assertEquals(InitCoordinator.NO_ATTEMPT, coordinator.register(first))
+        coordinator.onInitSuccess(attempt)
+
+        assertNotEquals(InitCoordinator.NO_ATTEMPT, attempt)
+        assertEquals(listOf("first success", "second success"), events)
+        assertEquals(listOf(true), completions)
+    }
+
+    @Test
+    fun ignoresTheFailuresOfAReplacedAttempt() {
+        val firstAttempt = coordinator.register(Listener("first"))
+        coordinator.onInitFailed(firstAttempt, 1, "no network")
+        waitForRetryBackoff()
+
+        val secondAttempt = coordinator.register(Listener("second"))
+        coordinator.onInitFailed(firstAttempt, 1, "no network")
+
+        assertEquals(InitState.INIT_STATE_IN_PROGRESS, coordinator.initState)
+        assertEquals(1, coordinator.staleCallbackCount)
+
+        coordinator.onInitSuccess(secondAttempt)
+
+        assertEquals(InitState.INIT_STATE_SUCCESS, coordinator.initState)
+        assertEquals(listOf("first failed - no network", "second success"), events)
+        assertEquals(listOf(false, true), completions)
+    }
+
+    @Test
+    fun successOfAReplacedAttemptCompletesTheRetry() {
+        val firstAttempt = coordinator.register(Listener("first"), 1_000L)
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(1_000L))
+        waitForRetryBackoff()
+
+        val secondAttempt = coordinator.register(Listener("second"))
+        coordinator.onInitSuccess(firstAttempt)
+
+        assertEquals(InitState.INIT_STATE_SUCCESS, coordinator.initState)
+        assertEquals(0, coordinator.staleCallbackCount)
+
+        // The SDK reporting the retry too doesn't notify the listeners again
+        coordinator.onInitSuccess(secondAttempt)
+
+        assertEquals(listOf("first failed - SDK init timed out", "second success"), events)
+        assertEquals(listOf(false, true), completions)
+    }
+
+    @Test
+    fun failedInitIsNotRetriedBeforeItsBackoff() {
+        val attempt = coordinator.register(Listener("first"))
+        coordinator.onInitFailed(attempt, 1, "no network")
+
+        assertEquals(InitCoordinator.NO_ATTEMPT, coordinator.register(Listener("second")))
+        assertEquals(listOf("first failed - no network", "second failed - no network"), events)
+    }
+
+    @Test
+    fun watchdogFailsTheAttemptAndALateSuccessStillCompletesIt() {
+        val attempt = coordinator.register(Listener("first"), 1_000L)
+
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(1_000L))
+        assertEquals(InitState.INIT_STATE_FAILED, coordinator.initState)
+
+        coordinator.onInitSuccess(attempt)
+
+        assertEquals(InitState.INIT_STATE_SUCCESS, coordinator.initState)
+        assertEquals(listOf("first failed - SDK init timed out"), events)
+        assertEquals(listOf(false, true), completions)
+    }
+
+    @Test
+    fun watchdogOfAReplacedAttemptDoesNotFailTheRetry() {
+        val firstAttempt = coordinator.register(Listener("first"), 10_000L)
+        coordinator.onInitFailed(firstAttempt, 1, "no network")
+        waitForRetryBackoff()
+
+        coordinator.register(Listener("second"), 60_000L)
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(10_000L))
+
+        assertEquals(InitState.INIT_STATE_IN_PROGRESS, coordinator.initState)
+    }
+
+    private fun waitForRetryBackoff() {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(5_000L))
+    }
+}
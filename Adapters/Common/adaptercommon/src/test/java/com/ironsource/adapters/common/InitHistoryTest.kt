@@ -0,0 +1,74 @@
+package com.ironsource.adapters.common
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+@RunWith(RobolectricTestRunner::class)
+class InitHistoryTest {
+
+    private val context = RuntimeEnvironment.getApplication()
+
+    @Test
+    fun returnsOneInstancePerNetwork() {
+        assertSame(InitHistory.forNetwork("InitHistoryTest"), InitHistory.forNetwork("InitHistoryTest"))
+    }
+
+    @Test
+    fun keepsTheConfiguredPriorityWithoutAHistory() {
+        val history = launch("1.0")
+
+        assertEquals(3, history.adjustPriority(3))
+        assertFalse(history.isFailing())
+    }
+
+    @Test
+    fun movesAFastNetworkOneLevelUpOnTheNextLaunch() {
+        launch("1.0").record(true, InitHistory.FAST_INIT_MS)
+
+        val history = launch("1.0")
+
+        assertEquals(2, history.adjustPriority(3))
+        assertEquals(0, history.adjustPriority(0))
+    }
+
+    @Test
+    fun reportsANetworkWhichKeepsFailing() {
+        val previous = launch("1.0")
+        repeat(InitHistory.MAX_CONSECUTIVE_FAILURES) { previous.record(false, 5_000L) }
+
+        assertTrue(launch("1.0").isFailing())
+    }
+
+    @Test
+    fun discardsTheHistoryOfAnotherAdapterVersion() {
+        launch("1.0").record(true, 100L)
+
+        val history = launch("1.1")
+
+        assertEquals(3, history.adjustPriority(3))
+    }
+
+    // Loads the history as a new process would, and waits for the read which runs after the
+    // writes of the previous launch
+    private fun launch(adapterVersion: String): InitHistory {
+        val history = InitHistory("launches")
+        history.load(context, "9.0", adapterVersion, "appId")
+        waitForIo(history)
+        return history
+    }
+
+    // The reads and writes run one after the other on the shared thread
+    private fun waitForIo(history: InitHistory) {
+        val done = CountDownLatch(1)
+        history.whenLoaded { done.countDown() }
+        assertTrue(done.await(5, TimeUnit.SECONDS))
+    }
+}
@@ -0,0 +1,80 @@
+package com.ironsource.adapters.common
+
+import android.os.Looper
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.Shadows.shadowOf
+import java.time.Duration
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+
+@RunWith(RobolectricTestRunner::class)
+class InitSchedulerTest {
+
+    private val started = Collections.synchronizedList(ArrayList<String>())
+
+    // Runs the init where the scheduler starts it, so its order is known
+    private val directExecutor = Executor { it.run() }
+
+    @Test
+    fun startsAHighPriorityNetworkRightAway() {
+        val history = loadHistory("high")
+        InitScheduler(history, directExecutor).schedule(InitScheduler.HIGH_PRIORITY_THRESHOLD) { started.add("high") }
+
+        waitForHistory(history)
+
+        assertEquals(listOf("high"), started)
+    }
+
+    @Test
+    fun defersALowPriorityNetworkUntilTheFirstFrameAndItsStagger() {
+        val history = loadHistory("low")
+        InitScheduler(history, directExecutor).schedule(InitScheduler.HIGH_PRIORITY_THRESHOLD + 2) { started.add("low") }
+
+        waitForHistory(history)
+        assertTrue(started.isEmpty())
+
+        idleFor(InitScheduler.FIRST_FRAME_TIMEOUT_MS + 2 * InitScheduler.STAGGER_INTERVAL_MS)
+
+        assertEquals(listOf("low"), started)
+    }
+
+    @Test
+    fun startsANetworkWhichKeepsFailingAfterTheStaggeredOnes() {
+        val failingHistory = loadHistory("failing")
+        repeat(InitHistory.MAX_CONSECUTIVE_FAILURES) { failingHistory.record(false, 5_000L) }
+        val staggeredHistory = loadHistory("staggered")
+
+        // The failing network keeps the highest priority, and still starts last
+        InitScheduler(failingHistory, directExecutor).schedule(0) { started.add("failing") }
+        InitScheduler(staggeredHistory, directExecutor).schedule(Int.MAX_VALUE) { started.add("staggered") }
+        waitForHistory(staggeredHistory)
+
+        idleFor(InitScheduler.FIRST_FRAME_TIMEOUT_MS + InitScheduler.FAILING_DELAY_MS)
+
+        assertEquals(listOf("staggered", "failing"), started)
+    }
+
+    private fun loadHistory(network: String): InitHistory =
+        InitHistory(network).apply {
+            load(RuntimeEnvironment.getApplication(), "9.0", "1.0", "appId")
+            waitForHistory(this)
+        }
+
+    // The history tasks of all networks run one after the other on the shared thread
+    private fun waitForHistory(history: InitHistory) {
+        val done = CountDownLatch(1)
+        history.whenLoaded { done.countDown() }
+        assertTrue(done.await(5, TimeUnit.SECONDS))
+    }
+
+    private fun idleFor(millis: Long) {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(millis))
+    }
+}
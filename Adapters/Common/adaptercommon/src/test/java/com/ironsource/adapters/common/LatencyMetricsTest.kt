@@ -0,0 +1,63 @@
+package com.ironsource.adapters.common
+
+import com.ironsource.adapters.common.LatencyMetrics.AdFormat
+import com.ironsource.adapters.common.LatencyMetrics.Phase
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class LatencyMetricsTest {
+
+    private val metrics = LatencyMetrics.forNetwork("LatencyMetricsTest")
+
+    @After
+    fun tearDown() {
+        metrics.reset()
+        LatencyMetrics.sink = null
+    }
+
+    @Test
+    fun returnsOneInstancePerNetwork() {
+        assertSame(metrics, LatencyMetrics.forNetwork("LatencyMetricsTest"))
+    }
+
+    @Test
+    fun addsMeasurementsToTheBucketOfTheirDuration() {
+        metrics.record(Phase.LOAD, AdFormat.BANNER, 40, true)
+        metrics.record(Phase.LOAD, AdFormat.BANNER, 100, true)
+        metrics.record(Phase.LOAD, AdFormat.BANNER, 60_000, false)
+
+        val snapshot = metrics.snapshot().single()
+
+        assertEquals(Phase.LOAD, snapshot.phase)
+        assertEquals(AdFormat.BANNER, snapshot.adFormat)
+        assertArrayEquals(longArrayOf(1, 1, 0, 0, 0, 0, 0, 0, 0, 1), snapshot.bucketCounts)
+        assertEquals(2, snapshot.successCount)
+        assertEquals(1, snapshot.failureCount)
+        assertEquals(60_140, snapshot.totalDurationMs)
+    }
+
+    @Test
+    fun pushesEveryMeasurementToTheSink() {
+        val recorded = ArrayList<String>()
+        LatencyMetrics.sink = object : LatencyMetrics.LatencySink {
+            override fun onLatencyRecorded(network: String, phase: Phase, adFormat: AdFormat, durationMs: Long, success: Boolean) {
+                recorded.add("$network $phase $adFormat $durationMs $success")
+            }
+        }
+
+        metrics.record(Phase.INIT, AdFormat.NETWORK, 20, true)
+
+        assertEquals(listOf("LatencyMetricsTest INIT NETWORK 20 true"), recorded)
+    }
+
+    @Test
+    fun dropsNegativeDurations() {
+        metrics.record(Phase.SHOW, AdFormat.REWARDED, -1, true)
+
+        assertTrue(metrics.snapshot().isEmpty())
+    }
+}
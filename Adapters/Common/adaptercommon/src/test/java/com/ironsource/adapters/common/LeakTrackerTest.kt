@@ -0,0 +1,45 @@
+package com.ironsource.adapters.common
+
+import com.ironsource.adapters.common.LatencyMetrics.AdFormat
+import com.ironsource.adapters.common.LeakTracker.ObjectType
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class LeakTrackerTest {
+
+    private val tracker = LeakTracker.forNetwork("LeakTrackerTest")
+
+    @After
+    fun tearDown() {
+        AdapterLogs.reset()
+    }
+
+    @Test
+    fun returnsOneInstancePerNetwork() {
+        assertSame(tracker, LeakTracker.forNetwork("LeakTrackerTest"))
+    }
+
+    @Test
+    fun watchesEveryReleasedObjectWhileTheAdapterLogsAreEnabled() {
+        AdapterLogs.setAdaptersDebugEnabled("LeakTrackerTest", true)
+        val watchedCount = tracker.getWatchedCount()
+
+        tracker.watch(AdFormat.BANNER, ObjectType.VIEW, Any())
+        tracker.watch(AdFormat.BANNER, ObjectType.LISTENER, Any())
+        tracker.watch(AdFormat.BANNER, ObjectType.AD, null)
+
+        assertEquals(watchedCount + 2, tracker.getWatchedCount())
+    }
+
+    @Test
+    fun reportsNoLeakBeforeTheChecksRun() {
+        AdapterLogs.setAdaptersDebugEnabled("LeakTrackerTest", true)
+        tracker.watch(AdFormat.INTERSTITIAL, ObjectType.AD, Any())
+
+        assertTrue(tracker.snapshot().isEmpty())
+        assertEquals(0, tracker.getEstimatedRetainedBytes())
+    }
+}
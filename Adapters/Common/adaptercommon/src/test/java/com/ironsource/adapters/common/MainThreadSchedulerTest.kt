@@ -0,0 +1,111 @@
+package com.ironsource.adapters.common
+
+import android.os.Looper
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import java.util.Collections
+
+@RunWith(RobolectricTestRunner::class)
+class MainThreadSchedulerTest {
+
+    private val events = Collections.synchronizedList(ArrayList<String>())
+
+    @Test
+    fun mainThreadWorkIsPostedEvenWhenNothingIsQueued() {
+        MainThreadScheduler.post { events.add("main") }
+        assertTrue(events.isEmpty())
+
+        idleMainLooper()
+
+        assertEquals(listOf("main"), events)
+    }
+
+    @Test
+    fun workPostedFromARunningBlockDoesNotRunInsideIt() {
+        MainThreadScheduler.post {
+            MainThreadScheduler.post { events.add("nested") }
+            events.add("outer")
+        }
+
+        idleMainLooper()
+
+        assertEquals(listOf("outer", "nested"), events)
+    }
+
+    @Test
+    fun mainThreadWorkWaitsForWorkQueuedBeforeIt() {
+        postFromBackground { events.add("background") }
+        MainThreadScheduler.post { events.add("main") }
+        assertTrue(events.isEmpty())
+
+        idleMainLooper()
+
+        assertEquals(listOf("background", "main"), events)
+    }
+
+    @Test
+    fun workPostedWhileDrainingRunsAfterTheQueuedWork() {
+        postFromBackground {
+            events.add("first")
+            MainThreadScheduler.post { events.add("nested") }
+        }
+        postFromBackground { events.add("second") }
+
+        idleMainLooper()
+
+        assertEquals(listOf("first", "second", "nested"), events)
+    }
+
+    @Test
+    fun failingWorkIsThrownAndTheRemainingWorkStillRuns() {
+        postFromBackground { throw IllegalStateException("load failed") }
+        postFromBackground { events.add("after failure") }
+
+        val failure = runCatching { idleMainLooper() }.exceptionOrNull()
+        idleMainLooper()
+
+        assertTrue(failure is IllegalStateException)
+        assertEquals(listOf("after failure"), events)
+    }
+
+    @Test
+    fun batchesBackgroundWorkIntoOneMessage() {
+        idleMainLooper()
+        val postedBefore = MainThreadScheduler.postedMessages
+
+        repeat(10) { index -> postFromBackground { events.add("task $index") } }
+        idleMainLooper()
+
+        assertEquals(10, events.size)
+        assertEquals(postedBefore + 1, MainThreadScheduler.postedMessages)
+    }
+
+    @Test
+    fun runsAtMostTheCapInOneMessage() {
+        idleMainLooper()
+        val postedBefore = MainThreadScheduler.postedMessages
+
+        repeat(MainThreadScheduler.MAX_TASKS_PER_DRAIN + 1) { index -> postFromBackground { events.add("task $index") } }
+        shadowOf(Looper.getMainLooper()).runOneTask()
+        assertEquals(MainThreadScheduler.MAX_TASKS_PER_DRAIN, events.size)
+
+        idleMainLooper()
+
+        assertEquals(MainThreadScheduler.MAX_TASKS_PER_DRAIN + 1, events.size)
+        assertEquals(postedBefore + 2, MainThreadScheduler.postedMessages)
+    }
+
+    private fun postFromBackground(block: () -> Unit) {
+        val thread = Thread { MainThreadScheduler.post { block() } }
+        thread.start()
+        thread.join()
+    }
+
+    private fun idleMainLooper() {
+        shadowOf(Looper.getMainLooper()).idle()
+    }
+}
@@ -0,0 +1,53 @@
+package com.ironsource.adapters.common
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class PrivacyStateTest {
+
+    @Test
+    fun returnsOneInstancePerNetwork() {
+        assertSame(PrivacyState.forNetwork("first"), PrivacyState.forNetwork("first"))
+        assertNotSame(PrivacyState.forNetwork("first"), PrivacyState.forNetwork("second"))
+    }
+
+    @Test
+    fun reportsOnlyActualChanges() {
+        val state = PrivacyState.forNetwork("changes")
+
+        assertTrue(state.setConsent(true))
+        assertFalse(state.setConsent(true))
+        assertTrue(state.setConsent(false))
+
+        assertEquals(false, state.current.consent)
+        assertNull(state.current.doNotSell)
+        assertEquals(2, state.current.version)
+    }
+
+    @Test
+    fun notifiesTheListenersWithBothSnapshots() {
+        val state = PrivacyState.forNetwork("listeners")
+        val changes = ArrayList<Pair<PrivacySnapshot, PrivacySnapshot>>()
+        state.addListener { previous, current -> changes.add(previous to current) }
+
+        state.setChildDirected(true)
+        state.setChildDirected(true)
+
+        assertEquals(1, changes.size)
+        assertNull(changes[0].first.childDirected)
+        assertEquals(true, changes[0].second.childDirected)
+        assertEquals(changes[0].first.version + 1, changes[0].second.version)
+    }
+
+    @Test
+    fun keepsTheValuesOfEachNetworkApart() {
+        PrivacyState.forNetwork("apart-first").setDoNotSell(true)
+
+        assertNull(PrivacyState.forNetwork("apart-second").current.doNotSell)
+    }
+}
@@ -0,0 +1,81 @@
+package com.ironsource.adapters.common
+
+import android.util.Base64
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import java.util.zip.GZIPInputStream
+import kotlin.random.Random
+
+@RunWith(RobolectricTestRunner::class)
+class TokenEncoderTest {
+
+    private val encoder = TokenEncoder.forNetwork("TokenEncoderTest")
+
+    private val structuredToken = "{\"slot\":\"placement\",\"format\":\"banner\"}".repeat(40)
+
+    @After
+    fun tearDown() {
+        encoder.configure(null)
+        encoder.reset()
+    }
+
+    @Test
+    fun returnsOneInstancePerNetwork() {
+        assertSame(encoder, TokenEncoder.forNetwork("TokenEncoderTest"))
+    }
+
+    @Test
+    fun sendsTokensAsTheyAreByDefault() {
+        val biddingData = encoder.biddingData("token", structuredToken, 12)
+
+        assertEquals(structuredToken, biddingData["token"])
+        assertFalse(biddingData.containsKey(TokenEncoder.ENCODING_KEY))
+        val stats = encoder.snapshot()
+        assertEquals(1, stats.tokenCount)
+        assertEquals(structuredToken.length.toLong(), stats.rawBytes)
+        assertEquals(stats.rawBytes, stats.sentBytes)
+        assertEquals(12, stats.averageGenerationMs)
+    }
+
+    @Test
+    fun compressesLongTokensOnceGzipIsEnabled() {
+        encoder.configure("GZIP")
+
+        val biddingData = encoder.biddingData("token", structuredToken, 0)
+
+        assertEquals("gzip", biddingData[TokenEncoder.ENCODING_KEY])
+        val compressed = Base64.decode(biddingData["token"] as String, Base64.NO_WRAP)
+        assertEquals(structuredToken, GZIPInputStream(compressed.inputStream()).readBytes().toString(Charsets.UTF_8))
+        val stats = encoder.snapshot()
+        assertEquals(1, stats.encodedCount)
+        assertTrue(stats.sentBytes < stats.rawBytes)
+    }
+
+    @Test
+    fun sendsShortAndIncompressibleTokensAsTheyAre() {
+        encoder.configure("gzip")
+        val shortToken = structuredToken.take(TokenEncoder.MIN_COMPRESSED_LENGTH - 1)
+        val encryptedToken = Base64.encodeToString(Random(0).nextBytes(1024), Base64.NO_WRAP)
+
+        assertEquals(shortToken, encoder.biddingData("token", shortToken, 0)["token"])
+        assertEquals(encryptedToken, encoder.biddingData("token", encryptedToken, 0)["token"])
+        assertEquals(0, encoder.snapshot().encodedCount)
+    }
+
+    @Test
+    fun snapshotsOnlyTheNetworksWhichSentTokens() {
+        TokenEncoder.forNetwork("TokenEncoderTestIdle")
+        encoder.biddingData("token", "token", 0)
+
+        val networks = TokenEncoder.snapshotAll().map { it.network }
+
+        assertTrue("TokenEncoderTest" in networks)
+        assertFalse("TokenEncoderTestIdle" in networks)
+    }
+}
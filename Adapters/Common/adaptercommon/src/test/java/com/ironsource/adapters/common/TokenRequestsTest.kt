@@ -0,0 +1,83 @@
+package com.ironsource.adapters.common
+
+import android.os.Looper
+import com.ironsource.mediationsdk.bidding.BiddingDataCallback
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import java.time.Duration
+
+@RunWith(RobolectricTestRunner::class)
+class TokenRequestsTest {
+
+    private val results = ArrayList<String>()
+
+    private fun callback(name: String) = object : BiddingDataCallback {
+        override fun onSuccess(biddingData: Map<String, Any>) {
+            results.add("$name success ${biddingData["token"]}")
+        }
+
+        override fun onFailure(errorMessage: String) {
+            results.add("$name failure")
+        }
+    }
+
+    @Test
+    fun returnsOneInstancePerNetwork() {
+        assertSame(TokenRequests.forNetwork("TokenRequestsTest"), TokenRequests.forNetwork("TokenRequestsTest"))
+    }
+
+    @Test
+    fun sharesARunningCallBetweenTheCallersOfAKey() {
+        val requests = TokenRequests.forNetwork("shared")
+        var sdkCallback: BiddingDataCallback? = null
+        var sdkCalls = 0
+
+        requests.request("banner", callback("first")) { sdkCalls++; sdkCallback = it }
+        requests.request("banner", callback("second")) { sdkCalls++; sdkCallback = it }
+        sdkCallback?.onSuccess(mapOf("token" to "abc"))
+
+        assertEquals(1, sdkCalls)
+        assertEquals(listOf("first success abc", "second success abc"), results)
+        assertEquals(1L, requests.snapshot().savedCalls)
+    }
+
+    @Test
+    fun failsEveryWaitingCallerOnceTheCallbackIsLost() {
+        val requests = TokenRequests.forNetwork("lost")
+        var lostCallback: BiddingDataCallback? = null
+
+        requests.request("banner", callback("first")) { lostCallback = it }
+        requests.request("banner", callback("second")) { lostCallback = it }
+        idleFor(TokenRequests.MAX_FLIGHT_MS)
+
+        assertEquals(listOf("first failure", "second failure"), results)
+        assertEquals(1L, requests.snapshot().timedOutCalls)
+
+        // The late result is dropped, and the next caller starts a new call
+        lostCallback?.onSuccess(mapOf("token" to "late"))
+        var sdkCalls = 0
+        requests.request("banner", callback("third")) { sdkCalls++; it.onSuccess(mapOf("token" to "new")) }
+
+        assertEquals(1, sdkCalls)
+        assertEquals(listOf("first failure", "second failure", "third success new"), results)
+    }
+
+    @Test
+    fun aCallWhichAnsweredInTimeIsNotFailedByTheDeadline() {
+        val requests = TokenRequests.forNetwork("answered")
+
+        requests.request("banner", callback("first")) { it.onFailure("no fill") }
+        idleFor(TokenRequests.MAX_FLIGHT_MS)
+
+        assertEquals(listOf("first failure"), results)
+        assertEquals(0L, requests.snapshot().timedOutCalls)
+    }
+
+    private fun idleFor(millis: Long) {
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(millis))
+    }
+}
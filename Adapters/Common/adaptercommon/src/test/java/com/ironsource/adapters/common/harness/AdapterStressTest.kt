@@ -0,0 +1,220 @@
+package com.ironsource.adapters.common.harness
+
+import android.os.Looper
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.mediationsdk.bidding.BiddingDataCallback
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Conformance and stress scenarios of the adapter layer against scripted network SDKs.
+ *
+ * Every network has a base adapter and one format adapter, driven with many concurrent init, load,
+ * show, destroy and token calls while the callbacks arrive in a random order on the SDK threads.
+ * The scenarios check that every call ends exactly once and that every ad handed out by the SDK is
+ * destroyed exactly once once it's dropped.
+ */
+@RunWith(RobolectricTestRunner::class)
+class AdapterStressTest {
+
+    companion object {
+        private const val THREAD_COUNT = 16
+        private const val NETWORK_COUNT = 16
+    }
+
+    private class CountingInitListener : FakeNetworkAdapter.InitListener {
+        val callbackCount = AtomicInteger()
+
+        override fun onInitSuccess() {
+            callbackCount.incrementAndGet()
+        }
+
+        override fun onInitFailed(message: String) {
+            callbackCount.incrementAndGet()
+        }
+    }
+
+    // Ends of a single load, its listener results and the drops of a load which never reports
+    private class LoadOutcome {
+        val adListener = FakeAdListener()
+        val dropCount = AtomicInteger()
+
+        val endCount: Int
+            get() = adListener.callbackCount + dropCount.get()
+
+        fun load(formatAdapter: FakeNetworkAdapter.FormatAdapter) {
+            formatAdapter.loadAd(adListener.listener) { dropCount.incrementAndGet() }
+        }
+    }
+
+    private class CountingBiddingDataCallback : BiddingDataCallback {
+        val callbackCount = AtomicInteger()
+
+        override fun onSuccess(biddingData: Map<String, Any>) {
+            callbackCount.incrementAndGet()
+        }
+
+        override fun onFailure(errorMessage: String) {
+            callbackCount.incrementAndGet()
+        }
+    }
+
+    private class Network(val adapter: FakeNetworkAdapter) {
+        val formatAdapter = adapter.FormatAdapter()
+    }
+
+    private val sdks = ArrayList<FakeNetworkSdk>()
+    private val executor: ExecutorService = Executors.newFixedThreadPool(THREAD_COUNT)
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+    }
+
+    @Test
+    fun concurrentInitsNotifyEveryListenerExactlyOnce() {
+        val callCount = 500
+        val sdk = newSdk(FakeNetworkSdk.Script(initFailureRate = 0.5))
+        val adapter = FakeNetworkAdapter(sdk, "StressInit")
+        val listeners = Array(callCount) { CountingInitListener() }
+
+        runConcurrently(callCount) { index -> adapter.init(listeners[index]) }
+        assertTrue(sdk.awaitIdle())
+
+        for (listener in listeners) {
+            assertEquals(1, listener.callbackCount.get())
+        }
+        assertNotEquals(InitState.INIT_STATE_IN_PROGRESS, adapter.initState)
+        // Failed attempts are only retried after their backoff
+        assertEquals(1, sdk.initCallCount.get())
+    }
+
+    @Test
+    fun concurrentCallsEndEveryLoadExactlyOnceAndReleaseEveryDroppedAd() {
+        val callCount = 20_000
+        val script = FakeNetworkSdk.Script(loadFailureRate = 0.2, lostLoadCallbackRate = 0.05)
+        val networks = newNetworks(script)
+        val loads = arrayOfNulls<LoadOutcome>(callCount)
+        val initListeners = arrayOfNulls<CountingInitListener>(callCount)
+        val tokenCallbacks = arrayOfNulls<CountingBiddingDataCallback>(callCount)
+
+        runConcurrently(callCount) { index ->
+            val network = networks[index % networks.size]
+            when (ThreadLocalRandom.current().nextInt(5)) {
+                0 -> network.formatAdapter.destroyAd()
+                // The mediation layer never shows the same format adapter twice at once
+                1 -> synchronized(network) {
+                    if (network.formatAdapter.showAd()) {
+                        network.formatAdapter.closeAd()
+                    }
+                }
+                2 -> CountingBiddingDataCallback().also {
+                    tokenCallbacks[index] = it
+                    network.adapter.collectBiddingData(it)
+                }
+                3 -> CountingInitListener().also {
+                    initListeners[index] = it
+                    network.adapter.init(it)
+                }
+                else -> LoadOutcome().also {
+                    loads[index] = it
+                    it.load(network.formatAdapter)
+                }
+            }
+        }
+        awaitIdle()
+
+        for (load in loads.filterNotNull()) {
+            assertEquals(1, load.endCount)
+        }
+        for (listener in initListeners.filterNotNull()) {
+            assertEquals(1, listener.callbackCount.get())
+        }
+        for (callback in tokenCallbacks.filterNotNull()) {
+            assertEquals(1, callback.callbackCount.get())
+        }
+
+        val storedAds = networks.mapNotNull { it.formatAdapter.ad }.toSet()
+        for (ad in sdks.flatMap { it.createdAds }) {
+            assertEquals(if (ad in storedAds) 0 else 1, ad.releaseCount.get())
+        }
+    }
+
+    @Test
+    fun theLatestLoadOfEveryAdapterDeliversExactlyOneResult() {
+        val networks = newNetworks(FakeNetworkSdk.Script(loadFailureRate = 0.3))
+        val latestLoads = arrayOfNulls<LoadOutcome>(networks.size)
+        val replacedLoads = ArrayList<LoadOutcome>()
+
+        // Loads replacing each other, only the last load of each adapter reports its result
+        repeat(50) {
+            latestLoads.filterNotNullTo(replacedLoads)
+            runConcurrently(networks.size) { index ->
+                val load = LoadOutcome()
+                latestLoads[index] = load
+                load.load(networks[index].formatAdapter)
+            }
+        }
+        awaitIdle()
+
+        for (load in latestLoads) {
+            assertEquals(1, load!!.adListener.callbackCount)
+            assertEquals(0, load.dropCount.get())
+        }
+        for (load in replacedLoads) {
+            assertEquals(1, load.endCount)
+        }
+    }
+
+    private fun newSdk(script: FakeNetworkSdk.Script): FakeNetworkSdk =
+        FakeNetworkSdk(script).also { sdks.add(it) }
+
+    private fun newNetworks(script: FakeNetworkSdk.Script): List<Network> =
+        List(NETWORK_COUNT) { networkIndex ->
+            Network(FakeNetworkAdapter(newSdk(script), "StressNetwork$networkIndex"))
+        }
+
+    // Waits for every SDK callback, then runs the destroys they posted to the main thread
+    private fun awaitIdle() {
+        for (sdk in sdks) {
+            assertTrue(sdk.awaitIdle())
+        }
+        shadowOf(Looper.getMainLooper()).idle()
+    }
+
+    // Runs the calls on all the test threads at once
+    private fun runConcurrently(callCount: Int, call: (Int) -> Unit) {
+        val start = CountDownLatch(1)
+        val done = CountDownLatch(callCount)
+        val failures = AtomicInteger()
+
+        for (index in 0 until callCount) {
+            executor.execute {
+                try {
+                    start.await()
+                    call(index)
+                } catch (e: Throwable) {
+                    failures.incrementAndGet()
+                } finally {
+                    done.countDown()
+                }
+            }
+        }
+
+        start.countDown()
+        assertTrue(done.await(60, TimeUnit.SECONDS))
+        assertEquals(0, failures.get())
+    }
+}
@@ -0,0 +1,48 @@
+package com.ironsource.adapters.common.harness
+
+import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
+import java.lang.reflect.Proxy
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Mediation SDK listener handed to a format adapter, recording the load results and ignoring the
+ * other callbacks.
+ */
+class FakeAdListener {
+
+    val successCount = AtomicInteger()
+    val failureCount = AtomicInteger()
+    private val result = CountDownLatch(1)
+
+    val listener = Proxy.newProxyInstance(
+        InterstitialAdListener::class.java.classLoader,
+        arrayOf(InterstitialAdListener::class.java)
+    ) { proxy, method, args ->
+        when (method.name) {
+            "onAdLoadSuccess" -> {
+                successCount.incrementAndGet()
+                result.countDown()
+                null
+            }
+            "onAdLoadFailed" -> {
+                failureCount.incrementAndGet()
+                result.countDown()
+                null
+            }
+            "equals" -> proxy === args?.get(0)
+            "hashCode" -> System.identityHashCode(proxy)
+            "toString" -> "FakeAdListener"
+            else -> null
+        }
+    } as InterstitialAdListener
+
+    val callbackCount: Int
+        get() = successCount.get() + failureCount.get()
+
+    /**
+     * @return false if no load result arrived in time
+     */
+    fun awaitResult(timeoutSeconds: Long = 10L): Boolean = result.await(timeoutSeconds, TimeUnit.SECONDS)
+}
@@ -0,0 +1,149 @@
+package com.ironsource.adapters.common.harness
+
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.TokenRequests
+import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
+import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
+import com.ironsource.mediationsdk.bidding.BiddingDataCallback
+import java.lang.ref.WeakReference
+
+/**
+ * Network adapter built the way the adapters of this repo are - a base adapter initializing the
+ * SDK through the shared [InitCoordinator] and sharing its token calls through [TokenRequests],
+ * and a format adapter reporting to the mediation SDK listener wrapped by the [LatencyTracker].
+ * The format adapter stores its ad in an [AdSlot] once the load succeeded, its SDK listener points
+ * back to it through a weak reference, and its ads are destroyed on the main thread.
+ */
+class FakeNetworkAdapter(private val sdk: FakeNetworkSdk, network: String) {
+
+    private companion object {
+        const val TOKEN_KEY = "token"
+    }
+
+    interface InitListener {
+        fun onInitSuccess()
+        fun onInitFailed(message: String)
+    }
+
+    private val initCoordinator = InitCoordinator(network, object : InitCoordinator.Notifier<InitListener> {
+        override fun notifySuccess(listener: InitListener) {
+            listener.onInitSuccess()
+        }
+
+        override fun notifyFailure(listener: InitListener, errorCode: Int, errorMessage: String) {
+            listener.onInitFailed(errorMessage)
+        }
+    })
+
+    private val tokenRequests = TokenRequests.forNetwork(network)
+
+    val initState: InitCoordinator.InitState
+        get() = initCoordinator.initState
+
+    fun init(listener: InitListener) {
+        // No watchdog, the fake SDK always completes its init
+        val attempt = initCoordinator.register(listener, 0L)
+        if (attempt == InitCoordinator.NO_ATTEMPT) {
+            return
+        }
+        sdk.init(object : FakeNetworkSdk.InitCallback {
+            override fun onInitSuccess() {
+                initCoordinator.onInitSuccess(attempt)
+            }
+
+            override fun onInitFailed(message: String) {
+                initCoordinator.onInitFailed(attempt, 1, message)
+            }
+        })
+    }
+
+    fun collectBiddingData(biddingDataCallback: BiddingDataCallback) {
+        tokenRequests.request(TOKEN_KEY, biddingDataCallback) { callback ->
+            sdk.getToken { token -> callback.onSuccess(mapOf(TOKEN_KEY to token)) }
+        }
+    }
+
+    inner class FormatAdapter {
+
+        private val adSlot = AdSlot<FakeNetworkSdk.Ad>(network) { destroyAd(it) }
+        private val latencyTracker = LatencyTracker(network, LatencyMetrics.AdFormat.INTERSTITIAL)
+
+        val ad: FakeNetworkSdk.Ad?
+            get() = adSlot.ad
+
+        /**
+         * @param onDropped called instead of the listener if the load never reports, as it was
+         * destroyed or loaded again, or the SDK lost its callback
+         */
+        fun loadAd(listener: InterstitialAdListener, onDropped: () -> Unit) {
+            val trackedListener = latencyTracker.trackLoad(listener)
+            val generation = adSlot.begin()
+            if (!sdk.loadAd(LoadListener(trackedListener, WeakReference(this), generation, onDropped))) {
+                onDropped()
+            }
+        }
+
+        /**
+         * @return false if there was no ad to show, the shown ad is held apart until [closeAd]
+         */
+        fun showAd(): Boolean = adSlot.startShow() != null
+
+        // Destroys the shown ad once it's closed, an ad loaded meanwhile is kept
+        fun closeAd() {
+            adSlot.finishShow()?.let { destroyAd(it) }
+        }
+
+        fun destroyAd() {
+            // Captured on entry, a load which starts after the destroy keeps its ad
+            val generation = adSlot.generation
+            MainThreadScheduler.post {
+                adSlot.clear(generation)?.releaseCount?.incrementAndGet()
+                adSlot.finishShow()?.releaseCount?.incrementAndGet()
+            }
+        }
+
+        internal fun setAd(generation: Long, ad: FakeNetworkSdk.Ad): Boolean {
+            if (!adSlot.set(generation, ad)) {
+                destroyAd(ad)
+                return false
+            }
+            return true
+        }
+
+        internal fun isCurrentLoad(generation: Long): Boolean =
+            adSlot.isCurrent(generation)
+
+        // Destroys an ad which was shown, replaced by the ad of a newer load or arrived for a stale load
+        private fun destroyAd(ad: FakeNetworkSdk.Ad) {
+            MainThreadScheduler.post { ad.releaseCount.incrementAndGet() }
+        }
+    }
+
+    private class LoadListener(
+        private val listener: InterstitialAdListener,
+        private val adapter: WeakReference<FormatAdapter>,
+        private val generation: Long,
+        private val onDropped: () -> Unit
+    ) : FakeNetworkSdk.LoadCallback {
+
+        override fun onAdLoaded(ad: FakeNetworkSdk.Ad) {
+            if (adapter.get()?.setAd(generation, ad) != true) {
+                onDropped()
+                return
+            }
+            listener.onAdLoadSuccess()
+        }
+
+        override fun onAdLoadFailed(message: String) {
+            if (adapter.get()?.isCurrentLoad(generation) != true) {
+                onDropped()
+                return
+            }
+            listener.onAdLoadFailed(AdapterErrorType.ADAPTER_ERROR_TYPE_NO_FILL, 1, message)
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ironsource.adapters.common.harness
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Scriptable stand-in of a network SDK.
+ *
+ * Init, token and load callbacks arrive on a pool of SDK threads after a random delay, so their
+ * order is random between calls. The script sets how often a call fails and how often a load
+ * callback never arrives, as some SDKs drop the callback of a load they consider cancelled.
+ */
+class FakeNetworkSdk(
+    @Volatile var script: Script = Script(),
+    threadCount: Int = 4
+) {
+
+    class Script(
+        val initFailureRate: Double = 0.0,
+        val loadFailureRate: Double = 0.0,
+        val lostLoadCallbackRate: Double = 0.0,
+        val maxDelayMicros: Long = 200L
+    )
+
+    class Ad {
+        // Number of times the adapter destroyed the ad, anything but 1 for a dropped ad is a bug
+        val releaseCount = AtomicInteger()
+    }
+
+    interface InitCallback {
+        fun onInitSuccess()
+        fun onInitFailed(message: String)
+    }
+
+    interface LoadCallback {
+        fun onAdLoaded(ad: Ad)
+        fun onAdLoadFailed(message: String)
+    }
+
+    fun interface TokenCallback {
+        fun onToken(token: String)
+    }
+
+    private val executor: ScheduledExecutorService = Executors.newScheduledThreadPool(threadCount)
+    private val tokenCount = AtomicLong()
+
+    // Every ad the SDK handed to the adapter
+    val createdAds = ConcurrentLinkedQueue<Ad>()
+
+    val initCallCount = AtomicInteger()
+
+    fun init(callback: InitCallback) {
+        initCallCount.incrementAndGet()
+        val failed = roll(script.initFailureRate)
+        schedule {
+            if (failed) callback.onInitFailed("scripted init failure") else callback.onInitSuccess()
+        }
+    }
+
+    fun getToken(callback: TokenCallback) {
+        schedule { callback.onToken("token-${tokenCount.incrementAndGet()}") }
+    }
+
+    /**
+     * @return false if the script dropped the load, its callback never arrives
+     */
+    fun loadAd(callback: LoadCallback): Boolean {
+        val current = script
+        if (roll(current.lostLoadCallbackRate)) {
+            return false
+        }
+        val failed = roll(current.loadFailureRate)
+        schedule {
+            if (failed) {
+                callback.onAdLoadFailed("scripted no fill")
+            } else {
+                val ad = Ad()
+                createdAds.add(ad)
+                callback.onAdLoaded(ad)
+            }
+        }
+        return true
+    }
+
+    /**
+     * Waits for all the scheduled callbacks, the SDK can't be used afterwards.
+     */
+    fun awaitIdle(timeoutSeconds: Long = 30L): Boolean {
+        executor.shutdown()
+        return executor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)
+    }
+
+    private fun schedule(callback: () -> Unit) {
+        val delay = ThreadLocalRandom.current().nextLong(script.maxDelayMicros + 1)
+        executor.schedule(callback, delay, TimeUnit.MICROSECONDS)
+    }
+
+    private fun roll(rate: Double): Boolean = rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate
+}
@@ -0,0 +1,93 @@
+package com.ironsource.adapters.common.harness
+
+import android.os.Looper
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+
+/**
+ * Load while show by instance, declared by the adapters whose format adapter holds the shown ad
+ * apart from the stored one - a load of the same instance during a show stores its ad for the
+ * next show, and the shown ad is only destroyed once it's closed or the instance is destroyed.
+ */
+@RunWith(RobolectricTestRunner::class)
+class LoadWhileShowTest {
+
+    private val sdk = FakeNetworkSdk()
+    private val formatAdapter = FakeNetworkAdapter(sdk, "LoadWhileShow").FormatAdapter()
+
+    @Test
+    fun aLoadDuringAShowStoresItsAdForTheNextShow() {
+        val shownAd = loadAd()
+        assertTrue(formatAdapter.showAd())
+
+        val loadedAd = loadAd()
+        assertNotSame(shownAd, loadedAd)
+        assertEquals(0, shownAd.releaseCount.get())
+
+        formatAdapter.closeAd()
+        runMainThread()
+
+        assertEquals(1, shownAd.releaseCount.get())
+        assertEquals(0, loadedAd.releaseCount.get())
+        assertSame(loadedAd, formatAdapter.ad)
+        assertTrue(formatAdapter.showAd())
+    }
+
+    @Test
+    fun aFailedLoadDuringAShowKeepsTheShownAd() {
+        val shownAd = loadAd()
+        assertTrue(formatAdapter.showAd())
+
+        sdk.script = FakeNetworkSdk.Script(loadFailureRate = 1.0)
+        val adListener = FakeAdListener()
+        formatAdapter.loadAd(adListener.listener) {}
+        assertTrue(adListener.awaitResult())
+        assertEquals(1, adListener.failureCount.get())
+        runMainThread()
+
+        assertEquals(0, shownAd.releaseCount.get())
+        formatAdapter.closeAd()
+        runMainThread()
+        assertEquals(1, shownAd.releaseCount.get())
+    }
+
+    @Test
+    fun aDestroyDuringAShowReleasesBothAdsOnce() {
+        val shownAd = loadAd()
+        assertTrue(formatAdapter.showAd())
+        val loadedAd = loadAd()
+
+        formatAdapter.destroyAd()
+        runMainThread()
+        // The close arriving after the destroy finds nothing left to release
+        formatAdapter.closeAd()
+        runMainThread()
+
+        assertEquals(1, shownAd.releaseCount.get())
+        assertEquals(1, loadedAd.releaseCount.get())
+        assertNull(formatAdapter.ad)
+    }
+
+    // Loads an ad and waits for it to be stored
+    private fun loadAd(): FakeNetworkSdk.Ad {
+        val adListener = FakeAdListener()
+        formatAdapter.loadAd(adListener.listener) {}
+        assertTrue(adListener.awaitResult())
+        assertEquals(1, adListener.successCount.get())
+        val ad = formatAdapter.ad
+        assertNotNull(ad)
+        return ad!!
+    }
+
+    private fun runMainThread() {
+        shadowOf(Looper.getMainLooper()).idle()
+    }
+}
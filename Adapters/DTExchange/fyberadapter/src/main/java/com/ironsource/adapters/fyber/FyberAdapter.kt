@@ -1,12 +1,18 @@
 package com.ironsource.adapters.fyber
 
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import com.fyber.inneractive.sdk.external.BidTokenProvider
 import com.fyber.inneractive.sdk.external.InneractiveAdManager
 import com.fyber.inneractive.sdk.external.InneractiveErrorCode
 import com.fyber.inneractive.sdk.external.OnFyberMarketplaceInitializedListener
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.InitHistory
+import com.ironsource.adapters.common.InitScheduler
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.PrivacyState
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.AdapterNetworkData
 import com.ironsource.mediationsdk.adunit.adapter.internal.AdapterNetworkDataInterface
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
@@ -19,27 +25,29 @@ import com.ironsource.mediationsdk.metadata.MetaData
 import com.ironsource.mediationsdk.metadata.MetaDataUtils
 import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class FyberAdapter : LevelPlayBaseAdapter(), AdapterNetworkDataInterface {
 
     companion object {
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         private const val GitHash: String = BuildConfig.GitHash
 
+        // Privacy values shared by all adapter instances
+        private val privacyState = PrivacyState.forNetwork(FyberConstants.NETWORK_NAME)
+
+        // Outcome of the previous launches, which the init is scheduled by
+        private val initHistory = InitHistory.forNetwork(FyberConstants.NETWORK_NAME)
+
+        // The SDK init has to be called on the main thread
+        private val initScheduler = InitScheduler(initHistory, InitScheduler.MAIN_THREAD)
+
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initCallbackListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(FyberConstants.NETWORK_NAME) { success, durationMs ->
+            // A late success still means the network is healthy on the next launch
+            initHistory.record(success, durationMs)
+        }
+        private val initState: InitState
+            get() = initCoordinator.initState
 
         // Meta data flags applied once the SDK is initialized
         private var consent: Boolean? = null
@@ -60,8 +68,6 @@ class FyberAdapter : LevelPlayBaseAdapter(), AdapterNetworkDataInterface {
         fun networkAdapterVersion(): String = FyberConstants.ADAPTER_VERSION
     }
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-
     // region Adapter Methods
 
     override fun getAdapterVersion(): String = FyberConstants.ADAPTER_VERSION
@@ -75,6 +81,9 @@ class FyberAdapter : LevelPlayBaseAdapter(), AdapterNetworkDataInterface {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(FyberConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         // Validate appId first before any other checks
         val appId = adData.getString(FyberConstants.APP_ID_KEY)
         if (appId.isNullOrEmpty()) {
@@ -90,8 +99,8 @@ class FyberAdapter : LevelPlayBaseAdapter(), AdapterNetworkDataInterface {
             return
         }
 
-        // Init previously failed - report failure immediately
-        if (initState == InitState.INIT_STATE_FAILED) {
+        // Init previously failed and can't be retried yet - report failure immediately
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(FyberConstants.Logs.SDK_INIT_FAILED)
             networkInitializationListener?.onInitFailed(
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
@@ -100,59 +109,48 @@ class FyberAdapter : LevelPlayBaseAdapter(), AdapterNetworkDataInterface {
             return
         }
 
-        // Add to the init listeners only if init is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initCallbackListeners.add(it) }
-        }
+        // Start reading the outcome of the previous launches, the init is scheduled once it's read
+        initHistory.load(context, getNetworkSDKVersion(), getAdapterVersion(), appId)
 
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-            IronLog.ADAPTER_API.verbose(FyberConstants.Logs.APP_ID.format(appId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { FyberConstants.Logs.APP_ID.format(appId) }
 
-            mainHandler.post {
+            // InneractiveAdManager.initialize must be called on the main thread, lower priority
+            // networks are deferred after the first frame
+            initScheduler.schedule(adData.getString(InitScheduler.INIT_PRIORITY_KEY)?.toIntOrNull() ?: 0) {
                 setIsChildValue(isChild)
                 InneractiveAdManager.initialize(
                     context.applicationContext,
                     appId
                 ) { fyberInitStatus ->
                     if (fyberInitStatus == OnFyberMarketplaceInitializedListener.FyberInitStatus.SUCCESSFULLY) {
-                        initializationSuccess()
+                        initializationSuccess(attempt)
                     } else {
-                        initializationFailure()
+                        initializationFailure(attempt)
                     }
                 }
             }
         }
     }
 
-    private fun initializationSuccess() {
+    private fun initializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose(FyberConstants.Logs.INIT_SUCCESS)
 
-        initState = InitState.INIT_STATE_SUCCESS
-
-        consent?.let { setConsent(it) }
-        ccpa?.let { setCCPAValue(it) }
-        coppa?.let { setCOPPAValue(it) }
-
-        // Iterate over all the adapter instances and report init success
-        for (listener: NetworkInitializationListener in initCallbackListeners) {
-            listener.onInitSuccess()
+        // Apply the meta data flags and iterate over all the adapter instances to report init success
+        initCoordinator.onInitSuccess(attempt) {
+            consent?.let { setConsent(it) }
+            ccpa?.let { setCCPAValue(it) }
+            coppa?.let { setCOPPAValue(it) }
         }
-
-        initCallbackListeners.clear()
     }
 
-    private fun initializationFailure() {
+    private fun initializationFailure(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.error(FyberConstants.Logs.INIT_FAILED)
 
-        initState = InitState.INIT_STATE_FAILED
-
         // Iterate over all the adapter instances and report init failed
-        for (listener: NetworkInitializationListener in initCallbackListeners) {
-            listener.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, FyberConstants.Logs.SDK_INIT_FAILED)
-        }
-
-        initCallbackListeners.clear()
+        initCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, FyberConstants.Logs.SDK_INIT_FAILED)
     }
 
     // endregion
@@ -160,9 +158,17 @@ class FyberAdapter : LevelPlayBaseAdapter(), AdapterNetworkDataInterface {
     // region Legal Methods
 
     override fun setConsent(consent: Boolean) {
-        mainHandler.post {
-            if (wasInitCalled.get()) {
-                IronLog.ADAPTER_API.verbose(FyberConstants.Logs.CONSENT.format(consent))
+        // An unchanged value is dropped here, so it doesn't cost a post to the main thread
+        if (initState != InitState.INIT_STATE_NONE && privacyState.current.consent == consent) {
+            return
+        }
+        MainThreadScheduler.post {
+            if (initState != InitState.INIT_STATE_NONE) {
+                // Skip the SDK update if the value was already applied
+                if (!privacyState.setConsent(consent)) {
+                    return@post
+                }
+                IronLog.ADAPTER_API.verbose { FyberConstants.Logs.CONSENT.format(consent) }
                 InneractiveAdManager.setGdprConsent(consent)
             } else {
                 FyberAdapter.consent = consent
@@ -177,7 +183,7 @@ class FyberAdapter : LevelPlayBaseAdapter(), AdapterNetworkDataInterface {
 
         // This is a list of 1 value
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(FyberConstants.Logs.KEY_VALUE.format(key ?: "", value))
+        IronLog.ADAPTER_API.verbose { FyberConstants.Logs.KEY_VALUE.format(key ?: "", value) }
 
         if (MetaDataUtils.isValidCCPAMetaData(key, value)) {
             setCCPAValue(MetaDataUtils.getMetaDataBooleanValue(value))
@@ -198,16 +204,22 @@ class FyberAdapter : LevelPlayBaseAdapter(), AdapterNetworkDataInterface {
 
     override fun setNetworkData(networkData: AdapterNetworkData) {
         networkData.dataByKeyIgnoreCase(FyberConstants.NETWORK_DATA_IS_CHILD_KEY, Boolean::class.javaObjectType)?.let { networkDataIsChild ->
-            IronLog.ADAPTER_API.verbose(FyberConstants.Logs.KEY_VALUE.format(FyberConstants.NETWORK_DATA_IS_CHILD_KEY, networkDataIsChild))
+            IronLog.ADAPTER_API.verbose { FyberConstants.Logs.KEY_VALUE.format(FyberConstants.NETWORK_DATA_IS_CHILD_KEY, networkDataIsChild) }
             setIsChildValue(networkDataIsChild)
         }
     }
 
     private fun setCCPAValue(value: Boolean) {
-        mainHandler.post {
-            if (wasInitCalled.get()) {
+        if (initState != InitState.INIT_STATE_NONE && privacyState.current.doNotSell == value) {
+            return
+        }
+        MainThreadScheduler.post {
+            if (initState != InitState.INIT_STATE_NONE) {
+                if (!privacyState.setDoNotSell(value)) {
+                    return@post
+                }
                 val ccpaString = if (value) FyberConstants.CCPA_OPT_IN_STRING else FyberConstants.CCPA_OPT_OUT_STRING
-                IronLog.ADAPTER_API.verbose(FyberConstants.Logs.CCPA.format(ccpaString))
+                IronLog.ADAPTER_API.verbose { FyberConstants.Logs.CCPA.format(ccpaString) }
                 InneractiveAdManager.setUSPrivacyString(ccpaString)
             } else {
                 ccpa = value
@@ -249,7 +261,7 @@ class FyberAdapter : LevelPlayBaseAdapter(), AdapterNetworkDataInterface {
         }
 
         val bidderToken = BidTokenProvider.getBidderToken().orEmpty()
-        IronLog.ADAPTER_API.verbose(FyberConstants.Logs.TOKEN.format(bidderToken))
+        IronLog.ADAPTER_API.verbose { FyberConstants.Logs.TOKEN.format(bidderToken) }
         val ret: MutableMap<String?, Any?> = mutableMapOf(FyberConstants.TOKEN_KEY to bidderToken)
         biddingDataCallback.onSuccess(ret)
     }
@@ -4,6 +4,7 @@ object FyberConstants {
 
     // Adapter version and mediation
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "Fyber"
     const val MEDIATION_NAME = "IronSource"
 
     // Network configuration keys
@@ -2,17 +2,21 @@ package com.ironsource.adapters.fyber.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
 import android.widget.FrameLayout
 import com.fyber.inneractive.sdk.external.InneractiveAdRequest
 import com.fyber.inneractive.sdk.external.InneractiveAdSpot
 import com.fyber.inneractive.sdk.external.InneractiveAdSpotManager
 import com.fyber.inneractive.sdk.external.InneractiveAdViewUnitController
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.fyber.FyberAdapter
 import com.ironsource.adapters.fyber.FyberConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -22,12 +26,14 @@ import com.ironsource.mediationsdk.bidding.BiddingDataCallback
 import com.ironsource.mediationsdk.logger.IronLog
 import com.ironsource.mediationsdk.model.NetworkSettings
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseBanner
+import java.lang.ref.WeakReference
 
 class FyberBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<FyberAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var bannerAdView: InneractiveAdSpot? = null
+    private val latencyTracker = LatencyTracker(FyberConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(FyberConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<InneractiveAdSpot>(FyberConstants.NETWORK_NAME) { destroyBannerAd(it) }
 
     // region Adapter Methods
 
@@ -37,13 +43,14 @@ class FyberBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val spotId = adData.getString(FyberConstants.SPOT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(FyberConstants.Logs.SPOT_ID.format(spotId ?: ""))
+        IronLog.ADAPTER_API.verbose { FyberConstants.Logs.SPOT_ID.format(spotId ?: "") }
 
         if (spotId.isNullOrEmpty()) {
             val errorMessage = FyberConstants.Logs.MISSING_PARAM.format(FyberConstants.SPOT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -55,7 +62,7 @@ class FyberBannerAdapter(networkSettings: NetworkSettings) :
         val layoutParams = getBannerLayoutParams(appContext, bannerSize)
         if (layoutParams == null) {
             IronLog.INTERNAL.error(FyberConstants.Logs.UNSUPPORTED_BANNER_SIZE)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 FyberConstants.Logs.UNSUPPORTED_BANNER_SIZE
@@ -64,31 +71,41 @@ class FyberBannerAdapter(networkSettings: NetworkSettings) :
         }
 
         val serverData = adData.serverData
-        mainHandler.post {
+        val generation = adSlot.begin()
+        MainThreadScheduler.post {
             val adViewController = InneractiveAdViewUnitController()
-            val bannerListener = FyberBannerListener(listener, adViewController, layoutParams, appContext)
+            val bannerListener = FyberBannerListener(trackedListener, adViewController, layoutParams, appContext, WeakReference(this@FyberBannerAdapter), generation)
             adViewController.setEventsListener(bannerListener)
 
-            bannerAdView = InneractiveAdSpotManager.get().createSpot().apply {
+            val bannerAdView = InneractiveAdSpotManager.get().createSpot().apply {
                 setMediationName(FyberConstants.MEDIATION_NAME)
                 setMediationVersion(FyberConstants.ADAPTER_VERSION)
                 addUnitController(adViewController)
                 setRequestListener(bannerListener)
             }
 
+            // The banner was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                bannerAdView.destroy()
+                return@post
+            }
+
             if (serverData.isNullOrEmpty()) {
-                bannerAdView?.requestAd(InneractiveAdRequest(spotId))
+                bannerAdView.requestAd(InneractiveAdRequest(spotId))
             } else {
-                bannerAdView?.loadAd(serverData)
+                bannerAdView.loadAd(serverData)
             }
         }
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            bannerAdView?.destroy()
-            bannerAdView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -97,51 +114,55 @@ class FyberBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(FyberConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(FyberConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(FyberConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
     }
 
     // endregion
 
     // region Helper Methods
 
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerAd(generation: Long, bannerAdView: InneractiveAdSpot): Boolean {
+        if (!adSlot.set(generation, bannerAdView)) {
+            destroyBannerAd(bannerAdView)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    internal fun destroyBannerAd(bannerAdView: InneractiveAdSpot) {
+        MainThreadScheduler.post { bannerAdView.destroy() }
+    }
+
     private fun getBannerLayoutParams(context: Context, bannerSize: ISBannerSize): FrameLayout.LayoutParams? {
         val layoutParams = when (bannerSize.description) {
-            FyberConstants.BANNER_SIZE_BANNER -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, FyberConstants.BANNER_WIDTH),
-                AdapterUtils.dpToPixels(context, FyberConstants.BANNER_HEIGHT)
-            )
+            FyberConstants.BANNER_SIZE_BANNER -> BannerLayouts.layoutParams(context, FyberConstants.BANNER_WIDTH, FyberConstants.BANNER_HEIGHT, Gravity.CENTER)
 
-            FyberConstants.BANNER_SIZE_RECTANGLE -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, FyberConstants.RECTANGLE_WIDTH),
-                AdapterUtils.dpToPixels(context, FyberConstants.RECTANGLE_HEIGHT)
-            )
+            FyberConstants.BANNER_SIZE_RECTANGLE -> BannerLayouts.layoutParams(context, FyberConstants.RECTANGLE_WIDTH, FyberConstants.RECTANGLE_HEIGHT, Gravity.CENTER)
 
             FyberConstants.BANNER_SIZE_SMART ->
-                if (AdapterUtils.isLargeScreen(context)) {
-                    FrameLayout.LayoutParams(
-                        AdapterUtils.dpToPixels(context, FyberConstants.LARGE_WIDTH),
-                        AdapterUtils.dpToPixels(context, FyberConstants.LARGE_HEIGHT)
-                    )
+                if (BannerLayouts.isLargeScreen(context)) {
+                    BannerLayouts.layoutParams(context, FyberConstants.LARGE_WIDTH, FyberConstants.LARGE_HEIGHT, Gravity.CENTER)
                 } else {
-                    FrameLayout.LayoutParams(
-                        AdapterUtils.dpToPixels(context, FyberConstants.BANNER_WIDTH),
-                        AdapterUtils.dpToPixels(context, FyberConstants.BANNER_HEIGHT)
-                    )
+                    BannerLayouts.layoutParams(context, FyberConstants.BANNER_WIDTH, FyberConstants.BANNER_HEIGHT, Gravity.CENTER)
                 }
 
             else -> return null
         }
-
-        layoutParams.gravity = Gravity.CENTER
         return layoutParams
     }
 
@@ -8,18 +8,23 @@ import com.fyber.inneractive.sdk.external.InneractiveAdViewEventsListenerWithImp
 import com.fyber.inneractive.sdk.external.InneractiveAdViewUnitController
 import com.fyber.inneractive.sdk.external.InneractiveErrorCode
 import com.fyber.inneractive.sdk.external.InneractiveUnitController
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.fyber.FyberAdapter
 import com.ironsource.adapters.fyber.FyberConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
 import com.ironsource.mediationsdk.logger.IronLog
+import java.lang.ref.WeakReference
 
 class FyberBannerListener(
     private val listener: BannerAdListener,
     private val adViewController: InneractiveAdViewUnitController,
     private val layoutParams: FrameLayout.LayoutParams,
-    private val context: Context
+    private val context: Context,
+    private val adapter: WeakReference<FyberBannerAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : InneractiveAdSpot.RequestListener,
     InneractiveAdViewEventsListenerWithImpressionData {
 
@@ -32,6 +37,7 @@ class FyberBannerListener(
 
         if (!adSpot.isReady) {
             IronLog.INTERNAL.error(FyberConstants.Logs.SPOT_NOT_READY)
+            adapter.get()?.destroyBannerAd(adSpot)
             listener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
@@ -39,6 +45,9 @@ class FyberBannerListener(
             )
             return
         }
+        if (adapter.get()?.setBannerAd(generation, adSpot) == false) {
+            return
+        }
 
         val bannerLayout = FrameLayout(context)
         adViewController.bindView(bannerLayout)
@@ -53,6 +62,7 @@ class FyberBannerListener(
     override fun onInneractiveFailedAdRequest(adSpot: InneractiveAdSpot, errorCode: InneractiveErrorCode?) {
         val errorMessage = errorCode?.toString() ?: FyberConstants.Logs.UNKNOWN_ERROR
         IronLog.ADAPTER_CALLBACK.error(FyberConstants.Logs.FAILED_TO_LOAD.format(AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage))
+        adapter.get()?.destroyBannerAd(adSpot)
         listener.onAdLoadFailed(FyberAdapter.getLoadErrorType(errorCode), AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
     }
 
@@ -71,7 +81,7 @@ class FyberBannerListener(
      */
     override fun onAdImpression(adSpot: InneractiveAdSpot, impressionData: ImpressionData?) {
         val creativeId = impressionData?.creativeId
-        IronLog.ADAPTER_CALLBACK.verbose(FyberConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { FyberConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
         if (creativeId.isNullOrEmpty()) {
             listener.onAdOpened()
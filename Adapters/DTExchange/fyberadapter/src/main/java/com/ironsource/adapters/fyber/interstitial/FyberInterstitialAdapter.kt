@@ -2,13 +2,17 @@ package com.ironsource.adapters.fyber.interstitial
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import com.fyber.inneractive.sdk.external.InneractiveAdRequest
 import com.fyber.inneractive.sdk.external.InneractiveAdSpot
 import com.fyber.inneractive.sdk.external.InneractiveAdSpotManager
 import com.fyber.inneractive.sdk.external.InneractiveFullscreenUnitController
 import com.fyber.inneractive.sdk.external.InneractiveFullscreenVideoContentController
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.fyber.FyberAdapter
 import com.ironsource.adapters.fyber.FyberConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
@@ -19,24 +23,27 @@ import com.ironsource.mediationsdk.bidding.BiddingDataCallback
 import com.ironsource.mediationsdk.logger.IronLog
 import com.ironsource.mediationsdk.model.NetworkSettings
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseInterstitial
+import java.lang.ref.WeakReference
 
 class FyberInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<FyberAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var interstitialAd: InneractiveAdSpot? = null
+    private val latencyTracker = LatencyTracker(FyberConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(FyberConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<InneractiveAdSpot>(FyberConstants.NETWORK_NAME) { destroyInterstitialAd(it) }
     private var interstitialAdListener: FyberInterstitialListener? = null
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val spotId = adData.getString(FyberConstants.SPOT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(FyberConstants.Logs.SPOT_ID.format(spotId ?: ""))
+        IronLog.ADAPTER_API.verbose { FyberConstants.Logs.SPOT_ID.format(spotId ?: "") }
 
         if (spotId.isNullOrEmpty()) {
             val errorMessage = FyberConstants.Logs.MISSING_PARAM.format(FyberConstants.SPOT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -45,50 +52,59 @@ class FyberInterstitialAdapter(networkSettings: NetworkSettings) :
         }
 
         val serverData = adData.serverData
-        mainHandler.post {
-            val fyberInterstitialListener = FyberInterstitialListener(listener)
-            interstitialAdListener = fyberInterstitialListener
-
-            interstitialAd = InneractiveAdSpotManager.get().createSpot().apply {
+        val generation = adSlot.begin()
+        MainThreadScheduler.post {
+            val fyberInterstitialListener = FyberInterstitialListener(trackedListener, WeakReference(this@FyberInterstitialAdapter), generation)
+            val interstitialAd = InneractiveAdSpotManager.get().createSpot().apply {
                 setMediationName(FyberConstants.MEDIATION_NAME)
                 setMediationVersion(FyberConstants.ADAPTER_VERSION)
                 addUnitController(InneractiveFullscreenUnitController())
                 setRequestListener(fyberInterstitialListener)
             }
 
+            // The ad was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                interstitialAd.destroy()
+                return@post
+            }
+
             if (serverData.isNullOrEmpty()) {
-                interstitialAd?.requestAd(InneractiveAdRequest(spotId))
+                interstitialAd.requestAd(InneractiveAdRequest(spotId))
             } else {
-                interstitialAd?.loadAd(serverData)
+                interstitialAd.loadAd(serverData)
             }
         }
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
             IronLog.INTERNAL.error(FyberConstants.Logs.AD_NOT_AVAILABLE)
-            listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, FyberConstants.Logs.AD_NOT_AVAILABLE)
+            trackedListener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, FyberConstants.Logs.AD_NOT_AVAILABLE)
             return
         }
 
-        mainHandler.post {
-            val unitController = interstitialAd?.selectedUnitController as? InneractiveFullscreenUnitController
+        MainThreadScheduler.post {
+            val unitController = adSlot.ad?.selectedUnitController as? InneractiveFullscreenUnitController
             unitController?.setEventsListener(interstitialAdListener)
             unitController?.addContentController(InneractiveFullscreenVideoContentController())
             unitController?.show(activity)
         }
     }
 
-    override fun isAdAvailable(adData: AdData): Boolean = interstitialAd?.isReady == true
+    override fun isAdAvailable(adData: AdData): Boolean = adSlot.ad?.isReady == true
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            interstitialAd?.destroy()
-            interstitialAd = null
-            interstitialAdListener = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.destroy()
+                interstitialAdListener = null
+                leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, it)
+            }
         }
     }
 
@@ -97,16 +113,39 @@ class FyberInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(FyberConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(FyberConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(FyberConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
+    }
+
+    // endregion
+
+    // region Helper Methods
+
+    /**
+     * @return false if the ad was destroyed or loaded again while it was loading, the ad is
+     * destroyed then
+     */
+    internal fun setInterstitialAd(generation: Long, interstitialAd: InneractiveAdSpot, listener: FyberInterstitialListener): Boolean {
+        if (!adSlot.set(generation, interstitialAd)) {
+            destroyInterstitialAd(interstitialAd)
+            return false
+        }
+        interstitialAdListener = listener
+        return true
+    }
+
+    // Destroys an ad which failed to load or was replaced by the ad of a newer load
+    internal fun destroyInterstitialAd(interstitialAd: InneractiveAdSpot) {
+        MainThreadScheduler.post { interstitialAd.destroy() }
     }
 
     // endregion
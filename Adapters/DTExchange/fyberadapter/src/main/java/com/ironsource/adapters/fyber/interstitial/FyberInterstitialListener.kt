@@ -5,14 +5,19 @@ import com.fyber.inneractive.sdk.external.InneractiveAdSpot
 import com.fyber.inneractive.sdk.external.InneractiveErrorCode
 import com.fyber.inneractive.sdk.external.InneractiveFullscreenAdEventsListenerWithImpressionData
 import com.fyber.inneractive.sdk.external.InneractiveUnitController
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.fyber.FyberAdapter
 import com.ironsource.adapters.fyber.FyberConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
 import com.ironsource.mediationsdk.logger.IronLog
+import java.lang.ref.WeakReference
 
 class FyberInterstitialListener(
-    private val listener: InterstitialAdListener
+    private val listener: InterstitialAdListener,
+    private val adapter: WeakReference<FyberInterstitialAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : InneractiveAdSpot.RequestListener,
     InneractiveFullscreenAdEventsListenerWithImpressionData {
 
@@ -22,6 +27,9 @@ class FyberInterstitialListener(
      */
     override fun onInneractiveSuccessfulAdRequest(adSpot: InneractiveAdSpot) {
         IronLog.ADAPTER_CALLBACK.verbose()
+        if (adapter.get()?.setInterstitialAd(generation, adSpot, this) == false) {
+            return
+        }
         listener.onAdLoadSuccess()
     }
 
@@ -33,6 +41,7 @@ class FyberInterstitialListener(
     override fun onInneractiveFailedAdRequest(adSpot: InneractiveAdSpot, errorCode: InneractiveErrorCode?) {
         val errorMessage = errorCode?.toString() ?: FyberConstants.Logs.UNKNOWN_ERROR
         IronLog.ADAPTER_CALLBACK.error(FyberConstants.Logs.FAILED_TO_LOAD.format(AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage))
+        adapter.get()?.destroyInterstitialAd(adSpot)
         listener.onAdLoadFailed(FyberAdapter.getLoadErrorType(errorCode), AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
     }
 
@@ -51,7 +60,7 @@ class FyberInterstitialListener(
      */
     override fun onAdImpression(adSpot: InneractiveAdSpot, impressionData: ImpressionData?) {
         val creativeId = impressionData?.creativeId
-        IronLog.ADAPTER_CALLBACK.verbose(FyberConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { FyberConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
         if (creativeId.isNullOrEmpty()) {
             listener.onAdOpened()
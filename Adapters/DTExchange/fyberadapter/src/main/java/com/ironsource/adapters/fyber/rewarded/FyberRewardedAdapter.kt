@@ -2,14 +2,18 @@ package com.ironsource.adapters.fyber.rewarded
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import com.fyber.inneractive.sdk.external.InneractiveAdManager
 import com.fyber.inneractive.sdk.external.InneractiveAdRequest
 import com.fyber.inneractive.sdk.external.InneractiveAdSpot
 import com.fyber.inneractive.sdk.external.InneractiveAdSpotManager
 import com.fyber.inneractive.sdk.external.InneractiveFullscreenUnitController
 import com.fyber.inneractive.sdk.external.InneractiveFullscreenVideoContentController
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.fyber.FyberAdapter
 import com.ironsource.adapters.fyber.FyberConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
@@ -20,24 +24,27 @@ import com.ironsource.mediationsdk.bidding.BiddingDataCallback
 import com.ironsource.mediationsdk.logger.IronLog
 import com.ironsource.mediationsdk.model.NetworkSettings
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseRewardedVideo
+import java.lang.ref.WeakReference
 
 class FyberRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<FyberAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var rewardedAd: InneractiveAdSpot? = null
+    private val latencyTracker = LatencyTracker(FyberConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(FyberConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<InneractiveAdSpot>(FyberConstants.NETWORK_NAME) { destroyRewardedAd(it) }
     private var rewardedAdListener: FyberRewardedListener? = null
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val spotId = adData.getString(FyberConstants.SPOT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(FyberConstants.Logs.SPOT_ID.format(spotId ?: ""))
+        IronLog.ADAPTER_API.verbose { FyberConstants.Logs.SPOT_ID.format(spotId ?: "") }
 
         if (spotId.isNullOrEmpty()) {
             val errorMessage = FyberConstants.Logs.MISSING_PARAM.format(FyberConstants.SPOT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -46,43 +53,49 @@ class FyberRewardedAdapter(networkSettings: NetworkSettings) :
         }
 
         val serverData = adData.serverData
-        mainHandler.post {
-            val fyberRewardedListener = FyberRewardedListener(listener)
-            rewardedAdListener = fyberRewardedListener
-
-            rewardedAd = InneractiveAdSpotManager.get().createSpot().apply {
+        val generation = adSlot.begin()
+        MainThreadScheduler.post {
+            val fyberRewardedListener = FyberRewardedListener(trackedListener, WeakReference(this@FyberRewardedAdapter), generation)
+            val rewardedAd = InneractiveAdSpotManager.get().createSpot().apply {
                 setMediationName(FyberConstants.MEDIATION_NAME)
                 setMediationVersion(FyberConstants.ADAPTER_VERSION)
                 addUnitController(InneractiveFullscreenUnitController())
                 setRequestListener(fyberRewardedListener)
             }
 
+            // The ad was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                rewardedAd.destroy()
+                return@post
+            }
+
             if (serverData.isNullOrEmpty()) {
-                rewardedAd?.requestAd(InneractiveAdRequest(spotId))
+                rewardedAd.requestAd(InneractiveAdRequest(spotId))
             } else {
-                rewardedAd?.loadAd(serverData)
+                rewardedAd.loadAd(serverData)
             }
         }
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
             IronLog.INTERNAL.error(FyberConstants.Logs.AD_NOT_AVAILABLE)
-            listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, FyberConstants.Logs.AD_NOT_AVAILABLE)
+            trackedListener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, FyberConstants.Logs.AD_NOT_AVAILABLE)
             return
         }
 
         getDynamicUserId()?.let { userId ->
             if (userId.isNotEmpty()) {
-                IronLog.INTERNAL.verbose(FyberConstants.Logs.SET_USER_ID.format(userId))
+                IronLog.INTERNAL.verbose { FyberConstants.Logs.SET_USER_ID.format(userId) }
                 InneractiveAdManager.setUserId(userId)
             }
         }
 
-        mainHandler.post {
-            val unitController = rewardedAd?.selectedUnitController as? InneractiveFullscreenUnitController
+        MainThreadScheduler.post {
+            val unitController = adSlot.ad?.selectedUnitController as? InneractiveFullscreenUnitController
             unitController?.setRewardedListener(rewardedAdListener)
             unitController?.setEventsListener(rewardedAdListener)
 
@@ -94,14 +107,17 @@ class FyberRewardedAdapter(networkSettings: NetworkSettings) :
         }
     }
 
-    override fun isAdAvailable(adData: AdData): Boolean = rewardedAd?.isReady == true
+    override fun isAdAvailable(adData: AdData): Boolean = adSlot.ad?.isReady == true
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            rewardedAd?.destroy()
-            rewardedAd = null
-            rewardedAdListener = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.destroy()
+                rewardedAdListener = null
+                leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, it)
+            }
         }
     }
 
@@ -110,16 +126,39 @@ class FyberRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(FyberConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(FyberConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(FyberConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
+    }
+
+    // endregion
+
+    // region Helper Methods
+
+    /**
+     * @return false if the ad was destroyed or loaded again while it was loading, the ad is
+     * destroyed then
+     */
+    internal fun setRewardedAd(generation: Long, rewardedAd: InneractiveAdSpot, listener: FyberRewardedListener): Boolean {
+        if (!adSlot.set(generation, rewardedAd)) {
+            destroyRewardedAd(rewardedAd)
+            return false
+        }
+        rewardedAdListener = listener
+        return true
+    }
+
+    // Destroys an ad which failed to load or was replaced by the ad of a newer load
+    internal fun destroyRewardedAd(rewardedAd: InneractiveAdSpot) {
+        MainThreadScheduler.post { rewardedAd.destroy() }
     }
 
     // endregion
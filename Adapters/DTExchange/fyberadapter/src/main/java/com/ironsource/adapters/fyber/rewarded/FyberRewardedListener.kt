@@ -7,14 +7,19 @@ import com.fyber.inneractive.sdk.external.InneractiveFullScreenAdRewardedListene
 import com.fyber.inneractive.sdk.external.InneractiveFullscreenAdEventsListenerWithImpressionData
 import com.fyber.inneractive.sdk.external.InneractiveUnitController
 import com.fyber.inneractive.sdk.external.VideoContentListener
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.fyber.FyberAdapter
 import com.ironsource.adapters.fyber.FyberConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
 import com.ironsource.mediationsdk.logger.IronLog
+import java.lang.ref.WeakReference
 
 class FyberRewardedListener(
-    private val listener: RewardedVideoAdListener
+    private val listener: RewardedVideoAdListener,
+    private val adapter: WeakReference<FyberRewardedAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : InneractiveAdSpot.RequestListener,
     InneractiveFullScreenAdRewardedListener,
     InneractiveFullscreenAdEventsListenerWithImpressionData,
@@ -26,6 +31,9 @@ class FyberRewardedListener(
      */
     override fun onInneractiveSuccessfulAdRequest(adSpot: InneractiveAdSpot) {
         IronLog.ADAPTER_CALLBACK.verbose()
+        if (adapter.get()?.setRewardedAd(generation, adSpot, this) == false) {
+            return
+        }
         listener.onAdLoadSuccess()
     }
 
@@ -37,6 +45,7 @@ class FyberRewardedListener(
     override fun onInneractiveFailedAdRequest(adSpot: InneractiveAdSpot, errorCode: InneractiveErrorCode?) {
         val errorMessage = errorCode?.toString() ?: FyberConstants.Logs.UNKNOWN_ERROR
         IronLog.ADAPTER_CALLBACK.error(FyberConstants.Logs.FAILED_TO_LOAD.format(AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage))
+        adapter.get()?.destroyRewardedAd(adSpot)
         listener.onAdLoadFailed(FyberAdapter.getLoadErrorType(errorCode), AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
     }
 
@@ -55,7 +64,7 @@ class FyberRewardedListener(
      */
     override fun onAdImpression(adSpot: InneractiveAdSpot, impressionData: ImpressionData?) {
         val creativeId = impressionData?.creativeId
-        IronLog.ADAPTER_CALLBACK.verbose(FyberConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { FyberConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
         if (creativeId.isNullOrEmpty()) {
             listener.onAdOpened()
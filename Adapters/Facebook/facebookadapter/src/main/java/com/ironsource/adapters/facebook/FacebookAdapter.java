@@ -3,6 +3,7 @@ package com.ironsource.adapters.facebook;
 import static com.ironsource.mediationsdk.metadata.MetaData.MetaDataValueTypes.META_DATA_VALUE_BOOLEAN;
 
 import android.content.Context;
+import android.os.SystemClock;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
@@ -12,6 +13,10 @@ import com.facebook.ads.AdSettings;
 import com.facebook.ads.AudienceNetworkAds;
 import com.facebook.ads.BidderTokenProvider;
 import com.facebook.ads.CacheFlag;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.BiddingTokenCache;
+import com.ironsource.adapters.common.InitCoordinator;
+import com.ironsource.adapters.common.LatencyMetrics;
 import com.ironsource.adapters.facebook.banner.FacebookBannerAdapter;
 import com.ironsource.adapters.facebook.interstitial.FacebookInterstitialAdapter;
 import com.ironsource.adapters.facebook.nativead.FacebookNativeAdAdapter;
@@ -23,6 +28,7 @@ import com.ironsource.mediationsdk.AdapterNetworkData;
 import com.ironsource.mediationsdk.INetworkInitCallbackListener;
 import com.ironsource.mediationsdk.IntegrationData;
 import com.ironsource.mediationsdk.LoadWhileShowSupportState;
+import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors;
 import com.ironsource.mediationsdk.logger.IronLog;
 import com.ironsource.mediationsdk.metadata.MetaDataUtils;
 import com.unity3d.mediation.LevelPlay;
@@ -35,12 +41,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
 
-public class FacebookAdapter extends AbstractAdapter implements AudienceNetworkAds.InitListener {
+public class FacebookAdapter extends AbstractAdapter {
 
     // Meta mediation service name
     private static final String MEDIATION_NAME = "ironSource";
@@ -49,6 +53,9 @@ public class FacebookAdapter extends AbstractAdapter implements AudienceNetworkA
     private static final String VERSION = BuildConfig.VERSION_NAME;
     private static final String GitHash = BuildConfig.GitHash;
 
+    // Network name reported with the adapter metrics
+    public static final String NETWORK_NAME = "Facebook";
+
     // Meta network keys
     protected final String PLACEMENT_ID = "placementId";
     protected final String ALL_PLACEMENT_IDS = "placementIds";
@@ -71,11 +78,12 @@ public class FacebookAdapter extends AbstractAdapter implements AudienceNetworkA
         INIT_STATE_FAILED
     }
 
-
     // Handle init callback for all adapter instances
-    protected static HashSet<INetworkInitCallbackListener> initCallbackListeners = new HashSet<>();
-    protected static InitState mInitState = InitState.INIT_STATE_NONE;
-    protected static AtomicBoolean mWasInitCalled = new AtomicBoolean(false);
+    private static final InitCoordinator<INetworkInitCallbackListener> mInitCoordinator = InitCoordinator.forInitCallbackListeners(NETWORK_NAME);
+
+    // Bidder token shared by all adapter instances, the token is the same for all ad formats
+    private static final String BIDDER_TOKEN_CACHE_KEY = "bidderToken";
+    private static final BiddingTokenCache mBiddingTokenCache = BiddingTokenCache.forNetwork(NETWORK_NAME);
 
     //region Adapter Methods
 
@@ -125,7 +133,9 @@ public class FacebookAdapter extends AbstractAdapter implements AudienceNetworkA
 
     @Override
     public void setTestMode(boolean enabled) {
-        IronLog.ADAPTER_API.verbose("setTestMode: " + enabled);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("setTestMode: " + enabled);
+        }
         AdSettings.setTestMode(enabled);
     }
 
@@ -133,47 +143,52 @@ public class FacebookAdapter extends AbstractAdapter implements AudienceNetworkA
 
     //region Initializations methods and callbacks
     public void initSDK(String allPlacementIds) {
-        // add self to the init listeners only in case the initialization has not finished yet
-        if (mInitState == InitState.INIT_STATE_NONE || mInitState == InitState.INIT_STATE_IN_PROGRESS) {
-            initCallbackListeners.add(this);
-        }
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(NETWORK_NAME, isAdaptersDebugEnabled());
 
-        // init SDK should be called only once
-        if (mWasInitCalled.compareAndSet(false, true)) {
+        // add self to the init listeners, init SDK should be called only once
+        final int attempt = mInitCoordinator.register(this);
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
             final List<String> allPlacementIdsArray = Arrays.asList(allPlacementIds.split(","));
-            IronLog.ADAPTER_API.verbose("Initialize Meta with placement ids = " + allPlacementIdsArray.toString());
+            if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                IronLog.ADAPTER_API.verbose("Initialize Meta with placement ids = " + allPlacementIdsArray.toString());
+            }
             AudienceNetworkAds.buildInitSettings(ContextProvider.getInstance().getApplicationContext())
-                    .withInitListener(this)
+                    // the callback is bound to the attempt, so a late callback can't complete a retry
+                    .withInitListener(new AudienceNetworkAds.InitListener() {
+                        @Override
+                        public void onInitialized(AudienceNetworkAds.InitResult result) {
+                            onInitializationCompleted(attempt, result);
+                        }
+                    })
                     .withMediationService(getMediationServiceInfo())
                     .withPlacementIds(allPlacementIdsArray)
                     .initialize();
         }
     }
 
-    @Override
-    public void onInitialized(AudienceNetworkAds.InitResult result) {
-        IronLog.ADAPTER_CALLBACK.verbose("init SDK is completed with status: " + result.isSuccess() + ", " + result.getMessage());
+    private void onInitializationCompleted(int attempt, AudienceNetworkAds.InitResult result) {
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("init SDK is completed with status: " + result.isSuccess() + ", " + result.getMessage());
+        }
 
         if (result.isSuccess()) {
-            mInitState = InitState.INIT_STATE_SUCCESS;
-
-            for (INetworkInitCallbackListener adapter : initCallbackListeners) {
-                adapter.onNetworkInitCallbackSuccess();
-            }
-
+            // prefetch the bidder token for the first auction
+            mBiddingTokenCache.refresh(BIDDER_TOKEN_CACHE_KEY, FacebookAdapter::fetchBidderToken);
+            mInitCoordinator.onInitSuccess(attempt);
         } else {
-            mInitState = InitState.INIT_STATE_FAILED;
-
-            for (INetworkInitCallbackListener adapter : initCallbackListeners) {
-                adapter.onNetworkInitCallbackFailed(result.getMessage());
-            }
+            mInitCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, result.getMessage());
         }
-
-        initCallbackListeners.clear();
     }
 
     public InitState getInitState() {
-        return mInitState;
+        // the shared init states have the same names
+        return InitState.valueOf(mInitCoordinator.getInitState().name());
+    }
+
+    // true if the init failed and can be attempted again by the next init call
+    public boolean canRetryInit() {
+        return mInitCoordinator.canRetry();
     }
     //endregion
 
@@ -193,7 +208,9 @@ public class FacebookAdapter extends AbstractAdapter implements AudienceNetworkA
             case META_MIXED_AUDIENCE:
                 // this is a list of 1 value
                 String value = values.get(0);
-                IronLog.ADAPTER_API.verbose("key = " + key + ", value = " + value);
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("key = " + key + ", value = " + value);
+                }
 
                 String formattedValue = MetaDataUtils.formatValueForType(value, META_DATA_VALUE_BOOLEAN);
                 if (isValidMixedAudienceMetaData(formattedValue)) {
@@ -220,13 +237,17 @@ public class FacebookAdapter extends AbstractAdapter implements AudienceNetworkA
     }
 
     private void processCacheFlags(String key, List<String> values) {
-        IronLog.ADAPTER_API.verbose("key = " + key + ", values = " + values);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("key = " + key + ", values = " + values);
+        }
         mInterstitialFacebookCacheFlags.clear();
 
         try {
             for (String value: values) {
                 CacheFlag flag = getFacebookCacheFlag(value);
-                IronLog.ADAPTER_API.verbose("flag for value " + value + " is " + flag.name());
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("flag for value " + value + " is " + flag.name());
+                }
                 mInterstitialFacebookCacheFlags.add(flag);
             }
         } catch (Exception e) {
@@ -234,12 +255,16 @@ public class FacebookAdapter extends AbstractAdapter implements AudienceNetworkA
             mInterstitialFacebookCacheFlags = getFacebookAllCacheFlags();
         }
 
-        IronLog.ADAPTER_API.verbose("all flags:" + mInterstitialFacebookCacheFlags.toString());
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("all flags:" + mInterstitialFacebookCacheFlags.toString());
+        }
 
     }
 
     private CacheFlag getFacebookCacheFlag(String value) {
-        IronLog.ADAPTER_API.verbose("value = " + value);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("value = " + value);
+        }
         return CacheFlag.valueOf(StringUtils.toUpperCase(value));
     }
 
@@ -249,8 +274,12 @@ public class FacebookAdapter extends AbstractAdapter implements AudienceNetworkA
     }
 
     private void setMixedAudience(boolean isMixedAudience) {
-        IronLog.ADAPTER_API.verbose("isMixedAudience = " + isMixedAudience);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("isMixedAudience = " + isMixedAudience);
+        }
         AdSettings.setMixedAudience(isMixedAudience);
+        // only tokens fetched after the new value is applied are cached
+        mBiddingTokenCache.invalidate();
     }
 
     private boolean isValidMixedAudienceMetaData(String value) {
@@ -264,7 +293,9 @@ public class FacebookAdapter extends AbstractAdapter implements AudienceNetworkA
 
     private String getMediationServiceInfo() {
         String mediationServiceInfo = String.format("%s_%s:%s", MEDIATION_NAME, LevelPlay.getSdkVersion(), VERSION);
-        IronLog.INTERNAL.verbose("mediationServiceInfo = " + mediationServiceInfo);
+        if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+            IronLog.INTERNAL.verbose("mediationServiceInfo = " + mediationServiceInfo);
+        }
         return mediationServiceInfo;
     }
 
@@ -274,19 +305,40 @@ public class FacebookAdapter extends AbstractAdapter implements AudienceNetworkA
     }
 
     public Map<String, Object> getBiddingData() {
-        if (mInitState == InitState.INIT_STATE_FAILED) {
+        if (getInitState() == InitState.INIT_STATE_FAILED) {
             IronLog.INTERNAL.verbose("returning null as token since init failed");
             return null;
         }
 
-        String bidderToken = BidderTokenProvider.getBidderToken(ContextProvider.getInstance().getApplicationContext());
-        String returnedToken = (!TextUtils.isEmpty(bidderToken)) ? bidderToken : "";
-        IronLog.ADAPTER_API.verbose("token = " + returnedToken);
-        Map<String, Object> ret = new HashMap<>();
-        ret.put("token", returnedToken);
+        // the bidder token is fetched synchronously so the listener is called before returning
+        final Map<String, Object> ret = new HashMap<>();
+        final long startTime = SystemClock.elapsedRealtime();
+        mBiddingTokenCache.getOrFetch(BIDDER_TOKEN_CACHE_KEY, FacebookAdapter::fetchBidderToken, new BiddingTokenCache.TokenListener() {
+            @Override
+            public void onTokenReceived(String token) {
+                String returnedToken = (!TextUtils.isEmpty(token)) ? token : "";
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("token = " + returnedToken);
+                }
+                ret.put("token", returnedToken);
+                // the bidder token is shared by all ad formats
+                LatencyMetrics.forNetwork(NETWORK_NAME).record(LatencyMetrics.Phase.TOKEN, LatencyMetrics.AdFormat.NETWORK, SystemClock.elapsedRealtime() - startTime, !returnedToken.isEmpty());
+            }
+
+            @Override
+            public void onTokenFailed(String error) {
+                IronLog.ADAPTER_API.verbose("token = ");
+                ret.put("token", "");
+                LatencyMetrics.forNetwork(NETWORK_NAME).record(LatencyMetrics.Phase.TOKEN, LatencyMetrics.AdFormat.NETWORK, SystemClock.elapsedRealtime() - startTime, false);
+            }
+        });
         return ret;
     }
 
+    private static void fetchBidderToken(BiddingTokenCache.TokenListener listener) {
+        listener.onTokenReceived(BidderTokenProvider.getBidderToken(ContextProvider.getInstance().getApplicationContext()));
+    }
+
     public EnumSet<CacheFlag> getCacheFlags() {
         return mInterstitialFacebookCacheFlags;
     }
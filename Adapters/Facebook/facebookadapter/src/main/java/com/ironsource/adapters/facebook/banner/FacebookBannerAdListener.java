@@ -6,6 +6,9 @@ import com.facebook.ads.Ad;
 import com.facebook.ads.AdError;
 import com.facebook.ads.AdListener;
 import com.facebook.ads.AdView;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LatencyTracker;
 import com.ironsource.adapters.facebook.FacebookAdapter;
 import com.ironsource.mediationsdk.logger.IronLog;
 import com.ironsource.mediationsdk.logger.IronSourceError;
@@ -19,17 +22,24 @@ public class FacebookBannerAdListener implements AdListener {
     private final BannerSmashListener mListener;
     private final WeakReference<FacebookBannerAdapter> mAdapter;
     private final FrameLayout.LayoutParams mBannerLayoutParams;
+    // Times the load from the creation of the listener, which is created right before the SDK load
+    private final LatencyTracker mLatencyTracker;
 
     public FacebookBannerAdListener(FacebookBannerAdapter adapter, FrameLayout.LayoutParams bannerLayoutParams, String placementId, BannerSmashListener listener) {
         mAdapter = new WeakReference<>(adapter);
         mListener = listener;
         mPlacementId = placementId;
         mBannerLayoutParams = bannerLayoutParams;
+        mLatencyTracker = new LatencyTracker(FacebookAdapter.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER);
+        mLatencyTracker.onLoadStarted();
     }
 
     @Override
     public void onAdLoaded(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
+        mLatencyTracker.onLoadCompleted(true);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -49,7 +59,10 @@ public class FacebookBannerAdListener implements AdListener {
 
     @Override
     public void onError(Ad ad, AdError adError) {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId + " error = " + adError.getErrorCode() + ", " + adError.getErrorMessage());
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId + " error = " + adError.getErrorCode() + ", " + adError.getErrorMessage());
+        }
+        mLatencyTracker.onLoadCompleted(false);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -63,7 +76,9 @@ public class FacebookBannerAdListener implements AdListener {
 
     @Override
     public void onLoggingImpression(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -75,7 +90,9 @@ public class FacebookBannerAdListener implements AdListener {
 
     @Override
     public void onAdClicked(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
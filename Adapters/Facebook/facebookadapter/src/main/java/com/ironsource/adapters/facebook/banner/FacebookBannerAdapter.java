@@ -9,9 +9,13 @@ import androidx.annotation.NonNull;
 
 import com.facebook.ads.AdSize;
 import com.facebook.ads.AdView;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.BannerLayouts;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LeakTracker;
+import com.ironsource.adapters.common.MainThreadScheduler;
 import com.ironsource.adapters.facebook.FacebookAdapter;
 import com.ironsource.environment.ContextProvider;
-import com.ironsource.mediationsdk.AdapterUtils;
 import com.ironsource.mediationsdk.ISBannerSize;
 import com.ironsource.mediationsdk.adapter.AbstractBannerAdapter;
 import com.ironsource.mediationsdk.logger.IronLog;
@@ -27,6 +31,8 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class FacebookBannerAdapter extends AbstractBannerAdapter<FacebookAdapter> {
 
+    private static final LeakTracker mLeakTracker = LeakTracker.forNetwork(FacebookAdapter.NETWORK_NAME);
+
     // Banner maps
     private final ConcurrentHashMap<String, BannerSmashListener> mPlacementIdToSmashListener;
     protected ConcurrentHashMap<String, AdView> mPlacementIdToAd;
@@ -57,17 +63,23 @@ public class FacebookBannerAdapter extends AbstractBannerAdapter<FacebookAdapter
             listener.onBannerInitFailed(ErrorBuilder.buildInitFailedError(getAdUnitIdMissingErrorString(allPlacementIdsKey), IronSourceConstants.BANNER_AD_UNIT));
             return;
         }
-        IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        }
 
         //add banner to listener map
         mPlacementIdToSmashListener.put(placementId, listener);
 
 
         if (getAdapter().getInitState() == FacebookAdapter.InitState.INIT_STATE_SUCCESS) {
-            IronLog.INTERNAL.verbose("onBannerInitSuccess - placementId = " + placementId);
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("onBannerInitSuccess - placementId = " + placementId);
+            }
             listener.onBannerInitSuccess();
-        } else if (getAdapter().getInitState() == FacebookAdapter.InitState.INIT_STATE_FAILED) {
-            IronLog.INTERNAL.verbose("onBannerInitFailed - placementId = " + placementId);
+        } else if (getAdapter().getInitState() == FacebookAdapter.InitState.INIT_STATE_FAILED && !getAdapter().canRetryInit()) {
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("onBannerInitFailed - placementId = " + placementId);
+            }
             listener.onBannerInitFailed(ErrorBuilder.buildInitFailedError("Meta SDK init failed", IronSourceConstants.BANNER_AD_UNIT));
         } else {
             getAdapter().initSDK(allPlacementIds);
@@ -91,7 +103,9 @@ public class FacebookBannerAdapter extends AbstractBannerAdapter<FacebookAdapter
     @Override
     public void loadBannerForBidding(@NonNull final JSONObject config, final JSONObject adData, final String serverData, @NonNull final ISBannerSize bannerSize, @NonNull final BannerSmashListener listener) {
         final String placementId = getConfigStringValueFromKey(config, getAdapter().getPlacementIdKey());
-        IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        }
 
         // check banner
         if (bannerSize == null) {
@@ -109,7 +123,7 @@ public class FacebookBannerAdapter extends AbstractBannerAdapter<FacebookAdapter
             return;
         }
 
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
                 if (facebookAdSize == null) {
@@ -143,15 +157,18 @@ public class FacebookBannerAdapter extends AbstractBannerAdapter<FacebookAdapter
     @Override
     public void destroyBanner(@NonNull final JSONObject config) {
         final String placementId = getConfigStringValueFromKey(config, getAdapter().getPlacementIdKey());
-        IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        }
 
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
                 try {
-                    if (mPlacementIdToAd.containsKey(placementId)) {
-                        mPlacementIdToAd.get(placementId).destroy();
-                        mPlacementIdToAd.remove(placementId);
+                    AdView adView = mPlacementIdToAd.remove(placementId);
+                    if (adView != null) {
+                        adView.destroy();
+                        mLeakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, adView);
                     }
                 } catch (Exception e) {
                     IronLog.INTERNAL.error("destroyBanner failed for placementId - " + placementId + " with an exception = " + e);
@@ -176,7 +193,7 @@ public class FacebookBannerAdapter extends AbstractBannerAdapter<FacebookAdapter
                 return AdSize.RECTANGLE_HEIGHT_250;
 
             case "SMART":
-                return AdapterUtils.isLargeScreen(context) ? AdSize.BANNER_HEIGHT_90 : AdSize.BANNER_HEIGHT_50;
+                return BannerLayouts.isLargeScreen(context) ? AdSize.BANNER_HEIGHT_90 : AdSize.BANNER_HEIGHT_50;
 
             case "CUSTOM":
                 if (size.getHeight() == 50) {
@@ -192,16 +209,9 @@ public class FacebookBannerAdapter extends AbstractBannerAdapter<FacebookAdapter
     }
 
     protected FrameLayout.LayoutParams calcLayoutParams(ISBannerSize size, Context context) {
-        int widthDp = 320;
-        if (size.getDescription().equals("RECTANGLE")) {
-            widthDp = 300;
-        } else if (size.getDescription().equals("SMART") && AdapterUtils.isLargeScreen(context)) {
-            widthDp = 728;
-        }
-
-        int widthPixel = AdapterUtils.dpToPixels(context, widthDp);
-        FrameLayout.LayoutParams layoutParams = new FrameLayout.LayoutParams(widthPixel, FrameLayout.LayoutParams.WRAP_CONTENT);
-        layoutParams.gravity = Gravity.CENTER;
+        BannerLayouts.StandardSize standardSize = BannerLayouts.StandardSize.forDescription(size.getDescription(), BannerLayouts.isLargeScreen(context));
+        int widthDp = standardSize != null ? standardSize.getWidthDp() : BannerLayouts.StandardSize.BANNER.getWidthDp();
+        FrameLayout.LayoutParams layoutParams = BannerLayouts.layoutParams(context, widthDp, FrameLayout.LayoutParams.WRAP_CONTENT, Gravity.CENTER);
         return layoutParams;
     }
 
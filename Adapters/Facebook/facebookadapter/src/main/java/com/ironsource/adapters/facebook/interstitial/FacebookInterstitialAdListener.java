@@ -4,6 +4,9 @@ import com.facebook.ads.Ad;
 import com.facebook.ads.AdError;
 import com.facebook.ads.CacheFlag;
 import com.facebook.ads.InterstitialAdExtendedListener;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LatencyTracker;
 import com.ironsource.adapters.facebook.FacebookAdapter;
 import com.ironsource.mediationsdk.logger.IronLog;
 import com.ironsource.mediationsdk.logger.IronSourceError;
@@ -21,15 +24,28 @@ public class FacebookInterstitialAdListener implements InterstitialAdExtendedLis
     // Ad closed indication
     private boolean mDidCallClosed;
 
+    // Times the load from the creation of the listener, which is created right before the SDK
+    // load, and the show from the show call of the ad
+    private final LatencyTracker mLatencyTracker;
+
     FacebookInterstitialAdListener(FacebookInterstitialAdapter adapter, String placementId, InterstitialSmashListener listener) {
         mAdapter = new WeakReference<>(adapter);
         mListener = listener;
         mPlacementId = placementId;
+        mLatencyTracker = new LatencyTracker(FacebookAdapter.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL);
+        mLatencyTracker.onLoadStarted();
+    }
+
+    void onShowStarted() {
+        mLatencyTracker.onShowStarted();
     }
 
     @Override
     public void onAdLoaded(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
+        mLatencyTracker.onLoadCompleted(true);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -48,7 +64,9 @@ public class FacebookInterstitialAdListener implements InterstitialAdExtendedLis
 
     @Override
     public void onError(Ad ad, AdError adError) {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId + " error = " + adError.getErrorCode() + ", " + adError.getErrorMessage());
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId + " error = " + adError.getErrorCode() + ", " + adError.getErrorMessage());
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -66,21 +84,30 @@ public class FacebookInterstitialAdListener implements InterstitialAdExtendedLis
         IronSourceError ironSourceError = new IronSourceError(errorCode, adError.getErrorMessage());
 
         if (Boolean.TRUE.equals(adapter.mPlacementIdToShowAttempts.get(mPlacementId))) {
+            mLatencyTracker.onShowCompleted(false);
             mListener.onInterstitialAdShowFailed(ironSourceError);
         } else {
+            mLatencyTracker.onLoadCompleted(false);
             mListener.onInterstitialAdLoadFailed(ironSourceError);
+            // a failed ad can't be shown anymore, so it's released right away
+            adapter.releaseAd(mPlacementId, ad, this);
         }
 
     }
 
     @Override
     public void onInterstitialDisplayed(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
     }
 
     @Override
     public void onLoggingImpression(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
+        mLatencyTracker.onShowCompleted(true);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -99,7 +126,9 @@ public class FacebookInterstitialAdListener implements InterstitialAdExtendedLis
 
     @Override
     public void onAdClicked(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -111,7 +140,9 @@ public class FacebookInterstitialAdListener implements InterstitialAdExtendedLis
 
     @Override
     public void onInterstitialDismissed(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -129,7 +160,9 @@ public class FacebookInterstitialAdListener implements InterstitialAdExtendedLis
 
     @Override
     public void onInterstitialActivityDestroyed() {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -155,17 +188,23 @@ public class FacebookInterstitialAdListener implements InterstitialAdExtendedLis
 
     @Override
     public void onRewardedAdCompleted() {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
     }
 
     @Override
     public void onRewardedAdServerSucceeded() {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
     }
 
     @Override
     public void onRewardedAdServerFailed() {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
     }
 
 
@@ -5,8 +5,13 @@ import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 
+import com.facebook.ads.Ad;
 import com.facebook.ads.CacheFlag;
 import com.facebook.ads.InterstitialAd;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LeakTracker;
+import com.ironsource.adapters.common.MainThreadScheduler;
 import com.ironsource.adapters.facebook.FacebookAdapter;
 import com.ironsource.environment.ContextProvider;
 import com.ironsource.mediationsdk.adapter.AbstractInterstitialAdapter;
@@ -23,6 +28,8 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class FacebookInterstitialAdapter extends AbstractInterstitialAdapter<FacebookAdapter> {
 
+    private static final LeakTracker mLeakTracker = LeakTracker.forNetwork(FacebookAdapter.NETWORK_NAME);
+
     private final ConcurrentHashMap<String, InterstitialSmashListener> mPlacementIdToSmashListener;
     private final ConcurrentHashMap<String, InterstitialAd> mPlacementIdToAd;
     private final ConcurrentHashMap<String, FacebookInterstitialAdListener> mPlacementIdToFacebookAdListener;
@@ -59,17 +66,23 @@ public class FacebookInterstitialAdapter extends AbstractInterstitialAdapter<Fac
             return;
         }
 
-        IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        }
 
 
         // add to interstitial listener map
         mPlacementIdToSmashListener.put(placementId, listener);
 
         if (getAdapter().getInitState() == FacebookAdapter.InitState.INIT_STATE_SUCCESS) {
-            IronLog.INTERNAL.verbose("onInterstitialInitSuccess - placementId = " + placementId);
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("onInterstitialInitSuccess - placementId = " + placementId);
+            }
             listener.onInterstitialInitSuccess();
-        } else if (getAdapter().getInitState() == FacebookAdapter.InitState.INIT_STATE_FAILED) {
-            IronLog.INTERNAL.verbose("onInterstitialInitFailed - placementId = " + placementId);
+        } else if (getAdapter().getInitState() == FacebookAdapter.InitState.INIT_STATE_FAILED && !getAdapter().canRetryInit()) {
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("onInterstitialInitFailed - placementId = " + placementId);
+            }
             listener.onInterstitialInitFailed(ErrorBuilder.buildInitFailedError("Meta SDK init failed", IronSourceConstants.INTERSTITIAL_AD_UNIT));
         } else {
             getAdapter().initSDK(allPlacementIds);
@@ -98,16 +111,19 @@ public class FacebookInterstitialAdapter extends AbstractInterstitialAdapter<Fac
         mPlacementIdToShowAttempts.put(placementId, false);
         mAdsAvailability.put(placementId, false);
 
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
                 try {
-                    IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+                    if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                        IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+                    }
 
                     if (mPlacementIdToAd.containsKey(placementId)) {
-                        IronLog.ADAPTER_API.verbose("destroying previous ad with placementId " + placementId);
-                        mPlacementIdToAd.get(placementId).destroy();
-                        mPlacementIdToAd.remove(placementId);
+                        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                            IronLog.ADAPTER_API.verbose("destroying previous ad with placementId " + placementId);
+                        }
+                        releaseAd(placementId, mPlacementIdToAd.get(placementId), mPlacementIdToFacebookAdListener.get(placementId));
                     }
 
                     InterstitialAd interstitialAd = new InterstitialAd(ContextProvider.getInstance().getApplicationContext(), placementId);
@@ -125,7 +141,9 @@ public class FacebookInterstitialAdapter extends AbstractInterstitialAdapter<Fac
                         configBuilder.withBid(serverData);
                     }
 
-                    IronLog.ADAPTER_API.verbose("loading placementId = " + placementId + " with facebook cache flags = " + cacheFlags.toString());
+                    if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                        IronLog.ADAPTER_API.verbose("loading placementId = " + placementId + " with facebook cache flags = " + cacheFlags.toString());
+                    }
 
                     interstitialAd.loadAd(configBuilder.build());
                     mPlacementIdToAd.put(placementId, interstitialAd);
@@ -139,10 +157,12 @@ public class FacebookInterstitialAdapter extends AbstractInterstitialAdapter<Fac
     public void showInterstitial(@NonNull final JSONObject config,
                                  @NonNull final InterstitialSmashListener listener) {
         final String placementId = getConfigStringValueFromKey(config, getAdapter().getPlacementIdKey());
-        IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        }
         mAdsAvailability.put(placementId, false);
 
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
                 try {
@@ -150,6 +170,10 @@ public class FacebookInterstitialAdapter extends AbstractInterstitialAdapter<Fac
                     // make sure the ad is loaded and has not expired
                     if (interstitialAd != null && interstitialAd.isAdLoaded() && !interstitialAd.isAdInvalidated()) {
                         mPlacementIdToShowAttempts.put(placementId, true);
+                        FacebookInterstitialAdListener adListener = mPlacementIdToFacebookAdListener.get(placementId);
+                        if (adListener != null) {
+                            adListener.onShowStarted();
+                        }
                         interstitialAd.show();
                     } else {
                         listener.onInterstitialAdShowFailed(ErrorBuilder.buildNoAdsToShowError(IronSourceConstants.INTERSTITIAL_AD_UNIT));
@@ -174,4 +198,17 @@ public class FacebookInterstitialAdapter extends AbstractInterstitialAdapter<Fac
     public Map<String, Object> getInterstitialBiddingData(@NonNull JSONObject config, JSONObject adData) {
         return getAdapter().getBiddingData();
     }
+
+    // destroys the ad of the placement and releases it together with its listener,
+    // unless they were already replaced by a newer load
+    void releaseAd(String placementId, Ad ad, FacebookInterstitialAdListener adListener) {
+        if (ad != null && mPlacementIdToAd.remove(placementId, ad)) {
+            ad.destroy();
+            mLeakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, ad);
+        }
+
+        if (adListener != null && mPlacementIdToFacebookAdListener.remove(placementId, adListener)) {
+            mLeakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.LISTENER, adListener);
+        }
+    }
 }
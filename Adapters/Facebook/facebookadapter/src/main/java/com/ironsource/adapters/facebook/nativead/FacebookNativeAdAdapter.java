@@ -8,6 +8,10 @@ import androidx.annotation.NonNull;
 import com.facebook.ads.NativeAd;
 import com.facebook.ads.NativeAdBase;
 import com.facebook.ads.NativeAdListener;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LeakTracker;
+import com.ironsource.adapters.common.MainThreadScheduler;
 import com.ironsource.adapters.facebook.FacebookAdapter;
 import com.ironsource.environment.ContextProvider;
 import com.ironsource.mediationsdk.adapter.AbstractNativeAdAdapter;
@@ -25,6 +29,8 @@ import java.util.Map;
 
 public class FacebookNativeAdAdapter extends AbstractNativeAdAdapter<FacebookAdapter> {
 
+    private static final LeakTracker mLeakTracker = LeakTracker.forNetwork(FacebookAdapter.NETWORK_NAME);
+
     private WeakReference<NativeAd> mAd;
     private NativeAdSmashListener mSmashListener;
 
@@ -53,14 +59,20 @@ public class FacebookNativeAdAdapter extends AbstractNativeAdAdapter<FacebookAda
             return;
         }
 
-        IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        }
         mSmashListener = listener;
 
         if (getAdapter().getInitState() == FacebookAdapter.InitState.INIT_STATE_SUCCESS) {
-            IronLog.INTERNAL.verbose("onNativeAdInitSuccess - placementId = " + placementId);
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("onNativeAdInitSuccess - placementId = " + placementId);
+            }
             listener.onNativeAdInitSuccess();
-        } else if (getAdapter().getInitState() == FacebookAdapter.InitState.INIT_STATE_FAILED) {
-            IronLog.INTERNAL.verbose("onNativeAdInitFailed - placementId = " + placementId);
+        } else if (getAdapter().getInitState() == FacebookAdapter.InitState.INIT_STATE_FAILED && !getAdapter().canRetryInit()) {
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("onNativeAdInitFailed - placementId = " + placementId);
+            }
             listener.onNativeAdInitFailed(ErrorBuilder.buildInitFailedError("Meta SDK init failed", IronSourceConstants.NATIVE_AD_UNIT));
         } else {
             getAdapter().initSDK(allPlacementIds);
@@ -84,10 +96,12 @@ public class FacebookNativeAdAdapter extends AbstractNativeAdAdapter<FacebookAda
     @Override
     public void loadNativeAdForBidding(@NonNull JSONObject config, JSONObject adData, String serverData, @NonNull NativeAdSmashListener listener) {
         final String placementId = getConfigStringValueFromKey(config, getAdapter().getPlacementIdKey());
-        IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        }
 
         final NativeAdProperties nativeAdProperties = getNativeAdProperties(config);
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
                 try {
@@ -116,9 +130,11 @@ public class FacebookNativeAdAdapter extends AbstractNativeAdAdapter<FacebookAda
     @Override
     public void destroyNativeAd(@NonNull JSONObject config) {
         final String placementId = getConfigStringValueFromKey(config, getAdapter().getPlacementIdKey());
-        IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        }
 
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
 
@@ -130,6 +146,7 @@ public class FacebookNativeAdAdapter extends AbstractNativeAdAdapter<FacebookAda
                     NativeAd nativeAd = mAd.get();
                     nativeAd.destroy();
                     mAd = null;
+                    mLeakTracker.watch(LatencyMetrics.AdFormat.NATIVE, LeakTracker.ObjectType.AD, nativeAd);
                 } catch (Exception e) {
                     IronLog.INTERNAL.error("destroyNativeAd failed for placementId - " + placementId + " with an exception = " + e);
                 }
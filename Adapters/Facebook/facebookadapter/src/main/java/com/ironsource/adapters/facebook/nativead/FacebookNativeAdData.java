@@ -4,6 +4,7 @@ import android.graphics.drawable.Drawable;
 import android.net.Uri;
 
 import com.facebook.ads.NativeAd;
+import com.ironsource.adapters.common.AdapterLogs;
 import com.ironsource.mediationsdk.ads.nativead.AdapterNativeAdData;
 import com.ironsource.mediationsdk.logger.IronLog;
 
@@ -19,28 +20,36 @@ public class FacebookNativeAdData extends AdapterNativeAdData {
 
     @Override
     public String getTitle() {
-        IronLog.ADAPTER_CALLBACK.verbose("headline = " + mNativeAd.getAdHeadline());
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("headline = " + mNativeAd.getAdHeadline());
+        }
 
         return mNativeAd.getAdHeadline();
     }
 
     @Override
     public String getAdvertiser() {
-        IronLog.ADAPTER_CALLBACK.verbose("advertiser = " + mNativeAd.getAdvertiserName());
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("advertiser = " + mNativeAd.getAdvertiserName());
+        }
 
         return mNativeAd.getAdvertiserName();
     }
 
     @Override
     public String getBody() {
-        IronLog.ADAPTER_CALLBACK.verbose("body = " + mNativeAd.getAdBodyText());
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("body = " + mNativeAd.getAdBodyText());
+        }
 
         return mNativeAd.getAdBodyText();
     }
 
     @Override
     public String getCallToAction() {
-        IronLog.ADAPTER_CALLBACK.verbose("cta = " + mNativeAd.getAdCallToAction());
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("cta = " + mNativeAd.getAdCallToAction());
+        }
 
         return mNativeAd.getAdCallToAction();
     }
@@ -48,7 +57,9 @@ public class FacebookNativeAdData extends AdapterNativeAdData {
     @Override
     public Image getIcon() {
         Uri uri = mNativeAd.getAdIcon() != null ? Uri.parse(mNativeAd.getAdIcon().getUrl()) : null;
-        IronLog.ADAPTER_CALLBACK.verbose("icon uri = " + uri);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("icon uri = " + uri);
+        }
 
         if (mNativeAd.getPreloadedIconViewDrawable() != null) {
             mIconDrawable = mNativeAd.getPreloadedIconViewDrawable();
@@ -3,7 +3,6 @@ package com.ironsource.adapters.facebook.nativead;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
 
@@ -11,9 +10,10 @@ import com.facebook.ads.Ad;
 import com.facebook.ads.AdError;
 import com.facebook.ads.NativeAd;
 import com.facebook.ads.NativeAdListener;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LatencyTracker;
 import com.ironsource.adapters.facebook.FacebookAdapter;
-import com.ironsource.environment.workerthread.WorkerManager;
-import com.ironsource.environment.workerthread.WorkerResult;
 import com.ironsource.mediationsdk.ads.nativead.AdapterNativeAdData;
 import com.ironsource.mediationsdk.adunit.adapter.internal.nativead.AdapterNativeAdViewBinder;
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdOptionsPosition;
@@ -21,35 +21,41 @@ import com.ironsource.mediationsdk.ads.nativead.interfaces.NativeAdSmashListener
 import com.ironsource.mediationsdk.logger.IronLog;
 import com.ironsource.mediationsdk.logger.IronSourceError;
 
-import java.io.InputStream;
-import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-
 public class FacebookNativeAdListener implements NativeAdListener {
+    // the icon is downsampled to this size at the least
+    private static final int ICON_SIZE_DP = 96;
+    private static final long ICON_LOAD_TIMEOUT_MS = 3000;
+
     // data
     private final NativeAdSmashListener mListener;
     private final String mPlacementId;
     private final AdOptionsPosition mAdOptionsPosition;
     private final Context mContext;
+    // Times the load from the creation of the listener, which is created right before the SDK load
+    private final LatencyTracker mLatencyTracker;
 
     public FacebookNativeAdListener(Context context, String placementId, AdOptionsPosition adOptionsPosition, NativeAdSmashListener listener) {
         mListener = listener;
         mPlacementId = placementId;
         mAdOptionsPosition = adOptionsPosition;
         mContext = context;
+        mLatencyTracker = new LatencyTracker(FacebookAdapter.NETWORK_NAME, LatencyMetrics.AdFormat.NATIVE);
+        mLatencyTracker.onLoadStarted();
     }
 
     @Override
     public void onMediaDownloaded(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("mPlacementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("mPlacementId = " + mPlacementId);
+        }
 
     }
 
     @Override
     public void onAdLoaded(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("mPlacementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("mPlacementId = " + mPlacementId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -63,6 +69,7 @@ public class FacebookNativeAdListener implements NativeAdListener {
 
         } else {
             String errorString = "Expected an instance of " + NativeAd.class.getName() + ", received " + ad.getClass().getName();
+            mLatencyTracker.onLoadCompleted(false);
             mListener.onNativeAdLoadFailed(new IronSourceError(IronSourceError.ERROR_CODE_GENERIC, errorString));
         }
     }
@@ -70,6 +77,7 @@ public class FacebookNativeAdListener implements NativeAdListener {
     @Override
     public void onError(Ad ad, AdError adError) {
         IronLog.ADAPTER_CALLBACK.error("error = " + adError.getErrorCode() + ", " + adError.getErrorMessage());
+        mLatencyTracker.onLoadCompleted(false);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -85,7 +93,9 @@ public class FacebookNativeAdListener implements NativeAdListener {
 
     @Override
     public void onLoggingImpression(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("mPlacementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("mPlacementId = " + mPlacementId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -97,7 +107,9 @@ public class FacebookNativeAdListener implements NativeAdListener {
 
     @Override
     public void onAdClicked(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("mPlacementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("mPlacementId = " + mPlacementId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -109,44 +121,26 @@ public class FacebookNativeAdListener implements NativeAdListener {
 
 
     private void downloadDrawableFromUrlAndSendOnAdLoaded(final NativeAd nativeAd) {
-        final WorkerManager<Drawable> workerManager = new WorkerManager<>(Executors.newSingleThreadExecutor());
-        Callable<Drawable> callable = new Callable<Drawable>() {
-            @Override
-            public Drawable call() throws Exception {
-                // Download the image
-                if (nativeAd.getAdIcon() != null && nativeAd.getAdIcon().getUrl() != null) {
-                    InputStream inputStream = new java.net.URL(nativeAd.getAdIcon().getUrl()).openStream();
-                    Bitmap image = BitmapFactory.decodeStream(inputStream);
-                    return new BitmapDrawable(mContext.getResources(), image);
-                }
-
-                return null;
-            }
-        };
-        workerManager.addCallable(callable);
-        workerManager.startWork(new WorkerManager.WorkEndedListener<Drawable>() {
-            @Override
-            public void onWorkCompleted(List<WorkerResult<Drawable>> responsesList, long totalWorkDurationMillis) {
-                WorkerResult<Drawable> response = responsesList.get(0);
-                Drawable drawable = null;
-                if (response instanceof WorkerResult.Completed) {
-                    drawable = ((WorkerResult.Completed<Drawable>) response).data;
-                }
-                handleOnAdLoaded(drawable, nativeAd);
-            }
+        if (nativeAd.getAdIcon() == null || nativeAd.getAdIcon().getUrl() == null) {
+            handleOnAdLoaded(null, nativeAd);
+            return;
+        }
 
+        int iconSizePx = (int) (ICON_SIZE_DP * mContext.getResources().getDisplayMetrics().density);
+        FacebookNativeIconLoader.load(nativeAd.getAdIcon().getUrl(), iconSizePx, ICON_LOAD_TIMEOUT_MS, new FacebookNativeIconLoader.IconListener() {
             @Override
-            public void onWorkFailed(String error) {
-                IronLog.INTERNAL.verbose("error while trying to download the native ad icon resource - " + error);
-
-                handleOnAdLoaded(null, nativeAd);
+            public void onIconLoaded(Bitmap icon) {
+                Drawable drawable = icon != null ? new BitmapDrawable(mContext.getResources(), icon) : null;
+                handleOnAdLoaded(drawable, nativeAd);
             }
-        }, 3, TimeUnit.SECONDS);
+        });
     }
 
     private void handleOnAdLoaded(Drawable drawable, NativeAd nativeAd) {
         AdapterNativeAdData adapterNativeAdData = new FacebookNativeAdData(nativeAd, drawable);
         AdapterNativeAdViewBinder nativeAdViewBinder = new FacebookNativeAdViewBinder(nativeAd, mAdOptionsPosition);
+        // the load completes once the icon is loaded as well
+        mLatencyTracker.onLoadCompleted(true);
         mListener.onNativeAdLoaded(adapterNativeAdData, nativeAdViewBinder);
     }
 }
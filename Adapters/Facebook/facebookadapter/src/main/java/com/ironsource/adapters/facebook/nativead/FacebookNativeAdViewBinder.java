@@ -10,7 +10,7 @@ import com.facebook.ads.AdOptionsView;
 import com.facebook.ads.MediaView;
 import com.facebook.ads.NativeAd;
 import com.facebook.ads.NativeAdLayout;
-import com.ironsource.adapters.facebook.FacebookAdapter;
+import com.ironsource.adapters.common.MainThreadScheduler;
 import com.ironsource.mediationsdk.ads.nativead.LevelPlayMediaView;
 import com.ironsource.mediationsdk.ads.nativead.internal.NativeAdViewHolder;
 import com.ironsource.mediationsdk.adunit.adapter.internal.nativead.AdapterNativeAdViewBinder;
@@ -54,7 +54,7 @@ public class FacebookNativeAdViewBinder extends AdapterNativeAdViewBinder {
         if (nativeAdViewHolder.getCallToActionView() != null)
             viewsToRegister.add(nativeAdViewHolder.getCallToActionView());
 
-        FacebookAdapter.postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
                 LevelPlayMediaView levelPlayMediaView = nativeAdViewHolder.getMediaView();
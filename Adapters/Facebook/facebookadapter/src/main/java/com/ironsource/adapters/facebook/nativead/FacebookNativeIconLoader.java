@@ -0,0 +1,264 @@
+package com.ironsource.adapters.facebook.nativead;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.mediationsdk.logger.IronLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Downloads and decodes the native ad icons for all Facebook native ad instances.
+ *
+ * Icons are loaded on a small shared worker pool, identical URLs which are already being loaded
+ * are attached to the pending download, and decoded bitmaps are downsampled to the requested
+ * size and kept in an in-memory cache bounded by bytes. Downloads which don't fit the bounded
+ * queue of the pool are rejected and their listeners are called with null right away.
+ */
+final class FacebookNativeIconLoader {
+
+    interface IconListener {
+        // called once with the icon, or with null if it couldn't be loaded in time
+        void onIconLoaded(Bitmap icon);
+    }
+
+    private static final int WORKER_THREADS = 2;
+    // Downloads waiting for a worker, the next ones are rejected
+    private static final int MAX_QUEUED_DOWNLOADS = 16;
+    private static final int CONNECT_TIMEOUT_MS = 3000;
+    private static final int READ_TIMEOUT_MS = 3000;
+    // Icons larger than this are not downloaded
+    private static final int MAX_DOWNLOAD_BYTES = 2 * 1024 * 1024;
+    private static final int MAX_CACHE_BYTES = 4 * 1024 * 1024;
+
+    private static final ThreadPoolExecutor mExecutor = new ThreadPoolExecutor(
+            WORKER_THREADS, WORKER_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(MAX_QUEUED_DOWNLOADS));
+
+    static {
+        mExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    private static final LruCache<String, Bitmap> mCache = new LruCache<String, Bitmap>(getCacheSize()) {
+        @Override
+        protected int sizeOf(String key, Bitmap bitmap) {
+            return bitmap.getByteCount();
+        }
+    };
+
+    // listeners waiting for an icon which is being downloaded, keyed by cache key
+    private static final ConcurrentHashMap<String, List<IconListener>> mPendingListeners = new ConcurrentHashMap<>();
+
+    private static final Handler mTimeoutHandler = new Handler(Looper.getMainLooper());
+
+    private FacebookNativeIconLoader() {
+    }
+
+    /**
+     * Loads the icon of the given url, downsampled to at least the given size.
+     * The listener is called with null if the icon wasn't loaded within the timeout, or if the
+     * download was rejected because too many were already queued.
+     */
+    static void load(final String url, final int targetSizePx, long timeoutMs, final IconListener listener) {
+        final String key = url + "|" + targetSizePx;
+
+        Bitmap cachedIcon = mCache.get(key);
+        if (cachedIcon != null) {
+            listener.onIconLoaded(cachedIcon);
+            return;
+        }
+
+        IconListener onceListener = createOnceListener(listener, timeoutMs);
+        if (!attachToPendingDownload(key, onceListener)) {
+            return;
+        }
+
+        try {
+            startDownload(url, targetSizePx, key);
+        } catch (RejectedExecutionException e) {
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("native ad icon download rejected, " + mExecutor.getQueue().size() + " downloads queued");
+            }
+            completePendingDownload(key, null);
+        }
+    }
+
+    // throws RejectedExecutionException once the queue of the pool is full
+    private static void startDownload(final String url, final int targetSizePx, final String key) {
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Bitmap icon = null;
+                try {
+                    icon = downloadAndDecode(url, targetSizePx);
+                } catch (Throwable t) {
+                    if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                        IronLog.INTERNAL.verbose("error while trying to download the native ad icon resource - " + t.getMessage());
+                    }
+                }
+
+                if (icon != null) {
+                    mCache.put(key, icon);
+                }
+                completePendingDownload(key, icon);
+            }
+        });
+    }
+
+    // calls the listeners attached to the download of the given key, with null if it failed
+    private static void completePendingDownload(String key, Bitmap icon) {
+        List<IconListener> listeners = mPendingListeners.remove(key);
+        if (listeners == null) {
+            return;
+        }
+        synchronized (listeners) {
+            for (IconListener iconListener : listeners) {
+                iconListener.onIconLoaded(icon);
+            }
+        }
+    }
+
+    /**
+     * Adds the listener to the download of the given key, or starts a new pending list for it.
+     *
+     * @return true if the caller should start the download
+     */
+    private static boolean attachToPendingDownload(String key, IconListener listener) {
+        while (true) {
+            Bitmap cachedIcon = mCache.get(key);
+            if (cachedIcon != null) {
+                listener.onIconLoaded(cachedIcon);
+                return false;
+            }
+
+            List<IconListener> newListeners = new ArrayList<>();
+            newListeners.add(listener);
+            List<IconListener> pendingListeners = mPendingListeners.putIfAbsent(key, newListeners);
+            if (pendingListeners == null) {
+                return true;
+            }
+
+            synchronized (pendingListeners) {
+                // the download may have completed in the meantime, in that case it was removed from the map
+                if (mPendingListeners.get(key) == pendingListeners) {
+                    pendingListeners.add(listener);
+                    return false;
+                }
+            }
+        }
+    }
+
+    // wraps the listener so it is called only once, either with the result or after the timeout
+    private static IconListener createOnceListener(final IconListener listener, long timeoutMs) {
+        final AtomicBoolean isCompleted = new AtomicBoolean(false);
+        final Runnable timeoutRunnable = new Runnable() {
+            @Override
+            public void run() {
+                if (isCompleted.compareAndSet(false, true)) {
+                    if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                        IronLog.INTERNAL.verbose("native ad icon download timed out");
+                    }
+                    listener.onIconLoaded(null);
+                }
+            }
+        };
+        mTimeoutHandler.postDelayed(timeoutRunnable, timeoutMs);
+
+        return new IconListener() {
+            @Override
+            public void onIconLoaded(Bitmap icon) {
+                if (isCompleted.compareAndSet(false, true)) {
+                    mTimeoutHandler.removeCallbacks(timeoutRunnable);
+                    listener.onIconLoaded(icon);
+                }
+            }
+        };
+    }
+
+    private static Bitmap downloadAndDecode(String url, int targetSizePx) throws IOException {
+        byte[] data = download(url);
+        if (data == null) {
+            return null;
+        }
+
+        // read the image bounds first to decode it with the smallest fitting sample size
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(data, 0, data.length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        options.inSampleSize = getSampleSize(options.outWidth, options.outHeight, targetSizePx);
+        options.inJustDecodeBounds = false;
+        return BitmapFactory.decodeByteArray(data, 0, data.length, options);
+    }
+
+    private static byte[] download(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+
+        try {
+            int contentLength = connection.getContentLength();
+            if (contentLength > MAX_DOWNLOAD_BYTES) {
+                if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                    IronLog.INTERNAL.verbose("native ad icon is too large - " + contentLength + " bytes");
+                }
+                return null;
+            }
+
+            InputStream inputStream = connection.getInputStream();
+            try {
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream(contentLength > 0 ? contentLength : 16 * 1024);
+                byte[] buffer = new byte[8 * 1024];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    if (outputStream.size() + read > MAX_DOWNLOAD_BYTES) {
+                        if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                            IronLog.INTERNAL.verbose("native ad icon is too large");
+                        }
+                        return null;
+                    }
+                    outputStream.write(buffer, 0, read);
+                }
+                return outputStream.toByteArray();
+            } finally {
+                inputStream.close();
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    // largest power of two which keeps both dimensions at or above the target size
+    private static int getSampleSize(int width, int height, int targetSizePx) {
+        int sampleSize = 1;
+        if (targetSizePx <= 0) {
+            return sampleSize;
+        }
+        while (width / (sampleSize * 2) >= targetSizePx && height / (sampleSize * 2) >= targetSizePx) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private static int getCacheSize() {
+        return (int) Math.min(MAX_CACHE_BYTES, Runtime.getRuntime().maxMemory() / 32);
+    }
+}
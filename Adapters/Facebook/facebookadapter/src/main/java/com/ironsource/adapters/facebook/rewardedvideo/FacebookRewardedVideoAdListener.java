@@ -3,6 +3,9 @@ package com.ironsource.adapters.facebook.rewardedvideo;
 import com.facebook.ads.Ad;
 import com.facebook.ads.AdError;
 import com.facebook.ads.RewardedVideoAdExtendedListener;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LatencyTracker;
 import com.ironsource.adapters.facebook.FacebookAdapter;
 import com.ironsource.mediationsdk.logger.IronLog;
 import com.ironsource.mediationsdk.logger.IronSourceError;
@@ -19,15 +22,28 @@ public class FacebookRewardedVideoAdListener implements RewardedVideoAdExtendedL
     // Ad closed indication
     private boolean mDidCallClosed;
 
+    // Times the load from the creation of the listener, which is created right before the SDK
+    // load, and the show from the show call of the ad
+    private final LatencyTracker mLatencyTracker;
+
     public FacebookRewardedVideoAdListener(FacebookRewardedVideoAdapter adapter, String placementId, RewardedVideoSmashListener listener) {
         mAdapter = new WeakReference<>(adapter);
         mPlacementId = placementId;
         mListener = listener;
+        mLatencyTracker = new LatencyTracker(FacebookAdapter.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED);
+        mLatencyTracker.onLoadStarted();
+    }
+
+    void onShowStarted() {
+        mLatencyTracker.onShowStarted();
     }
 
     @Override
     public void onAdLoaded(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
+        mLatencyTracker.onLoadCompleted(true);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -46,7 +62,9 @@ public class FacebookRewardedVideoAdListener implements RewardedVideoAdExtendedL
 
     @Override
     public void onError(Ad ad, AdError adError) {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId + " error = " + adError.getErrorCode() + ", " + adError.getErrorMessage());
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId + " error = " + adError.getErrorCode() + ", " + adError.getErrorMessage());
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -65,17 +83,24 @@ public class FacebookRewardedVideoAdListener implements RewardedVideoAdExtendedL
 
 
         if (Boolean.TRUE.equals(adapter.mPlacementIdToShowAttempts.get(mPlacementId))) {
+            mLatencyTracker.onShowCompleted(false);
             mListener.onRewardedVideoAdShowFailed(ironSourceError);
         } else {
+            mLatencyTracker.onLoadCompleted(false);
             mListener.onRewardedVideoAvailabilityChanged(false);
             mListener.onRewardedVideoLoadFailed(ironSourceError);
+            // a failed ad can't be shown anymore, so it's released right away
+            adapter.releaseAd(mPlacementId, ad, this);
         }
 
     }
 
     @Override
     public void onLoggingImpression(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
+        mLatencyTracker.onShowCompleted(true);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -94,7 +119,9 @@ public class FacebookRewardedVideoAdListener implements RewardedVideoAdExtendedL
 
     @Override
     public void onAdClicked(Ad ad) {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -106,7 +133,9 @@ public class FacebookRewardedVideoAdListener implements RewardedVideoAdExtendedL
 
     @Override
     public void onRewardedVideoCompleted() {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -119,7 +148,9 @@ public class FacebookRewardedVideoAdListener implements RewardedVideoAdExtendedL
 
     @Override
     public void onRewardedVideoClosed() {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -137,7 +168,9 @@ public class FacebookRewardedVideoAdListener implements RewardedVideoAdExtendedL
 
     @Override
     public void onRewardedVideoActivityDestroyed() {
-        IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("placementId = " + mPlacementId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -4,8 +4,13 @@ import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 
+import com.facebook.ads.Ad;
 import com.facebook.ads.RewardData;
 import com.facebook.ads.RewardedVideoAd;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LeakTracker;
+import com.ironsource.adapters.common.MainThreadScheduler;
 import com.ironsource.adapters.facebook.FacebookAdapter;
 import com.ironsource.environment.ContextProvider;
 import com.ironsource.mediationsdk.adapter.AbstractRewardedVideoAdapter;
@@ -21,6 +26,8 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class FacebookRewardedVideoAdapter extends AbstractRewardedVideoAdapter<FacebookAdapter> {
 
+    private static final LeakTracker mLeakTracker = LeakTracker.forNetwork(FacebookAdapter.NETWORK_NAME);
+
     private final ConcurrentHashMap<String, RewardedVideoSmashListener> mPlacementIdToSmashListener;
     private final ConcurrentHashMap<String, RewardedVideoAd> mPlacementIdToAd;
     private final ConcurrentHashMap<String, FacebookRewardedVideoAdListener> mPlacementIdToFacebookAdListener;
@@ -55,16 +62,22 @@ public class FacebookRewardedVideoAdapter extends AbstractRewardedVideoAdapter<F
             return;
         }
 
-        IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        }
 
         // add to rewarded video listener map
         mPlacementIdToSmashListener.put(placementId, listener);
 
         if (getAdapter().getInitState() == FacebookAdapter.InitState.INIT_STATE_SUCCESS) {
-            IronLog.INTERNAL.verbose("onRewardedVideoInitSuccess - placementId = " + placementId);
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("onRewardedVideoInitSuccess - placementId = " + placementId);
+            }
             listener.onRewardedVideoInitSuccess();
-        } else if (getAdapter().getInitState() == FacebookAdapter.InitState.INIT_STATE_FAILED) {
-            IronLog.INTERNAL.verbose("onRewardedVideoInitFailed - placementId = " + placementId);
+        } else if (getAdapter().getInitState() == FacebookAdapter.InitState.INIT_STATE_FAILED && !getAdapter().canRetryInit()) {
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("onRewardedVideoInitFailed - placementId = " + placementId);
+            }
             listener.onRewardedVideoInitFailed(ErrorBuilder.buildInitFailedError("Meta SDK init failed", IronSourceConstants.REWARDED_VIDEO_AD_UNIT));
         } else {
             getAdapter().initSDK(allPlacementIds);
@@ -90,19 +103,22 @@ public class FacebookRewardedVideoAdapter extends AbstractRewardedVideoAdapter<F
     public void loadRewardedVideoForBidding(@NonNull final JSONObject config, final JSONObject adData, final String serverData, @NonNull final RewardedVideoSmashListener listener) {
         final String placementId = getConfigStringValueFromKey(config, getAdapter().getPlacementIdKey());
 
-        IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        }
 
         mAdsAvailability.put(placementId, false);
         mPlacementIdToShowAttempts.put(placementId, false);
 
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
                 try {
                     if (mPlacementIdToAd.containsKey(placementId)) {
-                        IronLog.ADAPTER_API.verbose("destroying previous ad with placementId " + placementId);
-                        mPlacementIdToAd.get(placementId).destroy();
-                        mPlacementIdToAd.remove(placementId);
+                        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                            IronLog.ADAPTER_API.verbose("destroying previous ad with placementId " + placementId);
+                        }
+                        releaseAd(placementId, mPlacementIdToAd.get(placementId), mPlacementIdToFacebookAdListener.get(placementId));
                     }
 
                     RewardedVideoAd rewardedVideoAd = new RewardedVideoAd(ContextProvider.getInstance().getApplicationContext(), placementId);
@@ -135,8 +151,10 @@ public class FacebookRewardedVideoAdapter extends AbstractRewardedVideoAdapter<F
     public void showRewardedVideo(@NonNull final JSONObject config,
                                   @NonNull final RewardedVideoSmashListener listener) {
         final String placementId = getConfigStringValueFromKey(config, getAdapter().getPlacementIdKey());
-        IronLog.ADAPTER_API.verbose("placementId = " + placementId);
-        postOnUIThread(new Runnable() {
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("placementId = " + placementId);
+        }
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
               try {
@@ -144,6 +162,10 @@ public class FacebookRewardedVideoAdapter extends AbstractRewardedVideoAdapter<F
                 // make sure the ad is loaded and has not expired
                 if (rewardedVideoAd != null && rewardedVideoAd.isAdLoaded() && !rewardedVideoAd.isAdInvalidated()) {
                     mPlacementIdToShowAttempts.put(placementId, true);
+                    FacebookRewardedVideoAdListener adListener = mPlacementIdToFacebookAdListener.get(placementId);
+                    if (adListener != null) {
+                        adListener.onShowStarted();
+                    }
                     rewardedVideoAd.show();
                 } else {
                     listener.onRewardedVideoAdShowFailed(ErrorBuilder.buildNoAdsToShowError(IronSourceConstants.REWARDED_VIDEO_AD_UNIT));
@@ -168,4 +190,17 @@ public class FacebookRewardedVideoAdapter extends AbstractRewardedVideoAdapter<F
     public Map<String, Object> getRewardedVideoBiddingData(@NonNull JSONObject config, JSONObject adData) {
         return getAdapter().getBiddingData();
     }
+
+    // destroys the ad of the placement and releases it together with its listener,
+    // unless they were already replaced by a newer load
+    void releaseAd(String placementId, Ad ad, FacebookRewardedVideoAdListener adListener) {
+        if (ad != null && mPlacementIdToAd.remove(placementId, ad)) {
+            ad.destroy();
+            mLeakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, ad);
+        }
+
+        if (adListener != null && mPlacementIdToFacebookAdListener.remove(placementId, adListener)) {
+            mLeakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.LISTENER, adListener);
+        }
+    }
 }
@@ -0,0 +1,162 @@
+package com.ironsource.adapters.facebook.nativead;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.graphics.Bitmap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.GraphicsMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class FacebookNativeIconLoaderTest {
+
+    private static final long AWAIT_SECONDS = 5;
+    private static final long LONG_TIMEOUT_MS = 10000;
+
+    private MockWebServer mServer;
+
+    @Before
+    public void setUp() throws IOException {
+        mServer = new MockWebServer();
+        mServer.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        mServer.shutdown();
+    }
+
+    @Test
+    public void downsamplesTheIconToTheTargetSize() throws Exception {
+        mServer.enqueue(new MockResponse().setBody(createPng(200, 200)));
+
+        Bitmap icon = awaitIcon(url("/downsampled.png"), 50);
+
+        assertNotNull(icon);
+        assertEquals(50, icon.getWidth());
+        assertEquals(50, icon.getHeight());
+    }
+
+    @Test
+    public void sharesTheDownloadOfTheSameIconAndCachesIt() throws Exception {
+        mServer.enqueue(new MockResponse()
+                .setBody(createPng(64, 64))
+                .setBodyDelay(300, TimeUnit.MILLISECONDS));
+
+        final String url = url("/shared.png");
+        final CountDownLatch latch = new CountDownLatch(2);
+        final AtomicReference<Bitmap> firstIcon = new AtomicReference<>();
+        final AtomicReference<Bitmap> secondIcon = new AtomicReference<>();
+        FacebookNativeIconLoader.load(url, 64, LONG_TIMEOUT_MS, new FacebookNativeIconLoader.IconListener() {
+            @Override
+            public void onIconLoaded(Bitmap icon) {
+                firstIcon.set(icon);
+                latch.countDown();
+            }
+        });
+        FacebookNativeIconLoader.load(url, 64, LONG_TIMEOUT_MS, new FacebookNativeIconLoader.IconListener() {
+            @Override
+            public void onIconLoaded(Bitmap icon) {
+                secondIcon.set(icon);
+                latch.countDown();
+            }
+        });
+
+        assertTrue(latch.await(AWAIT_SECONDS, TimeUnit.SECONDS));
+        assertNotNull(firstIcon.get());
+        assertSame(firstIcon.get(), secondIcon.get());
+
+        // served from the cache, synchronously and without another request
+        final AtomicReference<Bitmap> cachedIcon = new AtomicReference<>();
+        FacebookNativeIconLoader.load(url, 64, LONG_TIMEOUT_MS, new FacebookNativeIconLoader.IconListener() {
+            @Override
+            public void onIconLoaded(Bitmap icon) {
+                cachedIcon.set(icon);
+            }
+        });
+        assertSame(firstIcon.get(), cachedIcon.get());
+        assertEquals(1, mServer.getRequestCount());
+    }
+
+    @Test
+    public void skipsIconsLargerThanTheDownloadLimit() throws Exception {
+        mServer.enqueue(new MockResponse().setBody(new Buffer().write(new byte[2 * 1024 * 1024 + 1])));
+
+        assertNull(awaitIcon(url("/large.png"), 50));
+    }
+
+    @Test
+    public void returnsNullForAFailedDownload() throws Exception {
+        mServer.enqueue(new MockResponse().setResponseCode(404));
+
+        assertNull(awaitIcon(url("/missing.png"), 50));
+    }
+
+    @Test
+    public void returnsNullOnceTheTimeoutPasses() {
+        mServer.enqueue(new MockResponse()
+                .setBody(createPng(64, 64))
+                .setHeadersDelay(2, TimeUnit.SECONDS));
+
+        final AtomicReference<Bitmap> result = new AtomicReference<>(createBitmap(1, 1));
+        FacebookNativeIconLoader.load(url("/slow.png"), 64, 100, new FacebookNativeIconLoader.IconListener() {
+            @Override
+            public void onIconLoaded(Bitmap icon) {
+                result.set(icon);
+            }
+        });
+
+        ShadowLooper.idleMainLooper(100, TimeUnit.MILLISECONDS);
+
+        assertNull(result.get());
+    }
+
+    private String url(String path) {
+        return mServer.url(path).toString();
+    }
+
+    private static Bitmap awaitIcon(String url, int targetSizePx) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Bitmap> result = new AtomicReference<>();
+        FacebookNativeIconLoader.load(url, targetSizePx, LONG_TIMEOUT_MS, new FacebookNativeIconLoader.IconListener() {
+            @Override
+            public void onIconLoaded(Bitmap icon) {
+                result.set(icon);
+                latch.countDown();
+            }
+        });
+
+        assertTrue(latch.await(AWAIT_SECONDS, TimeUnit.SECONDS));
+        return result.get();
+    }
+
+    private static Buffer createPng(int width, int height) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        createBitmap(width, height).compress(Bitmap.CompressFormat.PNG, 100, outputStream);
+        return new Buffer().write(outputStream.toByteArray());
+    }
+
+    private static Bitmap createBitmap(int width, int height) {
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+}
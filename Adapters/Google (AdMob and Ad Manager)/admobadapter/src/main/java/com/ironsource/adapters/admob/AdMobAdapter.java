@@ -3,6 +3,7 @@ package com.ironsource.adapters.admob;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.text.TextUtils;
 
 import com.google.android.libraries.ads.mobile.sdk.MobileAds;
@@ -32,6 +33,13 @@ import com.ironsource.adapters.admob.banner.AdMobBannerAdapter;
 import com.ironsource.adapters.admob.interstitial.AdMobInterstitialAdapter;
 import com.ironsource.adapters.admob.nativead.AdMobNativeAdAdapter;
 import com.ironsource.adapters.admob.rewardedvideo.AdMobRewardedVideoAdapter;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.BiddingTokenCache;
+import com.ironsource.adapters.common.InitCoordinator;
+import com.ironsource.adapters.common.InitHistory;
+import com.ironsource.adapters.common.InitScheduler;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.TokenEncoder;
 import com.ironsource.environment.ContextProvider;
 import com.ironsource.environment.StringUtils;
 import com.ironsource.mediationsdk.AbstractAdapter;
@@ -39,6 +47,7 @@ import com.ironsource.mediationsdk.AdapterNetworkData;
 import com.ironsource.mediationsdk.INetworkInitCallbackListener;
 import com.ironsource.mediationsdk.IntegrationData;
 import com.ironsource.mediationsdk.LoadWhileShowSupportState;
+import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors;
 import com.ironsource.mediationsdk.bidding.BiddingDataCallback;
 import com.ironsource.mediationsdk.logger.IronLog;
 import com.ironsource.mediationsdk.metadata.MetaDataUtils;
@@ -49,17 +58,17 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.ironsource.mediationsdk.metadata.MetaData.MetaDataValueTypes.META_DATA_VALUE_BOOLEAN;
 
 import androidx.annotation.NonNull;
 
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AdMobAdapter extends AbstractAdapter {
 
@@ -69,6 +78,8 @@ public class AdMobAdapter extends AbstractAdapter {
     //adapter version
     private static final String VERSION = BuildConfig.VERSION_NAME;
     private static final String GitHash = BuildConfig.GitHash;
+    // Network name reported with the adapter metrics
+    public static final String NETWORK_NAME = "AdMob";
     private static final String AD_UNIT_ID = "adUnitId";
     public static final String CREATIVE_ID_KEY = "creativeId";
     private static final String EMPTY_STRING = "";
@@ -76,6 +87,8 @@ public class AdMobAdapter extends AbstractAdapter {
     // Init configuration flags
     private final String NETWORK_ONLY_INIT = "networkOnlyInit";
     private final String INIT_RESPONSE_REQUIRED = "initResponseRequired";
+    private final String BIDDING_TOKEN_TTL = "biddingTokenTTL";
+    private final String INIT_TIMEOUT = "initTimeout";
 
     // shared variables between instances
     private static Boolean mConsent = null;
@@ -86,11 +99,30 @@ public class AdMobAdapter extends AbstractAdapter {
     private static String mContentMappingURLValue = null;
     private static Set<String> mNeighboringContentMappingURLValue = new HashSet<>();
 
+    // request state shared by all ad requests, rebuilt when the privacy or content mapping state changes
+    private static final AtomicInteger mRequestStateVersion = new AtomicInteger();
+    private static volatile RequestTemplate mRequestTemplate = null;
+
+    // outcome of the previous launches, which the init is scheduled by
+    private static final InitHistory mInitHistory = InitHistory.forNetwork(NETWORK_NAME);
+
+    // the SDK is initialized on its own thread
+    private static final InitScheduler mInitScheduler = new InitScheduler(mInitHistory, Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "AdMob-init");
+        thread.setPriority(Thread.NORM_PRIORITY);
+        return thread;
+    }));
+
     // handle init callback for all adapter instances
-    private static final HashSet<INetworkInitCallbackListener> initCallbackListeners = new HashSet<>();
+    private static final InitCoordinator<INetworkInitCallbackListener> mInitCoordinator = InitCoordinator.forInitCallbackListeners(NETWORK_NAME,
+            // a late success still means the network is healthy on the next launch
+            mInitHistory::record);
 
-    public static InitState mInitState = InitState.INIT_STATE_NONE;
-    private static final AtomicBoolean mWasInitCalled = new AtomicBoolean(false);
+    // bidding tokens shared by all adapter instances, keyed by ad format
+    private static final BiddingTokenCache mBiddingTokenCache = BiddingTokenCache.forNetwork(NETWORK_NAME);
+    // bidding data of the tokens, with the token size table
+    private static final TokenEncoder mTokenEncoder = TokenEncoder.forNetwork(NETWORK_NAME);
+    private static final AdFormat[] PREFETCH_TOKEN_AD_FORMATS = {AdFormat.INTERSTITIAL, AdFormat.REWARDED, AdFormat.NATIVE};
 
     //init state possible values
     public enum InitState {
@@ -120,6 +152,26 @@ public class AdMobAdapter extends AbstractAdapter {
     private static final String NETWORK_DATA_CONTENT_MAPPING = "ContentMapping";
     private static final String NETWORK_DATA_CONTENT_RATING = "MaxAdContentRating";
 
+    // Immutable snapshot of the request values which don't change between loads
+    private static final class RequestTemplate {
+        final int version;
+        final String contentUrl;
+        final Set<String> neighboringContentUrls;
+        private final Bundle mExtras;
+
+        RequestTemplate(int version, String contentUrl, Set<String> neighboringContentUrls, Bundle extras) {
+            this.version = version;
+            this.contentUrl = contentUrl;
+            this.neighboringContentUrls = neighboringContentUrls;
+            mExtras = extras;
+        }
+
+        // the request keeps its extras bundle, so every request gets its own copy
+        Bundle createExtras() {
+            return new Bundle(mExtras);
+        }
+    }
+
     //region Adapter Methods
     public static AdMobAdapter startAdapter(String providerName) {
         return new AdMobAdapter(providerName);
@@ -171,28 +223,43 @@ public class AdMobAdapter extends AbstractAdapter {
     //region Initializations methods and callbacks
     @SuppressLint("MissingPermission")
     public void initSDK(final JSONObject config) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(NETWORK_NAME, isAdaptersDebugEnabled());
+
         // Get app ID from config - required for Next Gen SDK
         String appId = config.optString("appId", "");
         if (TextUtils.isEmpty(appId)) {
             IronLog.ADAPTER_API.error("appId is missing from config");
-            initializationFailure();
+            // add self to the init listeners so the failure is reported to this instance as well
+            initializationFailure(mInitCoordinator.register(AdMobAdapter.this));
             return;
         }
 
-        // add self to the init listeners only in case the initialization has not finished yet
-        if (mInitState == InitState.INIT_STATE_NONE || mInitState == InitState.INIT_STATE_IN_PROGRESS) {
-            initCallbackListeners.add(AdMobAdapter.this);
+        long biddingTokenTTL = config.optLong(BIDDING_TOKEN_TTL, 0);
+        if (biddingTokenTTL > 0) {
+            mBiddingTokenCache.setTtlMillis(biddingTokenTTL * 1000);
         }
-        //init sdk will only be called once
-        if (mWasInitCalled.compareAndSet(false, true)) {
-            mInitState = InitState.INIT_STATE_IN_PROGRESS;
+        mTokenEncoder.configure(config.optString(TokenEncoder.ENCODING_KEY, null));
 
-            IronLog.ADAPTER_API.verbose("appId = " + appId);
+        // init timeout in seconds, after which the waiting listeners are notified of a failure
+        long initTimeout = config.optLong(INIT_TIMEOUT, 0);
+        long initTimeoutMs = initTimeout > 0 ? initTimeout * 1000 : InitCoordinator.DEFAULT_INIT_TIMEOUT_MS;
 
-            boolean networkOnlyInit = config.optBoolean(NETWORK_ONLY_INIT, true);
+        boolean networkOnlyInit = config.optBoolean(NETWORK_ONLY_INIT, true);
 
-            //check if we want to perform the init process with an init callback
-            boolean shouldWaitForInitCallback = config.optBoolean(INIT_RESPONSE_REQUIRED, false);
+        //check if we want to perform the init process with an init callback
+        boolean shouldWaitForInitCallback = config.optBoolean(INIT_RESPONSE_REQUIRED, false);
+
+        // start reading the outcome of the previous launches, the init is scheduled once it's read
+        mInitHistory.load(ContextProvider.getInstance().getApplicationContext(), getAdapterSDKVersion(), VERSION,
+                appId + "|" + networkOnlyInit + "|" + shouldWaitForInitCallback);
+
+        // add self to the init listeners, init sdk will only be called once unless it failed and can be retried
+        final int attempt = mInitCoordinator.register(AdMobAdapter.this, initTimeoutMs);
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                IronLog.ADAPTER_API.verbose("appId = " + appId);
+            }
 
             // Build initialization config
             InitializationConfig.Builder initConfigBuilder = new InitializationConfig.Builder(appId);
@@ -205,63 +272,75 @@ public class AdMobAdapter extends AbstractAdapter {
 
             InitializationConfig initConfig = initConfigBuilder.build();
 
-            new Thread(() -> {
+            // Init SDK off the main thread, lower priority networks are deferred after the first frame
+            mInitScheduler.schedule(config.optInt(InitScheduler.INIT_PRIORITY_KEY, 0), () -> {
                 if (shouldWaitForInitCallback) {
                     IronLog.ADAPTER_API.verbose("init and wait for callback");
                     MobileAds.initialize(ContextProvider.getInstance().getApplicationContext(), initConfig, initializationStatus -> {
                         AdapterStatus adMobStatus = initializationStatus.getAdapterStatusMap().get("com.google.android.gms.ads.MobileAds");
                         if (adMobStatus != null) {
-                            IronLog.ADAPTER_API.verbose("AdMob initialization state = " + adMobStatus.getInitializationState() + ", description = " + adMobStatus.getDescription());
+                            if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                                IronLog.ADAPTER_API.verbose("AdMob initialization state = " + adMobStatus.getInitializationState() + ", description = " + adMobStatus.getDescription());
+                            }
                         }
 
                         if (adMobStatus != null && adMobStatus.getInitializationState() == AdapterStatus.InitializationState.COMPLETE) {
-                            initializationSuccess();
+                            initializationSuccess(attempt);
                         } else {
                             String error = adMobStatus != null ? adMobStatus.getDescription() : "AdMob adapter status not found";
                             IronLog.ADAPTER_API.error("AdMob init failed: " + error);
-                            initializationFailure();
+                            initializationFailure(attempt);
                         }
                     });
                 } else {
                     IronLog.ADAPTER_API.verbose("init without callback");
                     MobileAds.initialize(ContextProvider.getInstance().getApplicationContext(), initConfig);
-                    initializationSuccess();
+                    initializationSuccess(attempt);
                 }
-            }).start();
+            });
         }
     }
 
-    private void initializationSuccess() {
-        mInitState = InitState.INIT_STATE_SUCCESS;
+    private void initializationSuccess(int attempt) {
+        // apply the request configuration which may have been set before the init,
+        // afterwards it is applied only when it changes
+        setRequestConfiguration();
 
-        //iterate over all the adapter instances and report init success
-        for (INetworkInitCallbackListener adapter : initCallbackListeners) {
-            adapter.onNetworkInitCallbackSuccess();
+        // prefetch the bidding tokens for the first auctions
+        for (final AdFormat adFormat : PREFETCH_TOKEN_AD_FORMATS) {
+            final SignalRequest signalRequest = createSignalRequest(adFormat, null);
+            mBiddingTokenCache.refresh(adFormat.name(), listener -> generateSignal(signalRequest, listener));
         }
 
-        initCallbackListeners.clear();
+        //iterate over all the adapter instances and report init success
+        mInitCoordinator.onInitSuccess(attempt);
     }
 
-    private void initializationFailure() {
-        mInitState = InitState.INIT_STATE_FAILED;
+    private void initializationFailure(int attempt) {
         //iterate over all the adapter instances and report init failed
-        for (INetworkInitCallbackListener adapter : initCallbackListeners) {
-            adapter.onNetworkInitCallbackFailed("AdMob sdk init failed");
-        }
-
-        initCallbackListeners.clear();
+        mInitCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, "AdMob sdk init failed");
     }
 
     public InitState getInitState() {
-        return mInitState;
+        // the shared init states have the same names
+        return InitState.valueOf(mInitCoordinator.getInitState().name());
+    }
+
+    // true if the init failed and can be attempted again by the next init call
+    public boolean canRetryInit() {
+        return mInitCoordinator.canRetry();
     }
     //endregion
 
     //region legal
     @Override
     protected void setConsent(boolean consent) {
-        IronLog.ADAPTER_API.verbose("consent = " + consent);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("consent = " + consent);
+        }
         mConsent = consent;
+        mRequestStateVersion.incrementAndGet();
+        mBiddingTokenCache.invalidate();
     }
 
     @Override
@@ -273,19 +352,28 @@ public class AdMobAdapter extends AbstractAdapter {
         if (values.size() > 1 && key.equalsIgnoreCase(AdMobMetaDataFlags.ADMOB_CONTENT_MAPPING_KEY)) {
             // multiple URL
             mNeighboringContentMappingURLValue = new HashSet<>(values);
-            IronLog.ADAPTER_API.verbose("key = " + key + ", values = " + values);
+            mRequestStateVersion.incrementAndGet();
+            if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                IronLog.ADAPTER_API.verbose("key = " + key + ", values = " + values);
+            }
+            mBiddingTokenCache.invalidate();
             return;
         }
 
         // this is a list of 1 value.
         String value = values.get(0);
-        IronLog.ADAPTER_API.verbose("key = " + key + ", value = " + value);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("key = " + key + ", value = " + value);
+        }
 
         if (MetaDataUtils.isValidCCPAMetaData(key, value)) {
             setCCPAValue(MetaDataUtils.getMetaDataBooleanValue(value));
         } else {
             setAdMobMetaDataValue(StringUtils.toLowerCase(key), StringUtils.toLowerCase(value));
         }
+
+        // only tokens fetched after the new value is applied are cached
+        mBiddingTokenCache.invalidate();
     }
 
     @Override
@@ -312,26 +400,38 @@ public class AdMobAdapter extends AbstractAdapter {
 
     private void processContentMapping(String value) {
         mContentMappingURLValue = value;
-        IronLog.ADAPTER_API.verbose("key = " + NETWORK_DATA_CONTENT_MAPPING + ", contentMappingValue = " + mContentMappingURLValue);
+        mRequestStateVersion.incrementAndGet();
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("key = " + NETWORK_DATA_CONTENT_MAPPING + ", contentMappingValue = " + mContentMappingURLValue);
+        }
     }
 
     private void processContentMapping(JSONArray value) {
-        mNeighboringContentMappingURLValue.clear();
+        Set<String> neighboringContentMappingURLValue = new HashSet<>();
         for (int i = 0; i < value.length(); i++) {
-            mNeighboringContentMappingURLValue.add(value.optString(i));
+            neighboringContentMappingURLValue.add(value.optString(i));
+        }
+        mNeighboringContentMappingURLValue = neighboringContentMappingURLValue;
+        mRequestStateVersion.incrementAndGet();
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("key = " + NETWORK_DATA_CONTENT_MAPPING + ", contentMappingValues = " + mNeighboringContentMappingURLValue.toString());
         }
-        IronLog.ADAPTER_API.verbose("key = " + NETWORK_DATA_CONTENT_MAPPING + ", contentMappingValues = " + mNeighboringContentMappingURLValue.toString());
     }
 
     private void processContentRating(String value) {
         mRatingValue = getAdMobRatingValue(StringUtils.toLowerCase(value));
-        IronLog.ADAPTER_API.verbose("key = " + NETWORK_DATA_CONTENT_RATING + ", inputValue = " + value + ", ratingValue = " + mRatingValue);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("key = " + NETWORK_DATA_CONTENT_RATING + ", inputValue = " + value + ", ratingValue = " + mRatingValue);
+        }
         setRequestConfiguration();
     }
 
     private void setCCPAValue(boolean value) {
-        IronLog.ADAPTER_API.verbose("value = " + value);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("value = " + value);
+        }
         mCCPAValue = value;
+        mRequestStateVersion.incrementAndGet();
     }
 
     private void setAdMobMetaDataValue(String key, String value) {
@@ -342,7 +442,9 @@ public class AdMobAdapter extends AbstractAdapter {
             formattedValue = MetaDataUtils.formatValueForType(value, META_DATA_VALUE_BOOLEAN);
 
             if (TextUtils.isEmpty(formattedValue)) {
-                IronLog.ADAPTER_API.verbose("MetaData value for key " + key + " is invalid " + value);
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("MetaData value for key " + key + " is invalid " + value);
+                }
                 return;
             }
         }
@@ -350,19 +452,28 @@ public class AdMobAdapter extends AbstractAdapter {
         switch (key) {
             case AdMobMetaDataFlags.ADMOB_TFCD_KEY:
                 mCoppaValue = getAdMobCoppaValue(formattedValue);
-                IronLog.ADAPTER_API.verbose("key = " + key + ", coppaValue = " + mCoppaValue);
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("key = " + key + ", coppaValue = " + mCoppaValue);
+                }
                 break;
             case AdMobMetaDataFlags.ADMOB_TFUA_KEY:
                 mEuValue = getAdMobEuValue(formattedValue);
-                IronLog.ADAPTER_API.verbose("key = " + key + ", euValue = " + mEuValue);
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("key = " + key + ", euValue = " + mEuValue);
+                }
                 break;
             case AdMobMetaDataFlags.ADMOB_MAX_RATING_KEY:
                 mRatingValue = getAdMobRatingValue(formattedValue);
-                IronLog.ADAPTER_API.verbose("key = " + key + ", ratingValue = " + mRatingValue);
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("key = " + key + ", ratingValue = " + mRatingValue);
+                }
                 break;
             case AdMobMetaDataFlags.ADMOB_CONTENT_MAPPING_KEY:
                 mContentMappingURLValue = value;
-                IronLog.ADAPTER_API.verbose("key = " + key + ", contentMappingValue = " + mContentMappingURLValue);
+                mRequestStateVersion.incrementAndGet();
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("key = " + key + ", contentMappingValue = " + mContentMappingURLValue);
+                }
                 break;
         }
 
@@ -420,21 +531,19 @@ public class AdMobAdapter extends AbstractAdapter {
         AdRequest.Builder builder = new AdRequest.Builder(adUnitId);
         builder.setRequestAgent(REQUEST_AGENT);
 
+        RequestTemplate template = getRequestTemplate();
+
         //handle single content mapping for ad request
-        if (!TextUtils.isEmpty(mContentMappingURLValue)) {
-            IronLog.ADAPTER_API.verbose("mContentMappingURLValue = " + mContentMappingURLValue);
-            builder.setContentUrl(mContentMappingURLValue);
+        if (template.contentUrl != null) {
+            builder.setContentUrl(template.contentUrl);
         }
 
         //handle neighboring content mapping for ad request
-        if (!mNeighboringContentMappingURLValue.isEmpty()) {
-            IronLog.ADAPTER_API.verbose("mNeighboringContentMappingURLValue = " + mNeighboringContentMappingURLValue);
-            builder.setNeighboringContentUrls(mNeighboringContentMappingURLValue);
+        if (template.neighboringContentUrls != null) {
+            builder.setNeighboringContentUrls(template.neighboringContentUrls);
         }
 
-        setRequestConfiguration();
-
-        builder.setGoogleExtrasBundle(createExtrasBundle(adData));
+        builder.setGoogleExtrasBundle(createExtrasBundle(template, adData));
 
         return builder.build();
     }
@@ -443,21 +552,19 @@ public class AdMobAdapter extends AbstractAdapter {
         BannerAdRequest.Builder builder = new BannerAdRequest.Builder(adUnitId, adSize);
         builder.setRequestAgent(REQUEST_AGENT);
 
+        RequestTemplate template = getRequestTemplate();
+
         //handle single content mapping for ad request
-        if (!TextUtils.isEmpty(mContentMappingURLValue)) {
-            IronLog.ADAPTER_API.verbose("mContentMappingURLValue = " + mContentMappingURLValue);
-            builder.setContentUrl(mContentMappingURLValue);
+        if (template.contentUrl != null) {
+            builder.setContentUrl(template.contentUrl);
         }
 
         //handle neighboring content mapping for ad request
-        if (!mNeighboringContentMappingURLValue.isEmpty()) {
-            IronLog.ADAPTER_API.verbose("mNeighboringContentMappingURLValue = " + mNeighboringContentMappingURLValue);
-            builder.setNeighboringContentUrls(mNeighboringContentMappingURLValue);
+        if (template.neighboringContentUrls != null) {
+            builder.setNeighboringContentUrls(template.neighboringContentUrls);
         }
 
-        setRequestConfiguration();
-
-        builder.setGoogleExtrasBundle(createExtrasBundle(adData));
+        builder.setGoogleExtrasBundle(createExtrasBundle(template, adData));
 
         return builder.build();
     }
@@ -467,25 +574,53 @@ public class AdMobAdapter extends AbstractAdapter {
         builder.setRequestAgent(REQUEST_AGENT);
         builder.setAdChoicesPlacement(adChoicesPlacement);
 
+        RequestTemplate template = getRequestTemplate();
+
         //handle single content mapping for ad request
-        if (!TextUtils.isEmpty(mContentMappingURLValue)) {
-            IronLog.ADAPTER_API.verbose("mContentMappingURLValue = " + mContentMappingURLValue);
-            builder.setContentUrl(mContentMappingURLValue);
+        if (template.contentUrl != null) {
+            builder.setContentUrl(template.contentUrl);
         }
 
         //handle neighboring content mapping for ad request
-        if (!mNeighboringContentMappingURLValue.isEmpty()) {
-            IronLog.ADAPTER_API.verbose("mNeighboringContentMappingURLValue = " + mNeighboringContentMappingURLValue);
-            builder.setNeighboringContentUrls(mNeighboringContentMappingURLValue);
+        if (template.neighboringContentUrls != null) {
+            builder.setNeighboringContentUrls(template.neighboringContentUrls);
         }
 
-        setRequestConfiguration();
-
-        builder.setGoogleExtrasBundle(createExtrasBundle(adData));
+        builder.setGoogleExtrasBundle(createExtrasBundle(template, adData));
 
         return builder.build();
     }
 
+    // returns the current request template, building a new one if the request state has changed
+    private RequestTemplate getRequestTemplate() {
+        RequestTemplate template = mRequestTemplate;
+        int version = mRequestStateVersion.get();
+        if (template != null && template.version == version) {
+            return template;
+        }
+
+        String contentUrl = null;
+        if (!TextUtils.isEmpty(mContentMappingURLValue)) {
+            contentUrl = mContentMappingURLValue;
+            if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                IronLog.ADAPTER_API.verbose("mContentMappingURLValue = " + contentUrl);
+            }
+        }
+
+        Set<String> neighboringContentUrls = null;
+        if (!mNeighboringContentMappingURLValue.isEmpty()) {
+            neighboringContentUrls = Collections.unmodifiableSet(new HashSet<>(mNeighboringContentMappingURLValue));
+            if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                IronLog.ADAPTER_API.verbose("mNeighboringContentMappingURLValue = " + neighboringContentUrls);
+            }
+        }
+
+        // a template built while the state changes keeps the older version and is rebuilt on the next request
+        template = new RequestTemplate(version, contentUrl, neighboringContentUrls, createBaseExtrasBundle());
+        mRequestTemplate = template;
+        return template;
+    }
+
     private void setRequestConfiguration() {
         RequestConfiguration.Builder requestConfigurationBuilder = new RequestConfiguration.Builder();
         RequestConfiguration requestConfiguration = null;
@@ -513,7 +648,7 @@ public class AdMobAdapter extends AbstractAdapter {
     }
 
     public void collectBiddingData(final BiddingDataCallback biddingDataCallback, AdFormat adFormat, Bundle additionalExtras) {
-        if (mInitState == InitState.INIT_STATE_NONE) {
+        if (getInitState() == InitState.INIT_STATE_NONE) {
             String error = "returning null as token since init hasn't started";
             IronLog.INTERNAL.verbose(error);
             biddingDataCallback.onFailure(error + " - AdMob");
@@ -530,25 +665,67 @@ public class AdMobAdapter extends AbstractAdapter {
             return;
         }
 
-        MobileAds.generateSignal(signalRequest, new SignalGenerationCallback() {
+        final long startTime = SystemClock.elapsedRealtime();
+        final LatencyMetrics.AdFormat latencyAdFormat = getLatencyAdFormat(adFormat);
+        BiddingTokenCache.TokenListener tokenListener = new BiddingTokenCache.TokenListener() {
             @Override
-            public void onSuccess(@NonNull Signal signal) {
-                String returnedToken = signal.getSignalString() != null ? signal.getSignalString() : EMPTY_STRING;
+            public void onTokenReceived(String token) {
+                LatencyMetrics.forNetwork(NETWORK_NAME).record(LatencyMetrics.Phase.TOKEN, latencyAdFormat, SystemClock.elapsedRealtime() - startTime, true);
+                String returnedToken = token != null ? token : EMPTY_STRING;
                 String sdkVersion = getCoreSDKVersion();
-                IronLog.ADAPTER_API.verbose("token = " + returnedToken + ", sdkVersion = " + sdkVersion);
-                Map<String, Object> biddingDataMap = new HashMap<>();
-                biddingDataMap.put("token", returnedToken);
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("token = " + returnedToken + ", sdkVersion = " + sdkVersion);
+                }
+                Map<String, Object> biddingDataMap = mTokenEncoder.biddingData("token", returnedToken, SystemClock.elapsedRealtime() - startTime);
                 biddingDataMap.put("sdkVersion", sdkVersion);
                 biddingDataCallback.onSuccess(biddingDataMap);
             }
 
+            @Override
+            public void onTokenFailed(String error) {
+                LatencyMetrics.forNetwork(NETWORK_NAME).record(LatencyMetrics.Phase.TOKEN, latencyAdFormat, SystemClock.elapsedRealtime() - startTime, false);
+                biddingDataCallback.onFailure("failed to receive token - AdMob " + error);
+            }
+        };
+
+        // signals with additional extras depend on the request and are not cached
+        if (additionalExtras != null) {
+            generateSignal(signalRequest, tokenListener);
+            return;
+        }
+
+        mBiddingTokenCache.getOrFetch(adFormat.name(), listener -> generateSignal(signalRequest, listener), tokenListener);
+    }
+
+    private void generateSignal(SignalRequest signalRequest, final BiddingTokenCache.TokenListener listener) {
+        MobileAds.generateSignal(signalRequest, new SignalGenerationCallback() {
+            @Override
+            public void onSuccess(@NonNull Signal signal) {
+                listener.onTokenReceived(signal.getSignalString());
+            }
+
             @Override
             public void onFailure(@NonNull SignalError error) {
-                biddingDataCallback.onFailure("failed to receive token - AdMob " + error.getMessage());
+                listener.onTokenFailed(error.getMessage());
             }
         });
     }
 
+    private static LatencyMetrics.AdFormat getLatencyAdFormat(AdFormat adFormat) {
+        switch (adFormat) {
+            case INTERSTITIAL:
+                return LatencyMetrics.AdFormat.INTERSTITIAL;
+            case REWARDED:
+                return LatencyMetrics.AdFormat.REWARDED;
+            case BANNER:
+                return LatencyMetrics.AdFormat.BANNER;
+            case NATIVE:
+                return LatencyMetrics.AdFormat.NATIVE;
+            default:
+                return LatencyMetrics.AdFormat.NETWORK;
+        }
+    }
+
     private SignalRequest createSignalRequest(AdFormat adFormat, Bundle additionalExtras) {
         switch (adFormat) {
             case INTERSTITIAL:
@@ -569,9 +746,8 @@ public class AdMobAdapter extends AbstractAdapter {
         }
     }
 
-    private Bundle createExtrasBundle(JSONObject adData) {
-        Bundle extras = new Bundle();
-        extras.putString("platform_name", PLATFORM_NAME);
+    private Bundle createExtrasBundle(RequestTemplate template, JSONObject adData) {
+        Bundle extras = template.createExtras();
         boolean hybridMode = false;
 
         if (adData != null) {
@@ -580,7 +756,9 @@ public class AdMobAdapter extends AbstractAdapter {
 
             if (!requestId.isEmpty()) {
                 extras.putString("placement_req_id", requestId);
-                IronLog.INTERNAL.verbose("adData requestId = " + requestId + ", isHybrid = " + hybridMode);
+                if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                    IronLog.INTERNAL.verbose("adData requestId = " + requestId + ", isHybrid = " + hybridMode);
+                }
             }
         } else {
             IronLog.INTERNAL.verbose("adData is null, using default hybridMode = false");
@@ -588,16 +766,28 @@ public class AdMobAdapter extends AbstractAdapter {
 
         extras.putString("is_hybrid_setup", String.valueOf(hybridMode));
 
+        return extras;
+    }
+
+    // extras which are the same for all ad requests
+    private Bundle createBaseExtrasBundle() {
+        Bundle extras = new Bundle();
+        extras.putString("platform_name", PLATFORM_NAME);
+
         if (mConsent != null || mCCPAValue != null) {
             //handle consent for ad request
             if (mConsent != null && !mConsent) {
-                IronLog.ADAPTER_API.verbose("mConsent = " + mConsent);
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("mConsent = " + mConsent);
+                }
                 extras.putString("npa", "1");
             }
 
             //handle CCPA for ad request
             if (mCCPAValue != null) {
-                IronLog.ADAPTER_API.verbose("mCCPAValue = " + mCCPAValue);
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("mCCPAValue = " + mCCPAValue);
+                }
                 extras.putInt("rdp", mCCPAValue ? 1 : 0);
             }
         }
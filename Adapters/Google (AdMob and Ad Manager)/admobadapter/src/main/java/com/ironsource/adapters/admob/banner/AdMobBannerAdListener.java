@@ -11,6 +11,10 @@ import com.google.android.libraries.ads.mobile.sdk.common.AdLoadCallback;
 import com.google.android.libraries.ads.mobile.sdk.common.LoadAdError;
 import com.google.android.libraries.ads.mobile.sdk.common.ResponseInfo;
 import com.ironsource.adapters.admob.AdMobAdapter;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.BannerLayouts;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LatencyTracker;
 import com.ironsource.mediationsdk.logger.IronLog;
 import com.ironsource.mediationsdk.logger.IronSourceError;
 import com.ironsource.mediationsdk.sdk.BannerSmashListener;
@@ -26,17 +30,24 @@ public class AdMobBannerAdListener implements AdLoadCallback<BannerAd>, BannerAd
     private BannerSmashListener mListener;
     private String mAdUnitId;
     private AdView mAdView;
+    // Times the load from the creation of the listener, which is created right before the SDK load
+    private final LatencyTracker mLatencyTracker;
 
     AdMobBannerAdListener(BannerSmashListener listener, String adUnitId, AdView adView) {
         mListener = listener;
         mAdUnitId = adUnitId;
         mAdView = adView;
+        mLatencyTracker = new LatencyTracker(AdMobAdapter.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER);
+        mLatencyTracker.onLoadStarted();
     }
 
     // ad finished loading
     @Override
     public void onAdLoaded(@NotNull BannerAd bannerAd) {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
+        mLatencyTracker.onLoadCompleted(true);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -51,8 +62,7 @@ public class AdMobBannerAdListener implements AdLoadCallback<BannerAd>, BannerAd
         // Set event callback
         bannerAd.setAdEventCallback(this);
 
-        FrameLayout.LayoutParams layoutParams = new FrameLayout.LayoutParams(FrameLayout.LayoutParams.WRAP_CONTENT, FrameLayout.LayoutParams.WRAP_CONTENT);
-        layoutParams.gravity = Gravity.CENTER;
+        FrameLayout.LayoutParams layoutParams = BannerLayouts.layoutParams(mAdView.getContext(), FrameLayout.LayoutParams.WRAP_CONTENT, FrameLayout.LayoutParams.WRAP_CONTENT, Gravity.CENTER);
 
         ResponseInfo responseInfo = bannerAd.getResponseInfo();
         String creativeId = (responseInfo != null) ? responseInfo.getResponseId() : null;
@@ -62,7 +72,9 @@ public class AdMobBannerAdListener implements AdLoadCallback<BannerAd>, BannerAd
         } else {
             Map<String, Object> extraData = new HashMap<>();
             extraData.put(AdMobAdapter.CREATIVE_ID_KEY, creativeId);
-            IronLog.ADAPTER_CALLBACK.verbose(AdMobAdapter.CREATIVE_ID_KEY + " = " + creativeId);
+            if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+                IronLog.ADAPTER_CALLBACK.verbose(AdMobAdapter.CREATIVE_ID_KEY + " = " + creativeId);
+            }
             mListener.onBannerAdLoaded(mAdView, layoutParams, extraData);
           }
     }
@@ -70,7 +82,10 @@ public class AdMobBannerAdListener implements AdLoadCallback<BannerAd>, BannerAd
     // ad request failed
     @Override
     public void onAdFailedToLoad(@NotNull LoadAdError loadAdError) {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
+        mLatencyTracker.onLoadCompleted(false);
         String adapterError;
         IronSourceError ironSourceErrorObject;
 
@@ -92,7 +107,9 @@ public class AdMobBannerAdListener implements AdLoadCallback<BannerAd>, BannerAd
     // Called when impression is recorded for the ad
     @Override
     public void onAdImpression() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -105,7 +122,9 @@ public class AdMobBannerAdListener implements AdLoadCallback<BannerAd>, BannerAd
     // banner was clicked
     @Override
     public void onAdClicked() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -118,7 +137,9 @@ public class AdMobBannerAdListener implements AdLoadCallback<BannerAd>, BannerAd
     //ad opened an overlay that covers the screen after a click
     @Override
     public void onAdShowedFullScreenContent() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -131,7 +152,9 @@ public class AdMobBannerAdListener implements AdLoadCallback<BannerAd>, BannerAd
     // the user is about to return to the app after clicking on an ad.
     @Override
     public void onAdDismissedFullScreenContent() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -15,8 +15,12 @@ import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAd;
 import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAdLoader;
 import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAdRequest;
 import com.ironsource.adapters.admob.AdMobAdapter;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.BannerLayouts;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LeakTracker;
+import com.ironsource.adapters.common.MainThreadScheduler;
 import com.ironsource.environment.ContextProvider;
-import com.ironsource.mediationsdk.AdapterUtils;
 import com.ironsource.mediationsdk.ISBannerSize;
 import com.ironsource.mediationsdk.adapter.AbstractBannerAdapter;
 import com.ironsource.mediationsdk.bidding.BiddingDataCallback;
@@ -35,12 +39,16 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class AdMobBannerAdapter extends AbstractBannerAdapter<AdMobAdapter> {
 
+    private static final LeakTracker mLeakTracker = LeakTracker.forNetwork(AdMobAdapter.NETWORK_NAME);
+
     private static final String IS_NATIVE = "isNative";
+    private static final String NATIVE_BANNER_VIEW_POOL_SIZE = "nativeBannerViewPoolSize";
 
     // Banner maps
     private final ConcurrentHashMap<String, BannerSmashListener> mAdUnitIdToListener;
     private final ConcurrentHashMap<String, AdView> mAdUnitIdToBannerAd;
     public final ConcurrentHashMap<String, NativeAd> mAdUnitIdToNativeBannerAd;
+    final ConcurrentHashMap<String, AdMobNativeBannerViewHandler> mAdUnitIdToNativeBannerViewHandler;
 
     public AdMobBannerAdapter(AdMobAdapter adapter) {
         super(adapter);
@@ -48,6 +56,7 @@ public class AdMobBannerAdapter extends AbstractBannerAdapter<AdMobAdapter> {
         mAdUnitIdToListener = new ConcurrentHashMap<>();
         mAdUnitIdToBannerAd = new ConcurrentHashMap<>();
         mAdUnitIdToNativeBannerAd = new ConcurrentHashMap<>();
+        mAdUnitIdToNativeBannerViewHandler = new ConcurrentHashMap<>();
 
     }
 
@@ -69,16 +78,22 @@ public class AdMobBannerAdapter extends AbstractBannerAdapter<AdMobAdapter> {
             listener.onBannerInitFailed(error);
             return;
         }
-        IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        }
 
         //add banner to listener map
         mAdUnitIdToListener.put(adUnitId, listener);
 
         if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_SUCCESS) {
-            IronLog.INTERNAL.verbose("onBannerInitSuccess - adUnitId = " + adUnitId);
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("onBannerInitSuccess - adUnitId = " + adUnitId);
+            }
             listener.onBannerInitSuccess();
-        } else if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_FAILED) {
-            IronLog.INTERNAL.verbose("onBannerInitFailed - adUnitId = " + adUnitId);
+        } else if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_FAILED && !getAdapter().canRetryInit()) {
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("onBannerInitFailed - adUnitId = " + adUnitId);
+            }
             listener.onBannerInitFailed(ErrorBuilder.buildInitFailedError("AdMob sdk init failed", IronSourceConstants.BANNER_AD_UNIT));
         } else {
             getAdapter().initSDK(config);
@@ -111,7 +126,9 @@ public class AdMobBannerAdapter extends AbstractBannerAdapter<AdMobAdapter> {
 
     private void loadBannerInternal(@NonNull final JSONObject config, final JSONObject adData, final String serverData, @NonNull final ISBannerSize bannerSize, @NonNull final BannerSmashListener listener) {
         final String adUnitId = getConfigStringValueFromKey(config, getAdapter().getAdUnitIdKey());
-        IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        }
 
         // check banner
         if (bannerSize == null) {
@@ -122,7 +139,7 @@ public class AdMobBannerAdapter extends AbstractBannerAdapter<AdMobAdapter> {
 
         final boolean isNative = Boolean.parseBoolean(getConfigStringValueFromKey(config, IS_NATIVE));
 
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
                 try {
@@ -130,7 +147,7 @@ public class AdMobBannerAdapter extends AbstractBannerAdapter<AdMobAdapter> {
                         loadNativeBanner(bannerSize, listener, adUnitId, serverData, config);
                     } else {
                         //get banner size
-                        final AdSize adMobBannerSize = getAdSize(bannerSize, AdapterUtils.isLargeScreen(ContextProvider.getInstance().getApplicationContext()));
+                        final AdSize adMobBannerSize = getAdSize(bannerSize, BannerLayouts.isLargeScreen(ContextProvider.getInstance().getApplicationContext()));
 
                         if (adMobBannerSize == null) {
                             listener.onBannerAdLoadFailed(ErrorBuilder.unsupportedBannerSize(getAdapter().getProviderName()));
@@ -164,16 +181,23 @@ public class AdMobBannerAdapter extends AbstractBannerAdapter<AdMobAdapter> {
 
     private void loadNativeBanner(ISBannerSize bannerSize, BannerSmashListener listener, String adUnitId, String serverData, JSONObject config) {
         // verify size
-        if (!isNativeBannerSizeSupported(bannerSize, AdapterUtils.isLargeScreen(ContextProvider.getInstance().getApplicationContext()))) {
+        if (!isNativeBannerSizeSupported(bannerSize, BannerLayouts.isLargeScreen(ContextProvider.getInstance().getApplicationContext()))) {
             IronLog.INTERNAL.error("size not supported, size = " + bannerSize.getDescription());
             listener.onBannerAdLoadFailed(ErrorBuilder.unsupportedBannerSize(getAdapter().getProviderName()));
             return;
         }
 
-        IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        }
 
         NativeTemplateType templateType = NativeTemplateType.createTemplateType(config, bannerSize);
 
+        // the number of inflated templates kept per template and size for the next refreshes
+        if (config.has(NATIVE_BANNER_VIEW_POOL_SIZE)) {
+            AdMobNativeBannerViewPool.setMaxViewsPerKey(config.optInt(NATIVE_BANNER_VIEW_POOL_SIZE, -1));
+        }
+
         AdMobNativeBannerAdListener adMobNativeBannerAdListener = new AdMobNativeBannerAdListener(AdMobBannerAdapter.this, listener, adUnitId, bannerSize, templateType);
 
         VideoOptions videoOptions = new VideoOptions.Builder()
@@ -196,12 +220,14 @@ public class AdMobBannerAdapter extends AbstractBannerAdapter<AdMobAdapter> {
 
     // destroy banner ad and clear banner ad map
     public void destroyBanner(@NonNull final JSONObject config) {
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
                 try {
                     final String adUnitId = getConfigStringValueFromKey(config, getAdapter().getAdUnitIdKey());
-                    IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+                    if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                        IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+                    }
 
                     // Banner
                     if (mAdUnitIdToBannerAd.containsKey(adUnitId)) {
@@ -209,6 +235,7 @@ public class AdMobBannerAdapter extends AbstractBannerAdapter<AdMobAdapter> {
 
                         if (ad != null) {
                             ad.destroy();
+                            mLeakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, ad);
                         }
 
                         mAdUnitIdToBannerAd.remove(adUnitId);
@@ -220,10 +247,18 @@ public class AdMobBannerAdapter extends AbstractBannerAdapter<AdMobAdapter> {
 
                         if (ad != null) {
                             ad.destroy();
+                            mLeakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.AD, ad);
                         }
 
                         mAdUnitIdToNativeBannerAd.remove(adUnitId);
                     }
+
+                    // Return the native banner view to the pool once its ad is destroyed,
+                    // pooled views are retained on purpose and are not watched for leaks
+                    AdMobNativeBannerViewHandler nativeBannerViewHandler = mAdUnitIdToNativeBannerViewHandler.remove(adUnitId);
+                    if (nativeBannerViewHandler != null) {
+                        nativeBannerViewHandler.recycle();
+                    }
                 } catch (Exception e) {
                     IronLog.ADAPTER_API.error("e = " + e);
                 }
@@ -239,10 +274,12 @@ public class AdMobBannerAdapter extends AbstractBannerAdapter<AdMobAdapter> {
 
             if (bannerSize != null) {
                 if (bannerSize.isAdaptive()) {
-                    AdSize adMobBannerSize = getAdSize(bannerSize, AdapterUtils.isLargeScreen(ContextProvider.getInstance().getApplicationContext()));
+                    AdSize adMobBannerSize = getAdSize(bannerSize, BannerLayouts.isLargeScreen(ContextProvider.getInstance().getApplicationContext()));
                     extras.putInt("adaptive_banner_w", adMobBannerSize.getWidth());
                     extras.putInt("adaptive_banner_h", adMobBannerSize.getHeight());
-                    IronLog.ADAPTER_API.verbose("adaptive banner width = " + adMobBannerSize.getWidth() + ", height = " + adMobBannerSize.getHeight());
+                    if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                        IronLog.ADAPTER_API.verbose("adaptive banner width = " + adMobBannerSize.getWidth() + ", height = " + adMobBannerSize.getHeight());
+                    }
                 }
             }
         }
@@ -252,7 +289,9 @@ public class AdMobBannerAdapter extends AbstractBannerAdapter<AdMobAdapter> {
     @Override
     public int getAdaptiveHeight(int width) {
         int height = getAdaptiveBannerSize(width).getHeight();
-        IronLog.ADAPTER_API.verbose("height - " + height + " for width - " + width);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("height - " + height + " for width - " + width);
+        }
         return height;
     }
 
@@ -290,12 +329,14 @@ public class AdMobBannerAdapter extends AbstractBannerAdapter<AdMobAdapter> {
             AdSize adMobAdaptiveSize = getAdaptiveBannerSize(levelPlayAdaptiveSize.getWidth());
 
             if (adMobAdaptiveSize != null) {
-                IronLog.INTERNAL.verbose(
-                    "default height - " + adSize.getHeight() +
-                        " adMobAdaptive height - " + adMobAdaptiveSize.getHeight() +
-                        " levelPlayAdaptive height - " + levelPlayAdaptiveSize.getHeight() +
-                        " default width - " + adSize.getWidth() +
-                        " levelPlayAdaptive width - " + levelPlayAdaptiveSize.getWidth());
+                if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                    IronLog.INTERNAL.verbose(
+                        "default height - " + adSize.getHeight() +
+                            " adMobAdaptive height - " + adMobAdaptiveSize.getHeight() +
+                            " levelPlayAdaptive height - " + levelPlayAdaptiveSize.getHeight() +
+                            " default width - " + adSize.getWidth() +
+                            " levelPlayAdaptive width - " + levelPlayAdaptiveSize.getWidth());
+                }
 
                 return adMobAdaptiveSize;
             }
@@ -9,6 +9,10 @@ import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAd;
 import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAdEventCallback;
 import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAdLoaderCallback;
 import com.ironsource.adapters.admob.AdMobAdapter;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LatencyTracker;
+import com.ironsource.adapters.common.MainThreadScheduler;
 import com.ironsource.environment.ContextProvider;
 import com.ironsource.mediationsdk.ISBannerSize;
 import com.ironsource.mediationsdk.logger.IronLog;
@@ -29,6 +33,8 @@ public class AdMobNativeBannerAdListener implements NativeAdLoaderCallback, Nati
     private final BannerSmashListener mListener;
     private final ISBannerSize mBannerSize;
     private final NativeTemplateType mTemplateType;
+    // Times the load from the creation of the listener, which is created right before the SDK load
+    private final LatencyTracker mLatencyTracker;
 
     AdMobNativeBannerAdListener(AdMobBannerAdapter adapter, BannerSmashListener listener, String adUnitId, ISBannerSize bannerSize, NativeTemplateType templateType) {
         mBannerAdapter = new WeakReference<>(adapter);
@@ -36,12 +42,17 @@ public class AdMobNativeBannerAdListener implements NativeAdLoaderCallback, Nati
         mAdUnitId = adUnitId;
         mBannerSize = bannerSize;
         mTemplateType = templateType;
+        mLatencyTracker = new LatencyTracker(AdMobAdapter.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER);
+        mLatencyTracker.onLoadStarted();
     }
 
     @Override
     public void onNativeAdLoaded(@NotNull final NativeAd nativeAd) {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
-        AdMobAdapter.postOnUIThread(new Runnable() {
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
+        mLatencyTracker.onLoadCompleted(true);
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
 
@@ -63,8 +74,9 @@ public class AdMobNativeBannerAdListener implements NativeAdLoaderCallback, Nati
                 AdMobNativeBannerViewBinder nativeBannerBinder = new AdMobNativeBannerViewBinder();
                 nativeBannerBinder.bindView(nativeAd, nativeBannerHandler.getNativeAdView(), mTemplateType);
 
-                //add native banner ad to map
+                //add native banner ad and its view to maps
                 mBannerAdapter.get().mAdUnitIdToNativeBannerAd.put(mAdUnitId, nativeAd);
+                mBannerAdapter.get().mAdUnitIdToNativeBannerViewHandler.put(mAdUnitId, nativeBannerHandler);
 
                 ResponseInfo responseInfo = nativeAd.getResponseInfo();
                 String creativeId = (responseInfo != null) ? responseInfo.getResponseId() : null;
@@ -74,7 +86,9 @@ public class AdMobNativeBannerAdListener implements NativeAdLoaderCallback, Nati
                 } else {
                     Map<String, Object> extraData = new HashMap<>();
                     extraData.put(AdMobAdapter.CREATIVE_ID_KEY, creativeId);
-                    IronLog.ADAPTER_CALLBACK.verbose(AdMobAdapter.CREATIVE_ID_KEY + " = " + creativeId);
+                    if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+                        IronLog.ADAPTER_CALLBACK.verbose(AdMobAdapter.CREATIVE_ID_KEY + " = " + creativeId);
+                    }
                     mListener.onBannerAdLoaded(nativeBannerHandler.getNativeAdView(), nativeBannerHandler.getLayoutParams(), extraData);
               }
             }
@@ -84,7 +98,10 @@ public class AdMobNativeBannerAdListener implements NativeAdLoaderCallback, Nati
     // ad request failed
     @Override
     public void onAdFailedToLoad(@NotNull LoadAdError loadAdError) {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
+        mLatencyTracker.onLoadCompleted(false);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -103,7 +120,9 @@ public class AdMobNativeBannerAdListener implements NativeAdLoaderCallback, Nati
 
     @Override
     public void onAdImpression() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -116,7 +135,9 @@ public class AdMobNativeBannerAdListener implements NativeAdLoaderCallback, Nati
     // banner was clicked
     @Override
     public void onAdClicked() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -129,7 +150,9 @@ public class AdMobNativeBannerAdListener implements NativeAdLoaderCallback, Nati
     //ad opened an overlay that covers the screen after a click
     @Override
     public void onAdShowedFullScreenContent() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -142,7 +165,9 @@ public class AdMobNativeBannerAdListener implements NativeAdLoaderCallback, Nati
     // the user is about to return to the app after clicking on an ad.
     @Override
     public void onAdDismissedFullScreenContent() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
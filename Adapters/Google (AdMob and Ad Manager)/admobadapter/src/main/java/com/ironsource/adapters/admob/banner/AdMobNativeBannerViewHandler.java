@@ -2,14 +2,13 @@ package com.ironsource.adapters.admob.banner;
 
 import android.content.Context;
 import android.view.Gravity;
-import android.view.LayoutInflater;
 import android.widget.FrameLayout;
 
 import com.google.android.libraries.ads.mobile.sdk.common.AdChoicesPlacement;
 import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAd;
 import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAdView;
 import com.ironsource.adapters.admob.R;
-import com.ironsource.mediationsdk.AdapterUtils;
+import com.ironsource.adapters.common.BannerLayouts;
 import com.ironsource.mediationsdk.ISBannerSize;
 
 import org.json.JSONObject;
@@ -83,26 +82,26 @@ public class AdMobNativeBannerViewHandler {
     private final NativeAdView mAdView;
     private FrameLayout.LayoutParams mLayoutParams;
     private NativeTemplateType mTemplateType;
+    private final String mSizeDescription;
 
     public AdMobNativeBannerViewHandler(ISBannerSize bannerSize, NativeTemplateType templateType, Context context) {
 
         mTemplateType = templateType;
+        mSizeDescription = bannerSize.getDescription();
 
         switch (bannerSize.getDescription()) {
             case "BANNER":
             case "SMART":
-                mLayoutParams = new FrameLayout.LayoutParams(AdapterUtils.dpToPixels(context, 320), AdapterUtils.dpToPixels(context, 50));
+                mLayoutParams = BannerLayouts.layoutParams(context, BannerLayouts.StandardSize.BANNER, Gravity.CENTER);
                 break;
             case "LARGE":
-                mLayoutParams = new FrameLayout.LayoutParams(AdapterUtils.dpToPixels(context, 320), AdapterUtils.dpToPixels(context, 90));
+                mLayoutParams = BannerLayouts.layoutParams(context, BannerLayouts.StandardSize.LARGE, Gravity.CENTER);
                 break;
             case "RECTANGLE":
-                mLayoutParams = new FrameLayout.LayoutParams(AdapterUtils.dpToPixels(context, 300), AdapterUtils.dpToPixels(context, 250));
+                mLayoutParams = BannerLayouts.layoutParams(context, BannerLayouts.StandardSize.RECTANGLE, Gravity.CENTER);
                 break;
         }
-        mLayoutParams.gravity = Gravity.CENTER;
-        LayoutInflater inflater = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-        mAdView = (NativeAdView) inflater.inflate(mTemplateType.getLayoutId(), null);
+        mAdView = AdMobNativeBannerViewPool.acquire(mTemplateType, mSizeDescription, context);
     }
 
     public FrameLayout.LayoutParams getLayoutParams() {
@@ -112,4 +111,9 @@ public class AdMobNativeBannerViewHandler {
     public NativeAdView getNativeAdView() {
         return mAdView;
     }
+
+    // returns the view to the pool, must be called after the native ad bound to it was destroyed
+    void recycle() {
+        AdMobNativeBannerViewPool.release(mTemplateType, mSizeDescription, mAdView);
+    }
 }
@@ -0,0 +1,142 @@
+package com.ironsource.adapters.admob.banner;
+
+import static android.view.View.VISIBLE;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import com.google.android.libraries.ads.mobile.sdk.nativead.MediaView;
+import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAdView;
+import com.ironsource.adapters.admob.R;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.mediationsdk.logger.IronLog;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the inflated native banner templates of destroyed banners so the next refresh of the
+ * same template and size reuses them instead of inflating the layout again.
+ * Views are inflated with the application context, and the pool is accessed on the UI thread only.
+ */
+final class AdMobNativeBannerViewPool {
+
+    private static final int DEFAULT_MAX_VIEWS_PER_KEY = 2;
+
+    private static final Map<String, ArrayDeque<NativeAdView>> mPool = new HashMap<>();
+    private static int mMaxViewsPerKey = DEFAULT_MAX_VIEWS_PER_KEY;
+    private static long mHits = 0;
+    private static long mMisses = 0;
+
+    private AdMobNativeBannerViewPool() {
+    }
+
+    static void setMaxViewsPerKey(int maxViewsPerKey) {
+        if (maxViewsPerKey < 0) {
+            return;
+        }
+
+        mMaxViewsPerKey = maxViewsPerKey;
+        for (ArrayDeque<NativeAdView> views : mPool.values()) {
+            while (views.size() > maxViewsPerKey) {
+                views.poll();
+            }
+        }
+    }
+
+    // returns a pooled view of the template and size, or inflates a new one
+    static NativeAdView acquire(NativeTemplateType templateType, String sizeDescription, Context context) {
+        ArrayDeque<NativeAdView> views = mPool.get(getKey(templateType, sizeDescription));
+        NativeAdView view = null;
+
+        while (views != null && !views.isEmpty()) {
+            NativeAdView pooledView = views.poll();
+            // a view which is still attached is still displayed and can't be reused
+            if (pooledView.getParent() == null) {
+                view = pooledView;
+                break;
+            }
+        }
+
+        if (view != null) {
+            mHits++;
+        } else {
+            mMisses++;
+            LayoutInflater inflater = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
+            view = (NativeAdView) inflater.inflate(templateType.getLayoutId(), null);
+        }
+
+        if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+            IronLog.INTERNAL.verbose("template = " + templateType + ", size = " + sizeDescription + ", hit rate = " + getHitRate());
+        }
+        return view;
+    }
+
+    // resets the view of a destroyed banner and keeps it for reuse if the pool isn't full
+    static void release(NativeTemplateType templateType, String sizeDescription, NativeAdView view) {
+        if (view == null) {
+            return;
+        }
+
+        resetView(view);
+
+        String key = getKey(templateType, sizeDescription);
+        ArrayDeque<NativeAdView> views = mPool.get(key);
+        if (views == null) {
+            views = new ArrayDeque<>();
+            mPool.put(key, views);
+        }
+
+        if (views.size() < mMaxViewsPerKey && !views.contains(view)) {
+            views.offer(view);
+        }
+    }
+
+    // ratio of acquired views which were reused
+    static double getHitRate() {
+        long total = mHits + mMisses;
+        return total == 0 ? 0 : (double) mHits / total;
+    }
+
+    // returns the view to the state it was inflated in, so the binder of the next ad starts from
+    // the layout defaults and no asset, media or registration of the destroyed ad is kept
+    private static void resetView(NativeAdView view) {
+        view.setIconView(null);
+        view.setHeadlineView(null);
+        view.setAdvertiserView(null);
+        view.setBodyView(null);
+        view.setCallToActionView(null);
+
+        ImageView iconView = view.findViewById(R.id.ad_app_icon);
+        if (iconView != null) {
+            iconView.setImageDrawable(null);
+            iconView.setVisibility(VISIBLE);
+        }
+
+        resetTextView(view.findViewById(R.id.ad_headline));
+        resetTextView(view.findViewById(R.id.ad_advertiser));
+        resetTextView(view.findViewById(R.id.ad_body));
+        resetTextView(view.findViewById(R.id.ad_call_to_action));
+
+        MediaView mediaView = view.findViewById(R.id.ad_media);
+        if (mediaView != null) {
+            // drops the image or video player of the destroyed ad's media content
+            mediaView.removeAllViews();
+            mediaView.setVisibility(VISIBLE);
+        }
+    }
+
+    private static void resetTextView(TextView textView) {
+        if (textView != null) {
+            textView.setText(null);
+            textView.setVisibility(VISIBLE);
+        }
+    }
+
+    private static String getKey(NativeTemplateType templateType, String sizeDescription) {
+        return templateType.name() + "_" + sizeDescription;
+    }
+}
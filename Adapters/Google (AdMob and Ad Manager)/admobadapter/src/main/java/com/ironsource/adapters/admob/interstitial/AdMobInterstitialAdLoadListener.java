@@ -7,6 +7,9 @@ import com.google.android.libraries.ads.mobile.sdk.common.LoadAdError;
 import com.google.android.libraries.ads.mobile.sdk.common.ResponseInfo;
 import com.google.android.libraries.ads.mobile.sdk.interstitial.InterstitialAd;
 import com.ironsource.adapters.admob.AdMobAdapter;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LatencyTracker;
 import com.ironsource.mediationsdk.logger.IronLog;
 import com.ironsource.mediationsdk.logger.IronSourceError;
 import com.ironsource.mediationsdk.sdk.InterstitialSmashListener;
@@ -24,18 +27,25 @@ public class AdMobInterstitialAdLoadListener implements AdLoadCallback<Interstit
     private final WeakReference<AdMobInterstitialAdapter> mAdapter;
     private final String mAdUnitId;
     private final InterstitialSmashListener mListener;
+    // Times the load from the creation of the listener, which is created right before the SDK load
+    private final LatencyTracker mLatencyTracker;
 
 
     AdMobInterstitialAdLoadListener(AdMobInterstitialAdapter adapter, String adUnitId, InterstitialSmashListener listener) {
         mAdapter = new WeakReference<>(adapter);
         mAdUnitId = adUnitId;
         mListener = listener;
+        mLatencyTracker = new LatencyTracker(AdMobAdapter.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL);
+        mLatencyTracker.onLoadStarted();
     }
 
     //interstitial ad was loaded
     @Override
     public void onAdLoaded(@NotNull InterstitialAd interstitialAd) {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
+        mLatencyTracker.onLoadCompleted(true);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -56,7 +66,9 @@ public class AdMobInterstitialAdLoadListener implements AdLoadCallback<Interstit
         } else {
           Map<String, Object> extraData = new HashMap<>();
           extraData.put(AdMobAdapter.CREATIVE_ID_KEY, creativeId);
-          IronLog.ADAPTER_CALLBACK.verbose(AdMobAdapter.CREATIVE_ID_KEY + " = " + creativeId);
+          if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+              IronLog.ADAPTER_CALLBACK.verbose(AdMobAdapter.CREATIVE_ID_KEY + " = " + creativeId);
+          }
           mListener.onInterstitialAdReady(extraData);
         }
     }
@@ -64,7 +76,10 @@ public class AdMobInterstitialAdLoadListener implements AdLoadCallback<Interstit
     //interstitial ad failed to load
     @Override
     public void onAdFailedToLoad(@NotNull LoadAdError loadAdError) {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
+        mLatencyTracker.onLoadCompleted(false);
         String adapterError = loadAdError.getMessage() + "( " + loadAdError.getCode() + " ) ";
 
         if (mListener == null) {
@@ -2,6 +2,10 @@ package com.ironsource.adapters.admob.interstitial;
 
 import com.google.android.libraries.ads.mobile.sdk.common.FullScreenContentError;
 import com.google.android.libraries.ads.mobile.sdk.interstitial.InterstitialAdEventCallback;
+import com.ironsource.adapters.admob.AdMobAdapter;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LatencyTracker;
 import com.ironsource.mediationsdk.logger.IronLog;
 import com.ironsource.mediationsdk.logger.IronSourceError;
 import com.ironsource.mediationsdk.sdk.InterstitialSmashListener;
@@ -13,22 +17,31 @@ public class AdMobInterstitialAdShowListener implements InterstitialAdEventCallb
     // data
     private InterstitialSmashListener mListener;
     private String mAdUnitId;
+    // Times the show from the creation of the listener, which is created right before the SDK show
+    private final LatencyTracker mLatencyTracker;
 
     AdMobInterstitialAdShowListener(String adUnitId, InterstitialSmashListener listener) {
         mListener = listener;
         mAdUnitId = adUnitId;
+        mLatencyTracker = new LatencyTracker(AdMobAdapter.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL);
+        mLatencyTracker.onShowStarted();
     }
 
     // Called when fullscreen content is shown.
     @Override
     public void onAdShowedFullScreenContent() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
     }
 
     // Called when fullscreen content failed to show.
     @Override
     public void onAdFailedToShowFullScreenContent(@NotNull FullScreenContentError error) {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
+        mLatencyTracker.onShowCompleted(false);
 
         String adapterError = error.getMessage() + "( " + error.getCode() + " )";
 
@@ -44,7 +57,10 @@ public class AdMobInterstitialAdShowListener implements InterstitialAdEventCallb
     // Called when impression is recorded for the ad
     @Override
     public void onAdImpression() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
+        mLatencyTracker.onShowCompleted(true);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -58,7 +74,9 @@ public class AdMobInterstitialAdShowListener implements InterstitialAdEventCallb
     // Called when an ad was clicked
     @Override
     public void onAdClicked() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -71,7 +89,9 @@ public class AdMobInterstitialAdShowListener implements InterstitialAdEventCallb
     // Called when fullscreen content is dismissed.
     @Override
     public void onAdDismissedFullScreenContent() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -8,6 +8,10 @@ import com.google.android.libraries.ads.mobile.sdk.common.AdFormat;
 import com.google.android.libraries.ads.mobile.sdk.common.AdRequest;
 import com.google.android.libraries.ads.mobile.sdk.interstitial.InterstitialAd;
 import com.ironsource.adapters.admob.AdMobAdapter;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LeakTracker;
+import com.ironsource.adapters.common.MainThreadScheduler;
 import com.ironsource.environment.ContextProvider;
 import com.ironsource.mediationsdk.adapter.AbstractInterstitialAdapter;
 import com.ironsource.mediationsdk.bidding.BiddingDataCallback;
@@ -23,6 +27,8 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class AdMobInterstitialAdapter extends AbstractInterstitialAdapter<AdMobAdapter> {
 
+    private static final LeakTracker mLeakTracker = LeakTracker.forNetwork(AdMobAdapter.NETWORK_NAME);
+
     private final ConcurrentHashMap<String, InterstitialSmashListener> mAdUnitIdToListener;
     private final ConcurrentHashMap<String, InterstitialAd> mAdUnitIdToAd;
     private final ConcurrentHashMap<String, Boolean> mAdUnitIdToAdsAvailability; //used to check if an ad is available
@@ -54,16 +60,22 @@ public class AdMobInterstitialAdapter extends AbstractInterstitialAdapter<AdMobA
             return;
         }
 
-        IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        }
 
         //add to interstitial listener map
         mAdUnitIdToListener.put(adUnitId, listener);
 
         if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_SUCCESS) {
-            IronLog.INTERNAL.verbose("onInterstitialInitSuccess - adUnitId = " + adUnitId);
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("onInterstitialInitSuccess - adUnitId = " + adUnitId);
+            }
             listener.onInterstitialInitSuccess();
-        } else if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_FAILED) {
-            IronLog.INTERNAL.verbose("onInterstitialInitFailed - adUnitId = " + adUnitId);
+        } else if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_FAILED && !getAdapter().canRetryInit()) {
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("onInterstitialInitFailed - adUnitId = " + adUnitId);
+            }
             listener.onInterstitialInitFailed(ErrorBuilder.buildInitFailedError("AdMob sdk init failed", IronSourceConstants.INTERSTITIAL_AD_UNIT));
         } else {
             getAdapter().initSDK(config);
@@ -96,11 +108,13 @@ public class AdMobInterstitialAdapter extends AbstractInterstitialAdapter<AdMobA
     }
 
     private void loadInterstitialInternal(@NonNull final JSONObject config, final JSONObject adData, final String serverData, @NonNull final InterstitialSmashListener listener) {
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
                 final String adUnitId = getConfigStringValueFromKey(config, getAdapter().getAdUnitIdKey());
-                IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+                }
 
                 // set the interstitial ad availability to false before attempting to load
                 mAdUnitIdToAdsAvailability.put(adUnitId, false);
@@ -121,11 +135,13 @@ public class AdMobInterstitialAdapter extends AbstractInterstitialAdapter<AdMobA
     @Override
     public void showInterstitial(@NonNull final JSONObject config,
                                  @NonNull final InterstitialSmashListener listener) {
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
                 final String adUnitId = getConfigStringValueFromKey(config, getAdapter().getAdUnitIdKey());
-                IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+                }
                 InterstitialAd interstitialAd = getInterstitialAd(adUnitId);
                 // Show the ad if it's ready.
                 if (isInterstitialReadyForAdUnitId(adUnitId) && interstitialAd != null) {
@@ -165,7 +181,11 @@ public class AdMobInterstitialAdapter extends AbstractInterstitialAdapter<AdMobA
 
     public void onInterstitialAdLoaded(String adUnitId, InterstitialAd interstitialAd) {
         //add interstitial ad to maps
-        mAdUnitIdToAd.put(adUnitId, interstitialAd);
+        InterstitialAd replacedAd = mAdUnitIdToAd.put(adUnitId, interstitialAd);
+        // the previous ad of the ad unit is released once a new one is loaded
+        if (replacedAd != null && replacedAd != interstitialAd) {
+            mLeakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, replacedAd);
+        }
         mAdUnitIdToAdsAvailability.put(adUnitId, true);
     }
 
@@ -8,6 +8,10 @@ import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAd;
 import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAdLoader;
 import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAdRequest;
 import com.ironsource.adapters.admob.AdMobAdapter;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LeakTracker;
+import com.ironsource.adapters.common.MainThreadScheduler;
 import com.ironsource.mediationsdk.adapter.AbstractNativeAdAdapter;
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdOptionsPosition;
 import com.ironsource.mediationsdk.adunit.adapter.utility.NativeAdProperties;
@@ -24,6 +28,8 @@ import java.lang.ref.WeakReference;
 
 public class AdMobNativeAdAdapter extends AbstractNativeAdAdapter<AdMobAdapter> {
 
+    private static final LeakTracker mLeakTracker = LeakTracker.forNetwork(AdMobAdapter.NETWORK_NAME);
+
     protected WeakReference<NativeAd> mAd;
     private NativeAdSmashListener mSmashListener;
 
@@ -51,17 +57,23 @@ public class AdMobNativeAdAdapter extends AbstractNativeAdAdapter<AdMobAdapter>
             return;
         }
 
-        IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        }
         mSmashListener = listener;
 
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
                 if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_SUCCESS) {
-                    IronLog.INTERNAL.verbose("onNativeAdInitSuccess - adUnitId = " + adUnitId);
+                    if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                        IronLog.INTERNAL.verbose("onNativeAdInitSuccess - adUnitId = " + adUnitId);
+                    }
                     listener.onNativeAdInitSuccess();
-                } else if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_FAILED) {
-                    IronLog.INTERNAL.verbose("onNativeAdInitFailed - adUnitId = " + adUnitId);
+                } else if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_FAILED && !getAdapter().canRetryInit()) {
+                    if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                        IronLog.INTERNAL.verbose("onNativeAdInitFailed - adUnitId = " + adUnitId);
+                    }
                     listener.onNativeAdInitFailed(ErrorBuilder.buildInitFailedError("AdMob sdk init failed", IronSourceConstants.NATIVE_AD_UNIT));
                 } else {
                     getAdapter().initSDK(config);
@@ -97,9 +109,11 @@ public class AdMobNativeAdAdapter extends AbstractNativeAdAdapter<AdMobAdapter>
         final String adUnitIdKey = getAdapter().getAdUnitIdKey();
         final String adUnitId = getConfigStringValueFromKey(config, adUnitIdKey);
 
-        IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        }
         final NativeAdProperties nativeAdProperties = getNativeAdProperties(config);
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
                 try {
@@ -124,9 +138,11 @@ public class AdMobNativeAdAdapter extends AbstractNativeAdAdapter<AdMobAdapter>
     @Override
     public void destroyNativeAd(@NonNull JSONObject config) {
         final String adUnitId = getConfigStringValueFromKey(config, getAdapter().getAdUnitIdKey());
-        IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        }
 
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
 
@@ -139,6 +155,7 @@ public class AdMobNativeAdAdapter extends AbstractNativeAdAdapter<AdMobAdapter>
                     NativeAd nativeAd = mAd.get();
                     nativeAd.destroy();
                     mAd = null;
+                    mLeakTracker.watch(LatencyMetrics.AdFormat.NATIVE, LeakTracker.ObjectType.AD, nativeAd);
 
                 } catch (Exception e) {
                     IronLog.INTERNAL.error("destroyNativeAd failed for adUnitId - " + adUnitId + " with an exception = " + e);
@@ -1,6 +1,7 @@
 package com.ironsource.adapters.admob.nativead;
 
 import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAd;
+import com.ironsource.adapters.common.AdapterLogs;
 import com.ironsource.mediationsdk.ads.nativead.AdapterNativeAdData;
 import com.ironsource.mediationsdk.logger.IronLog;
 
@@ -14,27 +15,35 @@ public class AdMobNativeAdData extends AdapterNativeAdData {
 
     @Override
     public String getTitle() {
-        IronLog.ADAPTER_CALLBACK.verbose("headline = " + mNativeAd.getHeadline());
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("headline = " + mNativeAd.getHeadline());
+        }
 
         return mNativeAd.getHeadline();
     }
 
     @Override
     public String getAdvertiser() {
-        IronLog.ADAPTER_CALLBACK.verbose("advertiser = " + mNativeAd.getAdvertiser());
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("advertiser = " + mNativeAd.getAdvertiser());
+        }
 
         return mNativeAd.getAdvertiser();
     }
 
     @Override
     public String getBody() {
-        IronLog.ADAPTER_CALLBACK.verbose("body = " + mNativeAd.getBody());
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("body = " + mNativeAd.getBody());
+        }
         return mNativeAd.getBody();
     }
 
     @Override
     public String getCallToAction() {
-        IronLog.ADAPTER_CALLBACK.verbose("cta = " + mNativeAd.getCallToAction());
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("cta = " + mNativeAd.getCallToAction());
+        }
 
         return mNativeAd.getCallToAction();
     }
@@ -42,7 +51,9 @@ public class AdMobNativeAdData extends AdapterNativeAdData {
     @Override
     public Image getIcon() {
         if (mNativeAd.getIcon() != null) {
-            IronLog.ADAPTER_CALLBACK.verbose("icon uri = " + mNativeAd.getIcon().getUri());
+            if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+                IronLog.ADAPTER_CALLBACK.verbose("icon uri = " + mNativeAd.getIcon().getUri());
+            }
             return new Image(mNativeAd.getIcon().getDrawable(), mNativeAd.getIcon().getUri());
         }
         return null;
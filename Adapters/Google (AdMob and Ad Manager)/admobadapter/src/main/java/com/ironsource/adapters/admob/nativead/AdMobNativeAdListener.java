@@ -5,6 +5,9 @@ import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAd;
 import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAdEventCallback;
 import com.google.android.libraries.ads.mobile.sdk.nativead.NativeAdLoaderCallback;
 import com.ironsource.adapters.admob.AdMobAdapter;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LatencyTracker;
 import com.ironsource.mediationsdk.ads.nativead.AdapterNativeAdData;
 import com.ironsource.mediationsdk.adunit.adapter.internal.nativead.AdapterNativeAdViewBinder;
 import com.ironsource.mediationsdk.ads.nativead.interfaces.NativeAdSmashListener;
@@ -21,17 +24,24 @@ public class AdMobNativeAdListener implements NativeAdLoaderCallback, NativeAdEv
     private final WeakReference<AdMobNativeAdAdapter> mAdapter;
     private final String mAdUnitId;
     private final NativeAdSmashListener mListener;
+    // Times the load from the creation of the listener, which is created right before the SDK load
+    private final LatencyTracker mLatencyTracker;
 
     AdMobNativeAdListener(AdMobNativeAdAdapter adapter, String adUnitId, NativeAdSmashListener listener) {
         mAdapter = new WeakReference<>(adapter);
         mAdUnitId = adUnitId;
         mListener = listener;
+        mLatencyTracker = new LatencyTracker(AdMobAdapter.NETWORK_NAME, LatencyMetrics.AdFormat.NATIVE);
+        mLatencyTracker.onLoadStarted();
     }
 
     // ad finished loading
     @Override
     public void onNativeAdLoaded(@NotNull NativeAd nativeAd) {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
+        mLatencyTracker.onLoadCompleted(true);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -56,7 +66,10 @@ public class AdMobNativeAdListener implements NativeAdLoaderCallback, NativeAdEv
 
     @Override
     public void onAdFailedToLoad(@NotNull LoadAdError loadAdError) {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
+        mLatencyTracker.onLoadCompleted(false);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -76,7 +89,9 @@ public class AdMobNativeAdListener implements NativeAdLoaderCallback, NativeAdEv
 
     @Override
     public void onAdImpression() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -88,7 +103,9 @@ public class AdMobNativeAdListener implements NativeAdLoaderCallback, NativeAdEv
 
     @Override
     public void onAdClicked() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -100,11 +117,15 @@ public class AdMobNativeAdListener implements NativeAdLoaderCallback, NativeAdEv
 
     @Override
     public void onAdShowedFullScreenContent() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
     }
 
     @Override
     public void onAdDismissedFullScreenContent() {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
     }
 }
@@ -6,6 +6,9 @@ import com.google.android.libraries.ads.mobile.sdk.common.LoadAdError;
 import com.google.android.libraries.ads.mobile.sdk.common.ResponseInfo;
 import com.google.android.libraries.ads.mobile.sdk.rewarded.RewardedAd;
 import com.ironsource.adapters.admob.AdMobAdapter;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LatencyTracker;
 import com.ironsource.mediationsdk.logger.IronLog;
 import com.ironsource.mediationsdk.logger.IronSourceError;
 import com.ironsource.mediationsdk.sdk.RewardedVideoSmashListener;
@@ -23,17 +26,24 @@ public class AdMobRewardedVideoAdLoadListener implements AdLoadCallback<Rewarded
     private WeakReference<AdMobRewardedVideoAdapter> mRewardedVideoAdapter;
     private RewardedVideoSmashListener mListener;
     private String mAdUnitId;
+    // Times the load from the creation of the listener, which is created right before the SDK load
+    private final LatencyTracker mLatencyTracker;
 
     AdMobRewardedVideoAdLoadListener(AdMobRewardedVideoAdapter adapter, String adUnitId, RewardedVideoSmashListener listener) {
         mRewardedVideoAdapter = new WeakReference<>(adapter);
         mAdUnitId = adUnitId;
         mListener = listener;
+        mLatencyTracker = new LatencyTracker(AdMobAdapter.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED);
+        mLatencyTracker.onLoadStarted();
     }
 
     //rewarded video ad was loaded
     @Override
     public void onAdLoaded(@NotNull RewardedAd rewardedAd) {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
+        mLatencyTracker.onLoadCompleted(true);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
@@ -55,7 +65,9 @@ public class AdMobRewardedVideoAdLoadListener implements AdLoadCallback<Rewarded
         } else {
           Map<String, Object> extraData = new HashMap<>();
           extraData.put(AdMobAdapter.CREATIVE_ID_KEY, creativeId);
-          IronLog.ADAPTER_CALLBACK.verbose(AdMobAdapter.CREATIVE_ID_KEY + " = " + creativeId);
+          if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+              IronLog.ADAPTER_CALLBACK.verbose(AdMobAdapter.CREATIVE_ID_KEY + " = " + creativeId);
+          }
           mListener.onRewardedVideoAvailabilityChanged(true, extraData);
         }
     }
@@ -63,7 +75,10 @@ public class AdMobRewardedVideoAdLoadListener implements AdLoadCallback<Rewarded
     //rewarded video ad failed to load
     @Override
     public void onAdFailedToLoad(@NotNull LoadAdError loadAdError) {
-        IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_CALLBACK)) {
+            IronLog.ADAPTER_CALLBACK.verbose("adUnitId = " + mAdUnitId);
+        }
+        mLatencyTracker.onLoadCompleted(false);
 
         if (mListener == null) {
             IronLog.INTERNAL.verbose("listener is null");
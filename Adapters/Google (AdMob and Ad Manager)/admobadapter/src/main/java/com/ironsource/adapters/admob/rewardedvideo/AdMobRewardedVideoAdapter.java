@@ -8,6 +8,10 @@ import com.google.android.libraries.ads.mobile.sdk.common.AdFormat;
 import com.google.android.libraries.ads.mobile.sdk.common.AdRequest;
 import com.google.android.libraries.ads.mobile.sdk.rewarded.RewardedAd;
 import com.ironsource.adapters.admob.AdMobAdapter;
+import com.ironsource.adapters.common.AdapterLogs;
+import com.ironsource.adapters.common.LatencyMetrics;
+import com.ironsource.adapters.common.LeakTracker;
+import com.ironsource.adapters.common.MainThreadScheduler;
 import com.ironsource.environment.ContextProvider;
 import com.ironsource.mediationsdk.adapter.AbstractRewardedVideoAdapter;
 import com.ironsource.mediationsdk.bidding.BiddingDataCallback;
@@ -24,6 +28,8 @@ import java.util.concurrent.CopyOnWriteArraySet;
 
 public class AdMobRewardedVideoAdapter extends AbstractRewardedVideoAdapter<AdMobAdapter> {
 
+    private static final LeakTracker mLeakTracker = LeakTracker.forNetwork(AdMobAdapter.NETWORK_NAME);
+
     private final ConcurrentHashMap<String, RewardedVideoSmashListener> mAdUnitIdToListener;
     private final ConcurrentHashMap<String, JSONObject> mAdUnitIdToAdData;
     private final ConcurrentHashMap<String, RewardedAd> mAdUnitIdToAd;
@@ -53,15 +59,19 @@ public class AdMobRewardedVideoAdapter extends AbstractRewardedVideoAdapter<AdMo
             return;
         }
 
-        IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        }
 
         //add to rewarded video listener map
         mAdUnitIdToListener.put(adUnitId, listener);
 
         if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_SUCCESS) {
             loadRewardedVideoAdInternal(adUnitId, adData, null, listener);
-        } else if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_FAILED) {
-            IronLog.INTERNAL.verbose("onRewardedVideoAvailabilityChanged(false) - adUnitId = " + adUnitId);
+        } else if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_FAILED && !getAdapter().canRetryInit()) {
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("onRewardedVideoAvailabilityChanged(false) - adUnitId = " + adUnitId);
+            }
             listener.onRewardedVideoAvailabilityChanged(false);
         } else {
             if (adData != null) {
@@ -84,7 +94,9 @@ public class AdMobRewardedVideoAdapter extends AbstractRewardedVideoAdapter<AdMo
             return;
         }
 
-        IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+            IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+        }
 
         //add to rewarded video listener map
         mAdUnitIdToListener.put(adUnitId, listener);
@@ -93,10 +105,14 @@ public class AdMobRewardedVideoAdapter extends AbstractRewardedVideoAdapter<AdMo
 
         // check AdMob sdk init state
         if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_SUCCESS) {
-            IronLog.INTERNAL.verbose("onRewardedVideoInitSuccess - adUnitId = " + adUnitId);
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("onRewardedVideoInitSuccess - adUnitId = " + adUnitId);
+            }
             listener.onRewardedVideoInitSuccess();
-        } else if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_FAILED) {
-            IronLog.INTERNAL.verbose("init failed - adUnitId = " + adUnitId);
+        } else if (getAdapter().getInitState() == AdMobAdapter.InitState.INIT_STATE_FAILED && !getAdapter().canRetryInit()) {
+            if (AdapterLogs.isVerboseEnabled(IronLog.INTERNAL)) {
+                IronLog.INTERNAL.verbose("init failed - adUnitId = " + adUnitId);
+            }
             listener.onRewardedVideoInitFailed(ErrorBuilder.buildInitFailedError("AdMob sdk init failed", IronSourceConstants.REWARDED_VIDEO_AD_UNIT));
         } else {
             getAdapter().initSDK(config);
@@ -141,10 +157,12 @@ public class AdMobRewardedVideoAdapter extends AbstractRewardedVideoAdapter<AdMo
     }
 
     private void loadRewardedVideoAdInternal(final String adUnitId, final JSONObject adData, final String serverData, @NonNull final RewardedVideoSmashListener listener) {
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
-                IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+                }
 
                 // set the rewarded video availability to false before attempting to load
                 mAdUnitIdToAdsAvailability.put(adUnitId, false);
@@ -165,12 +183,14 @@ public class AdMobRewardedVideoAdapter extends AbstractRewardedVideoAdapter<AdMo
     @Override
     public void showRewardedVideo(@NonNull final JSONObject config,
                                   @NonNull final RewardedVideoSmashListener listener) {
-        postOnUIThread(new Runnable() {
+        MainThreadScheduler.post(new Runnable() {
             @Override
             public void run() {
                 final String adUnitId = getConfigStringValueFromKey(config, getAdapter().getAdUnitIdKey());
                 final RewardedAd rewardedAd = getRewardedVideoAd(adUnitId);
-                IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+                if (AdapterLogs.isVerboseEnabled(IronLog.ADAPTER_API)) {
+                    IronLog.ADAPTER_API.verbose("adUnitId = " + adUnitId);
+                }
                 if (rewardedAd != null && isRewardedVideoAvailableForAdUnitId(adUnitId)) {
 
                     AdMobRewardedVideoAdShowListener adMobRewardedVideoAdShowListener = new AdMobRewardedVideoAdShowListener(adUnitId, listener);
@@ -204,7 +224,11 @@ public class AdMobRewardedVideoAdapter extends AbstractRewardedVideoAdapter<AdMo
 
     public void onRewardedVideoAdLoaded(String adUnitId, RewardedAd rewardedAd) {
         //add rewarded ad to maps
-        mAdUnitIdToAd.put(adUnitId, rewardedAd);
+        RewardedAd replacedAd = mAdUnitIdToAd.put(adUnitId, rewardedAd);
+        // the previous ad of the ad unit is released once a new one is loaded
+        if (replacedAd != null && replacedAd != rewardedAd) {
+            mLeakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, replacedAd);
+        }
         mAdUnitIdToAdsAvailability.put(adUnitId, true);
     }
 
@@ -5,6 +5,10 @@ import com.hyprmx.android.sdk.consent.ConsentStatus
 import com.hyprmx.android.sdk.core.HyprMX
 import com.hyprmx.android.sdk.utility.HyprMXLog
 import com.hyprmx.android.sdk.utility.HyprMXProperties
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -14,24 +18,15 @@ import com.ironsource.mediationsdk.metadata.MetaData
 import com.ironsource.mediationsdk.metadata.MetaDataUtils
 import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class HyprMXAdapter : LevelPlayBaseAdapter() {
 
     companion object {
         private const val GitHash: String = BuildConfig.GitHash
 
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(HyprMXConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
     }
 
     // region Adapter Methods
@@ -47,6 +42,9 @@ class HyprMXAdapter : LevelPlayBaseAdapter() {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(HyprMXConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         val distributorId = adData.getString(HyprMXConstants.DISTRIBUTOR_ID_KEY)
         val propertyId = adData.getString(HyprMXConstants.PROPERTY_ID_KEY)
 
@@ -69,56 +67,40 @@ class HyprMXAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        if (initState == InitState.INIT_STATE_FAILED) {
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(HyprMXConstants.Logs.INIT_FAILED)
             networkInitializationListener?.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, HyprMXConstants.Logs.INIT_FAILED)
             return
         }
 
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-
-            IronLog.ADAPTER_API.verbose(HyprMXConstants.Logs.DISTRIBUTOR_ID.format(distributorId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { HyprMXConstants.Logs.DISTRIBUTOR_ID.format(distributorId) }
 
             HyprMXLog.enableDebugLogs(isAdaptersDebugEnabled())
             HyprMX.setMediationProvider(HyprMXConstants.MEDIATION_NAME, LevelPlay.getSdkVersion(), HyprMXConstants.ADAPTER_VERSION)
             HyprMX.initialize(context.applicationContext, distributorId) { result ->
                 if (result.success) {
-                    onInitializationSuccess()
+                    onInitializationSuccess(attempt)
                 } else {
-                    onInitializationFailure(result.message)
+                    onInitializationFailure(attempt, result.message)
                 }
             }
         }
     }
 
-    private fun onInitializationSuccess() {
+    private fun onInitializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        initState = InitState.INIT_STATE_SUCCESS
-
-        for (listener in initListeners) {
-            listener.onInitSuccess()
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    private fun onInitializationFailure(errorMessage: String?) {
+    private fun onInitializationFailure(attempt: Int, errorMessage: String?) {
         val message = errorMessage ?: HyprMXConstants.Logs.INIT_FAILED
         IronLog.ADAPTER_CALLBACK.error(message)
 
-        initState = InitState.INIT_STATE_FAILED
-
-        for (listener in initListeners) {
-            listener.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, message)
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, message)
     }
 
     // endregion
@@ -126,7 +108,7 @@ class HyprMXAdapter : LevelPlayBaseAdapter() {
     // region Legal Methods
 
     override fun setConsent(consent: Boolean) {
-        IronLog.ADAPTER_API.verbose(HyprMXConstants.Logs.CONSENT.format(consent))
+        IronLog.ADAPTER_API.verbose { HyprMXConstants.Logs.CONSENT.format(consent) }
         HyprMX.setConsentStatus(if (consent) ConsentStatus.CONSENT_GIVEN else ConsentStatus.CONSENT_DECLINED)
     }
 
@@ -136,7 +118,7 @@ class HyprMXAdapter : LevelPlayBaseAdapter() {
         }
 
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(HyprMXConstants.Logs.KEY_VALUE.format(key, value))
+        IronLog.ADAPTER_API.verbose { HyprMXConstants.Logs.KEY_VALUE.format(key, value) }
 
         val formattedValue = MetaDataUtils.formatValueForType(
             value,
@@ -149,7 +131,7 @@ class HyprMXAdapter : LevelPlayBaseAdapter() {
     }
 
     private fun setAgeRestrictionValue(ageRestricted: Boolean) {
-        IronLog.ADAPTER_API.verbose(HyprMXConstants.Logs.AGE_RESTRICTED.format(ageRestricted))
+        IronLog.ADAPTER_API.verbose { HyprMXConstants.Logs.AGE_RESTRICTED.format(ageRestricted) }
         HyprMX.setAgeRestrictedUser(ageRestricted)
     }
 
@@ -171,7 +153,7 @@ class HyprMXAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        IronLog.ADAPTER_API.verbose(HyprMXConstants.Logs.TOKEN.format(returnedToken))
+        IronLog.ADAPTER_API.verbose { HyprMXConstants.Logs.TOKEN.format(returnedToken) }
         val biddingDataMap: MutableMap<String?, Any?> = HashMap()
         biddingDataMap[HyprMXConstants.TOKEN_KEY] = returnedToken
         biddingDataCallback.onSuccess(biddingDataMap)
@@ -4,6 +4,7 @@ object HyprMXConstants {
 
     // Adapter version
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "HyprMX"
 
     // HyprMX configuration keys
     const val PROPERTY_ID_KEY = "propertyId"
@@ -2,15 +2,19 @@ package com.ironsource.adapters.hyprmx.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
 import android.widget.FrameLayout
 import com.hyprmx.android.sdk.banner.HyprMXBannerSize
 import com.hyprmx.android.sdk.banner.HyprMXBannerView
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.hyprmx.HyprMXAdapter
 import com.ironsource.adapters.hyprmx.HyprMXConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -24,8 +28,9 @@ import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseBanner
 class HyprMXBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<HyprMXAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var bannerAdView: HyprMXBannerView? = null
+    private val latencyTracker = LatencyTracker(HyprMXConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(HyprMXConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<HyprMXBannerView>(HyprMXConstants.NETWORK_NAME) { destroyBannerView(it) }
 
     // region Adapter Methods
 
@@ -35,13 +40,14 @@ class HyprMXBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val propertyId = adData.getString(HyprMXConstants.PROPERTY_ID_KEY)
-        IronLog.ADAPTER_API.verbose(HyprMXConstants.Logs.PROPERTY_ID.format(propertyId ?: ""))
+        IronLog.ADAPTER_API.verbose { HyprMXConstants.Logs.PROPERTY_ID.format(propertyId ?: "") }
 
         if (propertyId.isNullOrEmpty()) {
             val errorMessage = HyprMXConstants.Logs.MISSING_PARAM.format(HyprMXConstants.PROPERTY_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -52,7 +58,7 @@ class HyprMXBannerAdapter(networkSettings: NetworkSettings) :
         if (!isBannerSizeSupported(bannerSize)) {
             val errorMessage = HyprMXConstants.Logs.UNSUPPORTED_BANNER_SIZE.format(bannerSize.description)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 errorMessage
@@ -65,19 +71,31 @@ class HyprMXBannerAdapter(networkSettings: NetworkSettings) :
         val hyprMXBannerSize = createBannerSize(context, bannerSize)
         val serverData = adData.serverData
 
-        mainHandler.post {
+        val generation = adSlot.begin()
+        MainThreadScheduler.post {
             val bannerView = HyprMXBannerView(context, null).apply {
                 placementName = propertyId
                 adSize = hyprMXBannerSize
             }
-            bannerView.listener = HyprMXBannerListener(listener)
-            bannerAdView = bannerView
+            bannerView.listener = HyprMXBannerListener(trackedListener)
 
-            val onResult: (Boolean) -> Unit = { isAdAvailable ->
+            // The banner was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                bannerView.destroy()
+                return@post
+            }
+
+            val onResult: (Boolean) -> Unit = onResult@{ isAdAvailable ->
                 if (isAdAvailable) {
-                    listener.onAdLoadSuccess(bannerView, layoutParams)
+                    // The banner was destroyed or loaded again while the ad was loading
+                    if (!adSlot.set(generation, bannerView)) {
+                        destroyBannerView(bannerView)
+                        return@onResult
+                    }
+                    trackedListener.onAdLoadSuccess(bannerView, layoutParams)
                 } else {
-                    listener.onAdLoadFailed(
+                    destroyBannerView(bannerView)
+                    trackedListener.onAdLoadFailed(
                         AdapterErrorType.ADAPTER_ERROR_TYPE_NO_FILL,
                         AdapterErrors.ADAPTER_ERROR_INTERNAL,
                         HyprMXConstants.Logs.AD_NOT_AVAILABLE
@@ -96,9 +114,12 @@ class HyprMXBannerAdapter(networkSettings: NetworkSettings) :
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
 
-        mainHandler.post {
-            bannerAdView?.destroy()
-            bannerAdView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -107,20 +128,26 @@ class HyprMXBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(HyprMXConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(HyprMXConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(HyprMXConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
     }
 
     // endregion
 
     // region Helper Methods
 
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    private fun destroyBannerView(bannerView: HyprMXBannerView) {
+        MainThreadScheduler.post { bannerView.destroy() }
+    }
+
     private fun isBannerSizeSupported(size: ISBannerSize): Boolean =
         when (size.description) {
             HyprMXConstants.BANNER_SIZE_BANNER,
@@ -134,7 +161,7 @@ class HyprMXBannerAdapter(networkSettings: NetworkSettings) :
             HyprMXConstants.BANNER_SIZE_BANNER -> HyprMXBannerSize.HyprMXAdSizeBanner
             HyprMXConstants.BANNER_SIZE_RECTANGLE -> HyprMXBannerSize.HyprMXAdSizeMediumRectangle
             HyprMXConstants.BANNER_SIZE_SMART -> {
-                if (AdapterUtils.isLargeScreen(context)) {
+                if (BannerLayouts.isLargeScreen(context)) {
                     HyprMXBannerSize.HyprMXAdSizeLeaderboard
                 } else {
                     HyprMXBannerSize.HyprMXAdSizeBanner
@@ -145,29 +172,15 @@ class HyprMXBannerAdapter(networkSettings: NetworkSettings) :
 
     private fun createBannerLayoutParams(context: Context, size: ISBannerSize): FrameLayout.LayoutParams {
         val layoutParams = when (size.description) {
-            HyprMXConstants.BANNER_SIZE_BANNER -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, HyprMXConstants.BANNER_WIDTH),
-                AdapterUtils.dpToPixels(context, HyprMXConstants.BANNER_HEIGHT)
-            )
-            HyprMXConstants.BANNER_SIZE_RECTANGLE -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, HyprMXConstants.RECTANGLE_WIDTH),
-                AdapterUtils.dpToPixels(context, HyprMXConstants.RECTANGLE_HEIGHT)
-            )
-            HyprMXConstants.BANNER_SIZE_SMART -> if (AdapterUtils.isLargeScreen(context)) {
-                FrameLayout.LayoutParams(
-                    AdapterUtils.dpToPixels(context, HyprMXConstants.LEADERBOARD_WIDTH),
-                    AdapterUtils.dpToPixels(context, HyprMXConstants.LEADERBOARD_HEIGHT)
-                )
+            HyprMXConstants.BANNER_SIZE_BANNER -> BannerLayouts.layoutParams(context, HyprMXConstants.BANNER_WIDTH, HyprMXConstants.BANNER_HEIGHT, Gravity.CENTER)
+            HyprMXConstants.BANNER_SIZE_RECTANGLE -> BannerLayouts.layoutParams(context, HyprMXConstants.RECTANGLE_WIDTH, HyprMXConstants.RECTANGLE_HEIGHT, Gravity.CENTER)
+            HyprMXConstants.BANNER_SIZE_SMART -> if (BannerLayouts.isLargeScreen(context)) {
+                BannerLayouts.layoutParams(context, HyprMXConstants.LEADERBOARD_WIDTH, HyprMXConstants.LEADERBOARD_HEIGHT, Gravity.CENTER)
             } else {
-                FrameLayout.LayoutParams(
-                    AdapterUtils.dpToPixels(context, HyprMXConstants.BANNER_WIDTH),
-                    AdapterUtils.dpToPixels(context, HyprMXConstants.BANNER_HEIGHT)
-                )
+                BannerLayouts.layoutParams(context, HyprMXConstants.BANNER_WIDTH, HyprMXConstants.BANNER_HEIGHT, Gravity.CENTER)
             }
-            else -> FrameLayout.LayoutParams(0, 0)
+            else -> BannerLayouts.layoutParams(context, 0, 0, Gravity.CENTER)
         }
-
-        layoutParams.gravity = Gravity.CENTER
         return layoutParams
     }
 
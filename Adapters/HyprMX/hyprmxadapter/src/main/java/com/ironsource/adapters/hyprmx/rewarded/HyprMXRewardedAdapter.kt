@@ -4,6 +4,10 @@ import android.app.Activity
 import android.content.Context
 import com.hyprmx.android.sdk.core.HyprMX
 import com.hyprmx.android.sdk.placement.Placement
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.hyprmx.HyprMXAdapter
 import com.ironsource.adapters.hyprmx.HyprMXConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
@@ -20,6 +24,8 @@ import java.util.concurrent.ConcurrentHashMap
 class HyprMXRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<HyprMXAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(HyprMXConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(HyprMXConstants.NETWORK_NAME)
     private var rewardedAd: Placement? = null
     private var reservedPropertyId: String? = null
 
@@ -34,13 +40,14 @@ class HyprMXRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         listener: RewardedVideoAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val propertyId = adData.getString(HyprMXConstants.PROPERTY_ID_KEY)
-        IronLog.ADAPTER_API.verbose(HyprMXConstants.Logs.PROPERTY_ID.format(propertyId ?: ""))
+        IronLog.ADAPTER_API.verbose { HyprMXConstants.Logs.PROPERTY_ID.format(propertyId ?: "") }
 
         if (propertyId.isNullOrEmpty()) {
             val errorMessage = HyprMXConstants.Logs.MISSING_PARAM.format(HyprMXConstants.PROPERTY_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -50,7 +57,7 @@ class HyprMXRewardedAdapter(networkSettings: NetworkSettings) :
 
         if (propertyId in rewardedPropertyIds) {
             IronLog.INTERNAL.error(HyprMXConstants.Logs.DUPLICATE_PLACEMENT_RV)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 HyprMXConstants.Logs.DUPLICATE_PLACEMENT_RV
@@ -65,9 +72,9 @@ class HyprMXRewardedAdapter(networkSettings: NetworkSettings) :
 
         val onResult: (Boolean) -> Unit = { isAdAvailable ->
             if (isAdAvailable) {
-                listener.onAdLoadSuccess()
+                trackedListener.onAdLoadSuccess()
             } else {
-                listener.onAdLoadFailed(
+                trackedListener.onAdLoadFailed(
                     AdapterErrorType.ADAPTER_ERROR_TYPE_NO_FILL,
                     AdapterErrors.ADAPTER_ERROR_INTERNAL,
                     HyprMXConstants.Logs.AD_NOT_AVAILABLE
@@ -88,20 +95,21 @@ class HyprMXRewardedAdapter(networkSettings: NetworkSettings) :
         activity: Activity,
         listener: RewardedVideoAdListener
     ) {
+        val trackedListener = latencyTracker.trackShow(listener)
         val propertyId = adData.getString(HyprMXConstants.PROPERTY_ID_KEY)
-        IronLog.ADAPTER_API.verbose(HyprMXConstants.Logs.PROPERTY_ID.format(propertyId))
+        IronLog.ADAPTER_API.verbose { HyprMXConstants.Logs.PROPERTY_ID.format(propertyId) }
         reservedPropertyId?.let { rewardedPropertyIds.remove(it) }
         reservedPropertyId = null
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 HyprMXConstants.Logs.AD_NOT_AVAILABLE
             )
             return
         }
 
-        rewardedAd?.showAd(HyprMXRewardedListener(listener))
+        rewardedAd?.showAd(HyprMXRewardedListener(trackedListener))
     }
 
     override fun isAdAvailable(adData: AdData): Boolean =
@@ -109,9 +117,10 @@ class HyprMXRewardedAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         val propertyId = adData.getString(HyprMXConstants.PROPERTY_ID_KEY)
-        IronLog.ADAPTER_API.verbose(HyprMXConstants.Logs.PROPERTY_ID.format(propertyId))
+        IronLog.ADAPTER_API.verbose { HyprMXConstants.Logs.PROPERTY_ID.format(propertyId) }
         reservedPropertyId?.let { rewardedPropertyIds.remove(it) }
         reservedPropertyId = null
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, rewardedAd)
         rewardedAd = null
     }
 
@@ -120,14 +129,15 @@ class HyprMXRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(HyprMXConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(HyprMXConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(HyprMXConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
     }
 
     // endregion
@@ -1,10 +1,15 @@
 package com.ironsource.adapters.inmobi
 
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import com.inmobi.sdk.InMobiSdk
 import com.inmobi.sdk.SdkInitializationListener
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.InitHistory
+import com.ironsource.adapters.common.InitScheduler
+import com.ironsource.adapters.common.PrivacyState
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -16,37 +21,39 @@ import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
 import org.json.JSONException
 import org.json.JSONObject
-import java.util.concurrent.CopyOnWriteArrayList
 import java.util.concurrent.atomic.AtomicBoolean
 
 class InMobiAdapter : LevelPlayBaseAdapter() {
 
     companion object {
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         private const val GitHash = BuildConfig.GitHash
 
+        // Privacy values shared by all adapter instances
+        private val privacyState = PrivacyState.forNetwork(InMobiConstants.NETWORK_NAME)
+
+        // Outcome of the previous launches, which the init is scheduled by
+        private val initHistory = InitHistory.forNetwork(InMobiConstants.NETWORK_NAME)
+
+        // The SDK init has to be called on the main thread
+        private val initScheduler = InitScheduler(initHistory, InitScheduler.MAIN_THREAD)
+
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initCallbackListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(InMobiConstants.NETWORK_NAME) { success, durationMs ->
+            // A late success still means the network is healthy on the next launch
+            initHistory.record(success, durationMs)
+        }
+        private val initState: InitState
+            get() = initCoordinator.initState
 
         // Indicates whether setAgeRestriction was called once
         private var isAgeRestrictionCalled: AtomicBoolean = AtomicBoolean(false)
 
         // MetaData
-        private var consentCollectingUserData: String? = null
         var ageRestrictionCollectingUserData: Boolean? = null
-        private var doNotSellCollectingUserData: Boolean? = null
 
-        // Main thread handler
-        private val mainHandler = Handler(Looper.getMainLooper())
+        // Token extras built for the privacy snapshot version they were built from
+        @Volatile
+        private var tokenExtras: Pair<Int, Map<String, String>>? = null
 
         @JvmStatic
         fun networkAdapterVersion(): String = InMobiConstants.ADAPTER_VERSION
@@ -65,6 +72,9 @@ class InMobiAdapter : LevelPlayBaseAdapter() {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(InMobiConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         // Validate accountId and placementId first before any other checks
         val accountId = adData.getString(InMobiConstants.ACCOUNT_ID_KEY)
         val placementId = adData.getString(InMobiConstants.PLACEMENT_ID_KEY)
@@ -90,33 +100,32 @@ class InMobiAdapter : LevelPlayBaseAdapter() {
         }
 
         // Check if init failed previously
-        if (initState == InitState.INIT_STATE_FAILED) {
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(InMobiConstants.Logs.SDK_INIT_FAILED)
             networkInitializationListener?.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, InMobiConstants.Logs.SDK_INIT_FAILED)
             return
         }
 
-        // Add to the init listeners only if init is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initCallbackListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
+        // Start reading the outcome of the previous launches, the init is scheduled once it's read
+        initHistory.load(context, getNetworkSDKVersion(), getAdapterVersion(), accountId)
 
-            IronLog.ADAPTER_API.verbose(InMobiConstants.Logs.ACCOUNT_ID_PLACEMENT_ID.format(accountId, placementId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { InMobiConstants.Logs.ACCOUNT_ID_PLACEMENT_ID.format(accountId, placementId) }
 
             // Set log level
             InMobiSdk.setLogLevel(if (isAdaptersDebugEnabled()) InMobiSdk.LogLevel.DEBUG else InMobiSdk.LogLevel.NONE)
 
-            // Init SDK on main thread
-            mainHandler.post {
+            // InMobiSdk.init must be called on the main thread, lower priority networks are deferred
+            // after the first frame
+            initScheduler.schedule(adData.getString(InitScheduler.INIT_PRIORITY_KEY)?.toIntOrNull() ?: 0) {
                 InMobiSdk.init(context, accountId, getConsentObject(), object : SdkInitializationListener {
                     override fun onInitializationComplete(error: Error?) {
                         if (error != null) {
-                            onInitializationFailure(error.message ?: InMobiConstants.Logs.SDK_INIT_FAILED)
+                            onInitializationFailure(attempt, error.message ?: InMobiConstants.Logs.SDK_INIT_FAILED)
                         } else {
-                            onInitializationSuccess()
+                            onInitializationSuccess(attempt)
                         }
                     }
                 })
@@ -128,37 +137,25 @@ class InMobiAdapter : LevelPlayBaseAdapter() {
 
     // region Initialization Callbacks
 
-    private fun onInitializationSuccess() {
+    private fun onInitializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose(InMobiConstants.Logs.INIT_SUCCESS)
 
-        initState = InitState.INIT_STATE_SUCCESS
-
-        // Set age restriction if it was set before init (only once)
-        if (isAgeRestrictionCalled.compareAndSet(false, true)) {
-            ageRestrictionCollectingUserData?.let {
-                setAgeRestricted(it)
-            }
-        }
-
         // Iterate over all the adapter instances and report init success
-        for (listener: NetworkInitializationListener in initCallbackListeners) {
-            listener.onInitSuccess()
+        initCoordinator.onInitSuccess(attempt) {
+            // Set age restriction if it was set before init (only once)
+            if (isAgeRestrictionCalled.compareAndSet(false, true)) {
+                ageRestrictionCollectingUserData?.let {
+                    setAgeRestricted(it)
+                }
+            }
         }
-
-        initCallbackListeners.clear()
     }
 
-    private fun onInitializationFailure(errorMessage: String) {
+    private fun onInitializationFailure(attempt: Int, errorMessage: String) {
         IronLog.ADAPTER_CALLBACK.error(InMobiConstants.Logs.INIT_FAILED.format(errorMessage))
 
-        initState = InitState.INIT_STATE_FAILED
-
         // Iterate over all the adapter instances and report init failed
-        for (listener: NetworkInitializationListener in initCallbackListeners) {
-            listener.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
-        }
-
-        initCallbackListeners.clear()
+        initCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
     }
 
     // endregion
@@ -166,10 +163,10 @@ class InMobiAdapter : LevelPlayBaseAdapter() {
     // region Legal Methods
 
     override fun setConsent(consent: Boolean) {
-        IronLog.ADAPTER_API.verbose(InMobiConstants.Logs.CONSENT.format(consent))
-        consentCollectingUserData = consent.toString()
+        IronLog.ADAPTER_API.verbose { InMobiConstants.Logs.CONSENT.format(consent) }
 
-        if (initState == InitState.INIT_STATE_SUCCESS) {
+        // Update the SDK only when the consent actually changed
+        if (privacyState.setConsent(consent) && initState == InitState.INIT_STATE_SUCCESS) {
             InMobiSdk.updateGDPRConsent(getConsentObject())
         }
     }
@@ -181,10 +178,10 @@ class InMobiAdapter : LevelPlayBaseAdapter() {
 
         // This is a list of 1 value
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(InMobiConstants.Logs.META_DATA_KEY_VALUE.format(key, value))
+        IronLog.ADAPTER_API.verbose { InMobiConstants.Logs.META_DATA_KEY_VALUE.format(key, value) }
 
         if (MetaDataUtils.isValidCCPAMetaData(key, value)) {
-            doNotSellCollectingUserData = MetaDataUtils.getMetaDataBooleanValue(value)
+            privacyState.setDoNotSell(MetaDataUtils.getMetaDataBooleanValue(value))
             return
         }
 
@@ -203,7 +200,7 @@ class InMobiAdapter : LevelPlayBaseAdapter() {
 
     internal fun setAgeRestricted(isAgeRestricted: Boolean) {
         if (initState == InitState.INIT_STATE_SUCCESS) {
-            IronLog.ADAPTER_API.verbose(InMobiConstants.Logs.AGE_RESTRICTED.format(isAgeRestricted))
+            IronLog.ADAPTER_API.verbose { InMobiConstants.Logs.AGE_RESTRICTED.format(isAgeRestricted) }
             InMobiSdk.setIsAgeRestricted(isAgeRestricted)
         } else {
             ageRestrictionCollectingUserData = isAgeRestricted
@@ -213,8 +210,8 @@ class InMobiAdapter : LevelPlayBaseAdapter() {
     private fun getConsentObject(): JSONObject {
         val obj = JSONObject()
         try {
-            if (!consentCollectingUserData.isNullOrEmpty()) {
-                obj.put(InMobiSdk.IM_GDPR_CONSENT_AVAILABLE, consentCollectingUserData)
+            privacyState.current.consent?.let {
+                obj.put(InMobiSdk.IM_GDPR_CONSENT_AVAILABLE, it.toString())
             }
         } catch (e: JSONException) {
             IronLog.INTERNAL.error(e.toString())
@@ -232,7 +229,7 @@ class InMobiAdapter : LevelPlayBaseAdapter() {
 
         val bidderToken = InMobiSdk.getToken(getExtrasMap(), InMobiConstants.EMPTY_STRING)
         val returnedToken = bidderToken.orEmpty()
-        IronLog.ADAPTER_API.verbose(InMobiConstants.Logs.TOKEN.format(returnedToken))
+        IronLog.ADAPTER_API.verbose { InMobiConstants.Logs.TOKEN.format(returnedToken) }
 
         val ret: MutableMap<String, Any> = HashMap()
         ret[InMobiConstants.TOKEN_KEY] = returnedToken
@@ -240,17 +237,26 @@ class InMobiAdapter : LevelPlayBaseAdapter() {
     }
 
     internal fun getExtrasMap(): Map<String, String> {
+        // The extras only change with the privacy values, so they are rebuilt once per change
+        val privacy = privacyState.current
+        tokenExtras?.let { (version, extras) ->
+            if (version == privacy.version) {
+                return extras
+            }
+        }
+
         val map = HashMap<String, String>()
         map[InMobiConstants.EXTRAS_TP_KEY] = InMobiConstants.EXTRAS_TP_VALUE
         map[InMobiConstants.EXTRAS_TP_VER_KEY] = getAdapterVersion()
 
-        doNotSellCollectingUserData?.let {
+        privacy.doNotSell?.let {
             map[InMobiConstants.INMOBI_DO_NOT_SELL_KEY] = if (it) {
                 InMobiConstants.INMOBI_DO_NOT_SELL_VALUE_TRUE
             } else {
                 InMobiConstants.INMOBI_DO_NOT_SELL_VALUE_FALSE
             }
         }
+        tokenExtras = privacy.version to map
         return map
     }
 
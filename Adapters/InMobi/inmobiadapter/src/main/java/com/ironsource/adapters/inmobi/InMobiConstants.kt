@@ -4,6 +4,7 @@ object InMobiConstants {
 
     // Adapter version
     const val ADAPTER_VERSION: String = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "InMobi"
 
     // Empty string constant
     const val EMPTY_STRING = ""
@@ -1,14 +1,16 @@
 package com.ironsource.adapters.inmobi.banner
 
 import android.app.Activity
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
-import android.widget.FrameLayout
 import com.inmobi.ads.InMobiBanner
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.inmobi.InMobiAdapter
 import com.ironsource.adapters.inmobi.InMobiConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -22,7 +24,8 @@ import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseBanner
 class InMobiBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<InMobiAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
+    private val latencyTracker = LatencyTracker(InMobiConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(InMobiConstants.NETWORK_NAME)
     private var bannerAdView: InMobiBanner? = null
 
     override fun loadAd(
@@ -31,15 +34,16 @@ class InMobiBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         // Fetch and validate placementId
         val placementId = adData.getString(InMobiConstants.PLACEMENT_ID_KEY)
 
-        IronLog.ADAPTER_API.verbose(InMobiConstants.Logs.PLACEMENT_ID.format(placementId ?: ""))
+        IronLog.ADAPTER_API.verbose { InMobiConstants.Logs.PLACEMENT_ID.format(placementId ?: "") }
 
         if (adData.serverData.isNullOrEmpty()) {
             val errorMessage = InMobiConstants.Logs.MISSING_PARAM.format(InMobiConstants.SERVER_DATA_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -48,11 +52,11 @@ class InMobiBannerAdapter(networkSettings: NetworkSettings) :
         }
 
         // Get banner size
-        val dpSize = getBannerSize(bannerSize, AdapterUtils.isLargeScreen(activity.applicationContext))
+        val dpSize = getBannerSize(bannerSize, BannerLayouts.isLargeScreen(activity.applicationContext))
         if (dpSize == null) {
             val errorMessage = InMobiConstants.Logs.UNSUPPORTED_BANNER_SIZE
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 errorMessage
@@ -61,17 +65,13 @@ class InMobiBannerAdapter(networkSettings: NetworkSettings) :
         }
 
         // Build layoutParams
-        val layoutParams = FrameLayout.LayoutParams(
-            AdapterUtils.dpToPixels(activity.applicationContext, dpSize.width),
-            AdapterUtils.dpToPixels(activity.applicationContext, dpSize.height)
-        )
-        layoutParams.gravity = Gravity.CENTER
+        val layoutParams = BannerLayouts.layoutParams(activity.applicationContext, dpSize.width, dpSize.height, Gravity.CENTER)
 
         val placement = placementId?.toLongOrNull()
         if (placement == null) {
             val errorMessage = InMobiConstants.Logs.MISSING_PARAM.format(InMobiConstants.PLACEMENT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -79,9 +79,9 @@ class InMobiBannerAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        mainHandler.post {
+        MainThreadScheduler.post {
             bannerAdView = InMobiBanner(activity.applicationContext, placement)
-            bannerAdView?.setListener(InMobiBannerListener(listener, layoutParams))
+            bannerAdView?.setListener(InMobiBannerListener(trackedListener, layoutParams))
             bannerAdView?.setBannerSize(dpSize.width, dpSize.height)
 
             val bytes = adData.serverData.toByteArray(Charsets.UTF_8)
@@ -93,9 +93,10 @@ class InMobiBannerAdapter(networkSettings: NetworkSettings) :
         IronLog.ADAPTER_API.verbose()
 
         bannerAdView?.let {
-            mainHandler.post {
+            MainThreadScheduler.post {
                 it.destroy()
             }
+            leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, bannerAdView)
             bannerAdView = null
         }
     }
@@ -105,15 +106,16 @@ class InMobiBannerAdapter(networkSettings: NetworkSettings) :
         context: android.content.Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             val errorMessage = InMobiConstants.Logs.NETWORK_ADAPTER_IS_NULL
             IronLog.INTERNAL.error(errorMessage)
-            biddingDataCallback.onFailure(errorMessage)
+            trackedCallback.onFailure(errorMessage)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
     }
 
     // region Helper Methods
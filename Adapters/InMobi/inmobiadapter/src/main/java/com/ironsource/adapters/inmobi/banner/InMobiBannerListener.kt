@@ -5,6 +5,7 @@ import com.inmobi.ads.AdMetaInfo
 import com.inmobi.ads.InMobiAdRequestStatus
 import com.inmobi.ads.InMobiBanner
 import com.inmobi.ads.listeners.BannerAdEventListener
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.inmobi.InMobiConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -24,7 +25,7 @@ internal class InMobiBannerListener(
         adMetaInfo: AdMetaInfo
     ) {
         val creativeId = adMetaInfo.creativeID
-        IronLog.ADAPTER_CALLBACK.verbose(InMobiConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { InMobiConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
         if (creativeId.isNullOrEmpty()) {
             listener.onAdLoadSuccess(inMobiBanner, layoutParams)
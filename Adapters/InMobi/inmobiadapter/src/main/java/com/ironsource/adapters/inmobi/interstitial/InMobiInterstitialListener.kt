@@ -4,6 +4,7 @@ import com.inmobi.ads.AdMetaInfo
 import com.inmobi.ads.InMobiAdRequestStatus
 import com.inmobi.ads.InMobiInterstitial
 import com.inmobi.ads.listeners.InterstitialAdEventListener
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.inmobi.InMobiConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -22,7 +23,7 @@ internal class InMobiInterstitialListener(
         adMetaInfo: AdMetaInfo
     ) {
         val creativeId = adMetaInfo.creativeID
-        IronLog.ADAPTER_CALLBACK.verbose(InMobiConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { InMobiConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
         if (creativeId.isNullOrEmpty()) {
             listener.onAdLoadSuccess()
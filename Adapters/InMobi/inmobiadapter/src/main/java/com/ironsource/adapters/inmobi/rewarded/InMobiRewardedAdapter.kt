@@ -2,9 +2,12 @@ package com.ironsource.adapters.inmobi.rewarded
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import com.inmobi.ads.InMobiInterstitial
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.inmobi.InMobiAdapter
 import com.ironsource.adapters.inmobi.InMobiConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
@@ -19,7 +22,8 @@ import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseRewardedVideo
 class InMobiRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<InMobiAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
+    private val latencyTracker = LatencyTracker(InMobiConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(InMobiConstants.NETWORK_NAME)
     private var rewardedAd: InMobiInterstitial? = null
 
     override fun loadAd(
@@ -27,15 +31,16 @@ class InMobiRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         listener: RewardedVideoAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         // Fetch and validate placementId
         val placementId = adData.getString(InMobiConstants.PLACEMENT_ID_KEY)
 
-        IronLog.ADAPTER_API.verbose(InMobiConstants.Logs.PLACEMENT_ID.format(placementId ?: ""))
+        IronLog.ADAPTER_API.verbose { InMobiConstants.Logs.PLACEMENT_ID.format(placementId ?: "") }
 
         if (adData.serverData.isNullOrEmpty()) {
             val errorMessage = InMobiConstants.Logs.MISSING_PARAM.format(InMobiConstants.SERVER_DATA_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -47,7 +52,7 @@ class InMobiRewardedAdapter(networkSettings: NetworkSettings) :
         if (placement == null) {
             val errorMessage = InMobiConstants.Logs.MISSING_PARAM.format(InMobiConstants.PLACEMENT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -55,11 +60,11 @@ class InMobiRewardedAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        mainHandler.post {
+        MainThreadScheduler.post {
             rewardedAd = InMobiInterstitial(
                 context.applicationContext,
                 placement,
-                InMobiRewardedListener(listener)
+                InMobiRewardedListener(trackedListener)
             )
 
             val bytes = adData.serverData.toByteArray(Charsets.UTF_8)
@@ -72,17 +77,18 @@ class InMobiRewardedAdapter(networkSettings: NetworkSettings) :
         activity: Activity,
         listener: RewardedVideoAdListener
     ) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
             val errorMessage = InMobiConstants.Logs.AD_NOT_READY_REWARDED_VIDEO
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
+            trackedListener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
             return
         }
 
         rewardedAd?.let {
-            mainHandler.post {
+            MainThreadScheduler.post {
                 it.show()
             }
         }
@@ -94,6 +100,7 @@ class InMobiRewardedAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, rewardedAd)
         rewardedAd = null
     }
 
@@ -102,15 +109,16 @@ class InMobiRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             val errorMessage = InMobiConstants.Logs.NETWORK_ADAPTER_IS_NULL
             IronLog.INTERNAL.error(errorMessage)
-            biddingDataCallback.onFailure(errorMessage)
+            trackedCallback.onFailure(errorMessage)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
     }
 
     // endregion
@@ -4,6 +4,11 @@ import android.content.Context
 import com.five_corp.ad.AdLoader
 import com.five_corp.ad.FiveAdConfig
 import com.five_corp.ad.FiveAdErrorCode
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.verbose
+import com.ironsource.mediationsdk.LoadWhileShowSupportState
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -12,27 +17,17 @@ import com.ironsource.mediationsdk.bidding.BiddingDataCallback
 import com.ironsource.mediationsdk.logger.IronLog
 import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class LineAdapter : LevelPlayBaseAdapter() {
 
     companion object {
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         private const val GitHash: String = BuildConfig.GitHash
 
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(LineConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
         private var fiveAdConfig: FiveAdConfig? = null
 
         @JvmStatic
@@ -63,11 +58,18 @@ class LineAdapter : LevelPlayBaseAdapter() {
 
     override fun isUsingActivityBeforeImpression(adFormat: LevelPlay.AdFormat): Boolean = false
 
+    // The network's capability to load a full-screen ad while the ad of the same instance is showing
+    override fun getLoadWhileShowSupportState(): LoadWhileShowSupportState =
+        LoadWhileShowSupportState.LOAD_WHILE_SHOW_BY_INSTANCE
+
     override fun init(
         adData: AdData,
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(LineConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         // Validate configuration params first before any other checks
         val appId = adData.getString(LineConstants.APP_ID_KEY)
         if (appId.isNullOrEmpty()) {
@@ -90,7 +92,7 @@ class LineAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        if (initState == InitState.INIT_STATE_FAILED) {
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             networkInitializationListener?.onInitFailed(
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 LineConstants.Logs.INIT_FAILED
@@ -98,52 +100,37 @@ class LineAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-            IronLog.ADAPTER_API.verbose(LineConstants.Logs.APP_ID_AND_SLOT_ID.format(appId, slotId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { LineConstants.Logs.APP_ID_AND_SLOT_ID.format(appId, slotId) }
             try {
                 val loader = AdLoader.forConfig(context.applicationContext, getFiveAdConfig(appId))
                 if (loader == null) {
                     IronLog.INTERNAL.error(LineConstants.Logs.AD_LOADER_NULL)
-                    initializationFailure()
+                    initializationFailure(attempt)
                 } else {
-                    initializationSuccess()
+                    initializationSuccess(attempt)
                 }
             } catch (e: IllegalArgumentException) {
                 IronLog.INTERNAL.error(LineConstants.Logs.FAILED_TO_LOAD.format(LineConstants.Logs.INIT_FAILED, e.message ?: ""))
-                initializationFailure()
+                initializationFailure(attempt)
             }
         }
     }
 
-    private fun initializationSuccess() {
+    private fun initializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        initState = InitState.INIT_STATE_SUCCESS
-
         // Iterate over all the adapter instances and report init success
-        for (listener: NetworkInitializationListener in initListeners) {
-            listener.onInitSuccess()
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    private fun initializationFailure() {
+    private fun initializationFailure(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.error(LineConstants.Logs.INIT_FAILED)
 
-        initState = InitState.INIT_STATE_FAILED
-
         // Iterate over all the adapter instances and report init failed
-        for (listener: NetworkInitializationListener in initListeners) {
-            listener.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, LineConstants.Logs.INIT_FAILED)
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, LineConstants.Logs.INIT_FAILED)
     }
 
     // endregion
@@ -172,7 +159,7 @@ class LineAdapter : LevelPlayBaseAdapter() {
 
         loader.collectSignal(slotId, object : AdLoader.CollectSignalCallback {
             override fun onCollect(token: String) {
-                IronLog.ADAPTER_API.verbose(LineConstants.Logs.TOKEN.format(token))
+                IronLog.ADAPTER_API.verbose { LineConstants.Logs.TOKEN.format(token) }
                 val ret: MutableMap<String?, Any?> = HashMap()
                 ret[LineConstants.TOKEN_KEY] = token
                 biddingDataCallback.onSuccess(ret)
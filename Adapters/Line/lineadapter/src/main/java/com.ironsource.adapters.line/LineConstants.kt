@@ -4,6 +4,7 @@ object LineConstants {
 
     // Adapter version
     const val ADAPTER_VERSION: String = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "Line"
 
     // Network configuration keys
     const val APP_ID_KEY: String = "appId"
@@ -4,6 +4,10 @@ import android.app.Activity
 import android.content.Context
 import com.five_corp.ad.BidData
 import com.five_corp.ad.FiveAdInterstitial
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
 import com.ironsource.adapters.line.LineAdapter
 import com.ironsource.adapters.line.LineConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
@@ -19,20 +23,27 @@ import java.lang.ref.WeakReference
 class LineInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<LineAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(LineConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(LineConstants.NETWORK_NAME)
     private var interstitialAdListener: LineInterstitialListener? = null
-    private var interstitialAd: FiveAdInterstitial? = null
+    private val adSlot = AdSlot<FiveAdInterstitial>(LineConstants.NETWORK_NAME) {
+        // Line ads have nothing to release, the replaced ad is only dropped
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, it)
+    }
+
     private var isAdAvailableFlag = false
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         IronLog.ADAPTER_API.verbose()
 
         val serverData = adData.serverData
         if (serverData.isNullOrEmpty()) {
             val errorMessage = LineConstants.Logs.MISSING_PARAM.format(LineConstants.SERVER_DATA)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -43,7 +54,7 @@ class LineInterstitialAdapter(networkSettings: NetworkSettings) :
         val adLoader = LineAdapter.getAdLoader(context)
         if (adLoader == null) {
             IronLog.INTERNAL.error(LineConstants.Logs.AD_LOADER_NULL)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 LineConstants.Logs.AD_LOADER_NULL
@@ -53,34 +64,51 @@ class LineInterstitialAdapter(networkSettings: NetworkSettings) :
 
         setInterstitialAdAvailability(false)
 
-        interstitialAdListener = LineInterstitialListener(listener, WeakReference(this))
-        adLoader.loadInterstitialAd(BidData(serverData, null), interstitialAdListener!!)
+        val generation = adSlot.begin()
+        val loadListener = LineInterstitialListener(trackedListener, WeakReference(this), generation)
+        interstitialAdListener = loadListener
+        adLoader.loadInterstitialAd(BidData(serverData, null), loadListener)
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 LineConstants.Logs.AD_NOT_AVAILABLE
             )
             return
         }
 
-        interstitialAd?.apply {
-            interstitialAdListener?.let { setEventListener(it) }
-            showAd()
+        val ad = adSlot.startShow()
+        if (ad == null) {
+            trackedListener.onAdShowFailed(
+                AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
+                LineConstants.Logs.AD_NOT_AVAILABLE
+            )
+            return
         }
+        setInterstitialAdAvailability(false)
+
+        // The shown ad reports to its own listener, a load while it's shown uses a new one
+        ad.setEventListener(LineInterstitialListener(trackedListener, WeakReference(this), adSlot.generation))
+        ad.showAd()
     }
 
     override fun isAdAvailable(adData: AdData): Boolean {
-        return interstitialAd != null && isAdAvailableFlag
+        return adSlot.ad != null && isAdAvailableFlag
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        interstitialAd = null
+        // Captured on entry, a load which starts after the destroy keeps its ad
+        val generation = adSlot.generation
+        // A load still running is cancelled, its ad is dropped once it arrives
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, adSlot.clear(generation))
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, adSlot.finishShow())
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.LISTENER, interstitialAdListener)
         interstitialAdListener = null
         isAdAvailableFlag = false
     }
@@ -90,17 +118,18 @@ class LineInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
-            biddingDataCallback.onFailure(LineConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(LineConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
         val appId = adData?.getString(LineConstants.APP_ID_KEY)
         val slotId = adData?.getString(LineConstants.SLOT_ID_KEY).orEmpty()
-        networkAdapter.collectBiddingData(context, appId, slotId, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, appId, slotId, trackedCallback)
     }
 
     // endregion
@@ -111,8 +140,19 @@ class LineInterstitialAdapter(networkSettings: NetworkSettings) :
         isAdAvailableFlag = isAvailable
     }
 
-    internal fun setInterstitialAd(ad: FiveAdInterstitial) {
-        interstitialAd = ad
+    /**
+     * @return false if the ad was destroyed or loaded again while the ad was loading, the ad is
+     * dropped then
+     */
+    internal fun setInterstitialAd(generation: Long, ad: FiveAdInterstitial): Boolean =
+        adSlot.set(generation, ad)
+
+    internal fun isCurrentLoad(generation: Long): Boolean =
+        adSlot.isCurrent(generation)
+
+    // Releases the shown ad once it's closed or failed to show, an ad loaded meanwhile is kept
+    internal fun onShowFinished() {
+        adSlot.finishShow()
     }
 
     // endregion
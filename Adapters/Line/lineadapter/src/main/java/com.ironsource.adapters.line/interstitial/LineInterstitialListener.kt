@@ -12,7 +12,9 @@ import java.lang.ref.WeakReference
 
 class LineInterstitialListener(
     private val listener: InterstitialAdListener,
-    private val adapter: WeakReference<LineInterstitialAdapter>
+    private val adapter: WeakReference<LineInterstitialAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : FiveAdInterstitialEventListener, AdLoader.LoadInterstitialAdCallback {
 
     /**
@@ -21,7 +23,9 @@ class LineInterstitialListener(
      */
     override fun onLoad(interstitialAd: FiveAdInterstitial) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        adapter.get()?.setInterstitialAd(interstitialAd)
+        if (adapter.get()?.setInterstitialAd(generation, interstitialAd) == false) {
+            return
+        }
         adapter.get()?.setInterstitialAdAvailability(true)
         listener.onAdLoadSuccess()
     }
@@ -32,6 +36,9 @@ class LineInterstitialListener(
      */
     override fun onError(errorCode: FiveAdErrorCode) {
         IronLog.ADAPTER_CALLBACK.error(LineConstants.Logs.FAILED_TO_LOAD.format(errorCode.value, errorCode.name))
+        if (adapter.get()?.isCurrentLoad(generation) == false) {
+            return
+        }
         adapter.get()?.setInterstitialAdAvailability(false)
         listener.onAdLoadFailed(LineAdapter.getLoadErrorType(errorCode), errorCode.value, errorCode.name)
     }
@@ -43,6 +50,7 @@ class LineInterstitialListener(
      */
     override fun onViewError(interstitialAd: FiveAdInterstitial, errorCode: FiveAdErrorCode) {
         IronLog.ADAPTER_CALLBACK.error(LineConstants.Logs.FAILED_TO_SHOW.format(errorCode.value, errorCode.name))
+        adapter.get()?.onShowFinished()
         listener.onAdShowFailed(errorCode.value, errorCode.name)
     }
 
@@ -70,6 +78,7 @@ class LineInterstitialListener(
      */
     override fun onFullScreenClose(interstitialAd: FiveAdInterstitial) {
         IronLog.ADAPTER_CALLBACK.verbose()
+        adapter.get()?.onShowFinished()
         listener.onAdClosed()
     }
 
@@ -12,7 +12,9 @@ import java.lang.ref.WeakReference
 
 class LineRewardedListener(
     private val listener: RewardedVideoAdListener,
-    private val adapter: WeakReference<LineRewardedAdapter>
+    private val adapter: WeakReference<LineRewardedAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : FiveAdVideoRewardEventListener, AdLoader.LoadRewardAdCallback {
 
     /**
@@ -21,7 +23,9 @@ class LineRewardedListener(
      */
     override fun onLoad(rewardedAd: FiveAdVideoReward) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        adapter.get()?.setRewardedAd(rewardedAd)
+        if (adapter.get()?.setRewardedAd(generation, rewardedAd) == false) {
+            return
+        }
         adapter.get()?.setRewardedAdAvailability(true)
         listener.onAdLoadSuccess()
     }
@@ -32,6 +36,9 @@ class LineRewardedListener(
      */
     override fun onError(errorCode: FiveAdErrorCode) {
         IronLog.ADAPTER_CALLBACK.error(LineConstants.Logs.FAILED_TO_LOAD.format(errorCode.value, errorCode.name))
+        if (adapter.get()?.isCurrentLoad(generation) == false) {
+            return
+        }
         adapter.get()?.setRewardedAdAvailability(false)
         listener.onAdLoadFailed(LineAdapter.getLoadErrorType(errorCode), errorCode.value, errorCode.name)
     }
@@ -43,6 +50,7 @@ class LineRewardedListener(
      */
     override fun onViewError(rewardedAd: FiveAdVideoReward, errorCode: FiveAdErrorCode) {
         IronLog.ADAPTER_CALLBACK.error(LineConstants.Logs.FAILED_TO_SHOW.format(errorCode.value, errorCode.name))
+        adapter.get()?.onShowFinished()
         listener.onAdShowFailed(errorCode.value, errorCode.name)
     }
 
@@ -79,6 +87,7 @@ class LineRewardedListener(
      */
     override fun onFullScreenClose(rewardedAd: FiveAdVideoReward) {
         IronLog.ADAPTER_CALLBACK.verbose()
+        adapter.get()?.onShowFinished()
         listener.onAdClosed()
     }
 
@@ -1,6 +1,13 @@
 package com.ironsource.adapters.mintegral
 
 import android.content.Context
+import android.os.SystemClock
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.BiddingTokenCache
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.TokenEncoder
+import com.ironsource.adapters.common.verbose
 import com.ironsource.environment.ContextProvider
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -18,29 +25,26 @@ import com.mbridge.msdk.out.MBridgeSDKFactory
 import com.mbridge.msdk.out.SDKInitStatusListener
 import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
-class MintegralAdapter : LevelPlayBaseAdapter(), SDKInitStatusListener {
+class MintegralAdapter : LevelPlayBaseAdapter() {
 
     companion object {
         private const val GitHash: String = BuildConfig.GitHash
 
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(MintegralConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
 
         private var consentCollectingUserData: Boolean? = null
         private var doNotSellCollectingUserData: Boolean? = null
         private var coppaUserData: Boolean? = null
 
+        // Bidding tokens shared by all adapter instances
+        private val biddingTokenCache = BiddingTokenCache.forNetwork(MintegralConstants.NETWORK_NAME)
+
+        // Bidding data of the tokens, with the token size table
+        private val tokenEncoder = TokenEncoder.forNetwork(MintegralConstants.NETWORK_NAME)
+
         @JvmStatic
         fun networkAdapterVersion(): String = MintegralConstants.ADAPTER_VERSION
     }
@@ -58,6 +62,9 @@ class MintegralAdapter : LevelPlayBaseAdapter(), SDKInitStatusListener {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(MintegralConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         val appId = adData.getString(MintegralConstants.APP_ID_KEY)
         val appKey = adData.getString(MintegralConstants.APP_KEY)
         val placementId = adData.getString(MintegralConstants.PLACEMENT_ID_KEY)
@@ -83,25 +90,26 @@ class MintegralAdapter : LevelPlayBaseAdapter(), SDKInitStatusListener {
             return
         }
 
+        adData.getString(MintegralConstants.BIDDING_TOKEN_TTL_KEY)?.toLongOrNull()?.let { ttlSeconds ->
+            biddingTokenCache.ttlMillis = ttlSeconds * 1000
+        }
+        tokenEncoder.configure(adData.getString(TokenEncoder.ENCODING_KEY))
+
         if (initState == InitState.INIT_STATE_SUCCESS) {
             networkInitializationListener?.onInitSuccess()
             return
         }
 
-        if (initState == InitState.INIT_STATE_FAILED) {
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(MintegralConstants.Logs.SDK_INIT_FAILED)
             networkInitializationListener?.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, MintegralConstants.Logs.SDK_INIT_FAILED)
             return
         }
 
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-
-            IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.APP_ID_AND_APP_KEY.format(appId, appKey))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.APP_ID_AND_APP_KEY.format(appId, appKey) }
 
             if (isAdaptersDebugEnabled()) {
                 MBridgeConstans.DEBUG = true
@@ -120,36 +128,33 @@ class MintegralAdapter : LevelPlayBaseAdapter(), SDKInitStatusListener {
                 setCCPAValue(it)
             }
 
-            sdk.init(map, context.applicationContext, this)
+            // The callbacks are bound to the attempt, so a late callback can't complete a retry
+            sdk.init(map, context.applicationContext, object : SDKInitStatusListener {
+                override fun onInitSuccess() {
+                    initializationSuccess(attempt)
+                }
+
+                override fun onInitFail(errorMsg: String) {
+                    initializationFailure(attempt, errorMsg)
+                }
+            })
         }
     }
 
-    override fun onInitSuccess() {
+    private fun initializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        initState = InitState.INIT_STATE_SUCCESS
-
-        coppaUserData?.let {
-            setCOPPAValue(it)
-        }
-
-        for (listener in initListeners) {
-            listener.onInitSuccess()
+        initCoordinator.onInitSuccess(attempt) {
+            coppaUserData?.let {
+                setCOPPAValue(it)
+            }
         }
-
-        initListeners.clear()
     }
 
-    override fun onInitFail(errorMsg: String) {
+    private fun initializationFailure(attempt: Int, errorMsg: String) {
         IronLog.ADAPTER_CALLBACK.error(MintegralConstants.Logs.INIT_FAILED.format(errorMsg))
 
-        initState = InitState.INIT_STATE_FAILED
-
-        for (listener in initListeners) {
-            listener.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMsg)
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMsg)
     }
 
     // endregion
@@ -157,17 +162,19 @@ class MintegralAdapter : LevelPlayBaseAdapter(), SDKInitStatusListener {
     // region Legal Methods
 
     override fun setConsent(consent: Boolean) {
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.CONSENT.format(consent))
+        IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.CONSENT.format(consent) }
         when (initState) {
             InitState.INIT_STATE_NONE -> consentCollectingUserData = consent
             InitState.INIT_STATE_IN_PROGRESS -> {
                 val sdk: MBridgeSDK = MBridgeSDKFactory.getMBridgeSDK()
                 val consentStatus: Int = if (consent) MBridgeConstans.IS_SWITCH_ON else MBridgeConstans.IS_SWITCH_OFF
-                IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.CONSENT_STATUS.format(consentStatus))
+                IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.CONSENT_STATUS.format(consentStatus) }
                 sdk.setConsentStatus(ContextProvider.getInstance().applicationContext, consentStatus)
             }
             else -> {}
         }
+        // Only tokens fetched after the new value is applied are cached
+        biddingTokenCache.invalidate()
     }
 
     override fun setMetaData(key: String?, values: MutableList<String?>?) {
@@ -176,7 +183,7 @@ class MintegralAdapter : LevelPlayBaseAdapter(), SDKInitStatusListener {
         }
 
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.KEY_VALUE.format(key, value))
+        IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.KEY_VALUE.format(key, value) }
 
         val formattedValue = MetaDataUtils.formatValueForType(
             value,
@@ -194,7 +201,7 @@ class MintegralAdapter : LevelPlayBaseAdapter(), SDKInitStatusListener {
     }
 
     private fun setCCPAValue(ccpa: Boolean) {
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.DO_NOT_TRACK_STATUS.format(ccpa))
+        IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.DO_NOT_TRACK_STATUS.format(ccpa) }
         when (initState) {
             InitState.INIT_STATE_NONE -> doNotSellCollectingUserData = ccpa
             InitState.INIT_STATE_IN_PROGRESS -> {
@@ -203,10 +210,12 @@ class MintegralAdapter : LevelPlayBaseAdapter(), SDKInitStatusListener {
             }
             else -> {}
         }
+        // Only tokens fetched after the new value is applied are cached
+        biddingTokenCache.invalidate()
     }
 
     private fun setCOPPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.COPPA_VALUE.format(value))
+        IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.COPPA_VALUE.format(value) }
         when (initState) {
             InitState.INIT_STATE_SUCCESS -> {
                 val sdk: MBridgeSDK = MBridgeSDKFactory.getMBridgeSDK()
@@ -214,6 +223,8 @@ class MintegralAdapter : LevelPlayBaseAdapter(), SDKInitStatusListener {
             }
             else -> coppaUserData = value
         }
+        // Only tokens fetched after the new value is applied are cached
+        biddingTokenCache.invalidate()
     }
 
     // endregion
@@ -238,13 +249,21 @@ class MintegralAdapter : LevelPlayBaseAdapter(), SDKInitStatusListener {
         unitId?.let { adConfig[BidConstants.BID_FILTER_KEY_UNIT_ID] = it }
         adConfig[BidConstants.BID_FILTER_KEY_AD_TYPE] = adType
 
-        val bidderToken = BidManager.getBuyerUid(context.applicationContext, adConfig)
-        val returnedToken = bidderToken ?: ""
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.TOKEN.format(returnedToken))
+        val applicationContext = context.applicationContext
+        val cacheKey = "$adType|$placementId|$unitId"
+        val fetcher = BiddingTokenCache.TokenFetcher { listener ->
+            listener.onTokenReceived(BidManager.getBuyerUid(applicationContext, adConfig))
+        }
 
-        val biddingDataMap: MutableMap<String?, Any?> = HashMap()
-        biddingDataMap[MintegralConstants.TOKEN_KEY] = returnedToken
-        biddingDataCallback.onSuccess(biddingDataMap)
+        val startTime = SystemClock.elapsedRealtime()
+        biddingTokenCache.getOrFetch(cacheKey, fetcher) { bidderToken ->
+            val returnedToken = bidderToken ?: ""
+            IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.TOKEN.format(returnedToken) }
+
+            biddingDataCallback.onSuccess(
+                tokenEncoder.biddingData(MintegralConstants.TOKEN_KEY, returnedToken, SystemClock.elapsedRealtime() - startTime)
+            )
+        }
     }
 
     private fun setChannelCode() {
@@ -4,12 +4,14 @@ object MintegralConstants {
 
     // Adapter version
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "Mintegral"
 
     // Mintegral configuration keys
     const val APP_ID_KEY = "appId"
     const val APP_KEY = "appKey"
     const val PLACEMENT_ID_KEY = "placementId"
     const val UNIT_ID_KEY = "unitId"
+    const val BIDDING_TOKEN_TTL_KEY = "biddingTokenTTL"
 
     // Meta data keys
     const val META_DATA_MINTEGRAL_COPPA_KEY = "Mintegral_COPPA"
@@ -2,13 +2,17 @@ package com.ironsource.adapters.mintegral.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
 import android.widget.FrameLayout
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.mintegral.MintegralAdapter
 import com.ironsource.adapters.mintegral.MintegralConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -21,12 +25,14 @@ import com.mbridge.msdk.mbbid.out.BidConstants
 import com.mbridge.msdk.out.BannerSize
 import com.mbridge.msdk.out.MBBannerView
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseBanner
+import java.lang.ref.WeakReference
 
 class MintegralBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<MintegralAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var bannerView: MBBannerView? = null
+    private val latencyTracker = LatencyTracker(MintegralConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(MintegralConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<MBBannerView>(MintegralConstants.NETWORK_NAME) { destroyBannerView(it) }
 
     // region Adapter Methods
 
@@ -36,14 +42,15 @@ class MintegralBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val placementId = adData.getString(MintegralConstants.PLACEMENT_ID_KEY)
         val unitId = adData.getString(MintegralConstants.UNIT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.PLACEMENT_ID_AND_UNIT_ID.format(placementId ?: "", unitId ?: ""))
+        IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.PLACEMENT_ID_AND_UNIT_ID.format(placementId ?: "", unitId ?: "") }
 
         if (unitId.isNullOrEmpty()) {
             val errorMessage = MintegralConstants.Logs.MISSING_PARAM.format(MintegralConstants.UNIT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -55,23 +62,27 @@ class MintegralBannerAdapter(networkSettings: NetworkSettings) :
         val layoutParams = createBannerLayoutParams(context, bannerSize)
         val mintegralBannerSize = createBannerSize(context, bannerSize)
 
-        bannerView = MBBannerView(context).apply {
+        val generation = adSlot.begin()
+        val bannerView = MBBannerView(context).apply {
             init(mintegralBannerSize, placementId, unitId)
             setRefreshTime(0)
             setAllowShowCloseBtn(false)
-            setBannerAdListener(MintegralBannerListener(listener, this, layoutParams))
+            setBannerAdListener(MintegralBannerListener(trackedListener, this, layoutParams, WeakReference(this@MintegralBannerAdapter), generation))
         }
 
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.LOAD_BANNER.format(bannerSize.width, bannerSize.height, placementId, unitId, adData.serverData))
-        bannerView?.loadFromBid(adData.serverData)
+        IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.LOAD_BANNER.format(bannerSize.width, bannerSize.height, placementId, unitId, adData.serverData) }
+        bannerView.loadFromBid(adData.serverData)
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
 
-        mainHandler.post {
-            bannerView?.release()
-            bannerView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.release()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -80,29 +91,47 @@ class MintegralBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(MintegralConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(MintegralConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(MintegralConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
         val placementId = adData?.getString(MintegralConstants.PLACEMENT_ID_KEY)
         val unitId = adData?.getString(MintegralConstants.UNIT_ID_KEY)
-        networkAdapter.collectBiddingData(context, BidConstants.BID_FILTER_VALUE_AD_TYPE_BANNER, placementId, unitId, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, BidConstants.BID_FILTER_VALUE_AD_TYPE_BANNER, placementId, unitId, trackedCallback)
     }
 
     // endregion
 
     // region Helper Methods
 
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerView(generation: Long, bannerView: MBBannerView): Boolean {
+        if (!adSlot.set(generation, bannerView)) {
+            destroyBannerView(bannerView)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    internal fun destroyBannerView(bannerView: MBBannerView) {
+        MainThreadScheduler.post { bannerView.release() }
+    }
+
     private fun createBannerSize(context: Context, bannerSize: ISBannerSize): BannerSize {
         return when (bannerSize.description) {
             MintegralConstants.BANNER_SIZE_BANNER -> BannerSize(BannerSize.STANDARD_TYPE, MintegralConstants.BANNER_WIDTH, MintegralConstants.BANNER_HEIGHT)
             MintegralConstants.BANNER_SIZE_LARGE -> BannerSize(BannerSize.LARGE_TYPE, MintegralConstants.LARGE_WIDTH, MintegralConstants.LARGE_HEIGHT)
             MintegralConstants.BANNER_SIZE_RECTANGLE -> BannerSize(BannerSize.MEDIUM_TYPE, MintegralConstants.RECTANGLE_WIDTH, MintegralConstants.RECTANGLE_HEIGHT)
             MintegralConstants.BANNER_SIZE_SMART -> {
-                if (AdapterUtils.isLargeScreen(context)) {
+                if (BannerLayouts.isLargeScreen(context)) {
                     BannerSize(BannerSize.SMART_TYPE, MintegralConstants.LEADERBOARD_WIDTH, MintegralConstants.LEADERBOARD_HEIGHT)
                 } else {
                     BannerSize(BannerSize.STANDARD_TYPE, MintegralConstants.BANNER_WIDTH, MintegralConstants.BANNER_HEIGHT)
@@ -113,39 +142,18 @@ class MintegralBannerAdapter(networkSettings: NetworkSettings) :
     }
 
     private fun createBannerLayoutParams(context: Context, size: ISBannerSize): FrameLayout.LayoutParams {
-        var layoutParams = FrameLayout.LayoutParams(0, 0)
-
-        when (size.description) {
-            MintegralConstants.BANNER_SIZE_BANNER -> layoutParams = FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, MintegralConstants.BANNER_WIDTH),
-                AdapterUtils.dpToPixels(context, MintegralConstants.BANNER_HEIGHT)
-            )
-            MintegralConstants.BANNER_SIZE_LARGE -> layoutParams = FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, MintegralConstants.LARGE_WIDTH),
-                AdapterUtils.dpToPixels(context, MintegralConstants.LARGE_HEIGHT)
-            )
-            MintegralConstants.BANNER_SIZE_RECTANGLE -> layoutParams = FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, MintegralConstants.RECTANGLE_WIDTH),
-                AdapterUtils.dpToPixels(context, MintegralConstants.RECTANGLE_HEIGHT)
-            )
-            MintegralConstants.BANNER_SIZE_SMART -> layoutParams = if (AdapterUtils.isLargeScreen(context)) {
-                FrameLayout.LayoutParams(
-                    AdapterUtils.dpToPixels(context, MintegralConstants.LEADERBOARD_WIDTH),
-                    AdapterUtils.dpToPixels(context, MintegralConstants.LEADERBOARD_HEIGHT)
-                )
+        val layoutParams = when (size.description) {
+            MintegralConstants.BANNER_SIZE_BANNER -> BannerLayouts.layoutParams(context, MintegralConstants.BANNER_WIDTH, MintegralConstants.BANNER_HEIGHT, Gravity.CENTER)
+            MintegralConstants.BANNER_SIZE_LARGE -> BannerLayouts.layoutParams(context, MintegralConstants.LARGE_WIDTH, MintegralConstants.LARGE_HEIGHT, Gravity.CENTER)
+            MintegralConstants.BANNER_SIZE_RECTANGLE -> BannerLayouts.layoutParams(context, MintegralConstants.RECTANGLE_WIDTH, MintegralConstants.RECTANGLE_HEIGHT, Gravity.CENTER)
+            MintegralConstants.BANNER_SIZE_SMART -> if (BannerLayouts.isLargeScreen(context)) {
+                BannerLayouts.layoutParams(context, MintegralConstants.LEADERBOARD_WIDTH, MintegralConstants.LEADERBOARD_HEIGHT, Gravity.CENTER)
             } else {
-                FrameLayout.LayoutParams(
-                    AdapterUtils.dpToPixels(context, MintegralConstants.BANNER_WIDTH),
-                    AdapterUtils.dpToPixels(context, MintegralConstants.BANNER_HEIGHT)
-                )
+                BannerLayouts.layoutParams(context, MintegralConstants.BANNER_WIDTH, MintegralConstants.BANNER_HEIGHT, Gravity.CENTER)
             }
-            MintegralConstants.BANNER_SIZE_CUSTOM -> layoutParams = FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, size.width),
-                AdapterUtils.dpToPixels(context, size.height)
-            )
+            MintegralConstants.BANNER_SIZE_CUSTOM -> BannerLayouts.layoutParams(context, size.width, size.height, Gravity.CENTER)
+            else -> BannerLayouts.layoutParams(context, 0, 0, Gravity.CENTER)
         }
-
-        layoutParams.gravity = Gravity.CENTER
         return layoutParams
     }
 
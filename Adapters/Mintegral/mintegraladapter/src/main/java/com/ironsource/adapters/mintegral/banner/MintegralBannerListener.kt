@@ -1,6 +1,7 @@
 package com.ironsource.adapters.mintegral.banner
 
 import android.widget.FrameLayout
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.mintegral.MintegralConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -8,17 +9,24 @@ import com.ironsource.mediationsdk.logger.IronLog
 import com.mbridge.msdk.out.BannerAdWithCodeListener
 import com.mbridge.msdk.out.MBBannerView
 import com.mbridge.msdk.out.MBridgeIds
+import java.lang.ref.WeakReference
 
 class MintegralBannerListener(
     private val listener: BannerAdListener,
     private val bannerView: MBBannerView,
-    private val layoutParams: FrameLayout.LayoutParams
+    private val layoutParams: FrameLayout.LayoutParams,
+    private val adapter: WeakReference<MintegralBannerAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : BannerAdWithCodeListener() {
 
     override fun onLoadSuccessed(bridgeIds: MBridgeIds?) {
         val creativeId = bannerView.creativeIdWithUnitId
-        IronLog.ADAPTER_CALLBACK.verbose(MintegralConstants.Logs.CREATIVE_ID.format(creativeId))
+        IronLog.ADAPTER_CALLBACK.verbose { MintegralConstants.Logs.CREATIVE_ID.format(creativeId) }
 
+        if (adapter.get()?.setBannerView(generation, bannerView) == false) {
+            return
+        }
         if (creativeId.isNullOrEmpty()) {
             listener.onAdLoadSuccess(bannerView, layoutParams)
         } else {
@@ -28,7 +36,7 @@ class MintegralBannerListener(
     }
 
     override fun onLoadFailedWithCode(bridgeIds: MBridgeIds?, errorCode: Int, errorMsg: String?) {
-        IronLog.ADAPTER_CALLBACK.verbose(MintegralConstants.Logs.ERROR_CODE_MSG.format(errorCode, errorMsg))
+        IronLog.ADAPTER_CALLBACK.verbose { MintegralConstants.Logs.ERROR_CODE_MSG.format(errorCode, errorMsg) }
 
         val errorType = if (errorCode == MintegralConstants.MINTEGRAL_NO_FILL_ERROR_CODE) {
             AdapterErrorType.ADAPTER_ERROR_TYPE_NO_FILL
@@ -36,6 +44,7 @@ class MintegralBannerListener(
             AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL
         }
 
+        adapter.get()?.destroyBannerView(bannerView)
         listener.onAdLoadFailed(errorType, errorCode, errorMsg)
     }
 
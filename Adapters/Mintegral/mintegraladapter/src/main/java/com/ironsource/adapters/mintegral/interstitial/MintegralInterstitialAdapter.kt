@@ -2,6 +2,10 @@ package com.ironsource.adapters.mintegral.interstitial
 
 import android.app.Activity
 import android.content.Context
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.mintegral.MintegralAdapter
 import com.ironsource.adapters.mintegral.MintegralConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
@@ -20,6 +24,8 @@ import java.util.concurrent.ConcurrentHashMap
 class MintegralInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<MintegralAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(MintegralConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(MintegralConstants.NETWORK_NAME)
     private var interstitialAd: MBBidNewInterstitialHandler? = null
     private var interstitialAdListener: MintegralInterstitialListener? = null
     private var reservedPlacementId: String? = null
@@ -35,14 +41,15 @@ class MintegralInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         listener: InterstitialAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val placementId = adData.getString(MintegralConstants.PLACEMENT_ID_KEY)
         val unitId = adData.getString(MintegralConstants.UNIT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.PLACEMENT_ID_AND_UNIT_ID.format(placementId ?: "", unitId ?: ""))
+        IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.PLACEMENT_ID_AND_UNIT_ID.format(placementId ?: "", unitId ?: "") }
 
         if (unitId.isNullOrEmpty()) {
             val errorMessage = MintegralConstants.Logs.MISSING_PARAM.format(MintegralConstants.UNIT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -52,7 +59,7 @@ class MintegralInterstitialAdapter(networkSettings: NetworkSettings) :
 
         if (placementId in interstitialPlacementIds) {
             IronLog.INTERNAL.error(MintegralConstants.Logs.DUPLICATE_PLACEMENT_IS)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 MintegralConstants.Logs.DUPLICATE_PLACEMENT_IS
@@ -70,11 +77,11 @@ class MintegralInterstitialAdapter(networkSettings: NetworkSettings) :
             placementId,
             unitId
         ).apply {
-            interstitialAdListener = MintegralInterstitialListener(listener, this)
+            interstitialAdListener = MintegralInterstitialListener(trackedListener, this)
             setInterstitialVideoListener(interstitialAdListener)
         }
 
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.LOAD_INTERSTITIAL.format(placementId, unitId, adData.serverData))
+        IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.LOAD_INTERSTITIAL.format(placementId, unitId, adData.serverData) }
         interstitialAd?.loadFromBid(adData.serverData)
     }
 
@@ -83,13 +90,14 @@ class MintegralInterstitialAdapter(networkSettings: NetworkSettings) :
         activity: Activity,
         listener: InterstitialAdListener
     ) {
+        val trackedListener = latencyTracker.trackShow(listener)
         val placementId = adData.getString(MintegralConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.PLACEMENT_ID.format(placementId))
+        IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.PLACEMENT_ID.format(placementId) }
         reservedPlacementId?.let { interstitialPlacementIds.remove(it) }
         reservedPlacementId = null
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 MintegralConstants.Logs.AD_NOT_AVAILABLE
             )
@@ -104,10 +112,12 @@ class MintegralInterstitialAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         val placementId = adData.getString(MintegralConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.PLACEMENT_ID.format(placementId))
+        IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.PLACEMENT_ID.format(placementId) }
         reservedPlacementId?.let { interstitialPlacementIds.remove(it) }
         reservedPlacementId = null
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.LISTENER, interstitialAdListener)
         interstitialAdListener = null
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, interstitialAd)
         interstitialAd = null
     }
 
@@ -116,16 +126,17 @@ class MintegralInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(MintegralConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(MintegralConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(MintegralConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
         val placementId = adData?.getString(MintegralConstants.PLACEMENT_ID_KEY)
         val unitId = adData?.getString(MintegralConstants.UNIT_ID_KEY)
-        networkAdapter.collectBiddingData(context, BidConstants.BID_FILTER_VALUE_AD_TYPE_INTERSTITIAL_VIDEO, placementId, unitId, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, BidConstants.BID_FILTER_VALUE_AD_TYPE_INTERSTITIAL_VIDEO, placementId, unitId, trackedCallback)
     }
 
     // endregion
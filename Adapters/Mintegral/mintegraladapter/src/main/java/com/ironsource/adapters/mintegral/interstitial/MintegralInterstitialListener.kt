@@ -1,5 +1,6 @@
 package com.ironsource.adapters.mintegral.interstitial
 
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.mintegral.MintegralConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -16,7 +17,7 @@ class MintegralInterstitialListener(
 
     override fun onResourceLoadSuccess(bridgeIds: MBridgeIds?) {
         val creativeId = interstitialHandler.creativeIdWithUnitId
-        IronLog.ADAPTER_CALLBACK.verbose(MintegralConstants.Logs.CREATIVE_ID.format(creativeId))
+        IronLog.ADAPTER_CALLBACK.verbose { MintegralConstants.Logs.CREATIVE_ID.format(creativeId) }
 
         if (creativeId.isNullOrEmpty()) {
             listener.onAdLoadSuccess()
@@ -31,7 +32,7 @@ class MintegralInterstitialListener(
     }
 
     override fun onResourceLoadFailWithCode(bridgeIds: MBridgeIds?, errorCode: Int, errorMsg: String?) {
-        IronLog.ADAPTER_CALLBACK.verbose(MintegralConstants.Logs.ERROR_CODE_MSG.format(errorCode, errorMsg))
+        IronLog.ADAPTER_CALLBACK.verbose { MintegralConstants.Logs.ERROR_CODE_MSG.format(errorCode, errorMsg) }
 
         val errorType = if (errorCode == MintegralConstants.MINTEGRAL_NO_FILL_ERROR_CODE) {
             AdapterErrorType.ADAPTER_ERROR_TYPE_NO_FILL
@@ -53,7 +54,7 @@ class MintegralInterstitialListener(
     }
 
     override fun onShowFailWithCode(bridgeIds: MBridgeIds?, errorCode: Int, errorMsg: String?) {
-        IronLog.ADAPTER_CALLBACK.verbose(MintegralConstants.Logs.ERROR_CODE_MSG.format(errorCode, errorMsg))
+        IronLog.ADAPTER_CALLBACK.verbose { MintegralConstants.Logs.ERROR_CODE_MSG.format(errorCode, errorMsg) }
         listener.onAdShowFailed(errorCode, errorMsg)
     }
 
@@ -2,6 +2,10 @@ package com.ironsource.adapters.mintegral.rewarded
 
 import android.app.Activity
 import android.content.Context
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.mintegral.MintegralAdapter
 import com.ironsource.adapters.mintegral.MintegralConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
@@ -20,6 +24,8 @@ import java.util.concurrent.ConcurrentHashMap
 class MintegralRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<MintegralAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(MintegralConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(MintegralConstants.NETWORK_NAME)
     private var rewardedVideoAd: MBBidRewardVideoHandler? = null
     private var rewardedAdListener: MintegralRewardedListener? = null
     private var reservedPlacementId: String? = null
@@ -35,14 +41,15 @@ class MintegralRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         listener: RewardedVideoAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val placementId = adData.getString(MintegralConstants.PLACEMENT_ID_KEY)
         val unitId = adData.getString(MintegralConstants.UNIT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.PLACEMENT_ID_AND_UNIT_ID.format(placementId ?: "", unitId ?: ""))
+        IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.PLACEMENT_ID_AND_UNIT_ID.format(placementId ?: "", unitId ?: "") }
 
         if (unitId.isNullOrEmpty()) {
             val errorMessage = MintegralConstants.Logs.MISSING_PARAM.format(MintegralConstants.UNIT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -52,7 +59,7 @@ class MintegralRewardedAdapter(networkSettings: NetworkSettings) :
 
         if (placementId in rewardedPlacementIds) {
             IronLog.INTERNAL.error(MintegralConstants.Logs.DUPLICATE_PLACEMENT_RV)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 MintegralConstants.Logs.DUPLICATE_PLACEMENT_RV
@@ -70,11 +77,11 @@ class MintegralRewardedAdapter(networkSettings: NetworkSettings) :
             placementId,
             unitId
         ).apply {
-            rewardedAdListener = MintegralRewardedListener(listener, this)
+            rewardedAdListener = MintegralRewardedListener(trackedListener, this)
             setRewardVideoListener(rewardedAdListener)
         }
 
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.LOAD_REWARDED.format(placementId, unitId, adData.serverData))
+        IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.LOAD_REWARDED.format(placementId, unitId, adData.serverData) }
         rewardedVideoAd?.loadFromBid(adData.serverData)
     }
 
@@ -83,13 +90,14 @@ class MintegralRewardedAdapter(networkSettings: NetworkSettings) :
         activity: Activity,
         listener: RewardedVideoAdListener
     ) {
+        val trackedListener = latencyTracker.trackShow(listener)
         val placementId = adData.getString(MintegralConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.PLACEMENT_ID.format(placementId))
+        IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.PLACEMENT_ID.format(placementId) }
         reservedPlacementId?.let { rewardedPlacementIds.remove(it) }
         reservedPlacementId = null
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 MintegralConstants.Logs.AD_NOT_AVAILABLE
             )
@@ -109,10 +117,12 @@ class MintegralRewardedAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         val placementId = adData.getString(MintegralConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MintegralConstants.Logs.PLACEMENT_ID.format(placementId))
+        IronLog.ADAPTER_API.verbose { MintegralConstants.Logs.PLACEMENT_ID.format(placementId) }
         reservedPlacementId?.let { rewardedPlacementIds.remove(it) }
         reservedPlacementId = null
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.LISTENER, rewardedAdListener)
         rewardedAdListener = null
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, rewardedVideoAd)
         rewardedVideoAd = null
     }
 
@@ -121,16 +131,17 @@ class MintegralRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(MintegralConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(MintegralConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(MintegralConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
         val placementId = adData?.getString(MintegralConstants.PLACEMENT_ID_KEY)
         val unitId = adData?.getString(MintegralConstants.UNIT_ID_KEY)
-        networkAdapter.collectBiddingData(context, BidConstants.BID_FILTER_VALUE_AD_TYPE_REWARD_VIDEO, placementId, unitId, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, BidConstants.BID_FILTER_VALUE_AD_TYPE_REWARD_VIDEO, placementId, unitId, trackedCallback)
     }
 
     // endregion
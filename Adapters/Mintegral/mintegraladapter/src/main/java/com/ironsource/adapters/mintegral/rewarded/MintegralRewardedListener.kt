@@ -1,5 +1,6 @@
 package com.ironsource.adapters.mintegral.rewarded
 
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.mintegral.MintegralConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -16,7 +17,7 @@ class MintegralRewardedListener(
 
     override fun onVideoLoadSuccess(bridgeIds: MBridgeIds?) {
         val creativeId = rewardedVideoHandler.creativeIdWithUnitId
-        IronLog.ADAPTER_CALLBACK.verbose(MintegralConstants.Logs.CREATIVE_ID.format(creativeId))
+        IronLog.ADAPTER_CALLBACK.verbose { MintegralConstants.Logs.CREATIVE_ID.format(creativeId) }
 
         if (creativeId.isNullOrEmpty()) {
             listener.onAdLoadSuccess()
@@ -31,7 +32,7 @@ class MintegralRewardedListener(
     }
 
     override fun onVideoLoadFailWithCode(bridgeIds: MBridgeIds?, errorCode: Int, errorMsg: String?) {
-        IronLog.ADAPTER_CALLBACK.verbose(MintegralConstants.Logs.ERROR_CODE_MSG.format(errorCode, errorMsg))
+        IronLog.ADAPTER_CALLBACK.verbose { MintegralConstants.Logs.ERROR_CODE_MSG.format(errorCode, errorMsg) }
 
         val errorType = if (errorCode == MintegralConstants.MINTEGRAL_NO_FILL_ERROR_CODE) {
             AdapterErrorType.ADAPTER_ERROR_TYPE_NO_FILL
@@ -48,7 +49,7 @@ class MintegralRewardedListener(
     }
 
     override fun onAdClose(bridgeIds: MBridgeIds?, rewardInfo: RewardInfo?) {
-        IronLog.ADAPTER_CALLBACK.verbose(MintegralConstants.Logs.REWARDED_INFO.format(rewardInfo?.isCompleteView))
+        IronLog.ADAPTER_CALLBACK.verbose { MintegralConstants.Logs.REWARDED_INFO.format(rewardInfo?.isCompleteView) }
         if (rewardInfo?.isCompleteView == true) {
             listener.onAdRewarded()
         }
@@ -56,7 +57,7 @@ class MintegralRewardedListener(
     }
 
     override fun onShowFailWithCode(bridgeIds: MBridgeIds?, errorCode: Int, errorMsg: String?) {
-        IronLog.ADAPTER_CALLBACK.verbose(MintegralConstants.Logs.ERROR_CODE_MSG.format(errorCode, errorMsg))
+        IronLog.ADAPTER_CALLBACK.verbose { MintegralConstants.Logs.ERROR_CODE_MSG.format(errorCode, errorMsg) }
         listener.onAdShowFailed(errorCode, errorMsg)
     }
 
@@ -1,6 +1,10 @@
 package com.ironsource.adapters.mobilefuse
 
 import android.content.Context
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -16,26 +20,16 @@ import com.mobilefuse.sdk.internal.TokenGeneratorListener
 import com.mobilefuse.sdk.privacy.MobileFusePrivacyPreferences
 import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
-class MobileFuseAdapter() : LevelPlayBaseAdapter(), com.mobilefuse.sdk.SdkInitListener {
+class MobileFuseAdapter() : LevelPlayBaseAdapter() {
 
     companion object {
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         private const val GitHash: String = BuildConfig.GitHash
 
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(MobileFuseConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
 
         // Privacy values
         private var coppaValue: Boolean = false
@@ -59,6 +53,9 @@ class MobileFuseAdapter() : LevelPlayBaseAdapter(), com.mobilefuse.sdk.SdkInitLi
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(MobileFuseConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         // Check if already initialized
         if (initState == InitState.INIT_STATE_SUCCESS) {
             networkInitializationListener?.onInitSuccess()
@@ -66,27 +63,30 @@ class MobileFuseAdapter() : LevelPlayBaseAdapter(), com.mobilefuse.sdk.SdkInitLi
         }
 
         // Check if init failed previously
-        if (initState == InitState.INIT_STATE_FAILED) {
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(MobileFuseConstants.Logs.INIT_FAILED)
             networkInitializationListener?.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, MobileFuseConstants.Logs.INIT_FAILED)
             return
         }
 
-        // Add listener to list if initialization is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initListeners.add(it) }
-        }
-
-        // Start initialization if not called yet
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
             IronLog.ADAPTER_API.verbose()
 
             MobileFuseSettings.setSdkAdapter(MobileFuseConstants.MEDIATION_NAME, adapterVersion)
 
             // Init MobileFuse SDK
-            MobileFuse.init(this)
+            // The callbacks are bound to the attempt, so a late callback can't complete a retry
+            MobileFuse.init(object : com.mobilefuse.sdk.SdkInitListener {
+                override fun onInitSuccess() {
+                    initializationSuccess(attempt)
+                }
+
+                override fun onInitError() {
+                    initializationFailure(attempt)
+                }
+            })
         }
     }
 
@@ -94,30 +94,18 @@ class MobileFuseAdapter() : LevelPlayBaseAdapter(), com.mobilefuse.sdk.SdkInitLi
 
     // region MobileFuse SDK Init Callbacks
 
-    override fun onInitSuccess() {
+    private fun initializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose(MobileFuseConstants.Logs.INIT_SUCCESS)
 
-        initState = InitState.INIT_STATE_SUCCESS
-
         // Iterate over all the adapter instances and report init success
-        for (listener in initListeners) {
-            listener.onInitSuccess()
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    override fun onInitError() {
+    private fun initializationFailure(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.error(MobileFuseConstants.Logs.INIT_FAILED)
 
-        initState = InitState.INIT_STATE_FAILED
-
         // Iterate over all the adapter instances and report init failed
-        for (listener in initListeners) {
-            listener.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, MobileFuseConstants.Logs.INIT_FAILED)
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, MobileFuseConstants.Logs.INIT_FAILED)
     }
 
     // endregion
@@ -131,7 +119,7 @@ class MobileFuseAdapter() : LevelPlayBaseAdapter(), com.mobilefuse.sdk.SdkInitLi
 
         // This is a list of 1 value
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(MobileFuseConstants.Logs.META_DATA.format(key, value))
+        IronLog.ADAPTER_API.verbose { MobileFuseConstants.Logs.META_DATA.format(key, value) }
 
         val formattedValue: String = MetaDataUtils.formatValueForType(value, MetaData.MetaDataValueTypes.META_DATA_VALUE_BOOLEAN)
 
@@ -150,12 +138,12 @@ class MobileFuseAdapter() : LevelPlayBaseAdapter(), com.mobilefuse.sdk.SdkInitLi
     }
 
     override fun setConsent(consent: Boolean) {
-        IronLog.ADAPTER_API.verbose(MobileFuseConstants.Logs.CONSENT.format(consent))
+        IronLog.ADAPTER_API.verbose { MobileFuseConstants.Logs.CONSENT.format(consent) }
         doNotTrackValue = !consent // true means user agreed to tracking
     }
 
     private fun setCCPAValue(doNotSell: Boolean) {
-        IronLog.ADAPTER_API.verbose(MobileFuseConstants.Logs.CCPA.format(doNotSell))
+        IronLog.ADAPTER_API.verbose { MobileFuseConstants.Logs.CCPA.format(doNotSell) }
         doNotSellValue = if (doNotSell) {
             MobileFuseConstants.DO_NOT_SELL_YES_VALUE
         } else {
@@ -164,7 +152,7 @@ class MobileFuseAdapter() : LevelPlayBaseAdapter(), com.mobilefuse.sdk.SdkInitLi
     }
 
     private fun setCOPPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(MobileFuseConstants.Logs.COPPA.format(value))
+        IronLog.ADAPTER_API.verbose { MobileFuseConstants.Logs.COPPA.format(value) }
         coppaValue = value
     }
 
@@ -203,7 +191,7 @@ class MobileFuseAdapter() : LevelPlayBaseAdapter(), com.mobilefuse.sdk.SdkInitLi
             object : TokenGeneratorListener {
 
                 override fun onTokenGenerated(token: String) {
-                    IronLog.ADAPTER_API.verbose(MobileFuseConstants.Logs.TOKEN.format(token))
+                    IronLog.ADAPTER_API.verbose { MobileFuseConstants.Logs.TOKEN.format(token) }
                     val result: MutableMap<String, Any> = HashMap()
                     result[MobileFuseConstants.TOKEN_KEY] = token
                     biddingDataCallback.onSuccess(result)
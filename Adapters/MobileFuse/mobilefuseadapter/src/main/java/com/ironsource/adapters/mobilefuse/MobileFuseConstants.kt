@@ -4,6 +4,7 @@ object MobileFuseConstants {
 
     // Adapter version
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "MobileFuse"
 
     // Configuration keys
     const val PLACEMENT_ID_KEY = "placementId"
@@ -2,13 +2,16 @@ package com.ironsource.adapters.mobilefuse.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
-import android.widget.FrameLayout
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.mobilefuse.MobileFuseAdapter
 import com.ironsource.adapters.mobilefuse.MobileFuseConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -20,12 +23,14 @@ import com.ironsource.mediationsdk.model.NetworkSettings
 import com.mobilefuse.sdk.MobileFuseBannerAd
 import com.mobilefuse.sdk.MobileFuseBannerAd.AdSize
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseBanner
+import java.lang.ref.WeakReference
 
 class MobileFuseBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<MobileFuseAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var bannerAdView: MobileFuseBannerAd? = null
+    private val latencyTracker = LatencyTracker(MobileFuseConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(MobileFuseConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<MobileFuseBannerAd>(MobileFuseConstants.NETWORK_NAME) { destroyBannerAd(it) }
 
     // region LevelPlay Banner API
 
@@ -35,13 +40,14 @@ class MobileFuseBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val placementId = adData.getString(MobileFuseConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MobileFuseConstants.Logs.PLACEMENT_ID.format(placementId ?: ""))
+        IronLog.ADAPTER_API.verbose { MobileFuseConstants.Logs.PLACEMENT_ID.format(placementId ?: "") }
 
         if (placementId.isNullOrEmpty()) {
             val errorMessage = MobileFuseConstants.Logs.MISSING_PARAM.format(MobileFuseConstants.PLACEMENT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -53,7 +59,7 @@ class MobileFuseBannerAdapter(networkSettings: NetworkSettings) :
         if (serverData.isNullOrEmpty()) {
             val errorMessage = MobileFuseConstants.Logs.MISSING_PARAM.format(MobileFuseConstants.SERVER_DATA)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -62,10 +68,10 @@ class MobileFuseBannerAdapter(networkSettings: NetworkSettings) :
         }
 
         val appContext = activity.applicationContext
-        val mobileFuseBannerSize = getBannerSize(bannerSize, AdapterUtils.isLargeScreen(appContext))
+        val mobileFuseBannerSize = getBannerSize(bannerSize, BannerLayouts.isLargeScreen(appContext))
         if (mobileFuseBannerSize == null) {
             IronLog.INTERNAL.error(MobileFuseConstants.UNSUPPORTED_BANNER_SIZE)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 MobileFuseConstants.UNSUPPORTED_BANNER_SIZE
@@ -73,29 +79,29 @@ class MobileFuseBannerAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        val layoutParams = FrameLayout.LayoutParams(
-            AdapterUtils.dpToPixels(appContext, bannerSize.width),
-            AdapterUtils.dpToPixels(appContext, bannerSize.height),
-            Gravity.CENTER
-        )
+        val layoutParams = BannerLayouts.layoutParams(appContext, bannerSize.width, bannerSize.height, Gravity.CENTER)
 
-        bannerAdView = MobileFuseBannerAd(
+        val bannerAdView = MobileFuseBannerAd(
             appContext,
             placementId,
             mobileFuseBannerSize
         )
-        bannerAdView?.setListener(MobileFuseBannerListener(listener, bannerAdView!!, layoutParams))
-        bannerAdView?.autorefreshEnabled = false
-        bannerAdView?.setMuted(true)
-        bannerAdView?.loadAdFromBiddingToken(serverData)
+        val generation = adSlot.begin()
+        bannerAdView.setListener(MobileFuseBannerListener(trackedListener, bannerAdView, layoutParams, WeakReference(this), generation))
+        bannerAdView.autorefreshEnabled = false
+        bannerAdView.setMuted(true)
+        bannerAdView.loadAdFromBiddingToken(serverData)
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            bannerAdView?.setListener(null)
-            bannerAdView?.destroy()
-            bannerAdView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.setListener(null)
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -104,22 +110,43 @@ class MobileFuseBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(MobileFuseConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(MobileFuseConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(MobileFuseConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, trackedCallback)
     }
 
     // endregion
 
     // region Helper Methods
 
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerAd(generation: Long, bannerAdView: MobileFuseBannerAd): Boolean {
+        if (!adSlot.set(generation, bannerAdView)) {
+            destroyBannerAd(bannerAdView)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    internal fun destroyBannerAd(bannerAdView: MobileFuseBannerAd) {
+        MainThreadScheduler.post {
+            bannerAdView.setListener(null)
+            bannerAdView.destroy()
+        }
+    }
+
     private fun getBannerSize(size: ISBannerSize, isLargeScreen: Boolean): AdSize? {
         return when (size.description) {
             ISBannerSize.BANNER.description-> AdSize.BANNER_320x50
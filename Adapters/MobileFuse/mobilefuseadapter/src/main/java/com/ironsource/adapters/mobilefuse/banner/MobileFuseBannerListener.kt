@@ -8,11 +8,15 @@ import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
 import com.ironsource.mediationsdk.logger.IronLog
 import com.mobilefuse.sdk.AdError
 import com.mobilefuse.sdk.MobileFuseBannerAd
+import java.lang.ref.WeakReference
 
 class MobileFuseBannerListener(
     private val listener: BannerAdListener,
     private val adView: MobileFuseBannerAd,
-    private val layoutParams: FrameLayout.LayoutParams
+    private val layoutParams: FrameLayout.LayoutParams,
+    private val adapter: WeakReference<MobileFuseBannerAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : MobileFuseBannerAd.Listener {
 
     /**
@@ -20,6 +24,9 @@ class MobileFuseBannerListener(
      */
     override fun onAdLoaded() {
         IronLog.ADAPTER_CALLBACK.verbose()
+        if (adapter.get()?.setBannerAd(generation, adView) == false) {
+            return
+        }
         listener.onAdLoadSuccess(adView, layoutParams)
     }
 
@@ -28,6 +35,7 @@ class MobileFuseBannerListener(
      */
     override fun onAdNotFilled() {
         IronLog.ADAPTER_CALLBACK.verbose(MobileFuseConstants.BANNER_AD_NOT_FILLED)
+        adapter.get()?.destroyBannerAd(adView)
         listener.onAdLoadFailed(
             AdapterErrorType.ADAPTER_ERROR_TYPE_NO_FILL,
             AdapterErrors.ADAPTER_ERROR_INTERNAL,
@@ -2,6 +2,10 @@ package com.ironsource.adapters.mobilefuse.rewarded
 
 import android.app.Activity
 import android.content.Context
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.mobilefuse.MobileFuseAdapter
 import com.ironsource.adapters.mobilefuse.MobileFuseConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
@@ -17,6 +21,8 @@ import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseRewardedVideo
 class MobileFuseRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<MobileFuseAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(MobileFuseConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(MobileFuseConstants.NETWORK_NAME)
     private var rewardedAd: MobileFuseRewardedAd? = null
 
     // region LevelPlay Rewarded Video API
@@ -26,13 +32,14 @@ class MobileFuseRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         listener: RewardedVideoAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val placementId = adData.getString(MobileFuseConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MobileFuseConstants.Logs.PLACEMENT_ID.format(placementId ?: ""))
+        IronLog.ADAPTER_API.verbose { MobileFuseConstants.Logs.PLACEMENT_ID.format(placementId ?: "") }
 
         if (placementId.isNullOrEmpty()) {
             val errorMessage = MobileFuseConstants.Logs.MISSING_PARAM.format(MobileFuseConstants.PLACEMENT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -44,7 +51,7 @@ class MobileFuseRewardedAdapter(networkSettings: NetworkSettings) :
         if (serverData.isNullOrEmpty()) {
             val errorMessage = MobileFuseConstants.Logs.MISSING_PARAM.format(MobileFuseConstants.SERVER_DATA)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -53,7 +60,7 @@ class MobileFuseRewardedAdapter(networkSettings: NetworkSettings) :
         }
 
         rewardedAd = MobileFuseRewardedAd(context.applicationContext, placementId)
-        rewardedAd?.setListener(MobileFuseRewardedListener(listener))
+        rewardedAd?.setListener(MobileFuseRewardedListener(trackedListener))
         rewardedAd?.loadAdFromBiddingToken(serverData)
     }
 
@@ -62,10 +69,11 @@ class MobileFuseRewardedAdapter(networkSettings: NetworkSettings) :
         activity: Activity,
         listener: RewardedVideoAdListener
     ) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 MobileFuseConstants.AD_NOT_AVAILABLE
             )
@@ -80,6 +88,7 @@ class MobileFuseRewardedAdapter(networkSettings: NetworkSettings) :
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
         rewardedAd?.setListener(null)
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, rewardedAd)
         rewardedAd = null
     }
 
@@ -88,14 +97,15 @@ class MobileFuseRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(MobileFuseConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(MobileFuseConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(MobileFuseConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, trackedCallback)
     }
 
     // endregion
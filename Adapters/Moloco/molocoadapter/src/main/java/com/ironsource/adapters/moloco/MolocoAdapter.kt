@@ -1,6 +1,13 @@
 package com.ironsource.adapters.moloco
 
 import android.content.Context
+import android.os.SystemClock
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.TokenEncoder
+import com.ironsource.adapters.common.verbose
+import com.ironsource.mediationsdk.LoadWhileShowSupportState
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -16,8 +23,6 @@ import com.moloco.sdk.publisher.init.MolocoInitParams
 import com.moloco.sdk.publisher.privacy.MolocoPrivacy
 import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class MolocoAdapter : LevelPlayBaseAdapter() {
 
@@ -26,18 +31,20 @@ class MolocoAdapter : LevelPlayBaseAdapter() {
 
         internal val mediationInfo = MediationInfo(MolocoConstants.MEDIATION_NAME)
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(MolocoConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
+
+        // Bidding data of the tokens, with the token size table
+        private val tokenEncoder = TokenEncoder.forNetwork(MolocoConstants.NETWORK_NAME)
+
+        @Volatile
+        private var isAdPreparationConfigured = false
+
+        // Full-screen ads are created while their bidding token is collected if enabled by the network settings
+        internal val isAdPreparationEnabled: Boolean
+            get() = isAdPreparationConfigured && initState == InitState.INIT_STATE_SUCCESS
 
         @JvmStatic
         fun networkAdapterVersion(): String = MolocoConstants.ADAPTER_VERSION
@@ -51,11 +58,18 @@ class MolocoAdapter : LevelPlayBaseAdapter() {
 
     override fun isUsingActivityBeforeImpression(adFormat: LevelPlay.AdFormat): Boolean = false
 
+    // The network's capability to load a full-screen ad while the ad of the same instance is showing
+    override fun getLoadWhileShowSupportState(): LoadWhileShowSupportState =
+        LoadWhileShowSupportState.LOAD_WHILE_SHOW_BY_INSTANCE
+
     override fun init(
         adData: AdData,
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(MolocoConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         val appKey = adData.getString(MolocoConstants.APP_KEY)
         val adUnitId = adData.getString(MolocoConstants.AD_UNIT_ID_KEY)
 
@@ -79,6 +93,10 @@ class MolocoAdapter : LevelPlayBaseAdapter() {
             return
         }
 
+        // Bidding tokens are sent as they are unless their compression is enabled
+        tokenEncoder.configure(adData.getString(TokenEncoder.ENCODING_KEY))
+        isAdPreparationConfigured = adData.getString(MolocoConstants.PREPARE_AD_KEY).toBoolean()
+
         // Check if already initialized
         if (initState == InitState.INIT_STATE_SUCCESS) {
             networkInitializationListener?.onInitSuccess()
@@ -86,22 +104,16 @@ class MolocoAdapter : LevelPlayBaseAdapter() {
         }
 
         // Check if initialization failed
-        if (initState == InitState.INIT_STATE_FAILED) {
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(MolocoConstants.Logs.SDK_INIT_FAILED)
             networkInitializationListener?.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, MolocoConstants.Logs.SDK_INIT_FAILED)
             return
         }
 
-        // Add listener to list if initialization is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initListeners.add(it) }
-        }
-
-        // Start initialization if not called yet
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-
-            IronLog.ADAPTER_API.verbose(MolocoConstants.Logs.APP_KEY_AND_AD_UNIT_ID.format(appKey, adUnitId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { MolocoConstants.Logs.APP_KEY_AND_AD_UNIT_ID.format(appKey, adUnitId) }
 
             // Set log level
             MolocoLogger.logEnabled = isAdaptersDebugEnabled()
@@ -110,36 +122,24 @@ class MolocoAdapter : LevelPlayBaseAdapter() {
             Moloco.initialize(MolocoInitParams(context.applicationContext, appKey, mediationInfo)) { molocoInitStatus ->
                 val description = molocoInitStatus.description
                 if (molocoInitStatus.initialization == Initialization.SUCCESS) {
-                    onInitializationSuccess(description)
+                    onInitializationSuccess(attempt, description)
                 } else {
-                    onInitializationFailure(description)
+                    onInitializationFailure(attempt, description)
                 }
             }
         }
     }
 
-    private fun onInitializationSuccess(description: String) {
-        IronLog.ADAPTER_CALLBACK.verbose(MolocoConstants.Logs.INIT_SUCCESS.format(description))
-
-        initState = InitState.INIT_STATE_SUCCESS
-
-        for (listener in initListeners) {
-            listener.onInitSuccess()
-        }
+    private fun onInitializationSuccess(attempt: Int, description: String) {
+        IronLog.ADAPTER_CALLBACK.verbose { MolocoConstants.Logs.INIT_SUCCESS.format(description) }
 
-        initListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    private fun onInitializationFailure(errorMessage: String) {
+    private fun onInitializationFailure(attempt: Int, errorMessage: String) {
         IronLog.ADAPTER_CALLBACK.error(MolocoConstants.Logs.INIT_ERROR.format(AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage))
 
-        initState = InitState.INIT_STATE_FAILED
-
-        for (listener in initListeners) {
-            listener.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
     }
 
     // endregion
@@ -147,7 +147,7 @@ class MolocoAdapter : LevelPlayBaseAdapter() {
     // region Legal Methods
 
     override fun setConsent(consent: Boolean) {
-        IronLog.ADAPTER_API.verbose(MolocoConstants.Logs.CONSENT.format(consent))
+        IronLog.ADAPTER_API.verbose { MolocoConstants.Logs.CONSENT.format(consent) }
         val privacy = MolocoPrivacy.PrivacySettings(
             isUserConsent = consent,
             isAgeRestrictedUser = null,
@@ -163,7 +163,7 @@ class MolocoAdapter : LevelPlayBaseAdapter() {
 
         // This is a list of 1 value
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(MolocoConstants.Logs.KEY_VALUE.format(key, value))
+        IronLog.ADAPTER_API.verbose { MolocoConstants.Logs.KEY_VALUE.format(key, value) }
         val formattedValue: String = MetaDataUtils.formatValueForType(
             value,
             MetaData.MetaDataValueTypes.META_DATA_VALUE_BOOLEAN
@@ -180,7 +180,7 @@ class MolocoAdapter : LevelPlayBaseAdapter() {
     }
 
     private fun setCCPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(MolocoConstants.Logs.VALUE.format(value))
+        IronLog.ADAPTER_API.verbose { MolocoConstants.Logs.VALUE.format(value) }
         val privacy = MolocoPrivacy.PrivacySettings(
             isUserConsent = null,
             isAgeRestrictedUser = null,
@@ -190,7 +190,7 @@ class MolocoAdapter : LevelPlayBaseAdapter() {
     }
 
     private fun setCOPPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(MolocoConstants.Logs.IS_COPPA.format(value))
+        IronLog.ADAPTER_API.verbose { MolocoConstants.Logs.IS_COPPA.format(value) }
         val privacy = MolocoPrivacy.PrivacySettings(
             isUserConsent = null,
             isAgeRestrictedUser = value,
@@ -209,12 +209,13 @@ class MolocoAdapter : LevelPlayBaseAdapter() {
             biddingDataCallback.onFailure(MolocoConstants.Logs.INIT_NOT_COMPLETED_TOKEN)
             return
         }
+        val startTime = SystemClock.elapsedRealtime()
         Moloco.getBidToken(mediationInfo, context.applicationContext) { bidToken, error ->
             if (error == null) {
-                val biddingDataMap: MutableMap<String?, Any?> = HashMap()
-                IronLog.ADAPTER_API.verbose(MolocoConstants.Logs.TOKEN.format(bidToken))
-                biddingDataMap[MolocoConstants.TOKEN_KEY] = bidToken
-                biddingDataCallback.onSuccess(biddingDataMap)
+                IronLog.ADAPTER_API.verbose { MolocoConstants.Logs.TOKEN.format(bidToken) }
+                biddingDataCallback.onSuccess(
+                    tokenEncoder.biddingData(MolocoConstants.TOKEN_KEY, bidToken, SystemClock.elapsedRealtime() - startTime)
+                )
             } else {
                 val errorMessage = MolocoConstants.Logs.FAILED_TO_RECEIVE_TOKEN.format(error.errorCode, error.description)
                 IronLog.ADAPTER_API.error(errorMessage)
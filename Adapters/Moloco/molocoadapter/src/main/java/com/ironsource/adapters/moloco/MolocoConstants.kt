@@ -4,10 +4,12 @@ object MolocoConstants {
 
     // Adapter version
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "Moloco"
 
     // Moloco configuration keys
     const val APP_KEY = "appKey"
     const val AD_UNIT_ID_KEY = "adUnitId"
+    const val PREPARE_AD_KEY = "prepareAdOnBid"
 
     // Meta data keys
     const val META_DATA_MOLOCO_COPPA_KEY = "Moloco_COPPA"
@@ -0,0 +1,146 @@
+package com.ironsource.adapters.moloco
+
+import com.ironsource.adapters.common.verbose
+import com.ironsource.mediationsdk.logger.IronLog
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Holds a Moloco full-screen ad created ahead of its load.
+ *
+ * Creating the ad object doesn't depend on the bid, so it is started while the bidding token is
+ * collected and the load of the winning bid only hands the bid to the prepared ad. A load which
+ * arrives while the ad is still being created waits for it, and a load for another ad unit, or
+ * one arriving when nothing was prepared, creates its own ad as before.
+ *
+ * A prepared ad which isn't taken by a load is destroyed once the adapter's ad is destroyed. Only
+ * the ad prepared before the destroy is discarded, one prepared for a load which started after it
+ * is kept.
+ */
+internal class MolocoPreparedAd<T : Any>(private val destroy: (T) -> Unit) {
+
+    companion object {
+        private val preparedLoads = AtomicLong()
+        private val unpreparedLoads = AtomicLong()
+
+        // Number of loads which used an ad created ahead of them, and of loads which created their own
+        val preparedLoadCount: Long
+            get() = preparedLoads.get()
+        val unpreparedLoadCount: Long
+            get() = unpreparedLoads.get()
+    }
+
+    // Each state but None keeps the number of the preparation it belongs to
+    private sealed class State<T>(val preparation: Long) {
+        class None<T> : State<T>(0L)
+        class Creating<T>(val adUnitId: String, preparation: Long) : State<T>(preparation) {
+            // Load waiting for the ad, set if the load arrived before the ad was created
+            var onAd: ((T?) -> Unit)? = null
+        }
+        class Ready<T>(val adUnitId: String, val ad: T, preparation: Long) : State<T>(preparation)
+    }
+
+    // Guarded by this
+    private var state: State<T> = State.None()
+    private var preparations = 0L
+
+    // Number of ads prepared so far, captured when the adapter's ad is destroyed to limit the discard
+    val preparation: Long
+        get() = synchronized(this) { preparations }
+
+    /**
+     * Starts creating an ad for the given ad unit, unless one is already created or being created.
+     *
+     * @param create creates the ad and reports it to the given callback, null if it failed
+     */
+    fun prepare(adUnitId: String, create: (onCreated: (T?) -> Unit) -> Unit) {
+        val creating = synchronized(this) {
+            if (state !is State.None) {
+                return
+            }
+            State.Creating<T>(adUnitId, ++preparations).also { state = it }
+        }
+
+        create { ad -> onCreated(creating, ad) }
+    }
+
+    /**
+     * Hands the ad prepared for the given ad unit to the load, directly if it's created or once it
+     * is if it's still being created.
+     *
+     * @return false if no ad was prepared for the ad unit, in which case the load creates its own
+     */
+    fun take(adUnitId: String, onAd: (T?) -> Unit): Boolean {
+        var ready: T? = null
+        var stale: T? = null
+        synchronized(this) {
+            when (val current = state) {
+                is State.Ready -> {
+                    state = State.None()
+                    if (current.adUnitId == adUnitId) {
+                        ready = current.ad
+                    } else {
+                        stale = current.ad
+                    }
+                }
+                is State.Creating -> {
+                    if (current.adUnitId == adUnitId && current.onAd == null) {
+                        current.onAd = onAd
+                        preparedLoads.incrementAndGet()
+                        return true
+                    }
+                }
+                is State.None -> Unit
+            }
+        }
+
+        stale?.let(destroy)
+        val ad = ready
+        if (ad == null) {
+            unpreparedLoads.incrementAndGet()
+            return false
+        }
+        val count = preparedLoads.incrementAndGet()
+        IronLog.INTERNAL.verbose { "loading prepared ad - adUnitId = $adUnitId, prepared loads = $count" }
+        onAd(ad)
+        return true
+    }
+
+    /**
+     * Destroys the prepared ad, an ad still being created is destroyed once it's created.
+     *
+     * @param preparation the [preparation] captured when the adapter's ad was destroyed, an ad
+     * prepared after it or already waited for by a load is kept
+     */
+    fun discard(preparation: Long) {
+        val ad = synchronized(this) {
+            val current = state
+            // The load waiting for the ad drops it itself if it was cancelled by the destroy
+            if (current.preparation > preparation || (current as? State.Creating)?.onAd != null) {
+                return
+            }
+            state = State.None()
+            (current as? State.Ready)?.ad
+        }
+        ad?.let(destroy)
+    }
+
+    private fun onCreated(creating: State.Creating<T>, ad: T?) {
+        var onAd: ((T?) -> Unit)? = null
+        var isDiscarded = false
+        synchronized(this) {
+            if (state !== creating) {
+                // The prepared ad was discarded while it was created
+                isDiscarded = true
+            } else {
+                onAd = creating.onAd
+                state = if (onAd == null && ad != null) State.Ready(creating.adUnitId, ad, creating.preparation) else State.None()
+            }
+        }
+
+        if (isDiscarded) {
+            ad?.let(destroy)
+            return
+        }
+        onAd?.invoke(ad)
+    }
+}
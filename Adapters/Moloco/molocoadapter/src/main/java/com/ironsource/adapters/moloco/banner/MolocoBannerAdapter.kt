@@ -2,13 +2,17 @@ package com.ironsource.adapters.moloco.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
 import android.widget.FrameLayout
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.moloco.MolocoAdapter
 import com.ironsource.adapters.moloco.MolocoConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -21,12 +25,14 @@ import com.moloco.sdk.publisher.Banner
 import com.moloco.sdk.publisher.Moloco
 import com.moloco.sdk.publisher.MolocoAdError
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseBanner
+import java.lang.ref.WeakReference
 
 class MolocoBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<MolocoAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var bannerAdView: Banner? = null
+    private val latencyTracker = LatencyTracker(MolocoConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(MolocoConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<Banner>(MolocoConstants.NETWORK_NAME) { destroyBannerAd(it) }
 
     // region Adapter Methods
 
@@ -36,12 +42,13 @@ class MolocoBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val adUnitId = adData.getString(MolocoConstants.AD_UNIT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MolocoConstants.Logs.AD_UNIT_ID_LOG.format(adUnitId ?: ""))
+        IronLog.ADAPTER_API.verbose { MolocoConstants.Logs.AD_UNIT_ID_LOG.format(adUnitId ?: "") }
 
         if (adUnitId.isNullOrEmpty()) {
             IronLog.INTERNAL.error(MolocoConstants.Logs.MISSING_PARAM.format(MolocoConstants.AD_UNIT_ID_KEY))
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 MolocoConstants.Logs.MISSING_PARAM.format(MolocoConstants.AD_UNIT_ID_KEY)
@@ -52,7 +59,7 @@ class MolocoBannerAdapter(networkSettings: NetworkSettings) :
         val serverData = adData.serverData
         if (serverData.isNullOrEmpty()) {
             IronLog.INTERNAL.error(MolocoConstants.Logs.SERVER_DATA_EMPTY)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 MolocoConstants.Logs.SERVER_DATA_EMPTY
@@ -63,23 +70,28 @@ class MolocoBannerAdapter(networkSettings: NetworkSettings) :
         val appContext = activity.applicationContext
         val layoutParams = createBannerLayoutParams(appContext, bannerSize)
 
+        val generation = adSlot.begin()
         createBannerWithSize(bannerSize, adUnitId, appContext) { adView, error ->
             if (error != null) {
                 IronLog.ADAPTER_CALLBACK.error(MolocoConstants.Logs.CREATE_AD_ERROR.format(error.errorCode, error.description))
-                listener.onAdLoadFailed(
+                trackedListener.onAdLoadFailed(
                     AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                     error.errorCode,
                     error.description
                 )
             } else {
                 adView?.let { ad ->
-                    bannerAdView = ad
-                    bannerAdView?.apply {
-                        adShowListener = MolocoBannerShowListener(listener)
-                        load(serverData, MolocoBannerLoadListener(listener, layoutParams, ad))
+                    // The banner was destroyed or loaded again while it was created
+                    if (!adSlot.isCurrent(generation)) {
+                        ad.destroy()
+                        return@createBannerWithSize
+                    }
+                    ad.apply {
+                        adShowListener = MolocoBannerShowListener(trackedListener)
+                        load(serverData, MolocoBannerLoadListener(trackedListener, layoutParams, ad, WeakReference(this@MolocoBannerAdapter), generation))
                     }
                 } ?: run {
-                    listener.onAdLoadFailed(
+                    trackedListener.onAdLoadFailed(
                         AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                         AdapterErrors.ADAPTER_ERROR_INTERNAL,
                         MolocoConstants.INVALID_CONFIGURATION
@@ -91,9 +103,12 @@ class MolocoBannerAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            bannerAdView?.destroy()
-            bannerAdView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -102,53 +117,52 @@ class MolocoBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(MolocoConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(MolocoConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(MolocoConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, trackedCallback)
     }
 
     // endregion
 
     // region Helper Methods
 
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerAd(generation: Long, bannerAdView: Banner): Boolean {
+        if (!adSlot.set(generation, bannerAdView)) {
+            destroyBannerAd(bannerAdView)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    internal fun destroyBannerAd(bannerAdView: Banner) {
+        MainThreadScheduler.post { bannerAdView.destroy() }
+    }
+
     private fun createBannerLayoutParams(context: Context, size: ISBannerSize): FrameLayout.LayoutParams {
         val layoutParams = when (size.description) {
-            MolocoConstants.BANNER_SIZE_BANNER -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, MolocoConstants.BANNER_WIDTH),
-                AdapterUtils.dpToPixels(context, MolocoConstants.BANNER_HEIGHT)
-            )
-            MolocoConstants.BANNER_SIZE_LARGE -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, MolocoConstants.LEADERBOARD_WIDTH),
-                AdapterUtils.dpToPixels(context, MolocoConstants.LEADERBOARD_HEIGHT)
-            )
-            MolocoConstants.BANNER_SIZE_RECTANGLE -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, MolocoConstants.RECTANGLE_WIDTH),
-                AdapterUtils.dpToPixels(context, MolocoConstants.RECTANGLE_HEIGHT)
-            )
+            MolocoConstants.BANNER_SIZE_BANNER -> BannerLayouts.layoutParams(context, MolocoConstants.BANNER_WIDTH, MolocoConstants.BANNER_HEIGHT, Gravity.CENTER)
+            MolocoConstants.BANNER_SIZE_LARGE -> BannerLayouts.layoutParams(context, MolocoConstants.LEADERBOARD_WIDTH, MolocoConstants.LEADERBOARD_HEIGHT, Gravity.CENTER)
+            MolocoConstants.BANNER_SIZE_RECTANGLE -> BannerLayouts.layoutParams(context, MolocoConstants.RECTANGLE_WIDTH, MolocoConstants.RECTANGLE_HEIGHT, Gravity.CENTER)
             MolocoConstants.BANNER_SIZE_SMART -> {
-                if (AdapterUtils.isLargeScreen(context)) {
-                    FrameLayout.LayoutParams(
-                        AdapterUtils.dpToPixels(context, MolocoConstants.LEADERBOARD_WIDTH),
-                        AdapterUtils.dpToPixels(context, MolocoConstants.LEADERBOARD_HEIGHT)
-                    )
+                if (BannerLayouts.isLargeScreen(context)) {
+                    BannerLayouts.layoutParams(context, MolocoConstants.LEADERBOARD_WIDTH, MolocoConstants.LEADERBOARD_HEIGHT, Gravity.CENTER)
                 } else {
-                    FrameLayout.LayoutParams(
-                        AdapterUtils.dpToPixels(context, MolocoConstants.BANNER_WIDTH),
-                        AdapterUtils.dpToPixels(context, MolocoConstants.BANNER_HEIGHT)
-                    )
+                    BannerLayouts.layoutParams(context, MolocoConstants.BANNER_WIDTH, MolocoConstants.BANNER_HEIGHT, Gravity.CENTER)
                 }
             }
-            else -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, size.width),
-                AdapterUtils.dpToPixels(context, size.height)
-            )
+            else -> BannerLayouts.layoutParams(context, size.width, size.height, Gravity.CENTER)
         }
-        layoutParams.gravity = Gravity.CENTER
         return layoutParams
     }
 
@@ -164,7 +178,7 @@ class MolocoBannerAdapter(networkSettings: NetworkSettings) :
             MolocoConstants.BANNER_SIZE_LARGE -> Moloco.createBannerTablet(mediationInfo, adUnitId, null, createCallback)
             MolocoConstants.BANNER_SIZE_RECTANGLE -> Moloco.createMREC(mediationInfo, adUnitId, null, createCallback)
             MolocoConstants.BANNER_SIZE_SMART -> {
-                if (AdapterUtils.isLargeScreen(context)) {
+                if (BannerLayouts.isLargeScreen(context)) {
                     Moloco.createBannerTablet(mediationInfo, adUnitId, null, createCallback)
                 } else {
                     Moloco.createBanner(mediationInfo, adUnitId, null, createCallback)
@@ -9,11 +9,15 @@ import com.moloco.sdk.publisher.AdLoad
 import com.moloco.sdk.publisher.Banner
 import com.moloco.sdk.publisher.MolocoAd
 import com.moloco.sdk.publisher.MolocoAdError
+import java.lang.ref.WeakReference
 
 class MolocoBannerLoadListener(
     private val listener: BannerAdListener,
     private val layoutParams: FrameLayout.LayoutParams,
-    private val bannerAdView: Banner
+    private val bannerAdView: Banner,
+    private val adapter: WeakReference<MolocoBannerAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : AdLoad.Listener {
 
     /**
@@ -23,6 +27,9 @@ class MolocoBannerLoadListener(
      */
     override fun onAdLoadSuccess(molocoAd: MolocoAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
+        if (adapter.get()?.setBannerAd(generation, bannerAdView) == false) {
+            return
+        }
         listener.onAdLoadSuccess(bannerAdView, layoutParams)
     }
 
@@ -34,6 +41,7 @@ class MolocoBannerLoadListener(
     override fun onAdLoadFailed(molocoAdError: MolocoAdError) {
         val errorCode = molocoAdError.errorType.errorCode
         IronLog.ADAPTER_CALLBACK.error(MolocoConstants.Logs.FAILED_TO_LOAD.format(errorCode, molocoAdError.description))
+        adapter.get()?.destroyBannerAd(bannerAdView)
 
         val errorType = if (molocoAdError.errorType == MolocoAdError.ErrorType.AD_LOAD_FAILED) {
             AdapterErrorType.ADAPTER_ERROR_TYPE_NO_FILL
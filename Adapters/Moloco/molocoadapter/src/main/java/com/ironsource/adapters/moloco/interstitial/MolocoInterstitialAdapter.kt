@@ -2,8 +2,12 @@ package com.ironsource.adapters.moloco.interstitial
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.moloco.MolocoAdapter
 import com.ironsource.adapters.moloco.MolocoConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
@@ -16,12 +20,15 @@ import com.ironsource.mediationsdk.model.NetworkSettings
 import com.moloco.sdk.publisher.InterstitialAd
 import com.moloco.sdk.publisher.Moloco
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseInterstitial
+import java.lang.ref.WeakReference
 
 class MolocoInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<MolocoAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var interstitialAd: InterstitialAd? = null
+    private val latencyTracker = LatencyTracker(MolocoConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(MolocoConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<InterstitialAd>(MolocoConstants.NETWORK_NAME) { destroyInterstitialAd(it) }
+    private val preparedAd = MolocoPreparedAd<InterstitialAd> { it.destroy() }
 
     // region Adapter Methods
 
@@ -30,12 +37,13 @@ class MolocoInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         listener: InterstitialAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val adUnitId = adData.getString(MolocoConstants.AD_UNIT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MolocoConstants.Logs.AD_UNIT_ID_LOG.format(adUnitId ?: ""))
+        IronLog.ADAPTER_API.verbose { MolocoConstants.Logs.AD_UNIT_ID_LOG.format(adUnitId ?: "") }
 
         if (adUnitId.isNullOrEmpty()) {
             IronLog.INTERNAL.error(MolocoConstants.Logs.MISSING_PARAM.format(MolocoConstants.AD_UNIT_ID_KEY))
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 MolocoConstants.Logs.MISSING_PARAM.format(MolocoConstants.AD_UNIT_ID_KEY)
@@ -46,7 +54,7 @@ class MolocoInterstitialAdapter(networkSettings: NetworkSettings) :
         val serverData = adData.serverData
         if (serverData.isNullOrEmpty()) {
             IronLog.INTERNAL.error(MolocoConstants.Logs.SERVER_DATA_EMPTY)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 MolocoConstants.Logs.SERVER_DATA_EMPTY
@@ -54,27 +62,19 @@ class MolocoInterstitialAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        Moloco.createInterstitial(MolocoAdapter.mediationInfo, adUnitId) { ad, error ->
-            if (error != null) {
-                IronLog.ADAPTER_CALLBACK.error(MolocoConstants.Logs.CREATE_AD_ERROR.format(error.errorCode, error.description))
-                listener.onAdLoadFailed(
-                    AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
-                    error.errorCode,
-                    error.description
-                )
+        val generation = adSlot.begin()
+
+        // Use the ad created while the bidding token was collected, if there is one
+        val isPrepared = preparedAd.take(adUnitId) { ad ->
+            if (ad != null) {
+                loadCreatedAd(generation, ad, serverData, trackedListener)
             } else {
-                ad?.let {
-                    interstitialAd = it
-                    interstitialAd?.load(serverData, MolocoInterstitialLoadListener(listener))
-                } ?: run {
-                    listener.onAdLoadFailed(
-                        AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
-                        AdapterErrors.ADAPTER_ERROR_INTERNAL,
-                        MolocoConstants.INVALID_CONFIGURATION
-                    )
-                }
+                createAndLoadAd(generation, adUnitId, serverData, trackedListener)
             }
         }
+        if (!isPrepared) {
+            createAndLoadAd(generation, adUnitId, serverData, trackedListener)
+        }
     }
 
     override fun showAd(
@@ -82,27 +82,46 @@ class MolocoInterstitialAdapter(networkSettings: NetworkSettings) :
         activity: Activity,
         listener: InterstitialAdListener
     ) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 MolocoConstants.AD_NOT_AVAILABLE
             )
             return
         }
 
-        interstitialAd?.show(MolocoInterstitialShowListener(listener))
+        val ad = adSlot.startShow()
+        if (ad == null) {
+            trackedListener.onAdShowFailed(
+                AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
+                MolocoConstants.AD_NOT_AVAILABLE
+            )
+            return
+        }
+        ad.show(MolocoInterstitialShowListener(trackedListener, WeakReference(this)))
     }
 
     override fun isAdAvailable(adData: AdData): Boolean =
-        interstitialAd != null && interstitialAd?.isLoaded == true
+        adSlot.ad?.isLoaded == true
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            interstitialAd?.destroy()
-            interstitialAd = null
+        val generation = adSlot.generation
+        // Captured on entry as well, the ad prepared for a load which starts after the destroy is kept
+        val preparation = preparedAd.preparation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, it)
+            }
+            adSlot.finishShow()?.let {
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, it)
+            }
+            preparedAd.discard(preparation)
         }
     }
 
@@ -111,14 +130,101 @@ class MolocoInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(MolocoConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(MolocoConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(MolocoConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, trackedCallback)
+        prepareAd(adData?.getString(MolocoConstants.AD_UNIT_ID_KEY))
+    }
+
+    // endregion
+
+    // region Helper Methods
+
+    /**
+     * @return false if the ad was destroyed or loaded again while it was loading, the ad is
+     * destroyed then
+     */
+    internal fun setInterstitialAd(generation: Long, ad: InterstitialAd): Boolean {
+        if (!adSlot.set(generation, ad)) {
+            destroyInterstitialAd(ad)
+            return false
+        }
+        return true
+    }
+
+    // Destroys an ad which failed to load or was replaced by the ad of a newer load
+    internal fun destroyInterstitialAd(ad: InterstitialAd) {
+        MainThreadScheduler.post { ad.destroy() }
+    }
+
+    // Destroys the shown ad once it's closed or failed to show, an ad loaded meanwhile is kept
+    internal fun onShowFinished() {
+        MainThreadScheduler.post {
+            adSlot.finishShow()?.destroy()
+        }
+    }
+
+    private fun prepareAd(adUnitId: String?) {
+        if (!MolocoAdapter.isAdPreparationEnabled || adUnitId.isNullOrEmpty()) {
+            return
+        }
+
+        preparedAd.prepare(adUnitId) { onCreated ->
+            Moloco.createInterstitial(MolocoAdapter.mediationInfo, adUnitId) { ad, error ->
+                if (error != null) {
+                    IronLog.ADAPTER_CALLBACK.error(MolocoConstants.Logs.CREATE_AD_ERROR.format(error.errorCode, error.description))
+                }
+                onCreated(ad)
+            }
+        }
+    }
+
+    private fun createAndLoadAd(
+        generation: Long,
+        adUnitId: String,
+        serverData: String,
+        trackedListener: InterstitialAdListener
+    ) {
+        Moloco.createInterstitial(MolocoAdapter.mediationInfo, adUnitId) { ad, error ->
+            if (error != null) {
+                IronLog.ADAPTER_CALLBACK.error(MolocoConstants.Logs.CREATE_AD_ERROR.format(error.errorCode, error.description))
+                trackedListener.onAdLoadFailed(
+                    AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
+                    error.errorCode,
+                    error.description
+                )
+            } else {
+                ad?.let {
+                    loadCreatedAd(generation, it, serverData, trackedListener)
+                } ?: run {
+                    trackedListener.onAdLoadFailed(
+                        AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
+                        AdapterErrors.ADAPTER_ERROR_INTERNAL,
+                        MolocoConstants.INVALID_CONFIGURATION
+                    )
+                }
+            }
+        }
+    }
+
+    private fun loadCreatedAd(
+        generation: Long,
+        ad: InterstitialAd,
+        serverData: String,
+        trackedListener: InterstitialAdListener
+    ) {
+        // The ad was destroyed or loaded again while it was created
+        if (!adSlot.isCurrent(generation)) {
+            ad.destroy()
+            return
+        }
+        ad.load(serverData, MolocoInterstitialLoadListener(trackedListener, ad, WeakReference(this), generation))
     }
 
     // endregion
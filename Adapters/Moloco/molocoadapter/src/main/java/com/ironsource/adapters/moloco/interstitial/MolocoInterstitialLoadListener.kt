@@ -5,11 +5,17 @@ import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListene
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
 import com.ironsource.mediationsdk.logger.IronLog
 import com.moloco.sdk.publisher.AdLoad
+import com.moloco.sdk.publisher.InterstitialAd
 import com.moloco.sdk.publisher.MolocoAd
 import com.moloco.sdk.publisher.MolocoAdError
+import java.lang.ref.WeakReference
 
 class MolocoInterstitialLoadListener(
-    private val listener: InterstitialAdListener
+    private val listener: InterstitialAdListener,
+    private val ad: InterstitialAd,
+    private val adapter: WeakReference<MolocoInterstitialAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : AdLoad.Listener {
 
     /**
@@ -19,6 +25,9 @@ class MolocoInterstitialLoadListener(
      */
     override fun onAdLoadSuccess(molocoAd: MolocoAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
+        if (adapter.get()?.setInterstitialAd(generation, ad) == false) {
+            return
+        }
         listener.onAdLoadSuccess()
     }
 
@@ -30,6 +39,7 @@ class MolocoInterstitialLoadListener(
     override fun onAdLoadFailed(molocoAdError: MolocoAdError) {
         val errorCode = molocoAdError.errorType.errorCode
         IronLog.ADAPTER_CALLBACK.error(MolocoConstants.Logs.FAILED_TO_LOAD.format(errorCode, molocoAdError.description))
+        adapter.get()?.destroyInterstitialAd(ad)
 
         val errorType = if (molocoAdError.errorType == MolocoAdError.ErrorType.AD_LOAD_FAILED) {
             AdapterErrorType.ADAPTER_ERROR_TYPE_NO_FILL
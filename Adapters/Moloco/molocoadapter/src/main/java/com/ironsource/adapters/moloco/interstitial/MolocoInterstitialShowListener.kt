@@ -6,9 +6,11 @@ import com.ironsource.mediationsdk.logger.IronLog
 import com.moloco.sdk.publisher.InterstitialAdShowListener
 import com.moloco.sdk.publisher.MolocoAd
 import com.moloco.sdk.publisher.MolocoAdError
+import java.lang.ref.WeakReference
 
 class MolocoInterstitialShowListener(
-    private val listener: InterstitialAdListener
+    private val listener: InterstitialAdListener,
+    private val adapter: WeakReference<MolocoInterstitialAdapter>
 ) : InterstitialAdShowListener {
 
     /**
@@ -29,6 +31,7 @@ class MolocoInterstitialShowListener(
     override fun onAdShowFailed(molocoAdError: MolocoAdError) {
         val errorCode = MolocoAdError.ErrorType.AD_SHOW_ERROR.errorCode
         IronLog.ADAPTER_CALLBACK.error(MolocoConstants.Logs.FAILED_TO_SHOW.format(errorCode, molocoAdError.description))
+        adapter.get()?.onShowFinished()
         listener.onAdShowFailed(errorCode, molocoAdError.description)
     }
 
@@ -49,6 +52,7 @@ class MolocoInterstitialShowListener(
      */
     override fun onAdHidden(molocoAd: MolocoAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
+        adapter.get()?.onShowFinished()
         listener.onAdClosed()
     }
 }
@@ -2,8 +2,12 @@ package com.ironsource.adapters.moloco.rewarded
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.moloco.MolocoAdapter
 import com.ironsource.adapters.moloco.MolocoConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
@@ -16,12 +20,15 @@ import com.ironsource.mediationsdk.model.NetworkSettings
 import com.moloco.sdk.publisher.Moloco
 import com.moloco.sdk.publisher.RewardedInterstitialAd
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseRewardedVideo
+import java.lang.ref.WeakReference
 
 class MolocoRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<MolocoAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var rewardedAd: RewardedInterstitialAd? = null
+    private val latencyTracker = LatencyTracker(MolocoConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(MolocoConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<RewardedInterstitialAd>(MolocoConstants.NETWORK_NAME) { destroyRewardedAd(it) }
+    private val preparedAd = MolocoPreparedAd<RewardedInterstitialAd> { it.destroy() }
 
     // region Adapter Methods
 
@@ -30,12 +37,13 @@ class MolocoRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         listener: RewardedVideoAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val adUnitId = adData.getString(MolocoConstants.AD_UNIT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MolocoConstants.Logs.AD_UNIT_ID_LOG.format(adUnitId ?: ""))
+        IronLog.ADAPTER_API.verbose { MolocoConstants.Logs.AD_UNIT_ID_LOG.format(adUnitId ?: "") }
 
         if (adUnitId.isNullOrEmpty()) {
             IronLog.INTERNAL.error(MolocoConstants.Logs.MISSING_PARAM.format(MolocoConstants.AD_UNIT_ID_KEY))
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 MolocoConstants.Logs.MISSING_PARAM.format(MolocoConstants.AD_UNIT_ID_KEY)
@@ -46,7 +54,7 @@ class MolocoRewardedAdapter(networkSettings: NetworkSettings) :
         val serverData = adData.serverData
         if (serverData.isNullOrEmpty()) {
             IronLog.INTERNAL.error(MolocoConstants.Logs.SERVER_DATA_EMPTY)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 MolocoConstants.Logs.SERVER_DATA_EMPTY
@@ -54,27 +62,19 @@ class MolocoRewardedAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        Moloco.createRewardedInterstitial(MolocoAdapter.mediationInfo, adUnitId) { ad, error ->
-            if (error != null) {
-                IronLog.ADAPTER_CALLBACK.error(MolocoConstants.Logs.CREATE_AD_ERROR.format(error.errorCode, error.description))
-                listener.onAdLoadFailed(
-                    AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
-                    error.errorCode,
-                    error.description
-                )
+        val generation = adSlot.begin()
+
+        // Use the ad created while the bidding token was collected, if there is one
+        val isPrepared = preparedAd.take(adUnitId) { ad ->
+            if (ad != null) {
+                loadCreatedAd(generation, ad, serverData, trackedListener)
             } else {
-                ad?.let {
-                    rewardedAd = it
-                    rewardedAd?.load(serverData, MolocoRewardedLoadListener(listener))
-                } ?: run {
-                    listener.onAdLoadFailed(
-                        AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
-                        AdapterErrors.ADAPTER_ERROR_INTERNAL,
-                        MolocoConstants.INVALID_CONFIGURATION
-                    )
-                }
+                createAndLoadAd(generation, adUnitId, serverData, trackedListener)
             }
         }
+        if (!isPrepared) {
+            createAndLoadAd(generation, adUnitId, serverData, trackedListener)
+        }
     }
 
     override fun showAd(
@@ -82,27 +82,46 @@ class MolocoRewardedAdapter(networkSettings: NetworkSettings) :
         activity: Activity,
         listener: RewardedVideoAdListener
     ) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 MolocoConstants.AD_NOT_AVAILABLE
             )
             return
         }
 
-        rewardedAd?.show(MolocoRewardedShowListener(listener))
+        val ad = adSlot.startShow()
+        if (ad == null) {
+            trackedListener.onAdShowFailed(
+                AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
+                MolocoConstants.AD_NOT_AVAILABLE
+            )
+            return
+        }
+        ad.show(MolocoRewardedShowListener(trackedListener, WeakReference(this)))
     }
 
     override fun isAdAvailable(adData: AdData): Boolean =
-        rewardedAd != null && rewardedAd?.isLoaded == true
+        adSlot.ad?.isLoaded == true
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            rewardedAd?.destroy()
-            rewardedAd = null
+        val generation = adSlot.generation
+        // Captured on entry as well, the ad prepared for a load which starts after the destroy is kept
+        val preparation = preparedAd.preparation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, it)
+            }
+            adSlot.finishShow()?.let {
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, it)
+            }
+            preparedAd.discard(preparation)
         }
     }
 
@@ -111,14 +130,101 @@ class MolocoRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(MolocoConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(MolocoConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(MolocoConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, trackedCallback)
+        prepareAd(adData?.getString(MolocoConstants.AD_UNIT_ID_KEY))
+    }
+
+    // endregion
+
+    // region Helper Methods
+
+    /**
+     * @return false if the ad was destroyed or loaded again while it was loading, the ad is
+     * destroyed then
+     */
+    internal fun setRewardedAd(generation: Long, ad: RewardedInterstitialAd): Boolean {
+        if (!adSlot.set(generation, ad)) {
+            destroyRewardedAd(ad)
+            return false
+        }
+        return true
+    }
+
+    // Destroys an ad which failed to load or was replaced by the ad of a newer load
+    internal fun destroyRewardedAd(ad: RewardedInterstitialAd) {
+        MainThreadScheduler.post { ad.destroy() }
+    }
+
+    // Destroys the shown ad once it's closed or failed to show, an ad loaded meanwhile is kept
+    internal fun onShowFinished() {
+        MainThreadScheduler.post {
+            adSlot.finishShow()?.destroy()
+        }
+    }
+
+    private fun prepareAd(adUnitId: String?) {
+        if (!MolocoAdapter.isAdPreparationEnabled || adUnitId.isNullOrEmpty()) {
+            return
+        }
+
+        preparedAd.prepare(adUnitId) { onCreated ->
+            Moloco.createRewardedInterstitial(MolocoAdapter.mediationInfo, adUnitId) { ad, error ->
+                if (error != null) {
+                    IronLog.ADAPTER_CALLBACK.error(MolocoConstants.Logs.CREATE_AD_ERROR.format(error.errorCode, error.description))
+                }
+                onCreated(ad)
+            }
+        }
+    }
+
+    private fun createAndLoadAd(
+        generation: Long,
+        adUnitId: String,
+        serverData: String,
+        trackedListener: RewardedVideoAdListener
+    ) {
+        Moloco.createRewardedInterstitial(MolocoAdapter.mediationInfo, adUnitId) { ad, error ->
+            if (error != null) {
+                IronLog.ADAPTER_CALLBACK.error(MolocoConstants.Logs.CREATE_AD_ERROR.format(error.errorCode, error.description))
+                trackedListener.onAdLoadFailed(
+                    AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
+                    error.errorCode,
+                    error.description
+                )
+            } else {
+                ad?.let {
+                    loadCreatedAd(generation, it, serverData, trackedListener)
+                } ?: run {
+                    trackedListener.onAdLoadFailed(
+                        AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
+                        AdapterErrors.ADAPTER_ERROR_INTERNAL,
+                        MolocoConstants.INVALID_CONFIGURATION
+                    )
+                }
+            }
+        }
+    }
+
+    private fun loadCreatedAd(
+        generation: Long,
+        ad: RewardedInterstitialAd,
+        serverData: String,
+        trackedListener: RewardedVideoAdListener
+    ) {
+        // The ad was destroyed or loaded again while it was created
+        if (!adSlot.isCurrent(generation)) {
+            ad.destroy()
+            return
+        }
+        ad.load(serverData, MolocoRewardedLoadListener(trackedListener, ad, WeakReference(this), generation))
     }
 
     // endregion
@@ -7,9 +7,15 @@ import com.ironsource.mediationsdk.logger.IronLog
 import com.moloco.sdk.publisher.AdLoad
 import com.moloco.sdk.publisher.MolocoAd
 import com.moloco.sdk.publisher.MolocoAdError
+import com.moloco.sdk.publisher.RewardedInterstitialAd
+import java.lang.ref.WeakReference
 
 class MolocoRewardedLoadListener(
-    private val listener: RewardedVideoAdListener
+    private val listener: RewardedVideoAdListener,
+    private val ad: RewardedInterstitialAd,
+    private val adapter: WeakReference<MolocoRewardedAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : AdLoad.Listener {
 
     /**
@@ -19,6 +25,9 @@ class MolocoRewardedLoadListener(
      */
     override fun onAdLoadSuccess(molocoAd: MolocoAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
+        if (adapter.get()?.setRewardedAd(generation, ad) == false) {
+            return
+        }
         listener.onAdLoadSuccess()
     }
 
@@ -30,6 +39,7 @@ class MolocoRewardedLoadListener(
     override fun onAdLoadFailed(molocoAdError: MolocoAdError) {
         val errorCode = molocoAdError.errorType.errorCode
         IronLog.ADAPTER_CALLBACK.error(MolocoConstants.Logs.FAILED_TO_LOAD.format(errorCode, molocoAdError.description))
+        adapter.get()?.destroyRewardedAd(ad)
 
         val errorType = if (molocoAdError.errorType == MolocoAdError.ErrorType.AD_LOAD_FAILED) {
             AdapterErrorType.ADAPTER_ERROR_TYPE_NO_FILL
@@ -6,9 +6,11 @@ import com.ironsource.mediationsdk.logger.IronLog
 import com.moloco.sdk.publisher.MolocoAd
 import com.moloco.sdk.publisher.MolocoAdError
 import com.moloco.sdk.publisher.RewardedInterstitialAdShowListener
+import java.lang.ref.WeakReference
 
 class MolocoRewardedShowListener(
-    private val listener: RewardedVideoAdListener
+    private val listener: RewardedVideoAdListener,
+    private val adapter: WeakReference<MolocoRewardedAdapter>
 ) : RewardedInterstitialAdShowListener {
 
     /**
@@ -39,6 +41,7 @@ class MolocoRewardedShowListener(
     override fun onAdShowFailed(molocoAdError: MolocoAdError) {
         val errorCode = MolocoAdError.ErrorType.AD_SHOW_ERROR.errorCode
         IronLog.ADAPTER_CALLBACK.error(MolocoConstants.Logs.FAILED_TO_SHOW.format(errorCode, molocoAdError.description))
+        adapter.get()?.onShowFinished()
         listener.onAdShowFailed(errorCode, molocoAdError.description)
     }
 
@@ -79,6 +82,7 @@ class MolocoRewardedShowListener(
      */
     override fun onAdHidden(molocoAd: MolocoAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
+        adapter.get()?.onShowFinished()
         listener.onAdClosed()
     }
 }
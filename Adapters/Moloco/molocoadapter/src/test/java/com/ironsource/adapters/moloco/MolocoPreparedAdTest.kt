@@ -0,0 +1,74 @@
+package com.ironsource.adapters.moloco
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class MolocoPreparedAdTest {
+
+    private class Ad
+
+    private val destroyed = mutableListOf<Ad>()
+    private val preparedAd = MolocoPreparedAd<Ad> { destroyed.add(it) }
+
+    // Prepares an ad which is created once the returned callback is called
+    private fun prepare(adUnitId: String = "unit"): (Ad?) -> Unit {
+        var onCreated: ((Ad?) -> Unit)? = null
+        preparedAd.prepare(adUnitId) { onCreated = it }
+        return onCreated!!
+    }
+
+    @Test
+    fun discardDestroysTheAdPreparedBeforeTheDestroy() {
+        val ad = Ad()
+        prepare()(ad)
+
+        preparedAd.discard(preparedAd.preparation)
+
+        assertEquals(listOf(ad), destroyed)
+        assertFalse(preparedAd.take("unit") {})
+    }
+
+    @Test
+    fun discardDestroysAnAdStillBeingCreatedOnceItsCreated() {
+        val onCreated = prepare()
+        preparedAd.discard(preparedAd.preparation)
+
+        val ad = Ad()
+        onCreated(ad)
+
+        assertEquals(listOf(ad), destroyed)
+    }
+
+    @Test
+    fun destroyThenLoadThenCreatedHandsTheAdToTheLoad() {
+        val onCreated = prepare()
+        // destroyAd captures the preparation and discards on the main thread later
+        val preparation = preparedAd.preparation
+
+        var loadedAd: Ad? = null
+        assertTrue(preparedAd.take("unit") { loadedAd = it })
+        preparedAd.discard(preparation)
+        val ad = Ad()
+        onCreated(ad)
+
+        assertSame(ad, loadedAd)
+        assertTrue(destroyed.isEmpty())
+    }
+
+    @Test
+    fun destroyThenPrepareKeepsTheNewAd() {
+        val preparation = preparedAd.preparation
+        val ad = Ad()
+        prepare()(ad)
+
+        preparedAd.discard(preparation)
+
+        assertTrue(destroyed.isEmpty())
+        var loadedAd: Ad? = null
+        assertTrue(preparedAd.take("unit") { loadedAd = it })
+        assertSame(ad, loadedAd)
+    }
+}
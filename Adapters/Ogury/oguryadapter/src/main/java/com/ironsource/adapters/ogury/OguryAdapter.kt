@@ -1,6 +1,10 @@
 package com.ironsource.adapters.ogury
 
 import android.content.Context
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -20,24 +24,15 @@ import com.ogury.sdk.OguryChildPrivacyTreatment
 import com.ogury.sdk.OguryOnStartListener
 import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class OguryAdapter : LevelPlayBaseAdapter() {
 
     companion object {
         private const val GitHash: String = BuildConfig.GitHash
 
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(OguryConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
 
         internal val mediation = OguryMediation(
             OguryConstants.MEDIATION_NAME,
@@ -70,6 +65,9 @@ class OguryAdapter : LevelPlayBaseAdapter() {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(OguryConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         val assetKey = adData.getString(OguryConstants.ASSET_KEY)
         val adUnitId = adData.getString(OguryConstants.AD_UNIT_ID_KEY)
 
@@ -92,20 +90,16 @@ class OguryAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        if (initState == InitState.INIT_STATE_FAILED) {
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(OguryConstants.Logs.INIT_FAILED)
             networkInitializationListener?.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, OguryConstants.Logs.INIT_FAILED)
             return
         }
 
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-
-            IronLog.ADAPTER_API.verbose(OguryConstants.Logs.ASSET_KEY.format(assetKey))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { OguryConstants.Logs.ASSET_KEY.format(assetKey) }
 
             if (isAdaptersDebugEnabled()) {
                 OguryLog.enable(OguryLog.Level.DEBUG)
@@ -113,38 +107,26 @@ class OguryAdapter : LevelPlayBaseAdapter() {
 
             Ogury.start(context.applicationContext, assetKey, object : OguryOnStartListener {
                 override fun onStarted() {
-                    onInitializationSuccess()
+                    onInitializationSuccess(attempt)
                 }
 
                 override fun onFailed(error: OguryError) {
-                    onInitializationFailure(error.code, error.message ?: OguryConstants.Logs.INIT_FAILED)
+                    onInitializationFailure(attempt, error.code, error.message ?: OguryConstants.Logs.INIT_FAILED)
                 }
             })
         }
     }
 
-    private fun onInitializationSuccess() {
+    private fun onInitializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        initState = InitState.INIT_STATE_SUCCESS
-
-        for (listener in initListeners) {
-            listener.onInitSuccess()
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    private fun onInitializationFailure(errorCode: Int, errorMessage: String) {
+    private fun onInitializationFailure(attempt: Int, errorCode: Int, errorMessage: String) {
         IronLog.ADAPTER_CALLBACK.error(OguryConstants.Logs.INIT_FAILED_WITH_ERROR.format(errorCode, errorMessage))
 
-        initState = InitState.INIT_STATE_FAILED
-
-        for (listener in initListeners) {
-            listener.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
     }
 
     // endregion
@@ -157,7 +139,7 @@ class OguryAdapter : LevelPlayBaseAdapter() {
         }
 
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(OguryConstants.Logs.KEY_VALUE.format(key, value))
+        IronLog.ADAPTER_API.verbose { OguryConstants.Logs.KEY_VALUE.format(key, value) }
 
         val formattedValue = MetaDataUtils.formatValueForType(value, MetaData.MetaDataValueTypes.META_DATA_VALUE_BOOLEAN)
 
@@ -167,7 +149,7 @@ class OguryAdapter : LevelPlayBaseAdapter() {
     }
 
     private fun setCOPPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(OguryConstants.Logs.COPPA.format(value))
+        IronLog.ADAPTER_API.verbose { OguryConstants.Logs.COPPA.format(value) }
         Ogury.applyChildPrivacy(
             if (value) {
                 OguryChildPrivacyTreatment.CHILD_UNDER_COPPA_TREATMENT_TRUE
@@ -184,7 +166,7 @@ class OguryAdapter : LevelPlayBaseAdapter() {
     internal fun collectBiddingData(context: Context, biddingDataCallback: BiddingDataCallback) {
         OguryBidTokenProvider.getBidToken(context.applicationContext, object : OguryBidTokenListener {
             override fun onBidTokenGenerated(bidToken: String) {
-                IronLog.ADAPTER_API.verbose(OguryConstants.Logs.TOKEN.format(bidToken))
+                IronLog.ADAPTER_API.verbose { OguryConstants.Logs.TOKEN.format(bidToken) }
                 val biddingDataMap: MutableMap<String?, Any?> = HashMap()
                 biddingDataMap[OguryConstants.TOKEN_KEY] = bidToken
                 biddingDataCallback.onSuccess(biddingDataMap)
@@ -4,6 +4,7 @@ object OguryConstants {
 
     // Adapter version and mediation
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "Ogury"
     const val MEDIATION_NAME = "Unity LevelPlay"
 
     // Ogury configuration keys
@@ -2,13 +2,16 @@ package com.ironsource.adapters.ogury.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
-import android.widget.FrameLayout
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.ogury.OguryAdapter
 import com.ironsource.adapters.ogury.OguryConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -20,12 +23,14 @@ import com.ironsource.mediationsdk.model.NetworkSettings
 import com.ogury.ad.OguryBannerAdSize
 import com.ogury.ad.OguryBannerAdView
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseBanner
+import java.lang.ref.WeakReference
 
 class OguryBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<OguryAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var bannerAdView: OguryBannerAdView? = null
+    private val latencyTracker = LatencyTracker(OguryConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(OguryConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<OguryBannerAdView>(OguryConstants.NETWORK_NAME) { destroyBannerAdView(it) }
 
     // region Adapter Methods
 
@@ -35,14 +40,15 @@ class OguryBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val adUnitId = adData.getString(OguryConstants.AD_UNIT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(OguryConstants.Logs.AD_UNIT_ID.format(adUnitId ?: ""))
+        IronLog.ADAPTER_API.verbose { OguryConstants.Logs.AD_UNIT_ID.format(adUnitId ?: "") }
 
         val context = activity.applicationContext
         val oguryBannerSize = getBannerSize(context, bannerSize)
         if (oguryBannerSize == null) {
             IronLog.INTERNAL.error(OguryConstants.Logs.UNSUPPORTED_BANNER_SIZE)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 OguryConstants.Logs.UNSUPPORTED_BANNER_SIZE
@@ -53,7 +59,7 @@ class OguryBannerAdapter(networkSettings: NetworkSettings) :
         val serverData = adData.serverData
         if (serverData.isNullOrEmpty()) {
             IronLog.INTERNAL.error(OguryConstants.Logs.SERVER_DATA_EMPTY)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 OguryConstants.Logs.SERVER_DATA_EMPTY
@@ -61,25 +67,31 @@ class OguryBannerAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        val layoutParams = FrameLayout.LayoutParams(
-            AdapterUtils.dpToPixels(context, bannerSize.width),
-            AdapterUtils.dpToPixels(context, bannerSize.height),
-            Gravity.CENTER
-        )
+        val layoutParams = BannerLayouts.layoutParams(context, bannerSize.width, bannerSize.height, Gravity.CENTER)
 
-        mainHandler.post {
-            bannerAdView = OguryBannerAdView(context, adUnitId, oguryBannerSize, OguryAdapter.mediation).apply {
-                setListener(OguryBannerListener(listener, this, layoutParams))
-                load(serverData)
+        val generation = adSlot.begin()
+        MainThreadScheduler.post {
+            val bannerAdView = OguryBannerAdView(context, adUnitId, oguryBannerSize, OguryAdapter.mediation).apply {
+                setListener(OguryBannerListener(trackedListener, this, layoutParams, WeakReference(this@OguryBannerAdapter), generation))
             }
+
+            // The banner was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                bannerAdView.destroy()
+                return@post
+            }
+            bannerAdView.load(serverData)
         }
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            bannerAdView?.destroy()
-            bannerAdView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -88,26 +100,44 @@ class OguryBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(OguryConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(OguryConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(OguryConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, trackedCallback)
     }
 
     // endregion
 
     // region Helper Methods
 
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerAdView(generation: Long, bannerAdView: OguryBannerAdView): Boolean {
+        if (!adSlot.set(generation, bannerAdView)) {
+            destroyBannerAdView(bannerAdView)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    internal fun destroyBannerAdView(bannerAdView: OguryBannerAdView) {
+        MainThreadScheduler.post { bannerAdView.destroy() }
+    }
+
     private fun getBannerSize(context: Context, bannerSize: ISBannerSize): OguryBannerAdSize? =
         when (bannerSize.description) {
             ISBannerSize.BANNER.description -> OguryBannerAdSize.SMALL_BANNER_320x50
             ISBannerSize.RECTANGLE.description -> OguryBannerAdSize.MREC_300x250
             ISBannerSize.SMART.description ->
-                if (AdapterUtils.isLargeScreen(context)) null else OguryBannerAdSize.SMALL_BANNER_320x50
+                if (BannerLayouts.isLargeScreen(context)) null else OguryBannerAdSize.SMALL_BANNER_320x50
             else -> null
         }
 
@@ -8,11 +8,15 @@ import com.ironsource.mediationsdk.logger.IronLog
 import com.ogury.ad.OguryAdError
 import com.ogury.ad.OguryBannerAdView
 import com.ogury.ad.OguryBannerAdViewListener
+import java.lang.ref.WeakReference
 
 class OguryBannerListener(
     private val listener: BannerAdListener,
     private val bannerAdView: OguryBannerAdView,
-    private val layoutParams: FrameLayout.LayoutParams
+    private val layoutParams: FrameLayout.LayoutParams,
+    private val adapter: WeakReference<OguryBannerAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : OguryBannerAdViewListener {
 
     /**
@@ -20,6 +24,9 @@ class OguryBannerListener(
      */
     override fun onAdLoaded(ad: OguryBannerAdView) {
         IronLog.ADAPTER_CALLBACK.verbose()
+        if (adapter.get()?.setBannerAdView(generation, bannerAdView) == false) {
+            return
+        }
         listener.onAdLoadSuccess(bannerAdView, layoutParams)
     }
 
@@ -28,6 +35,7 @@ class OguryBannerListener(
      */
     override fun onAdError(ad: OguryBannerAdView, error: OguryAdError) {
         IronLog.ADAPTER_CALLBACK.error(OguryConstants.Logs.LOAD_FAILED.format(error.code, error.message))
+        adapter.get()?.destroyBannerAdView(bannerAdView)
         listener.onAdLoadFailed(
             OguryAdapter.getLoadErrorType(error.code),
             error.code,
@@ -2,6 +2,10 @@ package com.ironsource.adapters.ogury.interstitial
 
 import android.app.Activity
 import android.content.Context
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.ogury.OguryAdapter
 import com.ironsource.adapters.ogury.OguryConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
@@ -17,18 +21,21 @@ import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseInterstitial
 class OguryInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<OguryAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(OguryConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(OguryConstants.NETWORK_NAME)
     private var interstitialAd: OguryInterstitialAd? = null
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val adUnitId = adData.getString(OguryConstants.AD_UNIT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(OguryConstants.Logs.AD_UNIT_ID.format(adUnitId ?: ""))
+        IronLog.ADAPTER_API.verbose { OguryConstants.Logs.AD_UNIT_ID.format(adUnitId ?: "") }
 
         val serverData = adData.serverData
         if (serverData.isNullOrEmpty()) {
             IronLog.INTERNAL.error(OguryConstants.Logs.SERVER_DATA_EMPTY)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 OguryConstants.Logs.SERVER_DATA_EMPTY
@@ -37,16 +44,17 @@ class OguryInterstitialAdapter(networkSettings: NetworkSettings) :
         }
 
         interstitialAd = OguryInterstitialAd(context.applicationContext, adUnitId, OguryAdapter.mediation).apply {
-            setListener(OguryInterstitialListener(listener))
+            setListener(OguryInterstitialListener(trackedListener))
             load(serverData)
         }
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 OguryConstants.Logs.AD_NOT_AVAILABLE
             )
@@ -61,6 +69,7 @@ class OguryInterstitialAdapter(networkSettings: NetworkSettings) :
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
         interstitialAd?.setListener(null)
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, interstitialAd)
         interstitialAd = null
     }
 
@@ -69,14 +78,15 @@ class OguryInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(OguryConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(OguryConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(OguryConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, trackedCallback)
     }
 
     // endregion
@@ -0,0 +1,176 @@
+package com.ironsource.adapters.pangle
+
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
+import com.ironsource.adapters.common.verbose
+import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
+import com.ironsource.mediationsdk.logger.IronLog
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Keeps pre-loaded full-screen ads per slot, so a waterfall load can be served without waiting for
+ * a network round trip.
+ *
+ * The pool is opt-in by the [POOL_SIZE_KEY] network setting. Ads older than the configured expiry
+ * are evicted instead of being served, and the pools of all formats share a global cap of
+ * concurrent background loads. A load the SDK never answers gives its place back after
+ * [LOAD_TIMEOUT_MS]. The hit and miss counts of a pool can be pulled with [snapshot], the
+ * ones of all pools with [snapshotAll].
+ */
+class PangleAdPool<T : Any> internal constructor(
+    val name: String,
+    private val loader: (slotId: String, onLoaded: (T?) -> Unit) -> Unit
+) {
+
+    companion object {
+        // Number of ready ads to keep per slot set in the network settings, the pool is off by default
+        private const val POOL_SIZE_KEY = "preloadPoolSize"
+        private const val MAX_POOL_SIZE = 3
+
+        // Minutes after which a pre-loaded ad is no longer served
+        private const val EXPIRY_KEY = "preloadExpiryMinutes"
+        private const val DEFAULT_EXPIRY_MS = 30 * 60_000L
+
+        // Background loads running at the same time for all pools
+        private const val MAX_CONCURRENT_LOADS = 2
+        private val inFlightLoads = AtomicInteger()
+
+        // Time after which a background load without a result no longer counts against the cap
+        private const val LOAD_TIMEOUT_MS = 60_000L
+        private val timeoutHandler = Handler(Looper.getMainLooper())
+
+        private val pools = CopyOnWriteArrayList<PangleAdPool<*>>()
+
+        /**
+         * @return the hit and miss counts of all pools which were polled at least once
+         */
+        @JvmStatic
+        fun snapshotAll(): List<PoolStats> = pools.map { it.snapshot() }.filter { it.hitCount + it.missCount > 0 }
+
+        internal fun getPoolSize(adData: AdData): Int =
+            adData.getString(POOL_SIZE_KEY)?.toIntOrNull()?.coerceIn(0, MAX_POOL_SIZE) ?: 0
+
+        internal fun getExpiry(adData: AdData): Long =
+            adData.getString(EXPIRY_KEY)?.toLongOrNull()?.takeIf { it > 0 }?.let { it * 60_000 } ?: DEFAULT_EXPIRY_MS
+    }
+
+    class PoolStats(
+        val name: String,
+        val hitCount: Long,
+        val missCount: Long
+    )
+
+    internal class PooledAd<T>(
+        val ad: T,
+        // Elapsed realtime after which the ad is stale
+        val expiryTime: Long
+    )
+
+    private val lock = Any()
+    private val ads = HashMap<String, ArrayDeque<PooledAd<T>>>()
+    private val pendingLoads = HashMap<String, Int>()
+    private val hits = AtomicLong()
+    private val misses = AtomicLong()
+
+    val hitCount: Long
+        get() = hits.get()
+
+    val missCount: Long
+        get() = misses.get()
+
+    init {
+        pools.add(this)
+    }
+
+    fun snapshot(): PoolStats = PoolStats(name, hitCount, missCount)
+
+    /**
+     * @return a ready ad of the slot which is not expired, or null if the pool has none
+     */
+    internal fun poll(slotId: String): PooledAd<T>? {
+        val pooledAd = synchronized(lock) {
+            evictExpired(slotId)
+            ads[slotId]?.removeFirstOrNull()
+        }
+        if (pooledAd != null) {
+            hits.incrementAndGet()
+        } else {
+            misses.incrementAndGet()
+        }
+        IronLog.INTERNAL.verbose { "$name pool - slotId = $slotId, hit = ${pooledAd != null}, hits = $hitCount, misses = $missCount" }
+        return pooledAd
+    }
+
+    /**
+     * Starts background loads until the slot has the given number of ready or loading ads,
+     * as long as the global cap of concurrent loads allows it.
+     */
+    internal fun refill(slotId: String, poolSize: Int, expiryMs: Long) {
+        synchronized(lock) {
+            evictExpired(slotId)
+            val pending = pendingLoads[slotId] ?: 0
+            if ((ads[slotId]?.size ?: 0) + pending >= poolSize || !tryStartLoad()) {
+                return
+            }
+            pendingLoads[slotId] = pending + 1
+        }
+
+        // Set by the result or by the timeout, whichever comes first gives the load's place back
+        val isFinished = AtomicBoolean()
+        val timeout = Runnable {
+            if (isFinished.compareAndSet(false, true)) {
+                IronLog.INTERNAL.error("$name pool - load timed out, slotId = $slotId")
+                finishLoad(slotId, null, expiryMs)
+            }
+        }
+        timeoutHandler.postDelayed(timeout, LOAD_TIMEOUT_MS)
+
+        loader(slotId) { ad ->
+            timeoutHandler.removeCallbacks(timeout)
+            // An ad arriving after the timeout is dropped, the load already gave its place back
+            if (isFinished.compareAndSet(false, true)) {
+                finishLoad(slotId, ad, expiryMs)
+                // A failed load is not retried until the next refill, to avoid a load loop on no fill
+                if (ad != null) {
+                    refill(slotId, poolSize, expiryMs)
+                }
+            }
+        }
+    }
+
+    private fun finishLoad(slotId: String, ad: T?, expiryMs: Long) {
+        inFlightLoads.decrementAndGet()
+        synchronized(lock) {
+            pendingLoads[slotId] = ((pendingLoads[slotId] ?: 1) - 1).coerceAtLeast(0)
+            if (ad != null) {
+                ads.getOrPut(slotId) { ArrayDeque() }.addLast(PooledAd(ad, SystemClock.elapsedRealtime() + expiryMs))
+            }
+        }
+    }
+
+    private fun tryStartLoad(): Boolean {
+        while (true) {
+            val current = inFlightLoads.get()
+            if (current >= MAX_CONCURRENT_LOADS) {
+                return false
+            }
+            if (inFlightLoads.compareAndSet(current, current + 1)) {
+                return true
+            }
+        }
+    }
+
+    private fun evictExpired(slotId: String) {
+        val queue = ads[slotId] ?: return
+        val now = SystemClock.elapsedRealtime()
+        // Ads are added in load order, so the oldest ones are first
+        while (queue.isNotEmpty() && queue.first().expiryTime <= now) {
+            queue.removeFirst()
+            IronLog.INTERNAL.verbose { "$name pool - evicted an expired ad of slotId = $slotId" }
+        }
+    }
+}
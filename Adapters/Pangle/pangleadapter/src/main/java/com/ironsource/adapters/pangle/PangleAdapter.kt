@@ -1,8 +1,6 @@
 package com.ironsource.adapters.pangle
 
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import com.bytedance.sdk.openadsdk.api.PAGConstant.PAGPAConsentType.*
 import com.bytedance.sdk.openadsdk.api.bidding.PAGBiddingRequest
 import com.bytedance.sdk.openadsdk.api.init.PAGBidCallback
@@ -10,6 +8,12 @@ import com.bytedance.sdk.openadsdk.api.init.PAGBidError
 import com.bytedance.sdk.openadsdk.api.init.PAGConfig
 import com.bytedance.sdk.openadsdk.api.init.PAGSdk
 import com.bytedance.sdk.openadsdk.api.init.PAGSdk.PAGInitCallback
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
+import com.ironsource.mediationsdk.LoadWhileShowSupportState
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -21,27 +25,17 @@ import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
 import org.json.JSONArray
 import org.json.JSONException
 import org.json.JSONObject
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class PangleAdapter() : LevelPlayBaseAdapter() {
 
     companion object {
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         private const val GitHash: String = BuildConfig.GitHash
 
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(PangleConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
 
         // Pangle Builder
         private val pagConfigBuilder = PAGConfig.Builder()
@@ -49,8 +43,6 @@ class PangleAdapter() : LevelPlayBaseAdapter() {
         // Pangle defaultChildDirected
         private var childDirected = PangleConstants.PANGLE_CHILD_DIRECTED_TYPE_DEFAULT
 
-        private val mainHandler = Handler(Looper.getMainLooper())
-
         @JvmStatic
         fun networkAdapterVersion(): String = PangleConstants.ADAPTER_VERSION
     }
@@ -63,11 +55,18 @@ class PangleAdapter() : LevelPlayBaseAdapter() {
 
     override fun isUsingActivityBeforeImpression(adFormat: LevelPlay.AdFormat): Boolean = false
 
+    // The network's capability to load a full-screen ad while the ad of the same instance is showing
+    override fun getLoadWhileShowSupportState(): LoadWhileShowSupportState =
+        LoadWhileShowSupportState.LOAD_WHILE_SHOW_BY_INSTANCE
+
     override fun init(
         adData: AdData,
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(PangleConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         val appId = adData.getString(PangleConstants.APP_ID_KEY)
         val slotId = adData.getString(PangleConstants.SLOT_ID_KEY)
 
@@ -92,26 +91,20 @@ class PangleAdapter() : LevelPlayBaseAdapter() {
         }
 
         // Check if init failed previously
-        if (initState == InitState.INIT_STATE_FAILED) {
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(PangleConstants.Logs.SDK_INIT_FAILED)
             networkInitializationListener?.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, PangleConstants.Logs.SDK_INIT_FAILED)
             return
         }
 
-        // Add listener to list if initialization is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initListeners.add(it) }
-        }
-
-        // Start initialization if not called yet
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-
-            IronLog.ADAPTER_API.verbose(PangleConstants.Logs.APP_ID_AND_SLOT_ID.format(appId, slotId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { PangleConstants.Logs.APP_ID_AND_SLOT_ID.format(appId, slotId) }
 
             // Check if user is a child
             if (isCoppaChildUser()) {
-                onInitializationFailure(PangleConstants.PANGLE_NOT_ALLOW_CHILD_ERROR_CODE, PangleConstants.PANGLE_NOT_ALLOW_CHILD_ERROR_MSG)
+                onInitializationFailure(attempt, PangleConstants.PANGLE_NOT_ALLOW_CHILD_ERROR_CODE, PangleConstants.PANGLE_NOT_ALLOW_CHILD_ERROR_MSG)
                 return
             }
 
@@ -124,15 +117,15 @@ class PangleAdapter() : LevelPlayBaseAdapter() {
                 .supportMultiProcess(false)
                 .build()
 
-            mainHandler.post {
-                // Init Pangle SDK
+            // PAGSdk.init must be called on the main thread
+            MainThreadScheduler.post {
                 PAGSdk.init(context.applicationContext, initConfig, object : PAGInitCallback {
                     override fun success() {
-                        onInitializationSuccess()
+                        onInitializationSuccess(attempt)
                     }
 
                     override fun fail(code: Int, message: String) {
-                        onInitializationFailure(code, message)
+                        onInitializationFailure(attempt, code, message)
                     }
                 })
             }
@@ -150,7 +143,7 @@ class PangleAdapter() : LevelPlayBaseAdapter() {
 
         // This is a list of 1 value
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(PangleConstants.Logs.META_DATA_VALUE.format(key, value))
+        IronLog.ADAPTER_API.verbose { PangleConstants.Logs.META_DATA_VALUE.format(key, value) }
 
         when {
             MetaDataUtils.isValidCCPAMetaData(key, value) -> {
@@ -178,7 +171,7 @@ class PangleAdapter() : LevelPlayBaseAdapter() {
             ccpaValueString = PangleConstants.CONSENT_TYPE_CONSENT_STRING
         }
 
-        IronLog.ADAPTER_API.verbose(PangleConstants.Logs.CCPA_VALUE.format(ccpaValueString))
+        IronLog.ADAPTER_API.verbose { PangleConstants.Logs.CCPA_VALUE.format(ccpaValueString) }
         pagConfigBuilder.setPAConsent(ccpaValue)
     }
 
@@ -200,37 +193,25 @@ class PangleAdapter() : LevelPlayBaseAdapter() {
                 coppaValueString = PangleConstants.CHILD_DIRECTED_TYPE_DEFAULT_STRING
             }
         }
-        IronLog.ADAPTER_API.verbose(PangleConstants.Logs.COPPA_VALUE.format(coppaValueString))
+        IronLog.ADAPTER_API.verbose { PangleConstants.Logs.COPPA_VALUE.format(coppaValueString) }
     }
 
     // endregion
 
     // region Helper Methods
 
-    private fun onInitializationSuccess() {
+    private fun onInitializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        initState = InitState.INIT_STATE_SUCCESS
-
         // Iterate over all the adapter instances and report init success
-        for (listener in initListeners) {
-            listener.onInitSuccess()
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    private fun onInitializationFailure(errorCode: Int, errorMessage: String) {
+    private fun onInitializationFailure(attempt: Int, errorCode: Int, errorMessage: String) {
         IronLog.ADAPTER_CALLBACK.error(PangleConstants.Logs.INIT_FAILED.format(errorCode, errorMessage))
 
-        initState = InitState.INIT_STATE_FAILED
-
         // Iterate over all the adapter instances and report init failed
-        for (listener in initListeners) {
-            listener.onInitFailed(errorCode, errorMessage)
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitFailed(attempt, errorCode, errorMessage)
     }
 
     internal fun isCoppaChildUser(): Boolean {
@@ -250,7 +231,7 @@ class PangleAdapter() : LevelPlayBaseAdapter() {
             adapterObject.put(PangleConstants.VALUE_KEY, PangleConstants.ADAPTER_VERSION)
             mediationInfo.put(adapterObject)
 
-            IronLog.INTERNAL.verbose(PangleConstants.Logs.MEDIATION_INFO.format(mediationInfo))
+            IronLog.INTERNAL.verbose { PangleConstants.Logs.MEDIATION_INFO.format(mediationInfo) }
         } catch (exception: JSONException) {
             IronLog.INTERNAL.error(PangleConstants.Logs.MEDIATION_INFO_ERROR.format(exception))
         }
@@ -280,7 +261,7 @@ class PangleAdapter() : LevelPlayBaseAdapter() {
             PAGBidCallback {
             override fun onBiddingTokenCollected(bidToken: String?) {
                 if (!bidToken.isNullOrEmpty()) {
-                    IronLog.ADAPTER_API.verbose(PangleConstants.Logs.TOKEN_COLLECTED.format(bidToken))
+                    IronLog.ADAPTER_API.verbose { PangleConstants.Logs.TOKEN_COLLECTED.format(bidToken) }
                     val data = mutableMapOf<String, Any>()
                     data[PangleConstants.TOKEN_KEY] = bidToken
                     biddingDataCallback.onSuccess(data)
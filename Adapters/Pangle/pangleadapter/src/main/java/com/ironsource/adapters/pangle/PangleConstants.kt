@@ -4,6 +4,7 @@ object PangleConstants {
 
     // Adapter version
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "Pangle"
 
     // Configuration keys
     const val SLOT_ID_KEY = "slotID"
@@ -2,16 +2,20 @@ package com.ironsource.adapters.pangle.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
 import android.widget.FrameLayout
 import com.bytedance.sdk.openadsdk.api.banner.PAGBannerAd
 import com.bytedance.sdk.openadsdk.api.banner.PAGBannerRequest
 import com.bytedance.sdk.openadsdk.api.banner.PAGBannerSize
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.pangle.PangleAdapter
 import com.ironsource.adapters.pangle.PangleConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -25,19 +29,21 @@ import java.lang.ref.WeakReference
 
 class PangleBannerAdapter(networkSettings: NetworkSettings) : LevelPlayBaseBanner<PangleAdapter>(networkSettings) {
 
-    private var bannerAd: PAGBannerAd? = null
-    private val mainHandler = Handler(Looper.getMainLooper())
+    private val latencyTracker = LatencyTracker(PangleConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(PangleConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<PAGBannerAd>(PangleConstants.NETWORK_NAME) { destroyBannerAd(it) }
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, activity: Activity, bannerSize: ISBannerSize, listener: BannerAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val slotId = adData.getString(PangleConstants.SLOT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(PangleConstants.Logs.SLOT_ID.format(slotId))
+        IronLog.ADAPTER_API.verbose { PangleConstants.Logs.SLOT_ID.format(slotId) }
 
         if (slotId.isNullOrEmpty()) {
             val errorMessage = PangleConstants.Logs.MISSING_PARAM.format(PangleConstants.SLOT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -48,7 +54,7 @@ class PangleBannerAdapter(networkSettings: NetworkSettings) : LevelPlayBaseBanne
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(PangleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 PangleConstants.Logs.NETWORK_ADAPTER_IS_NULL
@@ -59,7 +65,7 @@ class PangleBannerAdapter(networkSettings: NetworkSettings) : LevelPlayBaseBanne
         if (networkAdapter.isCoppaChildUser()) {
             val errorMessage = PangleConstants.Logs.CHILD_USER_ERROR.format(PangleConstants.PANGLE_NOT_ALLOW_CHILD_ERROR_MSG)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 PangleConstants.PANGLE_NOT_ALLOW_CHILD_ERROR_CODE,
                 errorMessage
@@ -70,10 +76,10 @@ class PangleBannerAdapter(networkSettings: NetworkSettings) : LevelPlayBaseBanne
         val appContext = activity.applicationContext
         val pangleBannerSize = getBannerSize(appContext, bannerSize)
         val layoutParams = getBannerLayoutParams(appContext, bannerSize)
-        val bannerListener = PangleBannerListener(listener, WeakReference(this), layoutParams)
+        val bannerListener = PangleBannerListener(trackedListener, WeakReference(this), layoutParams, adSlot.begin())
         val bannerRequest = PAGBannerRequest(pangleBannerSize).apply { adString = adData.serverData }
 
-        mainHandler.post {
+        MainThreadScheduler.post {
             PAGBannerAd.loadAd(slotId, bannerRequest, bannerListener)
         }
     }
@@ -81,35 +87,56 @@ class PangleBannerAdapter(networkSettings: NetworkSettings) : LevelPlayBaseBanne
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
 
-        mainHandler.post {
-            // The listener needs to be set to null prior to destroying the banner to prevent a memory leak
-            bannerAd?.setAdInteractionListener(null)
-            // Destroy banner
-            bannerAd?.destroy()
-            bannerAd = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                // The listener needs to be set to null prior to destroying the banner to prevent a memory leak
+                it.setAdInteractionListener(null)
+                // Destroy banner
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it.bannerView)
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.AD, it)
+            }
         }
     }
 
     override fun collectBiddingData(adData: AdData?, context: Context, biddingDataCallback: BiddingDataCallback) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val slotId = adData?.getString(PangleConstants.SLOT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(PangleConstants.Logs.SLOT_ID.format(slotId ?: ""))
+        IronLog.ADAPTER_API.verbose { PangleConstants.Logs.SLOT_ID.format(slotId ?: "") }
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(PangleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(PangleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(PangleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(context, slotId, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, slotId, trackedCallback)
     }
 
     // endregion
 
     // region Helper Methods
 
-    internal fun setBannerAd(bannerAd: PAGBannerAd?) {
-        this.bannerAd = bannerAd
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerAd(generation: Long, bannerAd: PAGBannerAd): Boolean {
+        if (!adSlot.set(generation, bannerAd)) {
+            destroyBannerAd(bannerAd)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which was replaced by the banner of a newer load
+    private fun destroyBannerAd(bannerAd: PAGBannerAd) {
+        MainThreadScheduler.post {
+            bannerAd.setAdInteractionListener(null)
+            bannerAd.destroy()
+        }
     }
 
     private fun getBannerSize(context: Context, bannerSize: ISBannerSize): PAGBannerSize {
@@ -117,7 +144,7 @@ class PangleBannerAdapter(networkSettings: NetworkSettings) : LevelPlayBaseBanne
             PangleConstants.BANNER_SIZE_BANNER -> PAGBannerSize.BANNER_W_320_H_50
             PangleConstants.BANNER_SIZE_RECTANGLE -> PAGBannerSize.BANNER_W_300_H_250
             PangleConstants.BANNER_SIZE_SMART ->
-                if (AdapterUtils.isLargeScreen(context)) {
+                if (BannerLayouts.isLargeScreen(context)) {
                     PAGBannerSize.BANNER_W_728_H_90
                 } else {
                     PAGBannerSize.BANNER_W_320_H_50
@@ -128,31 +155,16 @@ class PangleBannerAdapter(networkSettings: NetworkSettings) : LevelPlayBaseBanne
 
     private fun getBannerLayoutParams(context: Context, size: ISBannerSize): FrameLayout.LayoutParams {
         val layoutParams = when (size.description) {
-            PangleConstants.BANNER_SIZE_BANNER -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, PangleConstants.BANNER_WIDTH),
-                AdapterUtils.dpToPixels(context, PangleConstants.BANNER_HEIGHT)
-            )
-            PangleConstants.BANNER_SIZE_RECTANGLE -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, PangleConstants.RECTANGLE_WIDTH),
-                AdapterUtils.dpToPixels(context, PangleConstants.RECTANGLE_HEIGHT)
-            )
+            PangleConstants.BANNER_SIZE_BANNER -> BannerLayouts.layoutParams(context, PangleConstants.BANNER_WIDTH, PangleConstants.BANNER_HEIGHT, Gravity.CENTER)
+            PangleConstants.BANNER_SIZE_RECTANGLE -> BannerLayouts.layoutParams(context, PangleConstants.RECTANGLE_WIDTH, PangleConstants.RECTANGLE_HEIGHT, Gravity.CENTER)
             PangleConstants.BANNER_SIZE_SMART ->
-                if (AdapterUtils.isLargeScreen(context)) {
-                    FrameLayout.LayoutParams(
-                        AdapterUtils.dpToPixels(context, PangleConstants.LARGE_WIDTH),
-                        AdapterUtils.dpToPixels(context, PangleConstants.LARGE_HEIGHT)
-                    )
+                if (BannerLayouts.isLargeScreen(context)) {
+                    BannerLayouts.layoutParams(context, PangleConstants.LARGE_WIDTH, PangleConstants.LARGE_HEIGHT, Gravity.CENTER)
                 } else {
-                    FrameLayout.LayoutParams(
-                        AdapterUtils.dpToPixels(context, PangleConstants.BANNER_WIDTH),
-                        AdapterUtils.dpToPixels(context, PangleConstants.BANNER_HEIGHT)
-                    )
+                    BannerLayouts.layoutParams(context, PangleConstants.BANNER_WIDTH, PangleConstants.BANNER_HEIGHT, Gravity.CENTER)
                 }
-            else -> FrameLayout.LayoutParams(0, 0)
+            else -> BannerLayouts.layoutParams(context, 0, 0, Gravity.CENTER)
         }
-
-        // Set gravity
-        layoutParams.gravity = Gravity.CENTER
         return layoutParams
     }
 
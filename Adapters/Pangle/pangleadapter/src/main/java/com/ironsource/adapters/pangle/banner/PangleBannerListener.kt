@@ -13,7 +13,9 @@ import java.lang.ref.WeakReference
 class PangleBannerListener(
     private val listener: BannerAdListener,
     private val adapter: WeakReference<PangleBannerAdapter>,
-    private val layoutParams: FrameLayout.LayoutParams
+    private val layoutParams: FrameLayout.LayoutParams,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : PAGBannerAdLoadListener, PAGBannerAdInteractionListener {
 
     /**
@@ -22,7 +24,9 @@ class PangleBannerListener(
      */
     override fun onAdLoaded(bannerAd: PAGBannerAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        adapter.get()?.setBannerAd(bannerAd)
+        if (adapter.get()?.setBannerAd(generation, bannerAd) == false) {
+            return
+        }
         bannerAd.setAdInteractionListener(this)
         listener.onAdLoadSuccess(bannerAd.bannerView, layoutParams)
     }
@@ -2,10 +2,17 @@ package com.ironsource.adapters.pangle.interstitial
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
+import android.os.SystemClock
 import com.bytedance.sdk.openadsdk.api.interstitial.PAGInterstitialAd
+import com.bytedance.sdk.openadsdk.api.interstitial.PAGInterstitialAdLoadListener
 import com.bytedance.sdk.openadsdk.api.interstitial.PAGInterstitialRequest
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
+import com.ironsource.adapters.pangle.PangleAdPool
 import com.ironsource.adapters.pangle.PangleAdapter
 import com.ironsource.adapters.pangle.PangleConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
@@ -20,21 +27,50 @@ import java.lang.ref.WeakReference
 
 class PangleInterstitialAdapter(networkSettings: NetworkSettings) : LevelPlayBaseInterstitial<PangleAdapter>(networkSettings) {
 
-    private var interstitialAd: PAGInterstitialAd? = null
+    private val latencyTracker = LatencyTracker(PangleConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(PangleConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<PAGInterstitialAd>(PangleConstants.NETWORK_NAME) {
+        // Pangle ads have nothing to release, the replaced ad is only dropped
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, it)
+    }
+
     private var interstitialAdListener: PangleInterstitialListener? = null
     private var isAdAvailableFlag = false
-    private val mainHandler = Handler(Looper.getMainLooper())
+
+    // Elapsed realtime after which the ad is stale, only known for ads served from the pre-load pool
+    private var adExpiryTime = Long.MAX_VALUE
+
+    // Refills the pre-load pool of the last loaded slot, null if the pool isn't used
+    private var poolRefill: (() -> Unit)? = null
+
+    companion object {
+        // Waterfall ads pre-loaded for all interstitial adapter instances
+        private val adPool = PangleAdPool<PAGInterstitialAd>("interstitial") { slotId, onLoaded ->
+            MainThreadScheduler.post {
+                PAGInterstitialAd.loadAd(slotId, PAGInterstitialRequest(), object : PAGInterstitialAdLoadListener {
+                    override fun onAdLoaded(ad: PAGInterstitialAd) {
+                        onLoaded(ad)
+                    }
+
+                    override fun onError(code: Int, message: String) {
+                        onLoaded(null)
+                    }
+                })
+            }
+        }
+    }
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val slotId = adData.getString(PangleConstants.SLOT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(PangleConstants.Logs.SLOT_ID.format(slotId))
+        IronLog.ADAPTER_API.verbose { PangleConstants.Logs.SLOT_ID.format(slotId) }
 
         if (slotId.isNullOrEmpty()) {
             val errorMessage = PangleConstants.Logs.MISSING_PARAM.format(PangleConstants.SLOT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -45,7 +81,7 @@ class PangleInterstitialAdapter(networkSettings: NetworkSettings) : LevelPlayBas
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(PangleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 PangleConstants.Logs.NETWORK_ADAPTER_IS_NULL
@@ -56,7 +92,7 @@ class PangleInterstitialAdapter(networkSettings: NetworkSettings) : LevelPlayBas
         if (networkAdapter.isCoppaChildUser()) {
             val errorMessage = PangleConstants.Logs.CHILD_USER_ERROR.format(PangleConstants.PANGLE_NOT_ALLOW_CHILD_ERROR_MSG)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 PangleConstants.PANGLE_NOT_ALLOW_CHILD_ERROR_CODE,
                 errorMessage
@@ -65,21 +101,54 @@ class PangleInterstitialAdapter(networkSettings: NetworkSettings) : LevelPlayBas
         }
 
         setInterstitialAdAvailability(false)
-        interstitialAdListener = PangleInterstitialListener(listener, WeakReference(this))
+        adExpiryTime = Long.MAX_VALUE
+        val generation = adSlot.begin()
+        val loadListener = PangleInterstitialListener(trackedListener, WeakReference(this), generation)
+        interstitialAdListener = loadListener
+
+        // Bidding ads are tied to their auction, so only waterfall loads can use the pre-load pool
+        val poolSize = if (adData.serverData.isNullOrEmpty()) PangleAdPool.getPoolSize(adData) else 0
+        if (poolSize > 0) {
+            val expiryMs = PangleAdPool.getExpiry(adData)
+            val pooledAd = adPool.poll(slotId)
+            poolRefill = { adPool.refill(slotId, poolSize, expiryMs) }
+            // On a miss the pool is refilled once the load below succeeds, so the slot isn't
+            // requested twice at the same time
+            if (pooledAd != null) {
+                poolRefill?.invoke()
+                // The ad was destroyed or loaded again meanwhile, the pooled ad is dropped then
+                if (!adSlot.set(generation, pooledAd.ad)) {
+                    leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, pooledAd.ad)
+                    return
+                }
+                adExpiryTime = pooledAd.expiryTime
+                setInterstitialAdAvailability(true)
+                trackedListener.onAdLoadSuccess()
+                return
+            }
+        } else {
+            poolRefill = null
+        }
+
         val request = PAGInterstitialRequest().apply { adString = adData.serverData }
 
-        mainHandler.post {
-            PAGInterstitialAd.loadAd(slotId, request, interstitialAdListener!!)
+        MainThreadScheduler.post {
+            // The ad was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                return@post
+            }
+            PAGInterstitialAd.loadAd(slotId, request, loadListener)
         }
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(PangleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 PangleConstants.Logs.NETWORK_ADAPTER_IS_NULL
             )
@@ -89,7 +158,7 @@ class PangleInterstitialAdapter(networkSettings: NetworkSettings) : LevelPlayBas
         if (networkAdapter.isCoppaChildUser()) {
             val errorMessage = PangleConstants.Logs.CHILD_USER_ERROR.format(PangleConstants.PANGLE_NOT_ALLOW_CHILD_ERROR_MSG)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 PangleConstants.PANGLE_NOT_ALLOW_CHILD_ERROR_CODE,
                 errorMessage
             )
@@ -97,55 +166,88 @@ class PangleInterstitialAdapter(networkSettings: NetworkSettings) : LevelPlayBas
         }
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, PangleConstants.NO_AD_TO_SHOW)
+            trackedListener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, PangleConstants.NO_AD_TO_SHOW)
             return
         }
 
-        mainHandler.post {
-            interstitialAd?.apply {
-                setAdInteractionListener(interstitialAdListener)
-                show(activity)
-            }
+        val ad = adSlot.startShow()
+        if (ad == null) {
+            trackedListener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, PangleConstants.NO_AD_TO_SHOW)
+            return
+        }
+        setInterstitialAdAvailability(false)
+
+        // The shown ad reports to its own listener, a load while it's shown uses a new one
+        val showListener = PangleInterstitialListener(trackedListener, WeakReference(this), adSlot.generation)
+        MainThreadScheduler.post {
+            ad.setAdInteractionListener(showListener)
+            ad.show(activity)
         }
     }
 
     override fun isAdAvailable(adData: AdData): Boolean {
-        return interstitialAd != null && isAdAvailableFlag
+        return adSlot.ad != null && isAdAvailableFlag && SystemClock.elapsedRealtime() < adExpiryTime
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        interstitialAd = null
+        // Captured on entry, a load which starts after the destroy keeps its ad
+        val generation = adSlot.generation
+        // A load still running is cancelled, its ad is dropped once it arrives
+        val interstitialAd = adSlot.clear(generation)
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, interstitialAd)
+        // The shown ad is released as well, it no longer reports to the destroyed adapter
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, adSlot.finishShow())
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.LISTENER, interstitialAdListener)
         interstitialAdListener = null
         isAdAvailableFlag = false
+        adExpiryTime = Long.MAX_VALUE
     }
 
     override fun collectBiddingData(adData: AdData?, context: Context, biddingDataCallback: BiddingDataCallback) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val slotId = adData?.getString(PangleConstants.SLOT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(PangleConstants.Logs.SLOT_ID.format(slotId ?: ""))
+        IronLog.ADAPTER_API.verbose { PangleConstants.Logs.SLOT_ID.format(slotId ?: "") }
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(PangleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(PangleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(PangleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(context, slotId, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, slotId, trackedCallback)
     }
 
     // endregion
 
     // region Helper Methods
 
-    internal fun setInterstitialAd(interstitialAd: PAGInterstitialAd?) {
-        this.interstitialAd = interstitialAd
-    }
+    /**
+     * @return false if the ad was destroyed or loaded again while the ad was loading, the ad is
+     * dropped then
+     */
+    internal fun setInterstitialAd(generation: Long, interstitialAd: PAGInterstitialAd): Boolean =
+        adSlot.set(generation, interstitialAd)
+
+    internal fun isCurrentLoad(generation: Long): Boolean =
+        adSlot.isCurrent(generation)
 
     internal fun setInterstitialAdAvailability(isAvailable: Boolean) {
         this.isAdAvailableFlag = isAvailable
     }
 
+    // Fills the pre-load pool after the load of a pool miss, only set for waterfall loads
+    internal fun onLoadSuccess() {
+        poolRefill?.invoke()
+    }
+
+    // Loads the next pooled ad in the background once the shown one is closed
+    internal fun onAdDismissed() {
+        adSlot.finishShow()
+        poolRefill?.invoke()
+    }
+
 
     // endregion
 }
@@ -11,7 +11,9 @@ import java.lang.ref.WeakReference
 
 class PangleInterstitialListener(
     private val listener: InterstitialAdListener,
-    private val adapter: WeakReference<PangleInterstitialAdapter>
+    private val adapter: WeakReference<PangleInterstitialAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : PAGInterstitialAdLoadListener, PAGInterstitialAdInteractionListener {
 
     /**
@@ -20,9 +22,12 @@ class PangleInterstitialListener(
      */
     override fun onAdLoaded(interstitialAd: PAGInterstitialAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        adapter.get()?.setInterstitialAd(interstitialAd)
+        if (adapter.get()?.setInterstitialAd(generation, interstitialAd) == false) {
+            return
+        }
         adapter.get()?.setInterstitialAdAvailability(true)
         listener.onAdLoadSuccess()
+        adapter.get()?.onLoadSuccess()
     }
 
     /**
@@ -32,6 +37,9 @@ class PangleInterstitialListener(
      */
     override fun onError(code: Int, message: String) {
         IronLog.ADAPTER_CALLBACK.error(PangleConstants.Logs.FAILED_TO_LOAD.format(code, message))
+        if (adapter.get()?.isCurrentLoad(generation) == false) {
+            return
+        }
         adapter.get()?.setInterstitialAdAvailability(false)
         val errorType = if (code == PangleConstants.PANGLE_NO_FILL_ERROR_CODE) {
             AdapterErrorType.ADAPTER_ERROR_TYPE_NO_FILL
@@ -63,5 +71,6 @@ class PangleInterstitialListener(
     override fun onAdDismissed() {
         IronLog.ADAPTER_CALLBACK.verbose()
         listener.onAdClosed()
+        adapter.get()?.onAdDismissed()
     }
 }
@@ -12,7 +12,9 @@ import java.lang.ref.WeakReference
 
 class PangleRewardedListener(
     private val listener: RewardedVideoAdListener,
-    private val adapter: WeakReference<PangleRewardedAdapter>
+    private val adapter: WeakReference<PangleRewardedAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : PAGRewardedAdLoadListener, PAGRewardedAdInteractionListener {
 
     /**
@@ -21,9 +23,12 @@ class PangleRewardedListener(
      */
     override fun onAdLoaded(rewardedAd: PAGRewardedAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        adapter.get()?.setRewardedAd(rewardedAd)
+        if (adapter.get()?.setRewardedAd(generation, rewardedAd) == false) {
+            return
+        }
         adapter.get()?.setRewardedAdAvailability(true)
         listener.onAdLoadSuccess()
+        adapter.get()?.onLoadSuccess()
     }
 
     /**
@@ -33,6 +38,9 @@ class PangleRewardedListener(
      */
     override fun onError(code: Int, message: String) {
         IronLog.ADAPTER_CALLBACK.error(PangleConstants.Logs.FAILED_TO_LOAD.format(code, message))
+        if (adapter.get()?.isCurrentLoad(generation) == false) {
+            return
+        }
         adapter.get()?.setRewardedAdAvailability(false)
         val errorType = if (code == PangleConstants.PANGLE_NO_FILL_ERROR_CODE) {
             AdapterErrorType.ADAPTER_ERROR_TYPE_NO_FILL
@@ -82,5 +90,6 @@ class PangleRewardedListener(
     override fun onAdDismissed() {
         IronLog.ADAPTER_CALLBACK.verbose()
         listener.onAdClosed()
+        adapter.get()?.onAdDismissed()
     }
 }
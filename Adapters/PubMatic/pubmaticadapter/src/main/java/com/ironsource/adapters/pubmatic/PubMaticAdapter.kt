@@ -1,6 +1,10 @@
 package com.ironsource.adapters.pubmatic
 
 import android.content.Context
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -19,30 +23,20 @@ import com.pubmatic.sdk.openwrap.core.signal.POBSignalConfig
 import com.pubmatic.sdk.openwrap.core.signal.POBSignalGenerator
 import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class PubMaticAdapter : LevelPlayBaseAdapter() {
 
     companion object {
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         private const val GitHash: String = BuildConfig.GitHash
 
         // Bidding host used when generating signals and loading bidding ads
         val BIDDING_HOST: POBBiddingHost = POBBiddingHost.UNITYLEVELPLAY
 
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initCallbackListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(PubMaticConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
 
         @JvmStatic
         fun getLoadError(error: POBError): AdapterErrorType {
@@ -70,6 +64,9 @@ class PubMaticAdapter : LevelPlayBaseAdapter() {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(PubMaticConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         // Validate publisherId and profileId first before any other checks
         val publisherId = adData.getString(PubMaticConstants.PUBLISHER_ID_KEY)
         if (publisherId.isNullOrEmpty()) {
@@ -94,7 +91,7 @@ class PubMaticAdapter : LevelPlayBaseAdapter() {
         }
 
         // Check if init failed previously
-        if (initState == InitState.INIT_STATE_FAILED) {
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(PubMaticConstants.Logs.SDK_INIT_FAILED)
             networkInitializationListener?.onInitFailed(
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
@@ -103,14 +100,10 @@ class PubMaticAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        // Add to the init listeners only if init is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initCallbackListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-            IronLog.ADAPTER_API.verbose(PubMaticConstants.Logs.PUBLISHER_ID_AND_PROFILE_ID.format(publisherId, profileId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { PubMaticConstants.Logs.PUBLISHER_ID_AND_PROFILE_ID.format(publisherId, profileId) }
 
             // Set log level
             if (isAdaptersDebugEnabled()) {
@@ -124,40 +117,28 @@ class PubMaticAdapter : LevelPlayBaseAdapter() {
                 sdkConfig,
                 object : OpenWrapSDKInitializer.Listener {
                     override fun onSuccess() {
-                        onInitializationSuccess()
+                        onInitializationSuccess(attempt)
                     }
 
                     override fun onFailure(error: POBError) {
-                        onInitializationFailure(error)
+                        onInitializationFailure(attempt, error)
                     }
                 })
         }
     }
 
-    private fun onInitializationSuccess() {
+    private fun onInitializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose(PubMaticConstants.Logs.INIT_SUCCESS)
 
-        initState = InitState.INIT_STATE_SUCCESS
-
         // Iterate over all the adapter instances and report init success
-        for (listener: NetworkInitializationListener in initCallbackListeners) {
-            listener.onInitSuccess()
-        }
-
-        initCallbackListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    private fun onInitializationFailure(error: POBError) {
+    private fun onInitializationFailure(attempt: Int, error: POBError) {
         IronLog.ADAPTER_CALLBACK.error(PubMaticConstants.Logs.INIT_FAILED.format(error.errorMessage, error.errorCode))
 
-        initState = InitState.INIT_STATE_FAILED
-
         // Iterate over all the adapter instances and report init failed
-        for (listener: NetworkInitializationListener in initCallbackListeners) {
-            listener.onInitFailed(error.errorCode, error.errorMessage)
-        }
-
-        initCallbackListeners.clear()
+        initCoordinator.onInitFailed(attempt, error.errorCode, error.errorMessage)
     }
 
     // endregion
@@ -171,7 +152,7 @@ class PubMaticAdapter : LevelPlayBaseAdapter() {
 
         // This is a list of 1 value
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(PubMaticConstants.Logs.META_DATA_SET.format(key ?: "", value))
+        IronLog.ADAPTER_API.verbose { PubMaticConstants.Logs.META_DATA_SET.format(key ?: "", value) }
         val formattedValue: String = MetaDataUtils.formatValueForType(
             value,
             MetaData.MetaDataValueTypes.META_DATA_VALUE_BOOLEAN
@@ -185,7 +166,7 @@ class PubMaticAdapter : LevelPlayBaseAdapter() {
     }
 
     private fun setCOPPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(PubMaticConstants.Logs.COPPA.format(value))
+        IronLog.ADAPTER_API.verbose { PubMaticConstants.Logs.COPPA.format(value) }
         OpenWrapSDK.setCoppa(value)
     }
 
@@ -206,7 +187,7 @@ class PubMaticAdapter : LevelPlayBaseAdapter() {
 
         val signalConfig: POBSignalConfig = POBSignalConfig.Builder(adFormat).build()
         val signal: String = POBSignalGenerator.generateSignal(context.applicationContext, BIDDING_HOST, signalConfig)
-        IronLog.ADAPTER_API.verbose(PubMaticConstants.Logs.TOKEN.format(signal))
+        IronLog.ADAPTER_API.verbose { PubMaticConstants.Logs.TOKEN.format(signal) }
 
         val ret: MutableMap<String?, Any?> = HashMap()
         ret[PubMaticConstants.TOKEN_KEY] = signal
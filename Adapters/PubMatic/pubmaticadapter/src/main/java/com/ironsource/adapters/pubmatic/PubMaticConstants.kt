@@ -4,6 +4,7 @@ object PubMaticConstants {
 
     // Adapter version
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "PubMatic"
 
     // Network name
     const val NETWORK_NAME = "PubMatic"
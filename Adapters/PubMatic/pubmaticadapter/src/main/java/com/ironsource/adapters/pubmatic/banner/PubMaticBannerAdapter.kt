@@ -2,11 +2,15 @@ package com.ironsource.adapters.pubmatic.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.pubmatic.PubMaticAdapter
 import com.ironsource.adapters.pubmatic.PubMaticConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -15,16 +19,18 @@ import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
 import com.ironsource.mediationsdk.bidding.BiddingDataCallback
 import com.ironsource.mediationsdk.logger.IronLog
 import com.ironsource.mediationsdk.model.NetworkSettings
-import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseBanner
 import com.pubmatic.sdk.common.POBAdFormat
 import com.pubmatic.sdk.common.POBAdSize
 import com.pubmatic.sdk.openwrap.banner.POBBannerView
+import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseBanner
+import java.lang.ref.WeakReference
 
 class PubMaticBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<PubMaticAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var bannerAdView: POBBannerView? = null
+    private val latencyTracker = LatencyTracker(PubMaticConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(PubMaticConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<POBBannerView>(PubMaticConstants.NETWORK_NAME) { destroyBannerAd(it) }
 
     // region Adapter Methods
 
@@ -34,13 +40,14 @@ class PubMaticBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val adUnitId = adData.getString(PubMaticConstants.AD_UNIT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(PubMaticConstants.Logs.AD_UNIT_ID.format(adUnitId ?: ""))
+        IronLog.ADAPTER_API.verbose { PubMaticConstants.Logs.AD_UNIT_ID.format(adUnitId ?: "") }
 
         if (adUnitId.isNullOrEmpty()) {
             val errorMessage = PubMaticConstants.Logs.MISSING_PARAM.format(PubMaticConstants.AD_UNIT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -52,7 +59,7 @@ class PubMaticBannerAdapter(networkSettings: NetworkSettings) :
         val adSize = getBannerSize(appContext, bannerSize)
         if (adSize == null) {
             IronLog.INTERNAL.error(PubMaticConstants.Logs.UNSUPPORTED_BANNER_SIZE)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 PubMaticConstants.Logs.UNSUPPORTED_BANNER_SIZE
@@ -64,7 +71,7 @@ class PubMaticBannerAdapter(networkSettings: NetworkSettings) :
         if (serverData.isNullOrEmpty()) {
             val errorMessage = PubMaticConstants.Logs.SERVER_DATA_IS_NULL
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -72,21 +79,30 @@ class PubMaticBannerAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        bannerAdView = POBBannerView(appContext).apply {
-            setListener(PubMaticBannerListener(listener, this))
+        val generation = adSlot.begin()
+        val bannerAdView = POBBannerView(appContext).apply {
+            setListener(PubMaticBannerListener(trackedListener, this, WeakReference(this@PubMaticBannerAdapter), generation))
         }
 
-        mainHandler.post {
-            bannerAdView?.loadAd(serverData, PubMaticAdapter.BIDDING_HOST)
-            bannerAdView?.pauseAutoRefresh()
+        MainThreadScheduler.post {
+            // The banner was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                bannerAdView.destroy()
+                return@post
+            }
+            bannerAdView.loadAd(serverData, PubMaticAdapter.BIDDING_HOST)
+            bannerAdView.pauseAutoRefresh()
         }
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            bannerAdView?.destroy()
-            bannerAdView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -95,12 +111,13 @@ class PubMaticBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(PubMaticConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(PubMaticConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(PubMaticConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
@@ -108,7 +125,7 @@ class PubMaticBannerAdapter(networkSettings: NetworkSettings) :
         val pubMaticBannerSize = (bannerSize as? ISBannerSize)?.let { getBannerSize(context.applicationContext, it) }
         if (pubMaticBannerSize == null) {
             IronLog.INTERNAL.verbose(PubMaticConstants.Logs.UNSUPPORTED_BANNER_SIZE)
-            biddingDataCallback.onFailure("${PubMaticConstants.Logs.UNSUPPORTED_BANNER_SIZE} - ${PubMaticConstants.NETWORK_NAME}")
+            trackedCallback.onFailure("${PubMaticConstants.Logs.UNSUPPORTED_BANNER_SIZE} - ${PubMaticConstants.NETWORK_NAME}")
             return
         }
 
@@ -117,20 +134,37 @@ class PubMaticBannerAdapter(networkSettings: NetworkSettings) :
             else -> POBAdFormat.BANNER
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback, adFormat)
+        networkAdapter.collectBiddingData(context, trackedCallback, adFormat)
     }
 
     // endregion
 
     // region Helper Methods
 
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerAd(generation: Long, bannerAdView: POBBannerView): Boolean {
+        if (!adSlot.set(generation, bannerAdView)) {
+            destroyBannerAd(bannerAdView)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    internal fun destroyBannerAd(bannerAdView: POBBannerView) {
+        MainThreadScheduler.post { bannerAdView.destroy() }
+    }
+
     private fun getBannerSize(context: Context, bannerSize: ISBannerSize): POBAdSize? {
         return when (bannerSize.description) {
             PubMaticConstants.BANNER_SIZE_BANNER -> POBAdSize.BANNER_SIZE_320x50
             PubMaticConstants.BANNER_SIZE_LARGE -> POBAdSize.BANNER_SIZE_320x100
             PubMaticConstants.BANNER_SIZE_RECTANGLE -> POBAdSize.BANNER_SIZE_300x250
             PubMaticConstants.BANNER_SIZE_SMART ->
-                if (AdapterUtils.isLargeScreen(context)) {
+                if (BannerLayouts.isLargeScreen(context)) {
                     POBAdSize.BANNER_SIZE_728x90
                 } else {
                     POBAdSize.BANNER_SIZE_320x50
@@ -1,21 +1,25 @@
 package com.ironsource.adapters.pubmatic.banner
 
 import android.view.Gravity
-import android.widget.FrameLayout
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.pubmatic.PubMaticAdapter
 import com.ironsource.adapters.pubmatic.PubMaticConstants
 import com.ironsource.environment.ContextProvider
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
 import com.ironsource.mediationsdk.logger.IronLog
 import com.pubmatic.sdk.common.POBError
 import com.pubmatic.sdk.openwrap.banner.POBBannerView
+import java.lang.ref.WeakReference
 
 class PubMaticBannerListener(
     private val listener: BannerAdListener,
-    private val bannerAdView: POBBannerView
+    private val bannerAdView: POBBannerView,
+    private val adapter: WeakReference<PubMaticBannerAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : POBBannerView.POBBannerViewListener() {
 
     /**
@@ -26,6 +30,7 @@ class PubMaticBannerListener(
         IronLog.ADAPTER_CALLBACK.verbose()
         val size = bannerAd.creativeSize
         if (size == null) {
+            adapter.get()?.destroyBannerAd(bannerAdView)
             listener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
@@ -33,13 +38,12 @@ class PubMaticBannerListener(
             )
             return
         }
+        if (adapter.get()?.setBannerAd(generation, bannerAdView) == false) {
+            return
+        }
 
         val context = ContextProvider.getInstance().applicationContext
-        val layoutParams = FrameLayout.LayoutParams(
-            AdapterUtils.dpToPixels(context, size.adWidth),
-            AdapterUtils.dpToPixels(context, size.adHeight),
-            Gravity.CENTER
-        )
+        val layoutParams = BannerLayouts.layoutParams(context, size.adWidth, size.adHeight, Gravity.CENTER)
         listener.onAdLoadSuccess(bannerAdView, layoutParams)
     }
 
@@ -53,11 +57,12 @@ class PubMaticBannerListener(
             IronLog.ADAPTER_CALLBACK.error(
                 PubMaticConstants.Logs.LOAD_FAILED.format(error.errorCode, error.errorMessage)
             )
+            adapter.get()?.destroyBannerAd(bannerAdView)
             listener.onAdLoadFailed(PubMaticAdapter.getLoadError(error), error.errorCode, error.errorMessage)
         } else {
-            IronLog.ADAPTER_CALLBACK.verbose(
+            IronLog.ADAPTER_CALLBACK.verbose {
                 PubMaticConstants.Logs.SHOW_FAILED.format(error.errorCode, error.errorMessage)
-            )
+            }
         }
     }
 
@@ -2,8 +2,12 @@ package com.ironsource.adapters.pubmatic.interstitial
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.pubmatic.PubMaticAdapter
 import com.ironsource.adapters.pubmatic.PubMaticConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
@@ -13,26 +17,29 @@ import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
 import com.ironsource.mediationsdk.bidding.BiddingDataCallback
 import com.ironsource.mediationsdk.logger.IronLog
 import com.ironsource.mediationsdk.model.NetworkSettings
-import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseInterstitial
 import com.pubmatic.sdk.common.POBAdFormat
 import com.pubmatic.sdk.openwrap.interstitial.POBInterstitial
+import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseInterstitial
+import java.lang.ref.WeakReference
 
 class PubMaticInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<PubMaticAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var interstitialAd: POBInterstitial? = null
+    private val latencyTracker = LatencyTracker(PubMaticConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(PubMaticConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<POBInterstitial>(PubMaticConstants.NETWORK_NAME) { destroyInterstitialAd(it) }
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val adUnitId = adData.getString(PubMaticConstants.AD_UNIT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(PubMaticConstants.Logs.AD_UNIT_ID.format(adUnitId ?: ""))
+        IronLog.ADAPTER_API.verbose { PubMaticConstants.Logs.AD_UNIT_ID.format(adUnitId ?: "") }
 
         if (adUnitId.isNullOrEmpty()) {
             val errorMessage = PubMaticConstants.Logs.MISSING_PARAM.format(PubMaticConstants.AD_UNIT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -44,7 +51,7 @@ class PubMaticInterstitialAdapter(networkSettings: NetworkSettings) :
         if (serverData.isNullOrEmpty()) {
             val errorMessage = PubMaticConstants.Logs.SERVER_DATA_IS_NULL
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -52,37 +59,47 @@ class PubMaticInterstitialAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        interstitialAd = POBInterstitial(context.applicationContext).apply {
-            setListener(PubMaticInterstitialListener(listener))
+        val generation = adSlot.begin()
+        val interstitialAd = POBInterstitial(context.applicationContext).apply {
+            setListener(PubMaticInterstitialListener(trackedListener, WeakReference(this@PubMaticInterstitialAdapter), generation))
         }
 
-        mainHandler.post {
-            interstitialAd?.loadAd(serverData, PubMaticAdapter.BIDDING_HOST)
+        MainThreadScheduler.post {
+            // The ad was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                interstitialAd.destroy()
+                return@post
+            }
+            interstitialAd.loadAd(serverData, PubMaticAdapter.BIDDING_HOST)
         }
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, PubMaticConstants.Logs.AD_NOT_AVAILABLE)
+            trackedListener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, PubMaticConstants.Logs.AD_NOT_AVAILABLE)
             return
         }
 
-        mainHandler.post {
-            interstitialAd?.show() ?: run {
-                listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, PubMaticConstants.Logs.AD_IS_NULL)
+        MainThreadScheduler.post {
+            adSlot.ad?.show() ?: run {
+                trackedListener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, PubMaticConstants.Logs.AD_IS_NULL)
             }
         }
     }
 
-    override fun isAdAvailable(adData: AdData): Boolean = interstitialAd?.isReady == true
+    override fun isAdAvailable(adData: AdData): Boolean = adSlot.ad?.isReady == true
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            interstitialAd?.destroy()
-            interstitialAd = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, it)
+            }
         }
     }
 
@@ -91,16 +108,38 @@ class PubMaticInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(PubMaticConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(PubMaticConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(PubMaticConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback, POBAdFormat.INTERSTITIAL)
+        networkAdapter.collectBiddingData(context, trackedCallback, POBAdFormat.INTERSTITIAL)
+    }
+
+    // endregion
+
+    // region Helper Methods
+
+    /**
+     * @return false if the ad was destroyed or loaded again while it was loading, the ad is
+     * destroyed then
+     */
+    internal fun setInterstitialAd(generation: Long, interstitialAd: POBInterstitial): Boolean {
+        if (!adSlot.set(generation, interstitialAd)) {
+            destroyInterstitialAd(interstitialAd)
+            return false
+        }
+        return true
+    }
+
+    // Destroys an ad which failed to load or was replaced by the ad of a newer load
+    internal fun destroyInterstitialAd(interstitialAd: POBInterstitial) {
+        MainThreadScheduler.post { interstitialAd.destroy() }
     }
 
     // endregion
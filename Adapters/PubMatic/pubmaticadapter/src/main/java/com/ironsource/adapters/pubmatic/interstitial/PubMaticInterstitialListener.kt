@@ -6,9 +6,13 @@ import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListene
 import com.ironsource.mediationsdk.logger.IronLog
 import com.pubmatic.sdk.common.POBError
 import com.pubmatic.sdk.openwrap.interstitial.POBInterstitial
+import java.lang.ref.WeakReference
 
 class PubMaticInterstitialListener(
-    private val listener: InterstitialAdListener
+    private val listener: InterstitialAdListener,
+    private val adapter: WeakReference<PubMaticInterstitialAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : POBInterstitial.POBInterstitialListener() {
 
     /**
@@ -17,6 +21,9 @@ class PubMaticInterstitialListener(
      */
     override fun onAdReceived(interstitialAd: POBInterstitial) {
         IronLog.ADAPTER_CALLBACK.verbose()
+        if (adapter.get()?.setInterstitialAd(generation, interstitialAd) == false) {
+            return
+        }
         listener.onAdLoadSuccess()
     }
 
@@ -29,6 +36,7 @@ class PubMaticInterstitialListener(
         IronLog.ADAPTER_CALLBACK.error(
             PubMaticConstants.Logs.LOAD_FAILED.format(error.errorCode, error.errorMessage)
         )
+        adapter.get()?.destroyInterstitialAd(interstitialAd)
         listener.onAdLoadFailed(PubMaticAdapter.getLoadError(error), error.errorCode, error.errorMessage)
     }
 
@@ -2,8 +2,12 @@ package com.ironsource.adapters.pubmatic.rewarded
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.pubmatic.PubMaticAdapter
 import com.ironsource.adapters.pubmatic.PubMaticConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
@@ -13,26 +17,29 @@ import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
 import com.ironsource.mediationsdk.bidding.BiddingDataCallback
 import com.ironsource.mediationsdk.logger.IronLog
 import com.ironsource.mediationsdk.model.NetworkSettings
-import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseRewardedVideo
 import com.pubmatic.sdk.common.POBAdFormat
 import com.pubmatic.sdk.rewardedad.POBRewardedAd
+import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseRewardedVideo
+import java.lang.ref.WeakReference
 
 class PubMaticRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<PubMaticAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var rewardedAd: POBRewardedAd? = null
+    private val latencyTracker = LatencyTracker(PubMaticConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(PubMaticConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<POBRewardedAd>(PubMaticConstants.NETWORK_NAME) { destroyRewardedAd(it) }
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val adUnitId = adData.getString(PubMaticConstants.AD_UNIT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(PubMaticConstants.Logs.AD_UNIT_ID.format(adUnitId ?: ""))
+        IronLog.ADAPTER_API.verbose { PubMaticConstants.Logs.AD_UNIT_ID.format(adUnitId ?: "") }
 
         if (adUnitId.isNullOrEmpty()) {
             val errorMessage = PubMaticConstants.Logs.MISSING_PARAM.format(PubMaticConstants.AD_UNIT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -44,7 +51,7 @@ class PubMaticRewardedAdapter(networkSettings: NetworkSettings) :
         if (serverData.isNullOrEmpty()) {
             val errorMessage = PubMaticConstants.Logs.SERVER_DATA_IS_NULL
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -52,37 +59,47 @@ class PubMaticRewardedAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        rewardedAd = POBRewardedAd.getRewardedAd(context.applicationContext).apply {
-            setListener(PubMaticRewardedListener(listener))
+        val generation = adSlot.begin()
+        val rewardedAd = POBRewardedAd.getRewardedAd(context.applicationContext).apply {
+            setListener(PubMaticRewardedListener(trackedListener, WeakReference(this@PubMaticRewardedAdapter), generation))
         }
 
-        mainHandler.post {
-            rewardedAd?.loadAd(serverData, PubMaticAdapter.BIDDING_HOST)
+        MainThreadScheduler.post {
+            // The ad was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                rewardedAd.destroy()
+                return@post
+            }
+            rewardedAd.loadAd(serverData, PubMaticAdapter.BIDDING_HOST)
         }
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, PubMaticConstants.Logs.AD_NOT_AVAILABLE)
+            trackedListener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, PubMaticConstants.Logs.AD_NOT_AVAILABLE)
             return
         }
 
-        mainHandler.post {
-            rewardedAd?.show() ?: run {
-                listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, PubMaticConstants.Logs.AD_IS_NULL)
+        MainThreadScheduler.post {
+            adSlot.ad?.show() ?: run {
+                trackedListener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, PubMaticConstants.Logs.AD_IS_NULL)
             }
         }
     }
 
-    override fun isAdAvailable(adData: AdData): Boolean = rewardedAd?.isReady == true
+    override fun isAdAvailable(adData: AdData): Boolean = adSlot.ad?.isReady == true
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            rewardedAd?.destroy()
-            rewardedAd = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, it)
+            }
         }
     }
 
@@ -91,16 +108,38 @@ class PubMaticRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(PubMaticConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(PubMaticConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(PubMaticConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback, POBAdFormat.REWARDEDAD)
+        networkAdapter.collectBiddingData(context, trackedCallback, POBAdFormat.REWARDEDAD)
+    }
+
+    // endregion
+
+    // region Helper Methods
+
+    /**
+     * @return false if the ad was destroyed or loaded again while it was loading, the ad is
+     * destroyed then
+     */
+    internal fun setRewardedAd(generation: Long, rewardedAd: POBRewardedAd): Boolean {
+        if (!adSlot.set(generation, rewardedAd)) {
+            destroyRewardedAd(rewardedAd)
+            return false
+        }
+        return true
+    }
+
+    // Destroys an ad which failed to load or was replaced by the ad of a newer load
+    internal fun destroyRewardedAd(rewardedAd: POBRewardedAd) {
+        MainThreadScheduler.post { rewardedAd.destroy() }
     }
 
     // endregion
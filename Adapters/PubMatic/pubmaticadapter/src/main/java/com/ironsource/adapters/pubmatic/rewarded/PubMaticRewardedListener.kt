@@ -7,9 +7,13 @@ import com.ironsource.mediationsdk.logger.IronLog
 import com.pubmatic.sdk.common.POBError
 import com.pubmatic.sdk.openwrap.core.POBReward
 import com.pubmatic.sdk.rewardedad.POBRewardedAd
+import java.lang.ref.WeakReference
 
 class PubMaticRewardedListener(
-    private val listener: RewardedVideoAdListener
+    private val listener: RewardedVideoAdListener,
+    private val adapter: WeakReference<PubMaticRewardedAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : POBRewardedAd.POBRewardedAdListener() {
 
     /**
@@ -18,6 +22,9 @@ class PubMaticRewardedListener(
      */
     override fun onAdReceived(rewardedAd: POBRewardedAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
+        if (adapter.get()?.setRewardedAd(generation, rewardedAd) == false) {
+            return
+        }
         listener.onAdLoadSuccess()
     }
 
@@ -30,6 +37,7 @@ class PubMaticRewardedListener(
         IronLog.ADAPTER_CALLBACK.error(
             PubMaticConstants.Logs.LOAD_FAILED.format(error.errorCode, error.errorMessage)
         )
+        adapter.get()?.destroyRewardedAd(rewardedAd)
         listener.onAdLoadFailed(PubMaticAdapter.getLoadError(error), error.errorCode, error.errorMessage)
     }
 
@@ -2,6 +2,10 @@ package com.ironsource.adapters.smaato
 
 import android.app.Application
 import android.content.Context
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -16,27 +20,17 @@ import com.smaato.sdk.iahb.InAppBiddingException
 import com.smaato.sdk.iahb.SmaatoSdkInAppBidding
 import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class SmaatoAdapter : LevelPlayBaseAdapter() {
 
     companion object {
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         private const val GitHash: String = BuildConfig.GitHash
 
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(SmaatoConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
 
         internal fun getAdRequest(serverData: String): AdRequestParams? {
             return try {
@@ -66,6 +60,9 @@ class SmaatoAdapter : LevelPlayBaseAdapter() {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(SmaatoConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         val publisherId = adData.getString(SmaatoConstants.PUBLISHER_ID_KEY)
         val adSpaceId = adData.getString(SmaatoConstants.AD_SPACE_ID_KEY)
 
@@ -88,7 +85,7 @@ class SmaatoAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        if (initState == InitState.INIT_STATE_FAILED) {
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(SmaatoConstants.Logs.SDK_INIT_FAILED)
             networkInitializationListener?.onInitFailed(
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
@@ -97,13 +94,10 @@ class SmaatoAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-            IronLog.ADAPTER_API.verbose(SmaatoConstants.Logs.PUBLISHER_ID.format(publisherId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { SmaatoConstants.Logs.PUBLISHER_ID.format(publisherId) }
 
             val config = Config.builder().apply {
                 if (isAdaptersDebugEnabled()) {
@@ -117,39 +111,27 @@ class SmaatoAdapter : LevelPlayBaseAdapter() {
                 publisherId,
                 object : SmaatoSdk.SmaatoSdkInitialisationListener {
                     override fun onInitialisationSuccess() {
-                        initializationSuccess()
+                        initializationSuccess(attempt)
                     }
 
                     override fun onInitialisationFailure(errorMessage: String) {
-                        initializationFailure(errorMessage)
+                        initializationFailure(attempt, errorMessage)
                     }
                 }
             )
         }
     }
 
-    private fun initializationSuccess() {
+    private fun initializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        initState = InitState.INIT_STATE_SUCCESS
-
-        for (listener: NetworkInitializationListener in initListeners) {
-            listener.onInitSuccess()
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    private fun initializationFailure(errorMessage: String) {
+    private fun initializationFailure(attempt: Int, errorMessage: String) {
         IronLog.ADAPTER_CALLBACK.error(SmaatoConstants.Logs.INIT_FAILED.format(errorMessage))
 
-        initState = InitState.INIT_STATE_FAILED
-
-        for (listener: NetworkInitializationListener in initListeners) {
-            listener.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
     }
 
     // endregion
@@ -157,7 +139,7 @@ class SmaatoAdapter : LevelPlayBaseAdapter() {
     // region Legal Methods
 
     override fun setConsent(consent: Boolean) {
-        IronLog.ADAPTER_API.verbose(SmaatoConstants.Logs.CONSENT.format(consent))
+        IronLog.ADAPTER_API.verbose { SmaatoConstants.Logs.CONSENT.format(consent) }
         SmaatoSdk.setLgpdConsentEnabled(consent)
     }
 
@@ -173,7 +155,7 @@ class SmaatoAdapter : LevelPlayBaseAdapter() {
         }
 
         val returnedToken = SmaatoSdk.collectSignals(context.applicationContext).orEmpty()
-        IronLog.ADAPTER_API.verbose(SmaatoConstants.Logs.TOKEN.format(returnedToken))
+        IronLog.ADAPTER_API.verbose { SmaatoConstants.Logs.TOKEN.format(returnedToken) }
 
         val ret: MutableMap<String?, Any?> = HashMap()
         ret[SmaatoConstants.TOKEN_KEY] = returnedToken
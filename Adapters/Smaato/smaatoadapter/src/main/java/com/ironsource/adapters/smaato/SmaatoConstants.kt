@@ -4,6 +4,7 @@ object SmaatoConstants {
 
     // Adapter version
     const val ADAPTER_VERSION: String = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "Smaato"
 
     // Network configuration keys
     const val PUBLISHER_ID_KEY: String = "publisherId"
@@ -2,13 +2,17 @@ package com.ironsource.adapters.smaato.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
 import android.widget.FrameLayout
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.smaato.SmaatoAdapter
 import com.ironsource.adapters.smaato.SmaatoConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -21,12 +25,14 @@ import com.smaato.sdk.banner.ad.AutoReloadInterval
 import com.smaato.sdk.banner.ad.BannerAdSize
 import com.smaato.sdk.banner.widget.BannerView
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseBanner
+import java.lang.ref.WeakReference
 
 class SmaatoBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<SmaatoAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var bannerAdView: BannerView? = null
+    private val latencyTracker = LatencyTracker(SmaatoConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(SmaatoConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<BannerView>(SmaatoConstants.NETWORK_NAME) { destroyBannerView(it) }
 
     // region Adapter Methods
 
@@ -36,13 +42,14 @@ class SmaatoBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val adSpaceId = adData.getString(SmaatoConstants.AD_SPACE_ID_KEY)
-        IronLog.ADAPTER_API.verbose(SmaatoConstants.Logs.AD_SPACE_ID.format(adSpaceId ?: ""))
+        IronLog.ADAPTER_API.verbose { SmaatoConstants.Logs.AD_SPACE_ID.format(adSpaceId ?: "") }
 
         if (adSpaceId.isNullOrEmpty()) {
             val errorMessage = SmaatoConstants.Logs.MISSING_PARAM.format(SmaatoConstants.AD_SPACE_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -54,7 +61,7 @@ class SmaatoBannerAdapter(networkSettings: NetworkSettings) :
         if (serverData.isNullOrEmpty()) {
             val errorMessage = SmaatoConstants.Logs.MISSING_PARAM.format(SmaatoConstants.SERVER_DATA)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -66,7 +73,7 @@ class SmaatoBannerAdapter(networkSettings: NetworkSettings) :
         val smaatoBannerSize = getBannerSize(context, bannerSize)
         if (smaatoBannerSize == null) {
             IronLog.INTERNAL.error(SmaatoConstants.Logs.UNSUPPORTED_BANNER_SIZE)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 SmaatoConstants.Logs.UNSUPPORTED_BANNER_SIZE
@@ -77,7 +84,7 @@ class SmaatoBannerAdapter(networkSettings: NetworkSettings) :
         val adRequestParams = SmaatoAdapter.getAdRequest(serverData)
         if (adRequestParams == null) {
             IronLog.INTERNAL.error(SmaatoConstants.Logs.INVALID_AD_REQUEST)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 SmaatoConstants.Logs.INVALID_AD_REQUEST
@@ -87,23 +94,31 @@ class SmaatoBannerAdapter(networkSettings: NetworkSettings) :
 
         val layoutParams = getBannerLayoutParams(context, smaatoBannerSize)
 
+        val generation = adSlot.begin()
         val bannerView = BannerView(context).apply {
-            setEventListener(SmaatoBannerListener(listener, layoutParams))
+            setEventListener(SmaatoBannerListener(trackedListener, layoutParams, WeakReference(this@SmaatoBannerAdapter), generation))
             autoReloadInterval = AutoReloadInterval.DISABLED
         }
-        bannerAdView = bannerView
 
-        mainHandler.post {
+        MainThreadScheduler.post {
+            // The banner was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                bannerView.destroy()
+                return@post
+            }
             bannerView.loadAd(adSpaceId, smaatoBannerSize, adRequestParams)
         }
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            bannerAdView?.setEventListener(null)
-            bannerAdView?.destroy()
-            bannerAdView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.setEventListener(null)
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -112,28 +127,49 @@ class SmaatoBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(SmaatoConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(SmaatoConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(SmaatoConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, trackedCallback)
     }
 
     // endregion
 
     // region Helper Methods
 
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerView(generation: Long, bannerView: BannerView): Boolean {
+        if (!adSlot.set(generation, bannerView)) {
+            destroyBannerView(bannerView)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    internal fun destroyBannerView(bannerView: BannerView) {
+        MainThreadScheduler.post {
+            bannerView.setEventListener(null)
+            bannerView.destroy()
+        }
+    }
+
     private fun getBannerSize(context: Context, bannerSize: ISBannerSize): BannerAdSize? {
         return when (bannerSize.description) {
             SmaatoConstants.BANNER_SIZE_BANNER -> BannerAdSize.XX_LARGE_320x50
             SmaatoConstants.BANNER_SIZE_RECTANGLE -> BannerAdSize.MEDIUM_RECTANGLE_300x250
             SmaatoConstants.BANNER_SIZE_SMART ->
-                if (AdapterUtils.isLargeScreen(context)) {
+                if (BannerLayouts.isLargeScreen(context)) {
                     BannerAdSize.LEADERBOARD_728x90
                 } else {
                     BannerAdSize.XX_LARGE_320x50
@@ -144,20 +180,10 @@ class SmaatoBannerAdapter(networkSettings: NetworkSettings) :
 
     private fun getBannerLayoutParams(context: Context, size: BannerAdSize): FrameLayout.LayoutParams {
         val layoutParams = when (size) {
-            BannerAdSize.MEDIUM_RECTANGLE_300x250 -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, SmaatoConstants.RECTANGLE_WIDTH),
-                AdapterUtils.dpToPixels(context, SmaatoConstants.RECTANGLE_HEIGHT)
-            )
-            BannerAdSize.LEADERBOARD_728x90 -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, SmaatoConstants.LEADERBOARD_WIDTH),
-                AdapterUtils.dpToPixels(context, SmaatoConstants.LEADERBOARD_HEIGHT)
-            )
-            else -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, SmaatoConstants.BANNER_WIDTH),
-                AdapterUtils.dpToPixels(context, SmaatoConstants.BANNER_HEIGHT)
-            )
+            BannerAdSize.MEDIUM_RECTANGLE_300x250 -> BannerLayouts.layoutParams(context, SmaatoConstants.RECTANGLE_WIDTH, SmaatoConstants.RECTANGLE_HEIGHT, Gravity.CENTER)
+            BannerAdSize.LEADERBOARD_728x90 -> BannerLayouts.layoutParams(context, SmaatoConstants.LEADERBOARD_WIDTH, SmaatoConstants.LEADERBOARD_HEIGHT, Gravity.CENTER)
+            else -> BannerLayouts.layoutParams(context, SmaatoConstants.BANNER_WIDTH, SmaatoConstants.BANNER_HEIGHT, Gravity.CENTER)
         }
-        layoutParams.gravity = Gravity.CENTER
         return layoutParams
     }
 
@@ -1,16 +1,21 @@
 package com.ironsource.adapters.smaato.banner
 
 import android.widget.FrameLayout
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.smaato.SmaatoConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
 import com.ironsource.mediationsdk.logger.IronLog
 import com.smaato.sdk.banner.widget.BannerError
 import com.smaato.sdk.banner.widget.BannerView
+import java.lang.ref.WeakReference
 
 class SmaatoBannerListener(
     private val listener: BannerAdListener,
-    private val layoutParams: FrameLayout.LayoutParams
+    private val layoutParams: FrameLayout.LayoutParams,
+    private val adapter: WeakReference<SmaatoBannerAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : BannerView.EventListener {
 
     /**
@@ -18,8 +23,11 @@ class SmaatoBannerListener(
      */
     override fun onAdLoaded(bannerView: BannerView) {
         val creativeId = bannerView.creativeId
-        IronLog.ADAPTER_CALLBACK.verbose(SmaatoConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { SmaatoConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
+        if (adapter.get()?.setBannerView(generation, bannerView) == false) {
+            return
+        }
         if (creativeId.isNullOrEmpty()) {
             listener.onAdLoadSuccess(bannerView, layoutParams)
         } else {
@@ -33,6 +41,7 @@ class SmaatoBannerListener(
      */
     override fun onAdFailedToLoad(bannerView: BannerView, bannerError: BannerError) {
         IronLog.ADAPTER_CALLBACK.error(SmaatoConstants.Logs.FAILED_TO_LOAD.format(bannerError.toString()))
+        adapter.get()?.destroyBannerView(bannerView)
 
         val errorType = if (bannerError == BannerError.NO_AD_AVAILABLE) {
             AdapterErrorType.ADAPTER_ERROR_TYPE_NO_FILL
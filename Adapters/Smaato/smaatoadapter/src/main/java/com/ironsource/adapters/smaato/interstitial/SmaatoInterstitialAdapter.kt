@@ -2,8 +2,11 @@ package com.ironsource.adapters.smaato.interstitial
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.smaato.SmaatoAdapter
 import com.ironsource.adapters.smaato.SmaatoConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
@@ -21,19 +24,21 @@ import java.lang.ref.WeakReference
 class SmaatoInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<SmaatoAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
+    private val latencyTracker = LatencyTracker(SmaatoConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(SmaatoConstants.NETWORK_NAME)
     private var interstitialAd: InterstitialAd? = null
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val adSpaceId = adData.getString(SmaatoConstants.AD_SPACE_ID_KEY)
-        IronLog.ADAPTER_API.verbose(SmaatoConstants.Logs.AD_SPACE_ID.format(adSpaceId ?: ""))
+        IronLog.ADAPTER_API.verbose { SmaatoConstants.Logs.AD_SPACE_ID.format(adSpaceId ?: "") }
 
         if (adSpaceId.isNullOrEmpty()) {
             val errorMessage = SmaatoConstants.Logs.MISSING_PARAM.format(SmaatoConstants.AD_SPACE_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -45,7 +50,7 @@ class SmaatoInterstitialAdapter(networkSettings: NetworkSettings) :
         if (serverData.isNullOrEmpty()) {
             val errorMessage = SmaatoConstants.Logs.MISSING_PARAM.format(SmaatoConstants.SERVER_DATA)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -56,7 +61,7 @@ class SmaatoInterstitialAdapter(networkSettings: NetworkSettings) :
         val adRequestParams = SmaatoAdapter.getAdRequest(serverData)
         if (adRequestParams == null) {
             IronLog.INTERNAL.error(SmaatoConstants.Logs.INVALID_AD_REQUEST)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 SmaatoConstants.Logs.INVALID_AD_REQUEST
@@ -64,25 +69,26 @@ class SmaatoInterstitialAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        val interstitialListener = SmaatoInterstitialListener(listener, WeakReference(this))
+        val interstitialListener = SmaatoInterstitialListener(trackedListener, WeakReference(this))
 
-        mainHandler.post {
+        MainThreadScheduler.post {
             Interstitial.loadAd(adSpaceId, interstitialListener, adRequestParams)
         }
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 SmaatoConstants.Logs.AD_NOT_AVAILABLE
             )
             return
         }
 
-        mainHandler.post {
+        MainThreadScheduler.post {
             interstitialAd?.showAd(activity)
         }
     }
@@ -92,6 +98,7 @@ class SmaatoInterstitialAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, interstitialAd)
         interstitialAd = null
     }
 
@@ -100,16 +107,17 @@ class SmaatoInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(SmaatoConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(SmaatoConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(SmaatoConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, trackedCallback)
     }
 
     // endregion
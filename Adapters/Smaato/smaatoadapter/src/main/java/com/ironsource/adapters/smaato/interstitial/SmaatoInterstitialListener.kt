@@ -1,5 +1,6 @@
 package com.ironsource.adapters.smaato.interstitial
 
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.smaato.SmaatoConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -21,7 +22,7 @@ class SmaatoInterstitialListener(
      */
     override fun onAdLoaded(interstitialAd: InterstitialAd) {
         val creativeId = interstitialAd.creativeId
-        IronLog.ADAPTER_CALLBACK.verbose(SmaatoConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { SmaatoConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
         adapter.get()?.setInterstitialAd(interstitialAd)
 
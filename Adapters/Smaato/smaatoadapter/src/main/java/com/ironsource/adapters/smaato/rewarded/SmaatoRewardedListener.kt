@@ -1,5 +1,6 @@
 package com.ironsource.adapters.smaato.rewarded
 
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.smaato.SmaatoConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -21,7 +22,7 @@ class SmaatoRewardedListener(
      */
     override fun onAdLoaded(rewardedInterstitialAd: RewardedInterstitialAd) {
         val creativeId = rewardedInterstitialAd.creativeId
-        IronLog.ADAPTER_CALLBACK.verbose(SmaatoConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { SmaatoConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
         adapter.get()?.setRewardedAd(rewardedInterstitialAd)
 
@@ -1,6 +1,14 @@
 package com.ironsource.adapters.unityads
 
 import android.content.Context
+import android.os.SystemClock
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.BiddingTokenCache
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.PrivacyState
+import com.ironsource.adapters.common.TokenEncoder
+import com.ironsource.adapters.common.verbose
 import com.ironsource.environment.ContextProvider
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -22,23 +30,19 @@ import com.unity3d.ads.UnityAdsError
 import com.unity3d.ads.metadata.MetaData
 import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
 
 class UnityAdsAdapter : LevelPlayBaseAdapter() {
 
     companion object {
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         private const val GitHash: String = BuildConfig.GitHash
 
+        // Privacy values shared by all adapter instances
+        private val privacyState = PrivacyState.forNetwork(UnityAdsConstants.NETWORK_NAME)
+
         internal val mediationInfo = MediationInfo(
             UnityAdsConstants.MEDIATION_NAME,
             LevelPlay.getSdkVersion(),
@@ -46,9 +50,21 @@ class UnityAdsAdapter : LevelPlayBaseAdapter() {
         )
 
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initCallbackListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(UnityAdsConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
+
+        // Bidding tokens shared by all adapter instances
+        private val biddingTokenCache = BiddingTokenCache.forNetwork(UnityAdsConstants.NETWORK_NAME)
+
+        // Bidding data of the tokens, with the token size table
+        private val tokenEncoder = TokenEncoder.forNetwork(UnityAdsConstants.NETWORK_NAME)
+
+        // Legacy metadata values waiting to be committed, all written to disk in a single commit
+        private val pendingMetaData = LinkedHashMap<String, Boolean>()
+        private val metaDataExecutor = ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS, LinkedBlockingQueue())
+        // Held while a commit runs, so a flush waits for the commit which took the pending values
+        private val metaDataCommitLock = Any()
 
         @JvmStatic
         fun getLoadErrorType(error: UnityAdsError?): AdapterErrorType {
@@ -64,8 +80,6 @@ class UnityAdsAdapter : LevelPlayBaseAdapter() {
         fun networkAdapterVersion(): String = UnityAdsConstants.ADAPTER_VERSION
     }
 
-    private val unityAdsStorageLock = Any()
-
     // region Adapter Methods
 
     override fun getAdapterVersion(): String = UnityAdsConstants.ADAPTER_VERSION
@@ -79,6 +93,9 @@ class UnityAdsAdapter : LevelPlayBaseAdapter() {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(UnityAdsConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         // Validate sourceId first before any other checks
         val sourceId = adData.getString(UnityAdsConstants.SOURCE_ID_KEY)
         if (sourceId.isNullOrEmpty()) {
@@ -88,14 +105,19 @@ class UnityAdsAdapter : LevelPlayBaseAdapter() {
             return
         }
 
+        adData.getString(UnityAdsConstants.BIDDING_TOKEN_TTL_KEY)?.toLongOrNull()?.let { ttlSeconds ->
+            biddingTokenCache.ttlMillis = ttlSeconds * 1000
+        }
+        tokenEncoder.configure(adData.getString(TokenEncoder.ENCODING_KEY))
+
         // Check if already initialized
         if (initState == InitState.INIT_STATE_SUCCESS) {
             networkInitializationListener?.onInitSuccess()
             return
         }
 
-        // Init previously failed - report failure immediately
-        if (initState == InitState.INIT_STATE_FAILED) {
+        // Init previously failed and can't be retried yet - report failure immediately
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(UnityAdsConstants.Logs.SDK_INIT_FAILED)
             networkInitializationListener?.onInitFailed(
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
@@ -104,14 +126,10 @@ class UnityAdsAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        // Add to the init listeners only if init is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initCallbackListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-            IronLog.ADAPTER_API.verbose(UnityAdsConstants.Logs.SOURCE_ID.format(sourceId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { UnityAdsConstants.Logs.SOURCE_ID.format(sourceId) }
 
             val initConfig = InitializationConfiguration.Builder(sourceId)
                 .withTestMode(false)
@@ -127,40 +145,30 @@ class UnityAdsAdapter : LevelPlayBaseAdapter() {
                 }
                 .build()
 
+            // The SDK reads the consent values on init, so they are committed before it starts
+            commitPendingMetaData()
             UnityAds.initialize(initConfig, InitializationListener { error ->
                 if (error == null) {
-                    initializationSuccess()
+                    initializationSuccess(attempt)
                 } else {
-                    initializationFailure(error.code, error.message.orEmpty())
+                    initializationFailure(attempt, error.code, error.message.orEmpty())
                 }
             })
         }
     }
 
-    private fun initializationSuccess() {
+    private fun initializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        initState = InitState.INIT_STATE_SUCCESS
-
         // Iterate over all the adapter instances and report init success
-        for (listener: NetworkInitializationListener in initCallbackListeners) {
-            listener.onInitSuccess()
-        }
-
-        initCallbackListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    private fun initializationFailure(errorCode: Int, errorMessage: String) {
+    private fun initializationFailure(attempt: Int, errorCode: Int, errorMessage: String) {
         IronLog.ADAPTER_CALLBACK.error(UnityAdsConstants.Logs.INIT_FAILED.format(errorCode, errorMessage))
 
-        initState = InitState.INIT_STATE_FAILED
-
         // Iterate over all the adapter instances and report init failed
-        for (listener: NetworkInitializationListener in initCallbackListeners) {
-            listener.onInitFailed(errorCode, errorMessage)
-        }
-
-        initCallbackListeners.clear()
+        initCoordinator.onInitFailed(attempt, errorCode, errorMessage)
     }
 
     // endregion
@@ -168,7 +176,10 @@ class UnityAdsAdapter : LevelPlayBaseAdapter() {
     // region Legal Methods
 
     override fun setConsent(consent: Boolean) {
-        IronLog.ADAPTER_API.verbose(UnityAdsConstants.Logs.CONSENT.format(consent))
+        IronLog.ADAPTER_API.verbose { UnityAdsConstants.Logs.CONSENT.format(consent) }
+        if (!privacyState.setConsent(consent)) {
+            return
+        }
 
         // Both legacy and public privacy apis are called
 
@@ -177,6 +188,9 @@ class UnityAdsAdapter : LevelPlayBaseAdapter() {
 
         // Public api call
         UnityAds.userConsent = consent
+
+        // The tokens carry the privacy values, only the ones fetched after the new value is applied are cached
+        biddingTokenCache.invalidate()
     }
 
     override fun setMetaData(key: String?, values: MutableList<String?>?) {
@@ -186,7 +200,7 @@ class UnityAdsAdapter : LevelPlayBaseAdapter() {
 
         // This is a list of 1 value
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(UnityAdsConstants.Logs.META_DATA_SET.format(key ?: "", value))
+        IronLog.ADAPTER_API.verbose { UnityAdsConstants.Logs.META_DATA_SET.format(key ?: "", value) }
 
         if (MetaDataUtils.isValidCCPAMetaData(key, value)) {
             setCCPAValue(MetaDataUtils.getMetaDataBooleanValue(value))
@@ -199,7 +213,10 @@ class UnityAdsAdapter : LevelPlayBaseAdapter() {
     }
 
     private fun setCCPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(UnityAdsConstants.Logs.CCPA.format(value))
+        IronLog.ADAPTER_API.verbose { UnityAdsConstants.Logs.CCPA.format(value) }
+        if (!privacyState.setDoNotSell(value)) {
+            return
+        }
 
         // The UnityAds CCPA api expects an indication if the user opts in to targeted advertising.
         // Given that this is opposite to the ironSource Mediation CCPA flag of do_not_sell
@@ -213,10 +230,16 @@ class UnityAdsAdapter : LevelPlayBaseAdapter() {
 
         // Public api call
         UnityAds.userOptOut = value
+
+        // The tokens carry the privacy values, only the ones fetched after the new value is applied are cached
+        biddingTokenCache.invalidate()
     }
 
     private fun setCOPPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(UnityAdsConstants.Logs.COPPA.format(value))
+        IronLog.ADAPTER_API.verbose { UnityAdsConstants.Logs.COPPA.format(value) }
+        if (!privacyState.setChildDirected(value)) {
+            return
+        }
 
         // Both legacy and public privacy apis are called
 
@@ -225,6 +248,9 @@ class UnityAdsAdapter : LevelPlayBaseAdapter() {
 
         // Public api call
         UnityAds.nonBehavioral = value
+
+        // The tokens carry the privacy values, only the ones fetched after the new value is applied are cached
+        biddingTokenCache.invalidate()
     }
 
     // endregion
@@ -252,13 +278,34 @@ class UnityAdsAdapter : LevelPlayBaseAdapter() {
     }
 
     private fun setUnityAdsMetaData(key: String, value: Boolean) {
-        IronLog.INTERNAL.verbose(UnityAdsConstants.Logs.META_DATA_SET.format(key, value))
+        IronLog.INTERNAL.verbose { UnityAdsConstants.Logs.META_DATA_SET.format(key, value) }
+
+        synchronized(pendingMetaData) {
+            val isCommitScheduled = pendingMetaData.isNotEmpty()
+            pendingMetaData[key] = value
+            if (isCommitScheduled) {
+                return
+            }
+        }
+        metaDataExecutor.execute { commitPendingMetaData() }
+    }
 
-        synchronized(unityAdsStorageLock) {
+    private fun commitPendingMetaData() {
+        synchronized(metaDataCommitLock) {
+            val values = synchronized(pendingMetaData) {
+                LinkedHashMap(pendingMetaData).also { pendingMetaData.clear() }
+            }
+            if (values.isEmpty()) {
+                return
+            }
             val metaData = MetaData(ContextProvider.getInstance().applicationContext)
-            metaData[key] = value
+            for ((key, value) in values) {
+                metaData[key] = value
+            }
             metaData.commit()
         }
+        // The legacy values are applied once committed, drop the tokens fetched meanwhile
+        biddingTokenCache.invalidate()
     }
 
     internal fun collectBiddingData(
@@ -270,26 +317,27 @@ class UnityAdsAdapter : LevelPlayBaseAdapter() {
         val builder = TokenConfiguration.Builder(adFormat)
             .withMediationInfo(mediationInfo)
 
-        adData?.getString(UnityAdsConstants.ZONE_ID_KEY)?.let { zoneId ->
-            if (zoneId.isNotBlank()) {
-                builder.withPlacementId(zoneId)
-            }
-        }
+        val zoneId = adData?.getString(UnityAdsConstants.ZONE_ID_KEY)?.takeIf { it.isNotBlank() }
+        zoneId?.let { builder.withPlacementId(it) }
 
-        (adData?.adUnitData?.get(UnityAdsConstants.AD_UNIT_ID_KEY) as? String)?.let { mediationAdUnitId ->
-            if (mediationAdUnitId.isNotBlank()) {
-                builder.withMediationAdUnitId(mediationAdUnitId)
-            }
-        }
+        val mediationAdUnitId = (adData?.adUnitData?.get(UnityAdsConstants.AD_UNIT_ID_KEY) as? String)?.takeIf { it.isNotBlank() }
+        mediationAdUnitId?.let { builder.withMediationAdUnitId(it) }
 
         bannerSize?.let { builder.withBannerSize(it) }
 
-        UnityAds.getToken(builder.build()) { bidToken ->
+        val tokenConfiguration = builder.build()
+        val cacheKey = "$adFormat|$zoneId|$mediationAdUnitId|${bannerSize?.let { "${it.width}x${it.height}" }}"
+        val fetcher = BiddingTokenCache.TokenFetcher { listener ->
+            UnityAds.getToken(tokenConfiguration) { bidToken -> listener.onTokenReceived(bidToken) }
+        }
+
+        val startTime = SystemClock.elapsedRealtime()
+        biddingTokenCache.getOrFetch(cacheKey, fetcher) { bidToken ->
             if (!bidToken.isNullOrEmpty()) {
-                IronLog.ADAPTER_API.verbose(UnityAdsConstants.Logs.TOKEN.format(bidToken))
-                biddingDataCallback.onSuccess(mutableMapOf<String, Any>().apply {
-                    put(UnityAdsConstants.TOKEN_KEY, bidToken)
-                })
+                IronLog.ADAPTER_API.verbose { UnityAdsConstants.Logs.TOKEN.format(bidToken) }
+                biddingDataCallback.onSuccess(
+                    tokenEncoder.biddingData(UnityAdsConstants.TOKEN_KEY, bidToken, SystemClock.elapsedRealtime() - startTime)
+                )
             } else {
                 IronLog.ADAPTER_API.verbose(UnityAdsConstants.Logs.TOKEN_FAILURE)
                 biddingDataCallback.onFailure(UnityAdsConstants.Logs.TOKEN_FAILURE)
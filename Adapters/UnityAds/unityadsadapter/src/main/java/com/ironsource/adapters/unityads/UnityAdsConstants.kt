@@ -4,6 +4,7 @@ object UnityAdsConstants {
 
     // Adapter version and mediation
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "UnityAds"
     const val MEDIATION_NAME = "ironSource"
 
     // Network configuration keys
@@ -11,6 +12,7 @@ object UnityAdsConstants {
     const val ZONE_ID_KEY = "zoneId"
     const val AD_UNIT_ID_KEY = "adUnitId"
     const val BANNER_SIZE_KEY = "bannerSize"
+    const val BIDDING_TOKEN_TTL_KEY = "biddingTokenTTL"
 
     // Init extras keys
     const val UADS_INIT_BLOB = "uads_init_blob"
@@ -4,6 +4,11 @@ import android.app.Activity
 import android.content.Context
 import android.view.Gravity
 import android.widget.FrameLayout
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.unityads.UnityAdsAdapter
 import com.ironsource.adapters.unityads.UnityAdsConstants
 import com.ironsource.mediationsdk.AdapterUtils
@@ -26,6 +31,8 @@ import java.lang.ref.WeakReference
 class UnityAdsBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<UnityAdsAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(UnityAdsConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(UnityAdsConstants.NETWORK_NAME)
     private var bannerAdView: BannerAd? = null
 
     // region Adapter Methods
@@ -36,13 +43,14 @@ class UnityAdsBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val zoneId = adData.getString(UnityAdsConstants.ZONE_ID_KEY)
-        IronLog.ADAPTER_API.verbose(UnityAdsConstants.Logs.ZONE_ID.format(zoneId ?: ""))
+        IronLog.ADAPTER_API.verbose { UnityAdsConstants.Logs.ZONE_ID.format(zoneId ?: "") }
 
         if (zoneId.isNullOrEmpty()) {
             val errorMessage = UnityAdsConstants.Logs.MISSING_PARAM.format(UnityAdsConstants.ZONE_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -50,10 +58,10 @@ class UnityAdsBannerAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        val unityBannerSize = getBannerSize(bannerSize, AdapterUtils.isLargeScreen(activity.applicationContext))
+        val unityBannerSize = getBannerSize(bannerSize, BannerLayouts.isLargeScreen(activity.applicationContext))
         if (unityBannerSize == null) {
             IronLog.INTERNAL.error(UnityAdsConstants.Logs.UNSUPPORTED_BANNER_SIZE)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 UnityAdsConstants.Logs.UNSUPPORTED_BANNER_SIZE
@@ -72,7 +80,7 @@ class UnityAdsBannerAdapter(networkSettings: NetworkSettings) :
         val bannerConfiguration = BannerConfiguration.Builder(
             zoneId,
             BannerSize(unityBannerSize.width, unityBannerSize.height),
-            UnityAdsBannerShowListener(listener)
+            UnityAdsBannerShowListener(trackedListener)
         )
             .withMediationInfo(UnityAdsAdapter.mediationInfo)
             .apply {
@@ -87,11 +95,12 @@ class UnityAdsBannerAdapter(networkSettings: NetworkSettings) :
             }
             .build()
 
-        BannerAd.load(bannerConfiguration, UnityAdsBannerLoadListener(listener, layoutParams, WeakReference(this)))
+        BannerAd.load(bannerConfiguration, UnityAdsBannerLoadListener(trackedListener, layoutParams, WeakReference(this)))
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
+        leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, bannerAdView)
         bannerAdView = null
     }
 
@@ -100,19 +109,20 @@ class UnityAdsBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(UnityAdsConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(UnityAdsConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(UnityAdsConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
         val isBannerSize = adData?.adUnitData?.get(UnityAdsConstants.BANNER_SIZE_KEY) as? ISBannerSize
         val bannerSize = isBannerSize?.let { BannerSize(it.width, it.height) }
 
-        networkAdapter.collectBiddingData(adData, biddingDataCallback, AdFormat.BANNER, bannerSize)
+        networkAdapter.collectBiddingData(adData, trackedCallback, AdFormat.BANNER, bannerSize)
     }
 
     // endregion
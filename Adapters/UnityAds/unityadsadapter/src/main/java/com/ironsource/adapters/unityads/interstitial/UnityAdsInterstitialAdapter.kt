@@ -2,6 +2,10 @@ package com.ironsource.adapters.unityads.interstitial
 
 import android.app.Activity
 import android.content.Context
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.unityads.UnityAdsAdapter
 import com.ironsource.adapters.unityads.UnityAdsConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
@@ -21,18 +25,21 @@ import java.lang.ref.WeakReference
 class UnityAdsInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<UnityAdsAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(UnityAdsConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(UnityAdsConstants.NETWORK_NAME)
     private var interstitialAd: InterstitialAd? = null
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val zoneId = adData.getString(UnityAdsConstants.ZONE_ID_KEY)
-        IronLog.ADAPTER_API.verbose(UnityAdsConstants.Logs.ZONE_ID.format(zoneId ?: ""))
+        IronLog.ADAPTER_API.verbose { UnityAdsConstants.Logs.ZONE_ID.format(zoneId ?: "") }
 
         if (zoneId.isNullOrEmpty()) {
             val errorMessage = UnityAdsConstants.Logs.MISSING_PARAM.format(UnityAdsConstants.ZONE_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -51,15 +58,16 @@ class UnityAdsInterstitialAdapter(networkSettings: NetworkSettings) :
             }
             .build()
 
-        InterstitialAd.load(loadConfiguration, UnityAdsInterstitialLoadListener(listener, WeakReference(this)))
+        InterstitialAd.load(loadConfiguration, UnityAdsInterstitialLoadListener(trackedListener, WeakReference(this)))
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
             IronLog.INTERNAL.error(UnityAdsConstants.Logs.AD_NOT_AVAILABLE)
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 UnityAdsConstants.Logs.AD_NOT_AVAILABLE
             )
@@ -68,7 +76,7 @@ class UnityAdsInterstitialAdapter(networkSettings: NetworkSettings) :
 
         val showConfiguration = ShowConfiguration.Builder().build()
 
-        interstitialAd?.show(activity, showConfiguration, UnityAdsInterstitialShowListener(listener))
+        interstitialAd?.show(activity, showConfiguration, UnityAdsInterstitialShowListener(trackedListener))
     }
 
     override fun isAdAvailable(adData: AdData): Boolean {
@@ -77,6 +85,7 @@ class UnityAdsInterstitialAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, interstitialAd)
         interstitialAd = null
     }
 
@@ -85,16 +94,17 @@ class UnityAdsInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(UnityAdsConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(UnityAdsConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(UnityAdsConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(adData, biddingDataCallback, AdFormat.INTERSTITIAL)
+        networkAdapter.collectBiddingData(adData, trackedCallback, AdFormat.INTERSTITIAL)
     }
 
     // endregion
@@ -2,6 +2,10 @@ package com.ironsource.adapters.unityads.rewarded
 
 import android.app.Activity
 import android.content.Context
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.unityads.UnityAdsAdapter
 import com.ironsource.adapters.unityads.UnityAdsConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
@@ -21,18 +25,21 @@ import java.lang.ref.WeakReference
 class UnityAdsRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<UnityAdsAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(UnityAdsConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(UnityAdsConstants.NETWORK_NAME)
     private var rewardedAd: RewardedAd? = null
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val zoneId = adData.getString(UnityAdsConstants.ZONE_ID_KEY)
-        IronLog.ADAPTER_API.verbose(UnityAdsConstants.Logs.ZONE_ID.format(zoneId ?: ""))
+        IronLog.ADAPTER_API.verbose { UnityAdsConstants.Logs.ZONE_ID.format(zoneId ?: "") }
 
         if (zoneId.isNullOrEmpty()) {
             val errorMessage = UnityAdsConstants.Logs.MISSING_PARAM.format(UnityAdsConstants.ZONE_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -51,15 +58,16 @@ class UnityAdsRewardedAdapter(networkSettings: NetworkSettings) :
             }
             .build()
 
-        RewardedAd.load(loadConfiguration, UnityAdsRewardedLoadListener(listener, WeakReference(this)))
+        RewardedAd.load(loadConfiguration, UnityAdsRewardedLoadListener(trackedListener, WeakReference(this)))
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
             IronLog.INTERNAL.error(UnityAdsConstants.Logs.AD_NOT_AVAILABLE)
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 UnityAdsConstants.Logs.AD_NOT_AVAILABLE
             )
@@ -76,7 +84,7 @@ class UnityAdsRewardedAdapter(networkSettings: NetworkSettings) :
             }
             .build()
 
-        rewardedAd?.show(activity, showConfiguration, UnityAdsRewardedShowListener(listener))
+        rewardedAd?.show(activity, showConfiguration, UnityAdsRewardedShowListener(trackedListener))
     }
 
     override fun isAdAvailable(adData: AdData): Boolean {
@@ -85,6 +93,7 @@ class UnityAdsRewardedAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, rewardedAd)
         rewardedAd = null
     }
 
@@ -93,16 +102,17 @@ class UnityAdsRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(UnityAdsConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(UnityAdsConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(UnityAdsConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(adData, biddingDataCallback, AdFormat.REWARDED)
+        networkAdapter.collectBiddingData(adData, trackedCallback, AdFormat.REWARDED)
     }
 
     // endregion
@@ -1,6 +1,10 @@
 package com.ironsource.adapters.mytarget
 
 import android.content.Context
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -11,26 +15,17 @@ import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
 import com.my.target.common.MyTargetManager
 import com.my.target.common.MyTargetPrivacy
 import com.my.target.common.MyTargetVersion
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class MyTargetAdapter : LevelPlayBaseAdapter() {
 
     companion object {
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS
-        }
-
         private const val GitHash: String = BuildConfig.GitHash
 
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(MyTargetConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
 
         @JvmStatic
         fun networkAdapterVersion(): String = MyTargetConstants.ADAPTER_VERSION
@@ -49,6 +44,9 @@ class MyTargetAdapter : LevelPlayBaseAdapter() {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(MyTargetConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         // Validate slotId first before any other checks
         val slotId = adData.getString(MyTargetConstants.SLOT_ID_KEY)
         if (slotId.isNullOrEmpty()) {
@@ -64,34 +62,24 @@ class MyTargetAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        // Add to the init listeners only if init is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-            IronLog.ADAPTER_API.verbose(MyTargetConstants.Logs.SLOT_ID.format(slotId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { MyTargetConstants.Logs.SLOT_ID.format(slotId) }
 
             MyTargetManager.setDebugMode(isAdaptersDebugEnabled())
 
             // MyTarget initialization is synchronous and only reports success
             MyTargetManager.initSdk(context.applicationContext)
-            initializationSuccess()
+            initializationSuccess(attempt)
         }
     }
 
-    private fun initializationSuccess() {
+    private fun initializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        initState = InitState.INIT_STATE_SUCCESS
-
         // Iterate over all the adapter instances and report init success
-        for (listener: NetworkInitializationListener in initListeners) {
-            listener.onInitSuccess()
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
     // endregion
@@ -99,7 +87,7 @@ class MyTargetAdapter : LevelPlayBaseAdapter() {
     // region Legal Methods
 
     override fun setConsent(consent: Boolean) {
-        IronLog.ADAPTER_API.verbose(MyTargetConstants.Logs.CONSENT.format(consent))
+        IronLog.ADAPTER_API.verbose { MyTargetConstants.Logs.CONSENT.format(consent) }
         MyTargetPrivacy.setUserConsent(consent)
     }
 
@@ -116,7 +104,7 @@ class MyTargetAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        IronLog.ADAPTER_API.verbose(MyTargetConstants.Logs.TOKEN.format(bidderToken))
+        IronLog.ADAPTER_API.verbose { MyTargetConstants.Logs.TOKEN.format(bidderToken) }
         val ret: MutableMap<String?, Any?> = HashMap()
         ret[MyTargetConstants.TOKEN_KEY] = bidderToken
         biddingDataCallback.onSuccess(ret)
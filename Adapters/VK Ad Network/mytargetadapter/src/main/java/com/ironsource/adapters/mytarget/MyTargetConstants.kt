@@ -4,6 +4,7 @@ object MyTargetConstants {
 
     // Adapter version and mediation
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "MyTarget"
 
     // Network configuration keys
     const val SLOT_ID_KEY = "slotId"
@@ -2,13 +2,16 @@ package com.ironsource.adapters.mytarget.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
 import android.widget.FrameLayout
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.mytarget.MyTargetAdapter
 import com.ironsource.adapters.mytarget.MyTargetConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -23,7 +26,8 @@ import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseBanner
 class MyTargetBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<MyTargetAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
+    private val latencyTracker = LatencyTracker(MyTargetConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(MyTargetConstants.NETWORK_NAME)
     private var bannerAdView: MyTargetView? = null
 
     // region Adapter Methods
@@ -34,14 +38,15 @@ class MyTargetBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val slotId = adData.getString(MyTargetConstants.SLOT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MyTargetConstants.Logs.SLOT_ID.format(slotId ?: ""))
+        IronLog.ADAPTER_API.verbose { MyTargetConstants.Logs.SLOT_ID.format(slotId ?: "") }
 
         val slotIdInt = slotId?.toIntOrNull()
         if (slotIdInt == null) {
             val errorMessage = MyTargetConstants.Logs.ERROR_PARSING_PLACEMENT
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -55,7 +60,7 @@ class MyTargetBannerAdapter(networkSettings: NetworkSettings) :
         if (myTargetBannerSize == null) {
             val errorMessage = MyTargetConstants.Logs.UNSUPPORTED_BANNER_SIZE
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 errorMessage
@@ -67,7 +72,7 @@ class MyTargetBannerAdapter(networkSettings: NetworkSettings) :
         if (serverData.isNullOrEmpty()) {
             val errorMessage = MyTargetConstants.Logs.SERVER_DATA_IS_EMPTY
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -80,7 +85,7 @@ class MyTargetBannerAdapter(networkSettings: NetworkSettings) :
         bannerAdView = MyTargetView(appContext).apply {
             setSlotId(slotIdInt)
             setAdSize(myTargetBannerSize)
-            setListener(MyTargetBannerListener(listener, layoutParams))
+            setListener(MyTargetBannerListener(trackedListener, layoutParams))
             loadFromBid(serverData)
         }
     }
@@ -88,7 +93,8 @@ class MyTargetBannerAdapter(networkSettings: NetworkSettings) :
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
         bannerAdView?.let {
-            mainHandler.post { it.destroy() }
+            MainThreadScheduler.post { it.destroy() }
+            leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, bannerAdView)
             bannerAdView = null
         }
     }
@@ -98,16 +104,17 @@ class MyTargetBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(MyTargetConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(MyTargetConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(MyTargetConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, trackedCallback)
     }
 
     // endregion
@@ -119,39 +126,25 @@ class MyTargetBannerAdapter(networkSettings: NetworkSettings) :
             MyTargetConstants.BANNER_SIZE_DESCRIPTION -> MyTargetView.AdSize.ADSIZE_320x50
             MyTargetConstants.RECTANGLE_SIZE_DESCRIPTION -> MyTargetView.AdSize.ADSIZE_300x250
             MyTargetConstants.SMART_SIZE_DESCRIPTION ->
-                if (AdapterUtils.isLargeScreen(context)) MyTargetView.AdSize.ADSIZE_728x90 else MyTargetView.AdSize.ADSIZE_320x50
+                if (BannerLayouts.isLargeScreen(context)) MyTargetView.AdSize.ADSIZE_728x90 else MyTargetView.AdSize.ADSIZE_320x50
             else -> null
         }
 
     private fun getBannerLayoutParams(bannerSize: ISBannerSize, context: Context): FrameLayout.LayoutParams {
         val layoutParams = when (bannerSize.description) {
-            MyTargetConstants.BANNER_SIZE_DESCRIPTION -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, MyTargetConstants.BANNER_WIDTH),
-                AdapterUtils.dpToPixels(context, MyTargetConstants.BANNER_HEIGHT)
-            )
+            MyTargetConstants.BANNER_SIZE_DESCRIPTION -> BannerLayouts.layoutParams(context, MyTargetConstants.BANNER_WIDTH, MyTargetConstants.BANNER_HEIGHT, Gravity.CENTER)
 
-            MyTargetConstants.RECTANGLE_SIZE_DESCRIPTION -> FrameLayout.LayoutParams(
-                AdapterUtils.dpToPixels(context, MyTargetConstants.RECTANGLE_WIDTH),
-                AdapterUtils.dpToPixels(context, MyTargetConstants.RECTANGLE_HEIGHT)
-            )
+            MyTargetConstants.RECTANGLE_SIZE_DESCRIPTION -> BannerLayouts.layoutParams(context, MyTargetConstants.RECTANGLE_WIDTH, MyTargetConstants.RECTANGLE_HEIGHT, Gravity.CENTER)
 
             MyTargetConstants.SMART_SIZE_DESCRIPTION ->
-                if (AdapterUtils.isLargeScreen(context)) {
-                    FrameLayout.LayoutParams(
-                        AdapterUtils.dpToPixels(context, MyTargetConstants.LARGE_WIDTH),
-                        AdapterUtils.dpToPixels(context, MyTargetConstants.LARGE_HEIGHT)
-                    )
+                if (BannerLayouts.isLargeScreen(context)) {
+                    BannerLayouts.layoutParams(context, MyTargetConstants.LARGE_WIDTH, MyTargetConstants.LARGE_HEIGHT, Gravity.CENTER)
                 } else {
-                    FrameLayout.LayoutParams(
-                        AdapterUtils.dpToPixels(context, MyTargetConstants.BANNER_WIDTH),
-                        AdapterUtils.dpToPixels(context, MyTargetConstants.BANNER_HEIGHT)
-                    )
+                    BannerLayouts.layoutParams(context, MyTargetConstants.BANNER_WIDTH, MyTargetConstants.BANNER_HEIGHT, Gravity.CENTER)
                 }
 
-            else -> FrameLayout.LayoutParams(0, 0)
+            else -> BannerLayouts.layoutParams(context, 0, 0, Gravity.CENTER)
         }
-
-        layoutParams.gravity = Gravity.CENTER
         return layoutParams
     }
 
@@ -2,6 +2,10 @@ package com.ironsource.adapters.mytarget.interstitial
 
 import android.app.Activity
 import android.content.Context
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.mytarget.MyTargetAdapter
 import com.ironsource.adapters.mytarget.MyTargetConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
@@ -18,20 +22,23 @@ import java.lang.ref.WeakReference
 class MyTargetInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<MyTargetAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(MyTargetConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(MyTargetConstants.NETWORK_NAME)
     private var interstitialAd: InterstitialAd? = null
     private var isAdAvailableFlag = false
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val slotId = adData.getString(MyTargetConstants.SLOT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MyTargetConstants.Logs.SLOT_ID.format(slotId ?: ""))
+        IronLog.ADAPTER_API.verbose { MyTargetConstants.Logs.SLOT_ID.format(slotId ?: "") }
 
         val slotIdInt = slotId?.toIntOrNull()
         if (slotIdInt == null) {
             val errorMessage = MyTargetConstants.Logs.ERROR_PARSING_PLACEMENT
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -43,7 +50,7 @@ class MyTargetInterstitialAdapter(networkSettings: NetworkSettings) :
         if (serverData.isNullOrEmpty()) {
             val errorMessage = MyTargetConstants.Logs.SERVER_DATA_IS_EMPTY
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -54,18 +61,19 @@ class MyTargetInterstitialAdapter(networkSettings: NetworkSettings) :
         setInterstitialAdAvailability(false)
 
         interstitialAd = InterstitialAd(slotIdInt, context.applicationContext).apply {
-            setListener(MyTargetInterstitialListener(listener, WeakReference(this@MyTargetInterstitialAdapter)))
+            setListener(MyTargetInterstitialListener(trackedListener, WeakReference(this@MyTargetInterstitialAdapter)))
             customParams.setCustomParam(MyTargetConstants.CUSTOM_PARAM_MEDIATION_KEY, MyTargetConstants.IRONSOURCE_MEDIATION)
             loadFromBid(serverData)
         }
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
             IronLog.INTERNAL.error(MyTargetConstants.Logs.AD_NOT_AVAILABLE)
-            listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, MyTargetConstants.Logs.AD_NOT_AVAILABLE)
+            trackedListener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, MyTargetConstants.Logs.AD_NOT_AVAILABLE)
             return
         }
 
@@ -76,6 +84,7 @@ class MyTargetInterstitialAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, interstitialAd)
         interstitialAd = null
     }
 
@@ -84,16 +93,17 @@ class MyTargetInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(MyTargetConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(MyTargetConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(MyTargetConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, trackedCallback)
     }
 
     // endregion
@@ -2,6 +2,10 @@ package com.ironsource.adapters.mytarget.rewarded
 
 import android.app.Activity
 import android.content.Context
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.mytarget.MyTargetAdapter
 import com.ironsource.adapters.mytarget.MyTargetConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
@@ -18,20 +22,23 @@ import java.lang.ref.WeakReference
 class MyTargetRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<MyTargetAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(MyTargetConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(MyTargetConstants.NETWORK_NAME)
     private var rewardedAd: RewardedAd? = null
     private var isAdAvailableFlag = false
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val slotId = adData.getString(MyTargetConstants.SLOT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(MyTargetConstants.Logs.SLOT_ID.format(slotId ?: ""))
+        IronLog.ADAPTER_API.verbose { MyTargetConstants.Logs.SLOT_ID.format(slotId ?: "") }
 
         val slotIdInt = slotId?.toIntOrNull()
         if (slotIdInt == null) {
             val errorMessage = MyTargetConstants.Logs.ERROR_PARSING_PLACEMENT
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -44,7 +51,7 @@ class MyTargetRewardedAdapter(networkSettings: NetworkSettings) :
         val serverData = adData.serverData
 
         rewardedAd = RewardedAd(slotIdInt, context.applicationContext).apply {
-            setListener(MyTargetRewardedListener(listener, WeakReference(this@MyTargetRewardedAdapter)))
+            setListener(MyTargetRewardedListener(trackedListener, WeakReference(this@MyTargetRewardedAdapter)))
             customParams.setCustomParam(MyTargetConstants.CUSTOM_PARAM_MEDIATION_KEY, MyTargetConstants.IRONSOURCE_MEDIATION)
             if (serverData != null) {
                 loadFromBid(serverData)
@@ -55,11 +62,12 @@ class MyTargetRewardedAdapter(networkSettings: NetworkSettings) :
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
             IronLog.INTERNAL.error(MyTargetConstants.Logs.AD_NOT_AVAILABLE)
-            listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, MyTargetConstants.Logs.AD_NOT_AVAILABLE)
+            trackedListener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, MyTargetConstants.Logs.AD_NOT_AVAILABLE)
             return
         }
 
@@ -70,6 +78,7 @@ class MyTargetRewardedAdapter(networkSettings: NetworkSettings) :
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, rewardedAd)
         rewardedAd = null
     }
 
@@ -78,16 +87,17 @@ class MyTargetRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(MyTargetConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(MyTargetConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(MyTargetConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, trackedCallback)
     }
 
     // endregion
@@ -2,6 +2,10 @@ package com.ironsource.adapters.verve
 
 import android.app.Application
 import android.content.Context
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -13,27 +17,17 @@ import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
 import net.pubnative.lite.sdk.HyBid
 import net.pubnative.lite.sdk.utils.Logger
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class VerveAdapter() : LevelPlayBaseAdapter() {
 
     companion object {
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         private const val GitHash: String = BuildConfig.GitHash
 
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initCallbackListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(VerveConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
 
         @JvmStatic
         fun networkAdapterVersion(): String = VerveConstants.ADAPTER_VERSION
@@ -52,6 +46,9 @@ class VerveAdapter() : LevelPlayBaseAdapter() {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(VerveConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         // Validate appToken first before any other checks
         val appToken = adData.getString(VerveConstants.APP_TOKEN_KEY)
         if (appToken.isNullOrEmpty()) {
@@ -68,21 +65,16 @@ class VerveAdapter() : LevelPlayBaseAdapter() {
         }
 
         // Check if init failed previously
-        if (initState == InitState.INIT_STATE_FAILED) {
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(VerveConstants.Logs.SDK_INIT_FAILED)
             networkInitializationListener?.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, VerveConstants.Logs.SDK_INIT_FAILED)
             return
         }
 
-        // Add to the init listeners only if init is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initCallbackListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-
-            IronLog.ADAPTER_API.verbose(VerveConstants.Logs.APP_TOKEN.format(appToken))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { VerveConstants.Logs.APP_TOKEN.format(appToken) }
 
             // Set log level
             if (isAdaptersDebugEnabled()) {
@@ -95,9 +87,9 @@ class VerveAdapter() : LevelPlayBaseAdapter() {
                 context.applicationContext as Application
             ) { success ->
                 if (success) {
-                    onInitializationSuccess()
+                    onInitializationSuccess(attempt)
                 } else {
-                    onInitializationFailure()
+                    onInitializationFailure(attempt)
                 }
             }
         }
@@ -114,7 +106,7 @@ class VerveAdapter() : LevelPlayBaseAdapter() {
 
         // This is a list of 1 value
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(VerveConstants.Logs.META_DATA_SET.format(key ?: "", value))
+        IronLog.ADAPTER_API.verbose { VerveConstants.Logs.META_DATA_SET.format(key ?: "", value) }
         val formattedValue = MetaDataUtils.formatValueForType(value, MetaData.MetaDataValueTypes.META_DATA_VALUE_BOOLEAN)
 
         when {
@@ -133,12 +125,12 @@ class VerveAdapter() : LevelPlayBaseAdapter() {
         } else {
             VerveConstants.META_DATA_CCPA_NO_VALUE
         }
-        IronLog.ADAPTER_API.verbose(VerveConstants.Logs.CCPA_VALUE.format(ccpaConsentString))
+        IronLog.ADAPTER_API.verbose { VerveConstants.Logs.CCPA_VALUE.format(ccpaConsentString) }
         HyBid.getUserDataManager().iabusPrivacyString = ccpaConsentString
     }
 
     private fun setCOPPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(VerveConstants.Logs.COPPA_VALUE.format(value))
+        IronLog.ADAPTER_API.verbose { VerveConstants.Logs.COPPA_VALUE.format(value) }
         HyBid.setCoppaEnabled(value)
     }
 
@@ -146,30 +138,18 @@ class VerveAdapter() : LevelPlayBaseAdapter() {
 
     // region Helper Methods
 
-    private fun onInitializationSuccess() {
+    private fun onInitializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        initState = InitState.INIT_STATE_SUCCESS
-
         // Iterate over all the adapter instances and report init success
-        for (listener: NetworkInitializationListener in initCallbackListeners) {
-            listener.onInitSuccess()
-        }
-
-        initCallbackListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    private fun onInitializationFailure() {
+    private fun onInitializationFailure(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.error(VerveConstants.Logs.INIT_FAILED)
 
-        initState = InitState.INIT_STATE_FAILED
-
         // Iterate over all the adapter instances and report init failed
-        for (listener: NetworkInitializationListener in initCallbackListeners) {
-            listener.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, VerveConstants.Logs.INIT_FAILED)
-        }
-
-        initCallbackListeners.clear()
+        initCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, VerveConstants.Logs.INIT_FAILED)
     }
 
     internal fun collectBiddingData(biddingDataCallback: BiddingDataCallback) {
@@ -181,7 +161,7 @@ class VerveAdapter() : LevelPlayBaseAdapter() {
 
         val bidToken = HyBid.getCustomRequestSignalData(VerveConstants.MEDIATION_NAME)
         val ret: MutableMap<String?, Any?> = HashMap()
-        IronLog.ADAPTER_API.verbose(VerveConstants.Logs.TOKEN.format(bidToken))
+        IronLog.ADAPTER_API.verbose { VerveConstants.Logs.TOKEN.format(bidToken) }
         ret[VerveConstants.TOKEN_KEY] = bidToken
         biddingDataCallback.onSuccess(ret)
     }
@@ -4,6 +4,7 @@ object VerveConstants {
 
     // Adapter version
     const val ADAPTER_VERSION: String = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "Verve"
 
     // Network configuration keys
     const val ZONE_ID_KEY = "zoneId"
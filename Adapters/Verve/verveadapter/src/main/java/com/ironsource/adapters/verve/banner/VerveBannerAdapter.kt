@@ -2,13 +2,15 @@ package com.ironsource.adapters.verve.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
-import android.widget.FrameLayout
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
 import com.ironsource.adapters.verve.VerveAdapter
 import com.ironsource.adapters.verve.VerveConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -20,12 +22,14 @@ import com.ironsource.mediationsdk.model.NetworkSettings
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseBanner
 import net.pubnative.lite.sdk.models.AdSize
 import net.pubnative.lite.sdk.views.HyBidAdView
+import java.lang.ref.WeakReference
 
 class VerveBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<VerveAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var bannerAdView: HyBidAdView? = null
+    private val latencyTracker = LatencyTracker(VerveConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(VerveConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<HyBidAdView>(VerveConstants.NETWORK_NAME) { destroyBannerAdView(it) }
 
     // region Adapter Methods
 
@@ -35,13 +39,14 @@ class VerveBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         IronLog.ADAPTER_API.verbose()
 
         val serverData = adData.serverData
         if (serverData.isNullOrEmpty()) {
             val errorMessage = VerveConstants.Logs.MISSING_PARAM.format(VerveConstants.SERVER_DATA)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -53,7 +58,7 @@ class VerveBannerAdapter(networkSettings: NetworkSettings) :
         val verveBannerSize = getBannerSize(bannerSize, appContext)
         if (verveBannerSize == null) {
             IronLog.INTERNAL.error(VerveConstants.Logs.BANNER_SIZE_NULL)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 VerveConstants.Logs.BANNER_SIZE_NULL
@@ -61,27 +66,32 @@ class VerveBannerAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        val layoutParams = FrameLayout.LayoutParams(
-            AdapterUtils.dpToPixels(appContext, verveBannerSize.width),
-            AdapterUtils.dpToPixels(appContext, verveBannerSize.height),
-            Gravity.CENTER
-        )
+        val layoutParams = BannerLayouts.layoutParams(appContext, verveBannerSize.width, verveBannerSize.height, Gravity.CENTER)
 
-        bannerAdView = HyBidAdView(appContext, verveBannerSize).apply {
+        val generation = adSlot.begin()
+        val bannerAdView = HyBidAdView(appContext, verveBannerSize).apply {
             setAdSize(verveBannerSize)
             setMediation(true)
         }
 
-        mainHandler.post {
-            bannerAdView?.renderAd(serverData, VerveBannerListener(listener, bannerAdView!!, layoutParams))
+        MainThreadScheduler.post {
+            // The banner was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                bannerAdView.destroy()
+                return@post
+            }
+            bannerAdView.renderAd(serverData, VerveBannerListener(trackedListener, bannerAdView, layoutParams, WeakReference(this@VerveBannerAdapter), generation))
         }
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            bannerAdView?.destroy()
-            bannerAdView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -90,27 +100,45 @@ class VerveBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
-            biddingDataCallback.onFailure(VerveConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(VerveConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
     }
 
     // endregion
 
     // region Helper Methods
 
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerAdView(generation: Long, bannerAdView: HyBidAdView): Boolean {
+        if (!adSlot.set(generation, bannerAdView)) {
+            destroyBannerAdView(bannerAdView)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    internal fun destroyBannerAdView(bannerAdView: HyBidAdView) {
+        MainThreadScheduler.post { bannerAdView.destroy() }
+    }
+
     private fun getBannerSize(bannerSize: ISBannerSize, context: Context): AdSize? {
         return when (bannerSize.description) {
             ISBannerSize.BANNER.description -> AdSize.SIZE_320x50
             ISBannerSize.RECTANGLE.description -> AdSize.SIZE_300x250
             ISBannerSize.SMART.description -> {
-                if (AdapterUtils.isLargeScreen(context)) {
+                if (BannerLayouts.isLargeScreen(context)) {
                     AdSize.SIZE_728x90
                 } else {
                     AdSize.SIZE_320x50
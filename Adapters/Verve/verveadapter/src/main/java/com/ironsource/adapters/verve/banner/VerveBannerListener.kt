@@ -8,11 +8,15 @@ import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
 import com.ironsource.mediationsdk.logger.IronLog
 import net.pubnative.lite.sdk.HyBidError
 import net.pubnative.lite.sdk.views.HyBidAdView
+import java.lang.ref.WeakReference
 
 class VerveBannerListener(
     private val listener: BannerAdListener,
     private val adView: HyBidAdView,
-    private val layoutParams: FrameLayout.LayoutParams
+    private val layoutParams: FrameLayout.LayoutParams,
+    private val adapter: WeakReference<VerveBannerAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : HyBidAdView.Listener {
 
     /**
@@ -20,6 +24,9 @@ class VerveBannerListener(
      */
     override fun onAdLoaded() {
         IronLog.ADAPTER_CALLBACK.verbose()
+        if (adapter.get()?.setBannerAdView(generation, adView) == false) {
+            return
+        }
         listener.onAdLoadSuccess(adView, layoutParams)
     }
 
@@ -33,6 +40,7 @@ class VerveBannerListener(
         val errorCode = hybidError?.errorCode?.code ?: AdapterErrors.ADAPTER_ERROR_INTERNAL
         val errorMessage = hybidError?.errorCode?.message ?: error?.message ?: VerveConstants.UNKNOWN_ERROR
         IronLog.ADAPTER_CALLBACK.error(VerveConstants.Logs.FAILED_TO_LOAD.format(errorCode, errorMessage))
+        adapter.get()?.destroyBannerAdView(adView)
         listener.onAdLoadFailed(
             AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
             errorCode,
@@ -2,6 +2,10 @@ package com.ironsource.adapters.verve.rewarded
 
 import android.app.Activity
 import android.content.Context
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.verve.VerveAdapter
 import com.ironsource.adapters.verve.VerveConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
@@ -17,6 +21,8 @@ import net.pubnative.lite.sdk.rewarded.HyBidRewardedAd
 class VerveRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<VerveAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(VerveConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(VerveConstants.NETWORK_NAME)
     private var rewardedAd: HyBidRewardedAd? = null
 
     // region Adapter Methods
@@ -26,13 +32,14 @@ class VerveRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         listener: RewardedVideoAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val zoneId = adData.getString(VerveConstants.ZONE_ID_KEY)
-        IronLog.ADAPTER_API.verbose(VerveConstants.Logs.ZONE_ID.format(zoneId ?: ""))
+        IronLog.ADAPTER_API.verbose { VerveConstants.Logs.ZONE_ID.format(zoneId ?: "") }
 
         if (zoneId.isNullOrEmpty()) {
             val errorMessage = VerveConstants.Logs.MISSING_PARAM.format(VerveConstants.ZONE_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -44,7 +51,7 @@ class VerveRewardedAdapter(networkSettings: NetworkSettings) :
         if (serverData.isNullOrEmpty()) {
             val errorMessage = VerveConstants.Logs.MISSING_PARAM.format(VerveConstants.SERVER_DATA)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -55,7 +62,7 @@ class VerveRewardedAdapter(networkSettings: NetworkSettings) :
         rewardedAd = HyBidRewardedAd(
             context.applicationContext,
             zoneId,
-            VerveRewardedListener(listener)
+            VerveRewardedListener(trackedListener)
         )
         rewardedAd?.prepareAd(serverData)
     }
@@ -65,10 +72,11 @@ class VerveRewardedAdapter(networkSettings: NetworkSettings) :
         activity: Activity,
         listener: RewardedVideoAdListener
     ) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 VerveConstants.Logs.AD_NOT_AVAILABLE
             )
@@ -76,7 +84,7 @@ class VerveRewardedAdapter(networkSettings: NetworkSettings) :
         }
 
         rewardedAd?.show() ?: run {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 VerveConstants.Logs.AD_NOT_AVAILABLE
             )
@@ -88,6 +96,7 @@ class VerveRewardedAdapter(networkSettings: NetworkSettings) :
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
         rewardedAd?.destroy()
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, rewardedAd)
         rewardedAd = null
     }
 
@@ -96,15 +105,16 @@ class VerveRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
-            biddingDataCallback.onFailure(VerveConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(VerveConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
     }
 
     // endregion
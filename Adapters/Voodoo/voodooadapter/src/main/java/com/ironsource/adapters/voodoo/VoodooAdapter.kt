@@ -1,6 +1,11 @@
 package com.ironsource.adapters.voodoo
 
 import android.content.Context
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.TokenRequests
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -16,8 +21,6 @@ import io.adn.sdk.publisher.AdnInitializationCallback
 import io.adn.sdk.publisher.AdnInitializationStatus
 import io.adn.sdk.publisher.AdnMediationType
 import io.adn.sdk.publisher.AdnSdk
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class VoodooAdapter : LevelPlayBaseAdapter() {
 
@@ -25,18 +28,13 @@ class VoodooAdapter : LevelPlayBaseAdapter() {
 
         private const val GitHash: String = BuildConfig.GitHash
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(VoodooConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
+
+        // Share a token call between the adapter instances asking for the same ad placement at once
+        private val tokenRequests = TokenRequests.forNetwork(VoodooConstants.NETWORK_NAME)
 
         @JvmStatic
         fun networkAdapterVersion(): String = VoodooConstants.ADAPTER_VERSION
@@ -64,6 +62,9 @@ class VoodooAdapter : LevelPlayBaseAdapter() {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(VoodooConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         val placementId = adData.getString(VoodooConstants.PLACEMENT_ID_KEY)
         if (placementId.isNullOrEmpty()) {
             val errorMessage = VoodooConstants.Logs.MISSING_PARAM.format(VoodooConstants.PLACEMENT_ID_KEY)
@@ -78,8 +79,8 @@ class VoodooAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        // Init previously failed - report failure immediately
-        if (initState == InitState.INIT_STATE_FAILED) {
+        // Init previously failed and can't be retried yet - report failure immediately
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(VoodooConstants.Logs.SDK_INIT_FAILED)
             networkInitializationListener?.onInitFailed(
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
@@ -88,22 +89,18 @@ class VoodooAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        // Add to the init listeners only if init is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-            IronLog.ADAPTER_API.verbose(VoodooConstants.Logs.PLACEMENT_ID.format(placementId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { VoodooConstants.Logs.PLACEMENT_ID.format(placementId) }
 
             AdnSdk.setVerbose(isAdaptersDebugEnabled())
             AdnSdk.setMediationType(AdnMediationType.IRONSOURCE)
             AdnSdk.initialize(context.applicationContext, object : AdnInitializationCallback {
                 override fun onCompletion(status: AdnInitializationStatus) {
                     when (status) {
-                        AdnInitializationStatus.Success -> initializationSuccess()
-                        AdnInitializationStatus.Failure -> initializationFailure()
+                        AdnInitializationStatus.Success -> initializationSuccess(attempt)
+                        AdnInitializationStatus.Failure -> initializationFailure(attempt)
                         else -> {}
                     }
                 }
@@ -111,28 +108,16 @@ class VoodooAdapter : LevelPlayBaseAdapter() {
         }
     }
 
-    private fun initializationSuccess() {
+    private fun initializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose(VoodooConstants.Logs.INIT_SUCCESS)
 
-        initState = InitState.INIT_STATE_SUCCESS
-
-        for (listener: NetworkInitializationListener in initListeners) {
-            listener.onInitSuccess()
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    private fun initializationFailure() {
+    private fun initializationFailure(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.error(VoodooConstants.Logs.SDK_INIT_FAILED)
 
-        initState = InitState.INIT_STATE_FAILED
-
-        for (listener: NetworkInitializationListener in initListeners) {
-            listener.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, VoodooConstants.Logs.SDK_INIT_FAILED)
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, VoodooConstants.Logs.SDK_INIT_FAILED)
     }
 
     // endregion
@@ -146,16 +131,18 @@ class VoodooAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        AdnSdk.getBidToken(adnAdPlacement, object : AdnBidTokenCallback {
-            override fun onComplete(response: String) {
-                val sdkVersion = getNetworkSDKVersion()
-                IronLog.ADAPTER_API.verbose(VoodooConstants.Logs.TOKEN.format(response, sdkVersion))
-                val biddingData: MutableMap<String, Any> = HashMap()
-                biddingData[VoodooConstants.TOKEN_KEY] = response
-                biddingData[VoodooConstants.SDK_VERSION_KEY] = sdkVersion
-                biddingDataCallback.onSuccess(biddingData)
-            }
-        })
+        tokenRequests.request(adnAdPlacement.name, biddingDataCallback) { sharedCallback ->
+            AdnSdk.getBidToken(adnAdPlacement, object : AdnBidTokenCallback {
+                override fun onComplete(response: String) {
+                    val sdkVersion = getNetworkSDKVersion()
+                    IronLog.ADAPTER_API.verbose { VoodooConstants.Logs.TOKEN.format(response, sdkVersion) }
+                    val biddingData: MutableMap<String, Any> = HashMap()
+                    biddingData[VoodooConstants.TOKEN_KEY] = response
+                    biddingData[VoodooConstants.SDK_VERSION_KEY] = sdkVersion
+                    sharedCallback.onSuccess(biddingData)
+                }
+            })
+        }
     }
 
     // endregion
@@ -4,6 +4,7 @@ object VoodooConstants {
 
     // Adapter version
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "Voodoo"
 
     // Voodoo configuration keys
     const val PLACEMENT_ID_KEY = "placementId"
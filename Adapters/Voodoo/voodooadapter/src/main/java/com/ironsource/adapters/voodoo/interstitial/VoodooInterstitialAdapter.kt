@@ -2,6 +2,10 @@ package com.ironsource.adapters.voodoo.interstitial
 
 import android.app.Activity
 import android.content.Context
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.voodoo.VoodooAdapter
 import com.ironsource.adapters.voodoo.VoodooConstants
 import com.ironsource.environment.ContextProvider
@@ -22,20 +26,23 @@ import io.adn.sdk.publisher.AdnSdk
 class VoodooInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<VoodooAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(VoodooConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(VoodooConstants.NETWORK_NAME)
     private var interstitialAd: AdnFullscreenAd? = null
     private var interstitialAdListener: VoodooInterstitialListener? = null
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val placementId = adData.getString(VoodooConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(VoodooConstants.Logs.PLACEMENT_ID.format(placementId ?: ""))
+        IronLog.ADAPTER_API.verbose { VoodooConstants.Logs.PLACEMENT_ID.format(placementId ?: "") }
 
         val serverData = adData.serverData
         if (serverData.isNullOrEmpty()) {
             val errorMessage = VoodooConstants.Logs.SERVER_DATA_EMPTY
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -44,12 +51,12 @@ class VoodooInterstitialAdapter(networkSettings: NetworkSettings) :
         }
 
         val activity: Activity = ContextProvider.getInstance().currentActiveActivity
-        val voodooInterstitialListener = VoodooInterstitialListener(listener)
+        val voodooInterstitialListener = VoodooInterstitialListener(trackedListener)
         interstitialAdListener = voodooInterstitialListener
         interstitialAd = AdnSdk.getInterstitialAdInstance(activity, voodooInterstitialListener)
         interstitialAd?.load(
             AdnAdRequest.AdBidRequest(AdnAdPlacement.INTERSTITIAL, serverData, AdnLoadTimeout.MEDIATION)
-        ) ?: listener.onAdLoadFailed(
+        ) ?: trackedListener.onAdLoadFailed(
             AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
             AdapterErrors.ADAPTER_ERROR_INTERNAL,
             VoodooConstants.Logs.AD_NULL
@@ -57,17 +64,18 @@ class VoodooInterstitialAdapter(networkSettings: NetworkSettings) :
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 VoodooConstants.Logs.AD_NOT_AVAILABLE
             )
             return
         }
 
-        interstitialAd?.show() ?: listener.onAdShowFailed(
+        interstitialAd?.show() ?: trackedListener.onAdShowFailed(
             AdapterErrors.ADAPTER_ERROR_INTERNAL,
             VoodooConstants.Logs.AD_NULL
         )
@@ -78,7 +86,9 @@ class VoodooInterstitialAdapter(networkSettings: NetworkSettings) :
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
         interstitialAd?.destroy()
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, interstitialAd)
         interstitialAd = null
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.LISTENER, interstitialAdListener)
         interstitialAdListener = null
     }
 
@@ -87,14 +97,15 @@ class VoodooInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(VoodooConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(VoodooConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(VoodooConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback, AdnAdPlacement.INTERSTITIAL)
+        networkAdapter.collectBiddingData(trackedCallback, AdnAdPlacement.INTERSTITIAL)
     }
 
     // endregion
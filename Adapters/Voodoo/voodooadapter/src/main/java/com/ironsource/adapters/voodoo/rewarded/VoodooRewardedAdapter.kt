@@ -2,6 +2,10 @@ package com.ironsource.adapters.voodoo.rewarded
 
 import android.app.Activity
 import android.content.Context
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.voodoo.VoodooAdapter
 import com.ironsource.adapters.voodoo.VoodooConstants
 import com.ironsource.environment.ContextProvider
@@ -22,20 +26,23 @@ import io.adn.sdk.publisher.AdnSdk
 class VoodooRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<VoodooAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(VoodooConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(VoodooConstants.NETWORK_NAME)
     private var rewardedAd: AdnFullscreenAd? = null
     private var rewardedAdListener: VoodooRewardedListener? = null
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val placementId = adData.getString(VoodooConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(VoodooConstants.Logs.PLACEMENT_ID.format(placementId ?: ""))
+        IronLog.ADAPTER_API.verbose { VoodooConstants.Logs.PLACEMENT_ID.format(placementId ?: "") }
 
         val serverData = adData.serverData
         if (serverData.isNullOrEmpty()) {
             val errorMessage = VoodooConstants.Logs.SERVER_DATA_EMPTY
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -44,12 +51,12 @@ class VoodooRewardedAdapter(networkSettings: NetworkSettings) :
         }
 
         val activity: Activity = ContextProvider.getInstance().currentActiveActivity
-        val voodooRewardedListener = VoodooRewardedListener(listener)
+        val voodooRewardedListener = VoodooRewardedListener(trackedListener)
         rewardedAdListener = voodooRewardedListener
         rewardedAd = AdnSdk.getRewardedAdInstance(activity, voodooRewardedListener)
         rewardedAd?.load(
             AdnAdRequest.AdBidRequest(AdnAdPlacement.REWARDED, serverData, AdnLoadTimeout.MEDIATION)
-        ) ?: listener.onAdLoadFailed(
+        ) ?: trackedListener.onAdLoadFailed(
             AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
             AdapterErrors.ADAPTER_ERROR_INTERNAL,
             VoodooConstants.Logs.AD_NULL
@@ -57,17 +64,18 @@ class VoodooRewardedAdapter(networkSettings: NetworkSettings) :
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 VoodooConstants.Logs.AD_NOT_AVAILABLE
             )
             return
         }
 
-        rewardedAd?.show() ?: listener.onAdShowFailed(
+        rewardedAd?.show() ?: trackedListener.onAdShowFailed(
             AdapterErrors.ADAPTER_ERROR_INTERNAL,
             VoodooConstants.Logs.AD_NULL
         )
@@ -78,7 +86,9 @@ class VoodooRewardedAdapter(networkSettings: NetworkSettings) :
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
         rewardedAd?.destroy()
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, rewardedAd)
         rewardedAd = null
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.LISTENER, rewardedAdListener)
         rewardedAdListener = null
     }
 
@@ -87,14 +97,15 @@ class VoodooRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(VoodooConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(VoodooConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(VoodooConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback, AdnAdPlacement.REWARDED)
+        networkAdapter.collectBiddingData(trackedCallback, AdnAdPlacement.REWARDED)
     }
 
     // endregion
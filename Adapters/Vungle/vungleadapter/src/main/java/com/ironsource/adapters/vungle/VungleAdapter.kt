@@ -1,6 +1,11 @@
 package com.ironsource.adapters.vungle
 
 import android.content.Context
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.verbose
+import com.ironsource.mediationsdk.LoadWhileShowSupportState
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -19,27 +24,17 @@ import com.vungle.ads.VunglePrivacySettings.setCCPAStatus
 import com.vungle.ads.VunglePrivacySettings.setCOPPAStatus
 import com.vungle.ads.VunglePrivacySettings.setGDPRStatus
 import com.vungle.ads.internal.protos.Sdk.SDKError
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class VungleAdapter : LevelPlayBaseAdapter() {
 
     companion object {
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         private const val GitHash: String = BuildConfig.GitHash
 
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initCallbackListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(VungleConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
 
         @JvmStatic
         fun getLoadErrorType(adError: VungleError): AdapterErrorType {
@@ -62,11 +57,18 @@ class VungleAdapter : LevelPlayBaseAdapter() {
 
     override fun isUsingActivityBeforeImpression(adFormat: LevelPlay.AdFormat): Boolean = false
 
+    // The network's capability to load a full-screen ad while the ad of the same instance is showing
+    override fun getLoadWhileShowSupportState(): LoadWhileShowSupportState =
+        LoadWhileShowSupportState.LOAD_WHILE_SHOW_BY_INSTANCE
+
     override fun init(
         adData: AdData,
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(VungleConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         // Validate appId first before any other checks
         val appId = adData.getString(VungleConstants.APP_ID_KEY)
         if (appId.isNullOrEmpty()) {
@@ -82,8 +84,8 @@ class VungleAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        // Init previously failed - report failure immediately
-        if (initState == InitState.INIT_STATE_FAILED) {
+        // Init previously failed and can't be retried yet - report failure immediately
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(VungleConstants.Logs.SDK_INIT_FAILED)
             networkInitializationListener?.onInitFailed(
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
@@ -92,24 +94,20 @@ class VungleAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        // Add to the init listeners only if init is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initCallbackListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-            IronLog.ADAPTER_API.verbose(VungleConstants.Logs.APP_ID.format(appId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { VungleConstants.Logs.APP_ID.format(appId) }
 
             VungleAds.setIntegrationName(VungleConstants.MEDIATION_NAME, VungleConstants.ADAPTER_VERSION)
 
             VungleAds.init(context.applicationContext, appId, object : InitializationListener {
                 override fun onSuccess() {
-                    initializationSuccess()
+                    initializationSuccess(attempt)
                 }
 
                 override fun onError(vungleError: VungleError) {
-                    initializationFailure(vungleError.code, vungleError.errorMessage)
+                    initializationFailure(attempt, vungleError.code, vungleError.errorMessage)
                 }
             })
         }
@@ -126,7 +124,7 @@ class VungleAdapter : LevelPlayBaseAdapter() {
 
         // This is a list of 1 value
         val value = values[0] ?: return
-        IronLog.ADAPTER_API.verbose(VungleConstants.Logs.META_DATA_SET.format(key ?: "", value))
+        IronLog.ADAPTER_API.verbose { VungleConstants.Logs.META_DATA_SET.format(key ?: "", value) }
         val formattedValue: String = MetaDataUtils.formatValueForType(value, MetaData.MetaDataValueTypes.META_DATA_VALUE_BOOLEAN)
 
         when {
@@ -141,7 +139,7 @@ class VungleAdapter : LevelPlayBaseAdapter() {
     }
 
     override fun setConsent(consent: Boolean) {
-        IronLog.ADAPTER_API.verbose(VungleConstants.Logs.CONSENT.format(consent))
+        IronLog.ADAPTER_API.verbose { VungleConstants.Logs.CONSENT.format(consent) }
         setGDPRStatus(consent, VungleConstants.META_DATA_VUNGLE_CONSENT_MESSAGE_VERSION)
     }
 
@@ -149,12 +147,12 @@ class VungleAdapter : LevelPlayBaseAdapter() {
         // The Vungle CCPA API expects an indication if the user opts in to targeted advertising,
         // opposite to the ironSource Mediation CCPA flag of do_not_sell
         val optIn = !value
-        IronLog.ADAPTER_API.verbose(VungleConstants.Logs.CCPA.format(optIn))
+        IronLog.ADAPTER_API.verbose { VungleConstants.Logs.CCPA.format(optIn) }
         setCCPAStatus(optIn)
     }
 
     private fun setCOPPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(VungleConstants.Logs.COPPA.format(value))
+        IronLog.ADAPTER_API.verbose { VungleConstants.Logs.COPPA.format(value) }
         setCOPPAStatus(value)
     }
 
@@ -162,30 +160,18 @@ class VungleAdapter : LevelPlayBaseAdapter() {
 
     // region Helper Methods
 
-    private fun initializationSuccess() {
+    private fun initializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose(VungleConstants.Logs.INIT_SUCCESS)
 
-        initState = InitState.INIT_STATE_SUCCESS
-
         // Iterate over all the adapter instances and report init success
-        for (listener: NetworkInitializationListener in initCallbackListeners) {
-            listener.onInitSuccess()
-        }
-
-        initCallbackListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    private fun initializationFailure(errorCode: Int, errorMessage: String) {
+    private fun initializationFailure(attempt: Int, errorCode: Int, errorMessage: String) {
         IronLog.ADAPTER_CALLBACK.error(VungleConstants.Logs.INIT_FAILED.format(errorCode, errorMessage))
 
-        initState = InitState.INIT_STATE_FAILED
-
         // Iterate over all the adapter instances and report init failed
-        for (listener: NetworkInitializationListener in initCallbackListeners) {
-            listener.onInitFailed(errorCode, errorMessage)
-        }
-
-        initCallbackListeners.clear()
+        initCoordinator.onInitFailed(attempt, errorCode, errorMessage)
     }
 
     internal fun collectBiddingData(context: Context, biddingDataCallback: BiddingDataCallback) {
@@ -193,7 +179,7 @@ class VungleAdapter : LevelPlayBaseAdapter() {
             override fun onBidTokenCollected(bidToken: String) {
                 val ret: MutableMap<String?, Any?> = HashMap()
                 val sdkVersion = getNetworkSDKVersion()
-                IronLog.ADAPTER_API.verbose(VungleConstants.Logs.TOKEN.format(sdkVersion, bidToken))
+                IronLog.ADAPTER_API.verbose { VungleConstants.Logs.TOKEN.format(sdkVersion, bidToken) }
                 ret[VungleConstants.SDK_VERSION_KEY] = sdkVersion
                 ret[VungleConstants.TOKEN_KEY] = bidToken
                 biddingDataCallback.onSuccess(ret)
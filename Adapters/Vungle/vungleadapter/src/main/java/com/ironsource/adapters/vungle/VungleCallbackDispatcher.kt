@@ -0,0 +1,118 @@
+package com.ironsource.adapters.vungle
+
+import android.os.Looper
+import android.os.SystemClock
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
+import com.ironsource.mediationsdk.logger.IronLog
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Delivers the callbacks of a single Vungle ad to its LevelPlay listener in the order the network
+ * reported them.
+ *
+ * A callback is delivered on the thread which reported it, only a callback which the listener
+ * contract requires on the main thread is moved there. A callback reported while an earlier one
+ * still waits for the main thread is queued behind it, in a lock-free queue drained on the main
+ * thread, so the order is kept. Listener exceptions reach the caller. The delay from the network
+ * callback to the listener is tracked for all ads, and a slow listener is logged.
+ */
+internal class VungleCallbackDispatcher {
+
+    companion object {
+        // Listener duration above which the callback is reported as slow
+        private const val SLOW_LISTENER_MS = 50L
+
+        private val dispatchedEventCount = AtomicLong()
+        private val totalDispatchDelayMs = AtomicLong()
+        private val maxDispatchDelayMs = AtomicLong()
+
+        val averageDispatchDelayMs: Long
+            get() = dispatchedEventCount.get().let { count -> if (count == 0L) 0L else totalDispatchDelayMs.get() / count }
+
+        val maxDispatchDelay: Long
+            get() = maxDispatchDelayMs.get()
+
+        private fun recordDispatchDelay(delayMs: Long) {
+            dispatchedEventCount.incrementAndGet()
+            totalDispatchDelayMs.addAndGet(delayMs)
+            var currentMax = maxDispatchDelayMs.get()
+            while (delayMs > currentMax && !maxDispatchDelayMs.compareAndSet(currentMax, delayMs)) {
+                currentMax = maxDispatchDelayMs.get()
+            }
+        }
+    }
+
+    private class Event(
+        val name: String,
+        val block: () -> Unit,
+        val enqueueTime: Long = SystemClock.elapsedRealtime()
+    )
+
+    private val pendingEvents = ConcurrentLinkedQueue<Event>()
+    private val isDrainScheduled = AtomicBoolean(false)
+
+    // Events being delivered or waiting for the main thread
+    private val pendingCount = AtomicInteger()
+
+    /**
+     * @param requiresMainThread true if the listener contract requires the callback on the main
+     * thread, like a banner view handed to the mediation layer
+     */
+    fun dispatch(name: String, requiresMainThread: Boolean = false, block: () -> Unit) {
+        val event = Event(name, block)
+        val isMainThread = Looper.myLooper() == Looper.getMainLooper()
+        if ((isMainThread || !requiresMainThread) && pendingCount.compareAndSet(0, 1)) {
+            try {
+                deliver(event)
+            } finally {
+                pendingCount.decrementAndGet()
+            }
+            return
+        }
+
+        pendingCount.incrementAndGet()
+        pendingEvents.offer(event)
+        scheduleDrain()
+    }
+
+    private fun scheduleDrain() {
+        if (isDrainScheduled.compareAndSet(false, true)) {
+            MainThreadScheduler.post { drain() }
+        }
+    }
+
+    private fun drain() {
+        // Cleared before polling, so events queued from now on schedule the next drain
+        isDrainScheduled.set(false)
+        try {
+            while (true) {
+                val event = pendingEvents.poll() ?: return
+                try {
+                    deliver(event)
+                } finally {
+                    pendingCount.decrementAndGet()
+                }
+            }
+        } finally {
+            // A listener threw, the events queued behind it are delivered by the next drain
+            if (pendingEvents.isNotEmpty()) {
+                scheduleDrain()
+            }
+        }
+    }
+
+    private fun deliver(event: Event) {
+        val startTime = SystemClock.elapsedRealtime()
+        recordDispatchDelay(startTime - event.enqueueTime)
+        event.block()
+
+        val duration = SystemClock.elapsedRealtime() - startTime
+        if (duration > SLOW_LISTENER_MS) {
+            IronLog.INTERNAL.verbose { "slow ${event.name} listener - $duration ms" }
+        }
+    }
+}
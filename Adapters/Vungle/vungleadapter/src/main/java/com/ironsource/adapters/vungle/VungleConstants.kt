@@ -4,6 +4,7 @@ object VungleConstants {
 
     // Adapter version and mediation
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "Vungle"
     const val MEDIATION_NAME = "ironsource"
 
     // Network configuration keys
@@ -2,11 +2,15 @@ package com.ironsource.adapters.vungle.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.vungle.VungleAdapter
 import com.ironsource.adapters.vungle.VungleConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -20,12 +24,14 @@ import com.vungle.ads.VungleAdSize
 import com.vungle.ads.VungleAds
 import com.vungle.ads.VungleBannerView
 import com.vungle.ads.VungleMediationLogger
+import java.lang.ref.WeakReference
 
 class VungleBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<VungleAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var bannerView: VungleBannerView? = null
+    private val latencyTracker = LatencyTracker(VungleConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(VungleConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<VungleBannerView>(VungleConstants.NETWORK_NAME) { destroyBannerView(it) }
 
     // region Adapter Methods
 
@@ -35,13 +41,14 @@ class VungleBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val placementId = adData.getString(VungleConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(VungleConstants.Logs.PLACEMENT_ID.format(placementId ?: ""))
+        IronLog.ADAPTER_API.verbose { VungleConstants.Logs.PLACEMENT_ID.format(placementId ?: "") }
 
         if (placementId.isNullOrEmpty()) {
             val errorMessage = VungleConstants.Logs.MISSING_PARAM.format(VungleConstants.PLACEMENT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -53,7 +60,7 @@ class VungleBannerAdapter(networkSettings: NetworkSettings) :
         val vungleBannerSize = getBannerSize(appContext, bannerSize)
         if (vungleBannerSize == null) {
             IronLog.INTERNAL.error(VungleConstants.Logs.UNSUPPORTED_BANNER_SIZE)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 VungleConstants.Logs.UNSUPPORTED_BANNER_SIZE
@@ -61,26 +68,28 @@ class VungleBannerAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        bannerView = VungleBannerView(appContext, placementId, vungleBannerSize).apply {
-            adListener = VungleBannerListener(listener, this)
+        val generation = adSlot.begin()
+        val bannerView = VungleBannerView(appContext, placementId, vungleBannerSize).apply {
+            adListener = VungleBannerListener(trackedListener, this, WeakReference(this@VungleBannerAdapter), generation)
             adapterAdFormat = VungleConstants.ADAPTER_FORMAT_BANNER
         }
 
         if (!VungleAds.isInline(placementId) && bannerSize.description == VungleConstants.BANNER_SIZE_CUSTOM) {
-            bannerView?.let {
-                it.adapterAdFormat = "${VungleConstants.ADAPTER_FORMAT_BANNER}-${bannerSize.description.lowercase()}"
-                VungleMediationLogger.logError(it, VungleConstants.Logs.CUSTOM_SIZE_MISMATCH.format(bannerSize.width, bannerSize.height))
-            }
+            bannerView.adapterAdFormat = "${VungleConstants.ADAPTER_FORMAT_BANNER}-${bannerSize.description.lowercase()}"
+            VungleMediationLogger.logError(bannerView, VungleConstants.Logs.CUSTOM_SIZE_MISMATCH.format(bannerSize.width, bannerSize.height))
         }
 
-        bannerView?.load(adData.serverData)
+        bannerView.load(adData.serverData)
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            bannerView?.finishAd()
-            bannerView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.finishAd()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -89,28 +98,46 @@ class VungleBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(VungleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(VungleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(VungleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, trackedCallback)
     }
 
     // endregion
 
     // region Helper Methods
 
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerView(generation: Long, bannerView: VungleBannerView): Boolean {
+        if (!adSlot.set(generation, bannerView)) {
+            destroyBannerView(bannerView)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    internal fun destroyBannerView(bannerView: VungleBannerView) {
+        MainThreadScheduler.post { bannerView.finishAd() }
+    }
+
     private fun getBannerSize(context: Context, bannerSize: ISBannerSize): VungleAdSize? {
         return when (bannerSize.description) {
             VungleConstants.BANNER_SIZE_BANNER, VungleConstants.BANNER_SIZE_LARGE -> VungleAdSize.BANNER
             VungleConstants.BANNER_SIZE_RECTANGLE -> VungleAdSize.MREC
             VungleConstants.BANNER_SIZE_SMART ->
-                if (AdapterUtils.isLargeScreen(context)) {
+                if (BannerLayouts.isLargeScreen(context)) {
                     VungleAdSize.BANNER_LEADERBOARD
                 } else {
                     VungleAdSize.BANNER
@@ -1,40 +1,48 @@
 package com.ironsource.adapters.vungle.banner
 
 import android.view.Gravity
-import android.widget.FrameLayout
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.vungle.VungleAdapter
+import com.ironsource.adapters.vungle.VungleCallbackDispatcher
 import com.ironsource.adapters.vungle.VungleConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.logger.IronLog
 import com.vungle.ads.BaseAd
 import com.vungle.ads.VungleBannerView
 import com.vungle.ads.VungleError
+import java.lang.ref.WeakReference
 
 class VungleBannerListener(
     private val listener: BannerAdListener,
-    private val bannerView: VungleBannerView
+    private val bannerView: VungleBannerView,
+    private val adapter: WeakReference<VungleBannerAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : com.vungle.ads.BannerAdListener {
 
+    private val dispatcher = VungleCallbackDispatcher()
+
     /**
      * Called when the advertisement assets have been downloaded and are ready to play.
      * @param baseAd - identifier for which the advertisement assets have been downloaded.
      */
     override fun onAdLoaded(baseAd: BaseAd) {
         val context = bannerView.context
-        val layoutParams = FrameLayout.LayoutParams(
-            AdapterUtils.dpToPixels(context, bannerView.getAdViewSize().width),
-            AdapterUtils.dpToPixels(context, bannerView.getAdViewSize().height),
-            Gravity.CENTER
-        )
+        val layoutParams = BannerLayouts.layoutParams(context, bannerView.getAdViewSize().width, bannerView.getAdViewSize().height, Gravity.CENTER)
         val creativeId = baseAd.creativeId
-        IronLog.ADAPTER_CALLBACK.verbose(VungleConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { VungleConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
-        if (creativeId.isNullOrEmpty()) {
-            listener.onAdLoadSuccess(bannerView, layoutParams)
-        } else {
-            val extraData: Map<String, Any> = mapOf(VungleConstants.CREATIVE_ID_KEY to creativeId)
-            listener.onAdLoadSuccess(bannerView, layoutParams, extraData)
+        if (adapter.get()?.setBannerView(generation, bannerView) == false) {
+            return
+        }
+        dispatcher.dispatch("onAdLoadSuccess", requiresMainThread = true) {
+            if (creativeId.isNullOrEmpty()) {
+                listener.onAdLoadSuccess(bannerView, layoutParams)
+            } else {
+                val extraData: Map<String, Any> = mapOf(VungleConstants.CREATIVE_ID_KEY to creativeId)
+                listener.onAdLoadSuccess(bannerView, layoutParams, extraData)
+            }
         }
     }
 
@@ -45,7 +53,10 @@ class VungleBannerListener(
      */
     override fun onAdFailedToLoad(baseAd: BaseAd, adError: VungleError) {
         IronLog.ADAPTER_CALLBACK.error(VungleConstants.Logs.FAILED_TO_LOAD.format(adError.code, adError.errorMessage))
-        listener.onAdLoadFailed(VungleAdapter.getLoadErrorType(adError), adError.code, adError.errorMessage)
+        adapter.get()?.destroyBannerView(bannerView)
+        dispatcher.dispatch("onAdLoadFailed") {
+            listener.onAdLoadFailed(VungleAdapter.getLoadErrorType(adError), adError.code, adError.errorMessage)
+        }
     }
 
     /**
@@ -62,7 +73,7 @@ class VungleBannerListener(
      */
     override fun onAdImpression(baseAd: BaseAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        listener.onAdOpened()
+        dispatcher.dispatch("onAdOpened") { listener.onAdOpened() }
     }
 
     /**
@@ -80,7 +91,7 @@ class VungleBannerListener(
      */
     override fun onAdClicked(baseAd: BaseAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        listener.onAdClicked()
+        dispatcher.dispatch("onAdClicked") { listener.onAdClicked() }
     }
 
     /**
@@ -89,7 +100,7 @@ class VungleBannerListener(
      */
     override fun onAdLeftApplication(baseAd: BaseAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        listener.onAdLeftApplication()
+        dispatcher.dispatch("onAdLeftApplication") { listener.onAdLeftApplication() }
     }
 
     /**
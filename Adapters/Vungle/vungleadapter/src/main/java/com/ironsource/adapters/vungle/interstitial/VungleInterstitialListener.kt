@@ -1,29 +1,44 @@
 package com.ironsource.adapters.vungle.interstitial
 
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.vungle.VungleAdapter
+import com.ironsource.adapters.vungle.VungleCallbackDispatcher
 import com.ironsource.adapters.vungle.VungleConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
 import com.ironsource.mediationsdk.logger.IronLog
 import com.vungle.ads.BaseAd
+import com.vungle.ads.InterstitialAd
 import com.vungle.ads.VungleError
+import java.lang.ref.WeakReference
 
 class VungleInterstitialListener(
-    private val listener: InterstitialAdListener
+    private val listener: InterstitialAdListener,
+    private val interstitialAd: InterstitialAd,
+    private val adapter: WeakReference<VungleInterstitialAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : com.vungle.ads.InterstitialAdListener {
 
+    private val dispatcher = VungleCallbackDispatcher()
+
     /**
      * Called when the advertisement assets have been downloaded and are ready to play.
      * @param baseAd - identifier for which the advertisement assets have been downloaded.
      */
     override fun onAdLoaded(baseAd: BaseAd) {
         val creativeId = baseAd.creativeId
-        IronLog.ADAPTER_CALLBACK.verbose(VungleConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { VungleConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
-        if (creativeId.isNullOrEmpty()) {
-            listener.onAdLoadSuccess()
-        } else {
-            val extraData: Map<String, Any> = mapOf(VungleConstants.CREATIVE_ID_KEY to creativeId)
-            listener.onAdLoadSuccess(extraData)
+        if (adapter.get()?.setInterstitialAd(generation, interstitialAd) == false) {
+            return
+        }
+        dispatcher.dispatch("onAdLoadSuccess") {
+            if (creativeId.isNullOrEmpty()) {
+                listener.onAdLoadSuccess()
+            } else {
+                val extraData: Map<String, Any> = mapOf(VungleConstants.CREATIVE_ID_KEY to creativeId)
+                listener.onAdLoadSuccess(extraData)
+            }
         }
     }
 
@@ -34,7 +49,10 @@ class VungleInterstitialListener(
      */
     override fun onAdFailedToLoad(baseAd: BaseAd, adError: VungleError) {
         IronLog.ADAPTER_CALLBACK.error(VungleConstants.Logs.FAILED_TO_LOAD.format(adError.code, adError.errorMessage))
-        listener.onAdLoadFailed(VungleAdapter.getLoadErrorType(adError), adError.code, adError.errorMessage)
+        interstitialAd.adListener = null
+        dispatcher.dispatch("onAdLoadFailed") {
+            listener.onAdLoadFailed(VungleAdapter.getLoadErrorType(adError), adError.code, adError.errorMessage)
+        }
     }
 
     /**
@@ -51,7 +69,7 @@ class VungleInterstitialListener(
      */
     override fun onAdImpression(baseAd: BaseAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        listener.onAdOpened()
+        dispatcher.dispatch("onAdOpened") { listener.onAdOpened() }
     }
 
     /**
@@ -61,7 +79,8 @@ class VungleInterstitialListener(
      */
     override fun onAdFailedToPlay(baseAd: BaseAd, adError: VungleError) {
         IronLog.ADAPTER_CALLBACK.error(VungleConstants.Logs.FAILED_TO_PLAY.format(adError.code, adError.errorMessage))
-        listener.onAdShowFailed(adError.code, adError.errorMessage)
+        adapter.get()?.onShowFinished()
+        dispatcher.dispatch("onAdShowFailed") { listener.onAdShowFailed(adError.code, adError.errorMessage) }
     }
 
     /**
@@ -70,7 +89,7 @@ class VungleInterstitialListener(
      */
     override fun onAdClicked(baseAd: BaseAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        listener.onAdClicked()
+        dispatcher.dispatch("onAdClicked") { listener.onAdClicked() }
     }
 
     /**
@@ -87,6 +106,7 @@ class VungleInterstitialListener(
      */
     override fun onAdEnd(baseAd: BaseAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        listener.onAdClosed()
+        dispatcher.dispatch("onAdClosed") { listener.onAdClosed() }
+        adapter.get()?.onShowFinished()
     }
 }
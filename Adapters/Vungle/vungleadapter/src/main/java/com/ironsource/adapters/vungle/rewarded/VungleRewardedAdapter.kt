@@ -2,8 +2,12 @@ package com.ironsource.adapters.vungle.rewarded
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.vungle.VungleAdapter
 import com.ironsource.adapters.vungle.VungleConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
@@ -16,23 +20,28 @@ import com.ironsource.mediationsdk.model.NetworkSettings
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseRewardedVideo
 import com.vungle.ads.AdConfig
 import com.vungle.ads.RewardedAd
+import java.lang.ref.WeakReference
 
 class VungleRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<VungleAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var rewardedVideoAd: RewardedAd? = null
+    private val latencyTracker = LatencyTracker(VungleConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(VungleConstants.NETWORK_NAME)
+    // Every load creates its own ad, the shown one is held apart until its show finishes and the
+    // one which wasn't shown is released once the ad of a newer load replaces it
+    private val adSlot = AdSlot<RewardedAd>(VungleConstants.NETWORK_NAME) { it.adListener = null }
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val placementId = adData.getString(VungleConstants.PLACEMENT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(VungleConstants.Logs.PLACEMENT_ID.format(placementId ?: ""))
+        IronLog.ADAPTER_API.verbose { VungleConstants.Logs.PLACEMENT_ID.format(placementId ?: "") }
 
         if (placementId.isNullOrEmpty()) {
             val errorMessage = VungleConstants.Logs.MISSING_PARAM.format(VungleConstants.PLACEMENT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -40,40 +49,52 @@ class VungleRewardedAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        rewardedVideoAd = RewardedAd(context.applicationContext, placementId, AdConfig()).apply {
-            adListener = VungleRewardedListener(listener)
+        val generation = adSlot.begin()
+        val rewardedVideoAd = RewardedAd(context.applicationContext, placementId, AdConfig()).apply {
+            adListener = VungleRewardedListener(trackedListener, this, WeakReference(this@VungleRewardedAdapter), generation)
             adapterAdFormat = VungleConstants.ADAPTER_FORMAT_REWARDED
         }
-        rewardedVideoAd?.load(adData.serverData)
+        rewardedVideoAd.load(adData.serverData)
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
-        if (!isAdAvailable(adData)) {
+        val ad = if (isAdAvailable(adData)) adSlot.startShow() else null
+        if (ad == null) {
             IronLog.INTERNAL.error(VungleConstants.Logs.AD_NOT_AVAILABLE)
-            listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, VungleConstants.Logs.AD_NOT_AVAILABLE)
+            trackedListener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_AD_EXPIRED, VungleConstants.Logs.AD_NOT_AVAILABLE)
             return
         }
 
         getDynamicUserId()?.let { userId ->
             if (userId.isNotEmpty()) {
-                rewardedVideoAd?.setUserId(userId)
+                ad.setUserId(userId)
             }
         }
 
-        mainHandler.post {
-            rewardedVideoAd?.play()
+        MainThreadScheduler.post {
+            ad.play()
         }
     }
 
     override fun isAdAvailable(adData: AdData): Boolean {
-        return rewardedVideoAd?.canPlayAd() == true
+        return adSlot.ad?.canPlayAd() == true
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        rewardedVideoAd = null
+        // Captured on entry, a load which starts after the destroy keeps its ad
+        val generation = adSlot.generation
+        adSlot.clear(generation)?.let {
+            it.adListener = null
+            leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, it)
+        }
+        adSlot.finishShow()?.let {
+            it.adListener = null
+            leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, it)
+        }
     }
 
     override fun collectBiddingData(
@@ -81,16 +102,38 @@ class VungleRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(VungleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
-            biddingDataCallback.onFailure(VungleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
+            trackedCallback.onFailure(VungleConstants.Logs.NETWORK_ADAPTER_IS_NULL)
             return
         }
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback)
+        networkAdapter.collectBiddingData(context, trackedCallback)
+    }
+
+    // endregion
+
+    // region Helper Methods
+
+    /**
+     * @return false if the ad was destroyed or loaded again while it was loading, the ad is
+     * released then
+     */
+    internal fun setRewardedAd(generation: Long, rewardedVideoAd: RewardedAd): Boolean {
+        if (!adSlot.set(generation, rewardedVideoAd)) {
+            rewardedVideoAd.adListener = null
+            return false
+        }
+        return true
+    }
+
+    // Releases the shown ad once it's closed or failed to play, an ad loaded meanwhile is kept
+    internal fun onShowFinished() {
+        adSlot.finishShow()
     }
 
     // endregion
@@ -1,30 +1,45 @@
 package com.ironsource.adapters.vungle.rewarded
 
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.vungle.VungleAdapter
+import com.ironsource.adapters.vungle.VungleCallbackDispatcher
 import com.ironsource.adapters.vungle.VungleConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
 import com.ironsource.mediationsdk.logger.IronLog
 import com.vungle.ads.BaseAd
+import com.vungle.ads.RewardedAd
 import com.vungle.ads.RewardedAdListener
 import com.vungle.ads.VungleError
+import java.lang.ref.WeakReference
 
 class VungleRewardedListener(
-    private val listener: RewardedVideoAdListener
+    private val listener: RewardedVideoAdListener,
+    private val rewardedVideoAd: RewardedAd,
+    private val adapter: WeakReference<VungleRewardedAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : RewardedAdListener {
 
+    private val dispatcher = VungleCallbackDispatcher()
+
     /**
      * Called when the advertisement assets have been downloaded and are ready to play.
      * @param baseAd - identifier for which the advertisement assets have been downloaded.
      */
     override fun onAdLoaded(baseAd: BaseAd) {
         val creativeId = baseAd.creativeId
-        IronLog.ADAPTER_CALLBACK.verbose(VungleConstants.Logs.CREATIVE_ID.format(creativeId ?: ""))
+        IronLog.ADAPTER_CALLBACK.verbose { VungleConstants.Logs.CREATIVE_ID.format(creativeId ?: "") }
 
-        if (creativeId.isNullOrEmpty()) {
-            listener.onAdLoadSuccess()
-        } else {
-            val extraData: Map<String, Any> = mapOf(VungleConstants.CREATIVE_ID_KEY to creativeId)
-            listener.onAdLoadSuccess(extraData)
+        if (adapter.get()?.setRewardedAd(generation, rewardedVideoAd) == false) {
+            return
+        }
+        dispatcher.dispatch("onAdLoadSuccess") {
+            if (creativeId.isNullOrEmpty()) {
+                listener.onAdLoadSuccess()
+            } else {
+                val extraData: Map<String, Any> = mapOf(VungleConstants.CREATIVE_ID_KEY to creativeId)
+                listener.onAdLoadSuccess(extraData)
+            }
         }
     }
 
@@ -35,7 +50,10 @@ class VungleRewardedListener(
      */
     override fun onAdFailedToLoad(baseAd: BaseAd, adError: VungleError) {
         IronLog.ADAPTER_CALLBACK.error(VungleConstants.Logs.FAILED_TO_LOAD.format(adError.code, adError.errorMessage))
-        listener.onAdLoadFailed(VungleAdapter.getLoadErrorType(adError), adError.code, adError.errorMessage)
+        rewardedVideoAd.adListener = null
+        dispatcher.dispatch("onAdLoadFailed") {
+            listener.onAdLoadFailed(VungleAdapter.getLoadErrorType(adError), adError.code, adError.errorMessage)
+        }
     }
 
     /**
@@ -52,7 +70,7 @@ class VungleRewardedListener(
      */
     override fun onAdImpression(baseAd: BaseAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        listener.onAdOpened()
+        dispatcher.dispatch("onAdOpened") { listener.onAdOpened() }
     }
 
     /**
@@ -62,7 +80,8 @@ class VungleRewardedListener(
      */
     override fun onAdFailedToPlay(baseAd: BaseAd, adError: VungleError) {
         IronLog.ADAPTER_CALLBACK.error(VungleConstants.Logs.FAILED_TO_PLAY.format(adError.code, adError.errorMessage))
-        listener.onAdShowFailed(adError.code, adError.errorMessage)
+        adapter.get()?.onShowFinished()
+        dispatcher.dispatch("onAdShowFailed") { listener.onAdShowFailed(adError.code, adError.errorMessage) }
     }
 
     /**
@@ -71,7 +90,7 @@ class VungleRewardedListener(
      */
     override fun onAdClicked(baseAd: BaseAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        listener.onAdClicked()
+        dispatcher.dispatch("onAdClicked") { listener.onAdClicked() }
     }
 
     /**
@@ -88,7 +107,7 @@ class VungleRewardedListener(
      */
     override fun onAdRewarded(baseAd: BaseAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        listener.onAdRewarded()
+        dispatcher.dispatch("onAdRewarded") { listener.onAdRewarded() }
     }
 
     /**
@@ -97,6 +116,7 @@ class VungleRewardedListener(
      */
     override fun onAdEnd(baseAd: BaseAd) {
         IronLog.ADAPTER_CALLBACK.verbose()
-        listener.onAdClosed()
+        dispatcher.dispatch("onAdClosed") { listener.onAdClosed() }
+        adapter.get()?.onShowFinished()
     }
 }
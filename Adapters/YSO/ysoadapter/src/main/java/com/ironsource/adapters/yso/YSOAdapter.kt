@@ -2,6 +2,10 @@ package com.ironsource.adapters.yso
 
 import android.app.Application
 import android.content.Context
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.verbose
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrors
@@ -10,8 +14,6 @@ import com.ironsource.mediationsdk.logger.IronLog
 import com.unity3d.mediation.LevelPlay
 import com.unity3d.mediation.adapters.levelplay.LevelPlayBaseAdapter
 import com.ysocorp.ysonetwork.YsoNetwork
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class YSOAdapter : LevelPlayBaseAdapter() {
 
@@ -19,18 +21,10 @@ class YSOAdapter : LevelPlayBaseAdapter() {
 
         private const val GitHash: String = BuildConfig.GitHash
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS,
-            INIT_STATE_FAILED
-        }
-
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(YSOConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
 
         @JvmStatic
         fun networkAdapterVersion(): String = YSOConstants.ADAPTER_VERSION
@@ -49,6 +43,9 @@ class YSOAdapter : LevelPlayBaseAdapter() {
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(YSOConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         val placementKey = adData.getString(YSOConstants.PLACEMENT_KEY)
         if (placementKey.isNullOrEmpty()) {
             val errorMessage = YSOConstants.Logs.MISSING_PARAM.format(YSOConstants.PLACEMENT_KEY)
@@ -63,8 +60,8 @@ class YSOAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        // Init previously failed - report failure immediately
-        if (initState == InitState.INIT_STATE_FAILED) {
+        // Init previously failed and can't be retried yet - report failure immediately
+        if (initState == InitState.INIT_STATE_FAILED && !initCoordinator.canRetry()) {
             IronLog.INTERNAL.error(YSOConstants.Logs.SDK_INIT_FAILED)
             networkInitializationListener?.onInitFailed(
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
@@ -73,50 +70,34 @@ class YSOAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        // Add to the init listeners only if init is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-            IronLog.ADAPTER_API.verbose(YSOConstants.Logs.PLACEMENT_KEY_LOG.format(placementKey))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { YSOConstants.Logs.PLACEMENT_KEY_LOG.format(placementKey) }
 
             try {
                 YsoNetwork.initialize(context.applicationContext as Application)
                 if (YsoNetwork.isInitialize()) {
-                    initializationSuccess()
+                    initializationSuccess(attempt)
                 } else {
-                    initializationFailure(YSOConstants.Logs.SDK_INIT_FAILED)
+                    initializationFailure(attempt, YSOConstants.Logs.SDK_INIT_FAILED)
                 }
             } catch (e: Exception) {
-                initializationFailure(YSOConstants.Logs.INIT_EXCEPTION.format(e.message ?: ""))
+                initializationFailure(attempt, YSOConstants.Logs.INIT_EXCEPTION.format(e.message ?: ""))
             }
         }
     }
 
-    private fun initializationSuccess() {
+    private fun initializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        initState = InitState.INIT_STATE_SUCCESS
-
-        for (listener: NetworkInitializationListener in initListeners) {
-            listener.onInitSuccess()
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    private fun initializationFailure(errorMessage: String) {
+    private fun initializationFailure(attempt: Int, errorMessage: String) {
         IronLog.ADAPTER_CALLBACK.error(errorMessage)
 
-        initState = InitState.INIT_STATE_FAILED
-
-        for (listener: NetworkInitializationListener in initListeners) {
-            listener.onInitFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
-        }
-
-        initListeners.clear()
+        initCoordinator.onInitFailed(attempt, AdapterErrors.ADAPTER_ERROR_INTERNAL, errorMessage)
     }
 
     // endregion
@@ -138,7 +119,7 @@ class YSOAdapter : LevelPlayBaseAdapter() {
         }
 
         val sdkVersion = getNetworkSDKVersion()
-        IronLog.ADAPTER_API.verbose(YSOConstants.Logs.TOKEN.format(token, sdkVersion))
+        IronLog.ADAPTER_API.verbose { YSOConstants.Logs.TOKEN.format(token, sdkVersion) }
         val biddingData: MutableMap<String?, Any?> = HashMap()
         biddingData[YSOConstants.SDK_VERSION_KEY] = sdkVersion
         biddingData[YSOConstants.TOKEN_KEY] = token
@@ -4,6 +4,7 @@ object YSOConstants {
 
     // Adapter version
     const val ADAPTER_VERSION = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "YSO"
 
     // YSO configuration keys
     const val PLACEMENT_KEY = "placementKey"
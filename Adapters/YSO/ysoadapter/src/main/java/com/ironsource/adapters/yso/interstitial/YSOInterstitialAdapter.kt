@@ -2,6 +2,10 @@ package com.ironsource.adapters.yso.interstitial
 
 import android.app.Activity
 import android.content.Context
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.yso.YSOAdapter
 import com.ironsource.adapters.yso.YSOConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
@@ -18,20 +22,23 @@ import java.lang.ref.WeakReference
 class YSOInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<YSOAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(YSOConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(YSOConstants.NETWORK_NAME)
     private var interstitialAdListener: YSOInterstitialListener? = null
     private var isAdAvailableFlag = false
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val placementKey = adData.getString(YSOConstants.PLACEMENT_KEY)
-        IronLog.ADAPTER_API.verbose(YSOConstants.Logs.PLACEMENT_KEY_LOG.format(placementKey ?: ""))
+        IronLog.ADAPTER_API.verbose { YSOConstants.Logs.PLACEMENT_KEY_LOG.format(placementKey ?: "") }
 
         val serverData = adData.serverData
         if (serverData.isNullOrEmpty()) {
             val errorMessage = YSOConstants.Logs.SERVER_DATA_EMPTY
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -41,16 +48,17 @@ class YSOInterstitialAdapter(networkSettings: NetworkSettings) :
 
         setInterstitialAdAvailability(false)
 
-        interstitialAdListener = YSOInterstitialListener(listener, WeakReference(this))
+        interstitialAdListener = YSOInterstitialListener(trackedListener, WeakReference(this))
         YsoNetwork.interstitialLoad(placementKey, serverData, interstitialAdListener)
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         val placementKey = adData.getString(YSOConstants.PLACEMENT_KEY)
-        IronLog.ADAPTER_API.verbose(YSOConstants.Logs.PLACEMENT_KEY_LOG.format(placementKey ?: ""))
+        IronLog.ADAPTER_API.verbose { YSOConstants.Logs.PLACEMENT_KEY_LOG.format(placementKey ?: "") }
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 YSOConstants.Logs.AD_NOT_AVAILABLE
             )
@@ -66,6 +74,7 @@ class YSOInterstitialAdapter(networkSettings: NetworkSettings) :
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
         isAdAvailableFlag = false
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.LISTENER, interstitialAdListener)
         interstitialAdListener = null
     }
 
@@ -74,14 +83,15 @@ class YSOInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(YSOConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(YSOConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(YSOConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
     }
 
     // endregion
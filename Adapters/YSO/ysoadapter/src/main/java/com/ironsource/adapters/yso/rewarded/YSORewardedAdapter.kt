@@ -2,6 +2,10 @@ package com.ironsource.adapters.yso.rewarded
 
 import android.app.Activity
 import android.content.Context
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.yso.YSOAdapter
 import com.ironsource.adapters.yso.YSOConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
@@ -18,20 +22,23 @@ import java.lang.ref.WeakReference
 class YSORewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<YSOAdapter>(networkSettings) {
 
+    private val latencyTracker = LatencyTracker(YSOConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(YSOConstants.NETWORK_NAME)
     private var rewardedAdListener: YSORewardedListener? = null
     private var isAdAvailableFlag = false
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val placementKey = adData.getString(YSOConstants.PLACEMENT_KEY)
-        IronLog.ADAPTER_API.verbose(YSOConstants.Logs.PLACEMENT_KEY_LOG.format(placementKey ?: ""))
+        IronLog.ADAPTER_API.verbose { YSOConstants.Logs.PLACEMENT_KEY_LOG.format(placementKey ?: "") }
 
         val serverData = adData.serverData
         if (serverData.isNullOrEmpty()) {
             val errorMessage = YSOConstants.Logs.SERVER_DATA_EMPTY
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -41,16 +48,17 @@ class YSORewardedAdapter(networkSettings: NetworkSettings) :
 
         setRewardedAdAvailability(false)
 
-        rewardedAdListener = YSORewardedListener(listener, WeakReference(this))
+        rewardedAdListener = YSORewardedListener(trackedListener, WeakReference(this))
         YsoNetwork.rewardedLoad(placementKey, serverData, rewardedAdListener)
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         val placementKey = adData.getString(YSOConstants.PLACEMENT_KEY)
-        IronLog.ADAPTER_API.verbose(YSOConstants.Logs.PLACEMENT_KEY_LOG.format(placementKey ?: ""))
+        IronLog.ADAPTER_API.verbose { YSOConstants.Logs.PLACEMENT_KEY_LOG.format(placementKey ?: "") }
 
         if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 YSOConstants.Logs.AD_NOT_AVAILABLE
             )
@@ -66,6 +74,7 @@ class YSORewardedAdapter(networkSettings: NetworkSettings) :
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
         isAdAvailableFlag = false
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.LISTENER, rewardedAdListener)
         rewardedAdListener = null
     }
 
@@ -74,14 +83,15 @@ class YSORewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(YSOConstants.Logs.ADAPTER_UNAVAILABLE)
-            biddingDataCallback.onFailure(YSOConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(YSOConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
-        networkAdapter.collectBiddingData(biddingDataCallback)
+        networkAdapter.collectBiddingData(trackedCallback)
     }
 
     // endregion
@@ -2,6 +2,12 @@ package com.ironsource.adapters.yandex
 
 import android.content.Context
 import android.text.TextUtils
+import com.ironsource.adapters.common.AdapterLogs
+import com.ironsource.adapters.common.InitCoordinator
+import com.ironsource.adapters.common.InitCoordinator.InitState
+import com.ironsource.adapters.common.TokenRequests
+import com.ironsource.adapters.common.verbose
+import com.ironsource.mediationsdk.LoadWhileShowSupportState
 import com.ironsource.mediationsdk.adunit.adapter.listener.NetworkInitializationListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdapterErrorType
@@ -18,26 +24,20 @@ import com.yandex.mobile.ads.common.BidderTokenLoadListener
 import com.yandex.mobile.ads.common.BidderTokenLoader
 import com.yandex.mobile.ads.common.BidderTokenRequest
 import com.yandex.mobile.ads.common.YandexAds
-import java.util.concurrent.CopyOnWriteArrayList
-import java.util.concurrent.atomic.AtomicBoolean
 
 class YandexAdapter : LevelPlayBaseAdapter() {
 
     companion object {
 
-        // Init state possible values
-        enum class InitState {
-            INIT_STATE_NONE,
-            INIT_STATE_IN_PROGRESS,
-            INIT_STATE_SUCCESS
-        }
-
         private const val GitHash: String = BuildConfig.GitHash
 
         // Handle init callback for all adapter instances
-        private val wasInitCalled: AtomicBoolean = AtomicBoolean(false)
-        private var initState: InitState = InitState.INIT_STATE_NONE
-        private val initCallbackListeners = CopyOnWriteArrayList<NetworkInitializationListener>()
+        private val initCoordinator = InitCoordinator.forNetworkInitializationListeners(YandexConstants.NETWORK_NAME)
+        private val initState: InitState
+            get() = initCoordinator.initState
+
+        // Share a token call between the adapter instances asking for the same ad format at once
+        private val tokenRequests = TokenRequests.forNetwork(YandexConstants.NETWORK_NAME)
 
         @JvmStatic
         fun getLoadError(error: AdRequestError): AdapterErrorType {
@@ -66,11 +66,18 @@ class YandexAdapter : LevelPlayBaseAdapter() {
 
     override fun isUsingActivityBeforeImpression(adFormat: LevelPlay.AdFormat): Boolean = false
 
+    // The network's capability to load a full-screen ad while the ad of the same instance is showing
+    override fun getLoadWhileShowSupportState(): LoadWhileShowSupportState =
+        LoadWhileShowSupportState.LOAD_WHILE_SHOW_BY_INSTANCE
+
     override fun init(
         adData: AdData,
         context: Context,
         networkInitializationListener: NetworkInitializationListener?
     ) {
+        // Build verbose log messages only when the adapter logs are enabled
+        AdapterLogs.setAdaptersDebugEnabled(YandexConstants.NETWORK_NAME, isAdaptersDebugEnabled())
+
         // Validate appId first before any other checks
         val appId = adData.getString(YandexConstants.APP_ID_KEY)
         if (appId.isNullOrEmpty()) {
@@ -94,14 +101,10 @@ class YandexAdapter : LevelPlayBaseAdapter() {
             return
         }
 
-        // Add to the init listeners only if init is not finished yet
-        if (initState == InitState.INIT_STATE_NONE || initState == InitState.INIT_STATE_IN_PROGRESS) {
-            networkInitializationListener?.let { initCallbackListeners.add(it) }
-        }
-
-        if (wasInitCalled.compareAndSet(false, true)) {
-            initState = InitState.INIT_STATE_IN_PROGRESS
-            IronLog.ADAPTER_API.verbose(YandexConstants.Logs.APP_ID_AND_AD_UNIT_ID.format(appId, adUnitId))
+        // Register the listener and start initialization if not called yet
+        val attempt = initCoordinator.register(networkInitializationListener, InitCoordinator.getInitTimeout(adData))
+        if (attempt != InitCoordinator.NO_ATTEMPT) {
+            IronLog.ADAPTER_API.verbose { YandexConstants.Logs.APP_ID_AND_AD_UNIT_ID.format(appId, adUnitId) }
 
             // Set log level
             YandexAds.enableLogging(isAdaptersDebugEnabled())
@@ -116,7 +119,7 @@ class YandexAdapter : LevelPlayBaseAdapter() {
             YandexAds.initialize(context.applicationContext) {
                 // Yandex's initialization callback currently doesn't give any indication to initialization failure.
                 // Once this callback is called we will treat the initialization as successful
-                initializationSuccess()
+                initializationSuccess(attempt)
             }
         }
     }
@@ -132,7 +135,7 @@ class YandexAdapter : LevelPlayBaseAdapter() {
 
         // This is a list of 1 value
         val value = values[0]
-        IronLog.ADAPTER_API.verbose(YandexConstants.Logs.META_DATA_SET.format(key ?: "", value ?: ""))
+        IronLog.ADAPTER_API.verbose { YandexConstants.Logs.META_DATA_SET.format(key ?: "", value ?: "") }
         val formattedValue: String = MetaDataUtils.formatValueForType(value, MetaData.MetaDataValueTypes.META_DATA_VALUE_BOOLEAN)
 
         when {
@@ -143,12 +146,12 @@ class YandexAdapter : LevelPlayBaseAdapter() {
     }
 
     override fun setConsent(consent: Boolean) {
-        IronLog.ADAPTER_API.verbose(YandexConstants.Logs.CONSENT.format(consent))
+        IronLog.ADAPTER_API.verbose { YandexConstants.Logs.CONSENT.format(consent) }
         YandexAds.setUserConsent(consent)
     }
 
     private fun setCOPPAValue(value: Boolean) {
-        IronLog.ADAPTER_API.verbose(YandexConstants.Logs.COPPA.format(value))
+        IronLog.ADAPTER_API.verbose { YandexConstants.Logs.COPPA.format(value) }
         YandexAds.setAgeRestricted(value)
     }
 
@@ -156,41 +159,37 @@ class YandexAdapter : LevelPlayBaseAdapter() {
 
     // region Helper Methods
 
-    private fun initializationSuccess() {
+    private fun initializationSuccess(attempt: Int) {
         IronLog.ADAPTER_CALLBACK.verbose()
 
-        initState = InitState.INIT_STATE_SUCCESS
-
         // Iterate over all the adapter instances and report init success
-        for (listener: NetworkInitializationListener in initCallbackListeners) {
-            listener.onInitSuccess()
-        }
-
-        initCallbackListeners.clear()
+        initCoordinator.onInitSuccess(attempt)
     }
 
-    internal fun collectBiddingData(context: Context, biddingDataCallback: BiddingDataCallback, bidderTokenRequest: BidderTokenRequest) {
+    internal fun collectBiddingData(context: Context, biddingDataCallback: BiddingDataCallback, bidderTokenRequest: BidderTokenRequest, tokenKey: String) {
         if (initState != InitState.INIT_STATE_SUCCESS) {
             IronLog.INTERNAL.verbose(YandexConstants.Logs.TOKEN_ERROR)
             biddingDataCallback.onFailure(YandexConstants.Logs.TOKEN_ERROR)
             return
         }
 
-        val bidderTokenLoader = BidderTokenLoader(context.applicationContext)
-        bidderTokenLoader.loadBidderToken(
-            bidderTokenRequest,
-            object : BidderTokenLoadListener {
-                override fun onBidderTokenLoaded(bidderToken: String) {
-                    val ret: MutableMap<String?, Any?> = HashMap()
-                    IronLog.ADAPTER_API.verbose(YandexConstants.Logs.TOKEN.format(bidderToken))
-                    ret[YandexConstants.TOKEN_KEY] = bidderToken
-                    biddingDataCallback.onSuccess(ret)
-                }
-
-                override fun onBidderTokenFailedToLoad(failureReason: String) {
-                    biddingDataCallback.onFailure(YandexConstants.Logs.TOKEN_FAILURE.format(failureReason))
-                }
-            })
+        tokenRequests.request(tokenKey, biddingDataCallback) { sharedCallback ->
+            val bidderTokenLoader = BidderTokenLoader(context.applicationContext)
+            bidderTokenLoader.loadBidderToken(
+                bidderTokenRequest,
+                object : BidderTokenLoadListener {
+                    override fun onBidderTokenLoaded(bidderToken: String) {
+                        val ret: MutableMap<String?, Any?> = HashMap()
+                        IronLog.ADAPTER_API.verbose { YandexConstants.Logs.TOKEN.format(bidderToken) }
+                        ret[YandexConstants.TOKEN_KEY] = bidderToken
+                        sharedCallback.onSuccess(ret)
+                    }
+
+                    override fun onBidderTokenFailedToLoad(failureReason: String) {
+                        sharedCallback.onFailure(YandexConstants.Logs.TOKEN_FAILURE.format(failureReason))
+                    }
+                })
+        }
     }
 
     internal fun getConfigParams(): Map<String, String> {
@@ -4,6 +4,7 @@ object YandexConstants {
 
     // Adapter version and mediation
     const val ADAPTER_VERSION: String = BuildConfig.VERSION_NAME
+    const val NETWORK_NAME = "Yandex"
     const val MEDIATION_NAME: String = "ironsource"
 
     // Network configuration keys
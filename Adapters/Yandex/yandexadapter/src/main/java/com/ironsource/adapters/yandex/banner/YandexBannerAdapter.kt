@@ -2,13 +2,16 @@ package com.ironsource.adapters.yandex.banner
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
 import android.view.Gravity
-import android.widget.FrameLayout
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.BannerLayouts
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.yandex.YandexAdapter
 import com.ironsource.adapters.yandex.YandexConstants
-import com.ironsource.mediationsdk.AdapterUtils
 import com.ironsource.mediationsdk.ISBannerSize
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
 import com.ironsource.mediationsdk.adunit.adapter.utility.AdData
@@ -28,8 +31,9 @@ import java.lang.ref.WeakReference
 class YandexBannerAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseBanner<YandexAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
-    private var bannerAdView: BannerAdView? = null
+    private val latencyTracker = LatencyTracker(YandexConstants.NETWORK_NAME, LatencyMetrics.AdFormat.BANNER)
+    private val leakTracker = LeakTracker.forNetwork(YandexConstants.NETWORK_NAME)
+    private val adSlot = AdSlot<BannerAdView>(YandexConstants.NETWORK_NAME) { destroyBannerAdView(it) }
 
     // region Adapter Methods
 
@@ -39,13 +43,14 @@ class YandexBannerAdapter(networkSettings: NetworkSettings) :
         bannerSize: ISBannerSize,
         listener: BannerAdListener
     ) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val adUnitId = adData.getString(YandexConstants.AD_UNIT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(YandexConstants.Logs.AD_UNIT_ID.format(adUnitId ?: ""))
+        IronLog.ADAPTER_API.verbose { YandexConstants.Logs.AD_UNIT_ID.format(adUnitId ?: "") }
 
         if (adUnitId.isNullOrEmpty()) {
             val errorMessage = YandexConstants.Logs.MISSING_PARAM.format(YandexConstants.AD_UNIT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -56,7 +61,7 @@ class YandexBannerAdapter(networkSettings: NetworkSettings) :
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(YandexConstants.Logs.ADAPTER_UNAVAILABLE)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 YandexConstants.Logs.ADAPTER_UNAVAILABLE
@@ -68,7 +73,7 @@ class YandexBannerAdapter(networkSettings: NetworkSettings) :
         if (serverData.isNullOrEmpty()) {
             val errorMessage = YandexConstants.Logs.MISSING_PARAM.format(YandexConstants.SERVER_DATA)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -80,7 +85,7 @@ class YandexBannerAdapter(networkSettings: NetworkSettings) :
         val yandexBannerSize = getBannerSize(appContext, bannerSize)
         if (yandexBannerSize == null) {
             IronLog.INTERNAL.error(YandexConstants.Logs.UNSUPPORTED_BANNER_SIZE)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 YandexConstants.Logs.UNSUPPORTED_BANNER_SIZE
@@ -88,32 +93,38 @@ class YandexBannerAdapter(networkSettings: NetworkSettings) :
             return
         }
 
-        val layoutParams = FrameLayout.LayoutParams(
-            AdapterUtils.dpToPixels(appContext, yandexBannerSize.width),
-            AdapterUtils.dpToPixels(appContext, yandexBannerSize.height),
-            Gravity.CENTER
-        )
+        val layoutParams = BannerLayouts.layoutParams(appContext, yandexBannerSize.width, yandexBannerSize.height, Gravity.CENTER)
 
         val adRequest: AdRequest = AdRequest.Builder(adUnitId)
             .setBiddingData(serverData)
             .setParameters(networkAdapter.getConfigParams())
             .build()
 
-        mainHandler.post {
-            bannerAdView = BannerAdView(appContext).apply {
+        val generation = adSlot.begin()
+        MainThreadScheduler.post {
+            val bannerAdView = BannerAdView(appContext).apply {
                 setAdSize(yandexBannerSize)
-                setBannerAdEventListener(YandexBannerListener(listener, this, layoutParams))
+                setBannerAdEventListener(YandexBannerListener(trackedListener, this, layoutParams, WeakReference(this@YandexBannerAdapter), generation))
             }
-            bannerAdView?.loadAd(adRequest)
+
+            // The banner was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                bannerAdView.destroy()
+                return@post
+            }
+            bannerAdView.loadAd(adRequest)
         }
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        mainHandler.post {
-            bannerAdView?.setBannerAdEventListener(null)
-            bannerAdView?.destroy()
-            bannerAdView = null
+        val generation = adSlot.generation
+        MainThreadScheduler.post {
+            adSlot.clear(generation)?.let {
+                it.setBannerAdEventListener(null)
+                it.destroy()
+                leakTracker.watch(LatencyMetrics.AdFormat.BANNER, LeakTracker.ObjectType.VIEW, it)
+            }
         }
     }
 
@@ -122,44 +133,66 @@ class YandexBannerAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
-            biddingDataCallback.onFailure(YandexConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(YandexConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
         val bannerSize = adData?.adUnitData?.get(YandexConstants.BANNER_SIZE_KEY)
         if (bannerSize !is ISBannerSize) {
             IronLog.INTERNAL.verbose(YandexConstants.Logs.BANNER_SIZE_IS_NULL)
-            biddingDataCallback.onFailure(YandexConstants.Logs.BANNER_SIZE_IS_NULL)
+            trackedCallback.onFailure(YandexConstants.Logs.BANNER_SIZE_IS_NULL)
             return
         }
 
         val yandexBannerSize = getBannerSize(context.applicationContext, bannerSize)
         if (yandexBannerSize == null) {
             IronLog.INTERNAL.verbose(YandexConstants.Logs.UNSUPPORTED_BANNER_SIZE)
-            biddingDataCallback.onFailure(YandexConstants.Logs.UNSUPPORTED_BANNER_SIZE)
+            trackedCallback.onFailure(YandexConstants.Logs.UNSUPPORTED_BANNER_SIZE)
             return
         }
 
         val bidderTokenRequest = BidderTokenRequest.banner(yandexBannerSize, null, networkAdapter.getConfigParams())
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback, bidderTokenRequest)
+        val tokenKey = "banner_${bannerSize.description}_${bannerSize.width}x${bannerSize.height}"
+        networkAdapter.collectBiddingData(context, trackedCallback, bidderTokenRequest, tokenKey)
     }
 
     // endregion
 
     // region Helper Methods
 
+    /**
+     * @return false if the banner was destroyed or loaded again while the ad was loading, the ad
+     * is destroyed then
+     */
+    internal fun setBannerAdView(generation: Long, adView: BannerAdView): Boolean {
+        if (!adSlot.set(generation, adView)) {
+            destroyBannerAdView(adView)
+            return false
+        }
+        return true
+    }
+
+    // Destroys a banner which failed to load or was replaced by the banner of a newer load
+    internal fun destroyBannerAdView(adView: BannerAdView) {
+        MainThreadScheduler.post {
+            adView.setBannerAdEventListener(null)
+            adView.destroy()
+        }
+    }
+
     private fun getBannerSize(context: Context, bannerSize: ISBannerSize): BannerAdSize? {
         return when (bannerSize.description) {
             YandexConstants.BANNER_SIZE_BANNER -> BannerAdSize.fixed(context, YandexConstants.BANNER_WIDTH, YandexConstants.BANNER_HEIGHT)
             YandexConstants.BANNER_SIZE_LARGE -> BannerAdSize.fixed(context, YandexConstants.LARGE_BANNER_WIDTH, YandexConstants.LARGE_BANNER_HEIGHT)
             YandexConstants.BANNER_SIZE_RECTANGLE -> BannerAdSize.fixed(context, YandexConstants.RECTANGLE_WIDTH, YandexConstants.RECTANGLE_HEIGHT)
             YandexConstants.BANNER_SIZE_SMART ->
-                (if (AdapterUtils.isLargeScreen(context)) {
+                (if (BannerLayouts.isLargeScreen(context)) {
                     BannerAdSize.fixed(context, YandexConstants.LEADERBOARD_WIDTH, YandexConstants.LEADERBOARD_HEIGHT)
                 } else {
                     BannerAdSize.fixed(context, YandexConstants.BANNER_WIDTH, YandexConstants.BANNER_HEIGHT)
@@ -1,6 +1,7 @@
 package com.ironsource.adapters.yandex.banner
 
 import android.widget.FrameLayout
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.yandex.YandexAdapter
 import com.ironsource.adapters.yandex.YandexConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.BannerAdListener
@@ -9,11 +10,15 @@ import com.yandex.mobile.ads.banner.BannerAdEventListener
 import com.yandex.mobile.ads.banner.BannerAdView
 import com.yandex.mobile.ads.common.AdRequestError
 import com.yandex.mobile.ads.common.ImpressionData
+import java.lang.ref.WeakReference
 
 class YandexBannerListener(
     private val listener: BannerAdListener,
     private val adView: BannerAdView,
-    private val layoutParams: FrameLayout.LayoutParams
+    private val layoutParams: FrameLayout.LayoutParams,
+    private val adapter: WeakReference<YandexBannerAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : BannerAdEventListener {
 
     /**
@@ -26,8 +31,11 @@ class YandexBannerListener(
             ?.map { it.creativeId }
             ?.let { YandexAdapter.buildCreativeIdString(it) }
             ?: ""
-        IronLog.ADAPTER_CALLBACK.verbose(YandexConstants.Logs.CREATIVE_ID.format(creativeId))
+        IronLog.ADAPTER_CALLBACK.verbose { YandexConstants.Logs.CREATIVE_ID.format(creativeId) }
 
+        if (adapter.get()?.setBannerAdView(generation, adView) == false) {
+            return
+        }
         if (creativeId.isEmpty()) {
             listener.onAdLoadSuccess(adView, layoutParams)
         } else {
@@ -42,6 +50,7 @@ class YandexBannerListener(
      */
     override fun onAdFailedToLoad(error: AdRequestError) {
         IronLog.ADAPTER_CALLBACK.error(YandexConstants.Logs.FAILED_TO_LOAD.format(error.code, error.description))
+        adapter.get()?.destroyBannerAdView(adView)
         listener.onAdLoadFailed(YandexAdapter.getLoadError(error), error.code, error.description)
     }
 
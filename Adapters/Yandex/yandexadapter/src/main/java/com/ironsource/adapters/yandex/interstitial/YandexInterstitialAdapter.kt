@@ -2,8 +2,12 @@ package com.ironsource.adapters.yandex.interstitial
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.yandex.YandexAdapter
 import com.ironsource.adapters.yandex.YandexConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
@@ -24,21 +28,23 @@ import java.lang.ref.WeakReference
 class YandexInterstitialAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseInterstitial<YandexAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
+    private val latencyTracker = LatencyTracker(YandexConstants.NETWORK_NAME, LatencyMetrics.AdFormat.INTERSTITIAL)
+    private val leakTracker = LeakTracker.forNetwork(YandexConstants.NETWORK_NAME)
     private var interstitialAdListener: YandexInterstitialListener? = null
-    private var interstitialAd: InterstitialAd? = null
+    private val adSlot = AdSlot<InterstitialAd>(YandexConstants.NETWORK_NAME) { it.setAdEventListener(null) }
     private var isAdAvailableFlag = false
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val adUnitId = adData.getString(YandexConstants.AD_UNIT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(YandexConstants.Logs.AD_UNIT_ID.format(adUnitId ?: ""))
+        IronLog.ADAPTER_API.verbose { YandexConstants.Logs.AD_UNIT_ID.format(adUnitId ?: "") }
 
         if (adUnitId.isNullOrEmpty()) {
             val errorMessage = YandexConstants.Logs.MISSING_PARAM.format(YandexConstants.AD_UNIT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -49,7 +55,7 @@ class YandexInterstitialAdapter(networkSettings: NetworkSettings) :
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(YandexConstants.Logs.ADAPTER_UNAVAILABLE)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 YandexConstants.Logs.ADAPTER_UNAVAILABLE
@@ -61,7 +67,7 @@ class YandexInterstitialAdapter(networkSettings: NetworkSettings) :
         if (serverData.isNullOrEmpty()) {
             val errorMessage = YandexConstants.Logs.MISSING_PARAM.format(YandexConstants.SERVER_DATA)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -70,47 +76,67 @@ class YandexInterstitialAdapter(networkSettings: NetworkSettings) :
         }
 
         setInterstitialAdAvailability(false)
-
-        interstitialAdListener = YandexInterstitialListener(listener, WeakReference(this))
+        val generation = adSlot.begin()
+        val loadListener = YandexInterstitialListener(trackedListener, WeakReference(this), generation)
+        interstitialAdListener = loadListener
 
         val adRequest: AdRequest = AdRequest.Builder(adUnitId)
             .setBiddingData(serverData)
             .setParameters(networkAdapter.getConfigParams())
             .build()
 
-        mainHandler.post {
+        MainThreadScheduler.post {
+            // The ad was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                return@post
+            }
             val interstitialLoader = InterstitialAdLoader(context.applicationContext)
-            interstitialLoader.loadAd(adRequest, interstitialAdListener!!)
+            interstitialLoader.loadAd(adRequest, loadListener)
         }
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: InterstitialAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
-        if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+        val ad = if (isAdAvailable(adData)) adSlot.startShow() else null
+        if (ad == null) {
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 YandexConstants.Logs.AD_NOT_AVAILABLE
             )
-        } else {
-            mainHandler.post {
-                interstitialAd?.apply {
-                    setAdEventListener(interstitialAdListener)
-                    show(activity)
-                }
-            }
+            return
+        }
+        setInterstitialAdAvailability(false)
+
+        // The shown ad reports to its own listener, a load while it's shown uses a new one
+        val showListener = YandexInterstitialListener(trackedListener, WeakReference(this), adSlot.generation)
+        MainThreadScheduler.post {
+            ad.setAdEventListener(showListener)
+            ad.show(activity)
         }
     }
 
     override fun isAdAvailable(adData: AdData): Boolean {
-        return interstitialAd != null && isAdAvailableFlag
+        return adSlot.ad != null && isAdAvailableFlag
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        interstitialAd?.setAdEventListener(null)
-        interstitialAd = null
+        // Captured on entry, a load which starts after the destroy keeps its ad
+        val generation = adSlot.generation
+        // A load still running is cancelled, its ad is dropped once it arrives
+        adSlot.clear(generation)?.let {
+            it.setAdEventListener(null)
+            leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, it)
+        }
+        adSlot.finishShow()?.let {
+            it.setAdEventListener(null)
+            leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.AD, it)
+        }
+        leakTracker.watch(LatencyMetrics.AdFormat.INTERSTITIAL, LeakTracker.ObjectType.LISTENER, interstitialAdListener)
         interstitialAdListener = null
+        isAdAvailableFlag = false
     }
 
     override fun collectBiddingData(
@@ -118,17 +144,18 @@ class YandexInterstitialAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
-            biddingDataCallback.onFailure(YandexConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(YandexConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
         val bidderTokenRequest = BidderTokenRequest.interstitial(null, networkAdapter.getConfigParams())
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback, bidderTokenRequest)
+        networkAdapter.collectBiddingData(context, trackedCallback, bidderTokenRequest, "interstitial")
     }
 
     // endregion
@@ -139,8 +166,19 @@ class YandexInterstitialAdapter(networkSettings: NetworkSettings) :
         isAdAvailableFlag = isAvailable
     }
 
-    internal fun setInterstitialAd(ad: InterstitialAd) {
-        interstitialAd = ad
+    /**
+     * @return false if the ad was destroyed or loaded again while the ad was loading, the ad is
+     * dropped then
+     */
+    internal fun setInterstitialAd(generation: Long, ad: InterstitialAd): Boolean =
+        adSlot.set(generation, ad)
+
+    internal fun isCurrentLoad(generation: Long): Boolean =
+        adSlot.isCurrent(generation)
+
+    // Releases the shown ad once it's closed or failed to show, an ad loaded meanwhile is kept
+    internal fun onShowFinished() {
+        adSlot.finishShow()?.setAdEventListener(null)
     }
 
     // endregion
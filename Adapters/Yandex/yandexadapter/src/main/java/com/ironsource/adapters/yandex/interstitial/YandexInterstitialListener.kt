@@ -1,5 +1,6 @@
 package com.ironsource.adapters.yandex.interstitial
 
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.yandex.YandexAdapter
 import com.ironsource.adapters.yandex.YandexConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.InterstitialAdListener
@@ -15,7 +16,9 @@ import java.lang.ref.WeakReference
 
 class YandexInterstitialListener(
     private val listener: InterstitialAdListener,
-    private val adapter: WeakReference<YandexInterstitialAdapter>
+    private val adapter: WeakReference<YandexInterstitialAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : InterstitialAdLoadListener, InterstitialAdEventListener {
 
     /**
@@ -23,7 +26,9 @@ class YandexInterstitialListener(
      * @param interstitialAd - Ad instance
      */
     override fun onAdLoaded(interstitialAd: InterstitialAd) {
-        adapter.get()?.setInterstitialAd(interstitialAd)
+        if (adapter.get()?.setInterstitialAd(generation, interstitialAd) == false) {
+            return
+        }
         adapter.get()?.setInterstitialAdAvailability(true)
 
         // Extract creative IDs and pass as extra data if available
@@ -31,7 +36,7 @@ class YandexInterstitialListener(
             ?.map { it.creativeId }
             ?.let { YandexAdapter.buildCreativeIdString(it) }
             ?: ""
-        IronLog.ADAPTER_CALLBACK.verbose(YandexConstants.Logs.CREATIVE_ID.format(creativeId))
+        IronLog.ADAPTER_CALLBACK.verbose { YandexConstants.Logs.CREATIVE_ID.format(creativeId) }
 
         if (creativeId.isEmpty()) {
             listener.onAdLoadSuccess()
@@ -47,6 +52,9 @@ class YandexInterstitialListener(
      */
     override fun onAdFailedToLoad(error: AdRequestError) {
         IronLog.ADAPTER_CALLBACK.error(YandexConstants.Logs.FAILED_TO_LOAD.format(error.code, error.description))
+        if (adapter.get()?.isCurrentLoad(generation) == false) {
+            return
+        }
         adapter.get()?.setInterstitialAdAvailability(false)
         listener.onAdLoadFailed(YandexAdapter.getLoadError(error), error.code, error.description)
     }
@@ -73,6 +81,7 @@ class YandexInterstitialListener(
      */
     override fun onAdFailedToShow(adError: AdError) {
         IronLog.ADAPTER_CALLBACK.error(YandexConstants.Logs.FAILED_TO_SHOW.format(adError.description))
+        adapter.get()?.onShowFinished()
         listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, adError.description)
     }
 
@@ -90,5 +99,6 @@ class YandexInterstitialListener(
     override fun onAdDismissed() {
         IronLog.ADAPTER_CALLBACK.verbose()
         listener.onAdClosed()
+        adapter.get()?.onShowFinished()
     }
 }
@@ -2,8 +2,12 @@ package com.ironsource.adapters.yandex.rewarded
 
 import android.app.Activity
 import android.content.Context
-import android.os.Handler
-import android.os.Looper
+import com.ironsource.adapters.common.AdSlot
+import com.ironsource.adapters.common.LatencyMetrics
+import com.ironsource.adapters.common.LatencyTracker
+import com.ironsource.adapters.common.LeakTracker
+import com.ironsource.adapters.common.MainThreadScheduler
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.yandex.YandexAdapter
 import com.ironsource.adapters.yandex.YandexConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
@@ -24,21 +28,23 @@ import java.lang.ref.WeakReference
 class YandexRewardedAdapter(networkSettings: NetworkSettings) :
     LevelPlayBaseRewardedVideo<YandexAdapter>(networkSettings) {
 
-    private val mainHandler = Handler(Looper.getMainLooper())
+    private val latencyTracker = LatencyTracker(YandexConstants.NETWORK_NAME, LatencyMetrics.AdFormat.REWARDED)
+    private val leakTracker = LeakTracker.forNetwork(YandexConstants.NETWORK_NAME)
     private var rewardedAdListener: YandexRewardedListener? = null
-    private var rewardedAd: RewardedAd? = null
+    private val adSlot = AdSlot<RewardedAd>(YandexConstants.NETWORK_NAME) { it.setAdEventListener(null) }
     private var isAdAvailableFlag = false
 
     // region Adapter Methods
 
     override fun loadAd(adData: AdData, context: Context, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackLoad(listener)
         val adUnitId = adData.getString(YandexConstants.AD_UNIT_ID_KEY)
-        IronLog.ADAPTER_API.verbose(YandexConstants.Logs.AD_UNIT_ID.format(adUnitId ?: ""))
+        IronLog.ADAPTER_API.verbose { YandexConstants.Logs.AD_UNIT_ID.format(adUnitId ?: "") }
 
         if (adUnitId.isNullOrEmpty()) {
             val errorMessage = YandexConstants.Logs.MISSING_PARAM.format(YandexConstants.AD_UNIT_ID_KEY)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -49,7 +55,7 @@ class YandexRewardedAdapter(networkSettings: NetworkSettings) :
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
             IronLog.INTERNAL.error(YandexConstants.Logs.ADAPTER_UNAVAILABLE)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_INTERNAL,
                 YandexConstants.Logs.ADAPTER_UNAVAILABLE
@@ -61,7 +67,7 @@ class YandexRewardedAdapter(networkSettings: NetworkSettings) :
         if (serverData.isNullOrEmpty()) {
             val errorMessage = YandexConstants.Logs.MISSING_PARAM.format(YandexConstants.SERVER_DATA)
             IronLog.INTERNAL.error(errorMessage)
-            listener.onAdLoadFailed(
+            trackedListener.onAdLoadFailed(
                 AdapterErrorType.ADAPTER_ERROR_TYPE_INTERNAL,
                 AdapterErrors.ADAPTER_ERROR_MISSING_PARAMS,
                 errorMessage
@@ -70,47 +76,67 @@ class YandexRewardedAdapter(networkSettings: NetworkSettings) :
         }
 
         setRewardedAdAvailability(false)
-
-        rewardedAdListener = YandexRewardedListener(listener, WeakReference(this))
+        val generation = adSlot.begin()
+        val loadListener = YandexRewardedListener(trackedListener, WeakReference(this), generation)
+        rewardedAdListener = loadListener
 
         val adRequest: AdRequest = AdRequest.Builder(adUnitId)
             .setBiddingData(serverData)
             .setParameters(networkAdapter.getConfigParams())
             .build()
 
-        mainHandler.post {
+        MainThreadScheduler.post {
+            // The ad was destroyed or loaded again before its load started
+            if (!adSlot.isCurrent(generation)) {
+                return@post
+            }
             val rewardedLoader = RewardedAdLoader(context.applicationContext)
-            rewardedLoader.loadAd(adRequest, rewardedAdListener!!)
+            rewardedLoader.loadAd(adRequest, loadListener)
         }
     }
 
     override fun showAd(adData: AdData, activity: Activity, listener: RewardedVideoAdListener) {
+        val trackedListener = latencyTracker.trackShow(listener)
         IronLog.ADAPTER_API.verbose()
 
-        if (!isAdAvailable(adData)) {
-            listener.onAdShowFailed(
+        val ad = if (isAdAvailable(adData)) adSlot.startShow() else null
+        if (ad == null) {
+            trackedListener.onAdShowFailed(
                 AdapterErrors.ADAPTER_ERROR_AD_EXPIRED,
                 YandexConstants.Logs.AD_NOT_AVAILABLE
             )
-        } else {
-            mainHandler.post {
-                rewardedAd?.apply {
-                    setAdEventListener(rewardedAdListener)
-                    show(activity)
-                }
-            }
+            return
+        }
+        setRewardedAdAvailability(false)
+
+        // The shown ad reports to its own listener, a load while it's shown uses a new one
+        val showListener = YandexRewardedListener(trackedListener, WeakReference(this), adSlot.generation)
+        MainThreadScheduler.post {
+            ad.setAdEventListener(showListener)
+            ad.show(activity)
         }
     }
 
     override fun isAdAvailable(adData: AdData): Boolean {
-        return rewardedAd != null && isAdAvailableFlag
+        return adSlot.ad != null && isAdAvailableFlag
     }
 
     override fun destroyAd(adData: AdData) {
         IronLog.ADAPTER_API.verbose()
-        rewardedAd?.setAdEventListener(null)
-        rewardedAd = null
+        // Captured on entry, a load which starts after the destroy keeps its ad
+        val generation = adSlot.generation
+        // A load still running is cancelled, its ad is dropped once it arrives
+        adSlot.clear(generation)?.let {
+            it.setAdEventListener(null)
+            leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, it)
+        }
+        adSlot.finishShow()?.let {
+            it.setAdEventListener(null)
+            leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.AD, it)
+        }
+        leakTracker.watch(LatencyMetrics.AdFormat.REWARDED, LeakTracker.ObjectType.LISTENER, rewardedAdListener)
         rewardedAdListener = null
+        isAdAvailableFlag = false
     }
 
     override fun collectBiddingData(
@@ -118,17 +144,18 @@ class YandexRewardedAdapter(networkSettings: NetworkSettings) :
         context: Context,
         biddingDataCallback: BiddingDataCallback
     ) {
+        val trackedCallback = latencyTracker.trackToken(biddingDataCallback)
         IronLog.ADAPTER_API.verbose()
 
         val networkAdapter = getNetworkAdapter()
         if (networkAdapter == null) {
-            biddingDataCallback.onFailure(YandexConstants.Logs.ADAPTER_UNAVAILABLE)
+            trackedCallback.onFailure(YandexConstants.Logs.ADAPTER_UNAVAILABLE)
             return
         }
 
         val bidderTokenRequest = BidderTokenRequest.rewarded(null, networkAdapter.getConfigParams())
 
-        networkAdapter.collectBiddingData(context, biddingDataCallback, bidderTokenRequest)
+        networkAdapter.collectBiddingData(context, trackedCallback, bidderTokenRequest, "rewarded")
     }
 
     // endregion
@@ -139,8 +166,19 @@ class YandexRewardedAdapter(networkSettings: NetworkSettings) :
         isAdAvailableFlag = isAvailable
     }
 
-    internal fun setRewardedAd(ad: RewardedAd) {
-        rewardedAd = ad
+    /**
+     * @return false if the ad was destroyed or loaded again while the ad was loading, the ad is
+     * dropped then
+     */
+    internal fun setRewardedAd(generation: Long, ad: RewardedAd): Boolean =
+        adSlot.set(generation, ad)
+
+    internal fun isCurrentLoad(generation: Long): Boolean =
+        adSlot.isCurrent(generation)
+
+    // Releases the shown ad once it's closed or failed to show, an ad loaded meanwhile is kept
+    internal fun onShowFinished() {
+        adSlot.finishShow()?.setAdEventListener(null)
     }
 
     // endregion
@@ -1,5 +1,6 @@
 package com.ironsource.adapters.yandex.rewarded
 
+import com.ironsource.adapters.common.verbose
 import com.ironsource.adapters.yandex.YandexAdapter
 import com.ironsource.adapters.yandex.YandexConstants
 import com.ironsource.mediationsdk.adunit.adapter.listener.RewardedVideoAdListener
@@ -16,7 +17,9 @@ import java.lang.ref.WeakReference
 
 class YandexRewardedListener(
     private val listener: RewardedVideoAdListener,
-    private val adapter: WeakReference<YandexRewardedAdapter>
+    private val adapter: WeakReference<YandexRewardedAdapter>,
+    // Generation of the load in the adapter's ad slot
+    private val generation: Long
 ) : RewardedAdLoadListener, RewardedAdEventListener {
 
     /**
@@ -24,7 +27,9 @@ class YandexRewardedListener(
      * @param rewarded - Ad instance
      */
     override fun onAdLoaded(rewarded: RewardedAd) {
-        adapter.get()?.setRewardedAd(rewarded)
+        if (adapter.get()?.setRewardedAd(generation, rewarded) == false) {
+            return
+        }
         adapter.get()?.setRewardedAdAvailability(true)
 
         // Extract creative IDs and pass as extra data if available
@@ -32,7 +37,7 @@ class YandexRewardedListener(
             ?.map { it.creativeId }
             ?.let { YandexAdapter.buildCreativeIdString(it) }
             ?: ""
-        IronLog.ADAPTER_CALLBACK.verbose(YandexConstants.Logs.CREATIVE_ID.format(creativeId))
+        IronLog.ADAPTER_CALLBACK.verbose { YandexConstants.Logs.CREATIVE_ID.format(creativeId) }
 
         if (creativeId.isEmpty()) {
             listener.onAdLoadSuccess()
@@ -48,6 +53,9 @@ class YandexRewardedListener(
      */
     override fun onAdFailedToLoad(error: AdRequestError) {
         IronLog.ADAPTER_CALLBACK.error(YandexConstants.Logs.FAILED_TO_LOAD.format(error.code, error.description))
+        if (adapter.get()?.isCurrentLoad(generation) == false) {
+            return
+        }
         adapter.get()?.setRewardedAdAvailability(false)
         listener.onAdLoadFailed(YandexAdapter.getLoadError(error), error.code, error.description)
     }
@@ -74,6 +82,7 @@ class YandexRewardedListener(
      */
     override fun onAdFailedToShow(adError: AdError) {
         IronLog.ADAPTER_CALLBACK.error(YandexConstants.Logs.FAILED_TO_SHOW.format(adError.description))
+        adapter.get()?.onShowFinished()
         listener.onAdShowFailed(AdapterErrors.ADAPTER_ERROR_INTERNAL, adError.description)
     }
 
@@ -100,5 +109,6 @@ class YandexRewardedListener(
     override fun onAdDismissed() {
         IronLog.ADAPTER_CALLBACK.verbose()
         listener.onAdClosed()
+        adapter.get()?.onShowFinished()
     }
 }